@@ -36,4 +36,25 @@ public interface Result {
     Set<String> probeNames();
 
     String toHumanString(String probeName);
+
+    /**
+     * Returns if a steady state has been detected for the test, which excludes its warmup.
+     *
+     * @return {@code true} if the steady-state values are available, {@code false} otherwise
+     */
+    boolean hasSteadyState();
+
+    void setSteadyState(long warmupMillis, long invocations, double throughput);
+
+    long getWarmupMillis();
+
+    long getSteadyStateInvocations();
+
+    double getSteadyStateThroughput();
+
+    void addSteadyStateHistogram(String probeName, Histogram histogram);
+
+    Histogram getSteadyStateHistogram(String probeName);
+
+    String toHumanSteadyStateString(String probeName);
 }
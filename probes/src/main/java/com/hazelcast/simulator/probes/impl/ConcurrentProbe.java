@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.probes.impl;
+
+import com.hazelcast.simulator.probes.Probe;
+import org.HdrHistogram.Histogram;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.LATENCY_PRECISION;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.MAXIMUM_LATENCY;
+
+/**
+ * Measures the latency distribution of a test, which is shared by multiple threads.
+ *
+ * Each recording thread gets its own {@link ThreadProbe}, so there is no boxing of the start timestamp and no contention on a
+ * shared recorder. The interval histograms of all {@link ThreadProbe} instances are merged in {@link #getIntervalHistogram()}.
+ *
+ * Threads which are owned by a test, e.g. the worker threads spawned by the TestContainer, can use a dedicated stripe from
+ * {@link #createThreadProbe()} to skip the {@link ThreadLocal} lookup.
+ */
+public class ConcurrentProbe implements Probe {
+
+    private final List<ThreadProbe> threadProbes = new CopyOnWriteArrayList<ThreadProbe>();
+    private final ThreadLocal<ThreadProbe> threadLocalProbe = new ThreadLocal<ThreadProbe>() {
+        @Override
+        protected ThreadProbe initialValue() {
+            return createThreadProbe();
+        }
+    };
+
+    private final boolean isThroughputProbe;
+
+    private long lastIntervalTimestamp = System.currentTimeMillis();
+
+    public ConcurrentProbe(boolean isThroughputProbe) {
+        this.isThroughputProbe = isThroughputProbe;
+    }
+
+    @Override
+    public boolean isThroughputProbe() {
+        return isThroughputProbe;
+    }
+
+    @Override
+    public void started() {
+        threadLocalProbe.get().started();
+    }
+
+    @Override
+    public void done() {
+        threadLocalProbe.get().done();
+    }
+
+    @Override
+    public void recordValue(long latencyNanos) {
+        threadLocalProbe.get().recordValue(latencyNanos);
+    }
+
+    @Override
+    public synchronized Histogram getIntervalHistogram() {
+        Histogram intervalHistogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+        for (ThreadProbe threadProbe : threadProbes) {
+            threadProbe.addIntervalHistogramTo(intervalHistogram);
+        }
+
+        long now = System.currentTimeMillis();
+        intervalHistogram.setStartTimeStamp(lastIntervalTimestamp);
+        intervalHistogram.setEndTimeStamp(now);
+        lastIntervalTimestamp = now;
+
+        return intervalHistogram;
+    }
+
+    /**
+     * Creates a new stripe of this probe, which must only be used by a single thread.
+     *
+     * The recorded values of the returned {@link ThreadProbe} are included in {@link #getIntervalHistogram()} of this probe.
+     * Don't call {@link ThreadProbe#getIntervalHistogram()} on the stripe directly, since this would reset its values.
+     *
+     * @return a {@link ThreadProbe} for the exclusive use by the calling thread
+     */
+    public ThreadProbe createThreadProbe() {
+        ThreadProbe threadProbe = new ThreadProbe(isThroughputProbe);
+        threadProbes.add(threadProbe);
+        return threadProbe;
+    }
+
+    int getThreadProbeCount() {
+        return threadProbes.size();
+    }
+}
@@ -34,12 +34,19 @@ public class ResultImpl implements Result {
 
     private final Map<String, Histogram> probeHistogramMap;
 
+    // the steady-state fields are not set in results of older versions, so they can be null after the XML deserialization
+    private Map<String, Histogram> steadyStateHistogramMap;
+    private Long warmupMillis;
+    private long steadyStateInvocations;
+    private double steadyStateThroughput;
+
     public ResultImpl(String testName, long invocations, double throughput) {
         this.testName = testName;
         this.invocations = invocations;
         this.throughput = throughput;
 
         this.probeHistogramMap = new HashMap<String, Histogram>();
+        this.steadyStateHistogramMap = new HashMap<String, Histogram>();
     }
 
     @Override
@@ -89,7 +96,65 @@ public class ResultImpl implements Result {
 
     @Override
     public String toHumanString(String probeName) {
-        Histogram histogram = probeHistogramMap.get(probeName);
+        return toPercentileDistribution(probeHistogramMap.get(probeName));
+    }
+
+    @Override
+    public boolean hasSteadyState() {
+        return warmupMillis != null;
+    }
+
+    @Override
+    public void setSteadyState(long warmupMillis, long invocations, double throughput) {
+        this.warmupMillis = warmupMillis;
+        this.steadyStateInvocations = invocations;
+        this.steadyStateThroughput = throughput;
+    }
+
+    @Override
+    public long getWarmupMillis() {
+        return (warmupMillis == null) ? 0 : warmupMillis;
+    }
+
+    @Override
+    public long getSteadyStateInvocations() {
+        return steadyStateInvocations;
+    }
+
+    @Override
+    public double getSteadyStateThroughput() {
+        return steadyStateThroughput;
+    }
+
+    @Override
+    public void addSteadyStateHistogram(String probeName, Histogram histogram) {
+        if (histogram == null) {
+            return;
+        }
+        if (steadyStateHistogramMap == null) {
+            steadyStateHistogramMap = new HashMap<String, Histogram>();
+        }
+
+        Histogram candidate = steadyStateHistogramMap.get(probeName);
+        if (candidate == null) {
+            steadyStateHistogramMap.put(probeName, histogram);
+            return;
+        }
+
+        candidate.add(histogram);
+    }
+
+    @Override
+    public Histogram getSteadyStateHistogram(String probeName) {
+        return (steadyStateHistogramMap == null) ? null : steadyStateHistogramMap.get(probeName);
+    }
+
+    @Override
+    public String toHumanSteadyStateString(String probeName) {
+        return toPercentileDistribution(getSteadyStateHistogram(probeName));
+    }
+
+    private static String toPercentileDistribution(Histogram histogram) {
         if (histogram == null) {
             return null;
         }
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.probes.impl;
+
+import com.hazelcast.simulator.probes.Probe;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.SingleWriterRecorder;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.LATENCY_PRECISION;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.MAXIMUM_LATENCY;
+
+/**
+ * Measures the latency distribution of a single thread.
+ *
+ * The start timestamp is stored in a primitive field and the values are recorded into a {@link SingleWriterRecorder}, so the
+ * recording path doesn't allocate any objects. Only a single thread is allowed to record values, but the interval histograms
+ * can be retrieved by any other thread.
+ *
+ * A {@link ThreadProbe} can be used as a stripe of a {@link ConcurrentProbe}, see {@link ConcurrentProbe#createThreadProbe()}.
+ */
+public class ThreadProbe implements Probe {
+
+    private final SingleWriterRecorder recorder = new SingleWriterRecorder(MAXIMUM_LATENCY, LATENCY_PRECISION);
+
+    private final boolean isThroughputProbe;
+
+    private long startedNanos;
+    private boolean isStarted;
+
+    private Histogram intervalHistogram;
+
+    public ThreadProbe(boolean isThroughputProbe) {
+        this.isThroughputProbe = isThroughputProbe;
+    }
+
+    @Override
+    public boolean isThroughputProbe() {
+        return isThroughputProbe;
+    }
+
+    @Override
+    public void started() {
+        startedNanos = System.nanoTime();
+        isStarted = true;
+    }
+
+    @Override
+    public void done() {
+        long now = System.nanoTime();
+        if (!isStarted) {
+            throw new IllegalStateException("You have to call started() before done()");
+        }
+        recordValue(now - startedNanos);
+    }
+
+    @Override
+    public void recordValue(long latencyNanos) {
+        long latencyMicros = TimeUnit.NANOSECONDS.toMicros(latencyNanos);
+        recorder.recordValue(latencyMicros > MAXIMUM_LATENCY ? MAXIMUM_LATENCY : (latencyMicros < 0 ? 0 : latencyMicros));
+    }
+
+    @Override
+    public Histogram getIntervalHistogram() {
+        return recorder.getIntervalHistogram();
+    }
+
+    /**
+     * Adds the latency values accumulated since the last interval histogram was taken to the given {@link Histogram}.
+     *
+     * The interval histogram of this probe is recycled, so this method doesn't allocate a new {@link Histogram} on each call.
+     * It must not be called concurrently with {@link #getIntervalHistogram()} or itself.
+     *
+     * @param target the {@link Histogram} to add the interval histogram to
+     */
+    void addIntervalHistogramTo(Histogram target) {
+        intervalHistogram = recorder.getIntervalHistogram(intervalHistogram);
+        target.add(intervalHistogram);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.probes.store;
+
+import com.hazelcast.simulator.utils.FileUtilsException;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
+
+/**
+ * Exports the interval histograms of an interval store to the text based HdrHistogram log format.
+ *
+ * The exported files can be processed with the regular HdrHistogram tools, e.g. the HistogramLogProcessor.
+ */
+public final class HistogramLogExporter {
+
+    private HistogramLogExporter() {
+    }
+
+    /**
+     * Exports the interval histograms of all probes to a log file per probe.
+     *
+     * The log files are named {@code latency-<testId>-<probeName>.txt} like the former worker latency files.
+     *
+     * @param dataFile        the data file of the interval store
+     * @param testId          the testId of the test
+     * @param targetDirectory the directory to write the log files to
+     */
+    public static void exportHistogramLogs(File dataFile, String testId, File targetDirectory) {
+        IntervalStoreReader reader = new IntervalStoreReader(dataFile);
+        try {
+            for (String probeName : reader.getProbeNames()) {
+                File targetFile = new File(targetDirectory, "latency-" + testId + '-' + probeName + ".txt");
+                exportHistogramLog(reader, testId, probeName, targetFile);
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Exports the interval histograms of a single probe to a log file.
+     *
+     * @param reader     the {@link IntervalStoreReader} of the interval store
+     * @param testId     the testId of the test
+     * @param probeName  the name of the probe
+     * @param targetFile the log file to write
+     */
+    public static void exportHistogramLog(IntervalStoreReader reader, String testId, String probeName, File targetFile) {
+        PrintStream printStream = null;
+        try {
+            printStream = new PrintStream(targetFile, "UTF-8");
+            HistogramLogWriter histogramLogWriter = new HistogramLogWriter(printStream);
+            histogramLogWriter.setBaseTime(reader.getBaseTime());
+            histogramLogWriter.outputComment("[Latency histograms for " + testId + '.' + probeName + ']');
+            histogramLogWriter.outputLogFormatVersion();
+            histogramLogWriter.outputLegend();
+
+            int histogramCount = reader.getHistogramCount(probeName);
+            for (int i = 0; i < histogramCount; i++) {
+                Histogram histogram = reader.getHistogram(probeName, i);
+                histogramLogWriter.outputIntervalHistogram(histogram);
+            }
+        } catch (IOException e) {
+            throw new FileUtilsException("Could not export histogram log " + targetFile.getAbsolutePath(), e);
+        } finally {
+            closeQuietly(printStream);
+        }
+    }
+}
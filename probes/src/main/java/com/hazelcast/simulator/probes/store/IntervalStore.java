@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.probes.store;
+
+import java.io.File;
+
+/**
+ * Defines the binary file format of an interval store, which contains the latency histograms and throughput samples of a test.
+ *
+ * An interval store consists of a data file and an index file. Both files start with a header of {@value #HEADER_SIZE} bytes
+ * and are written append-only via memory-mapped regions. The data file contains the records, which are the probe names, the
+ * compressed interval histograms and the throughput samples. A record never spans two regions of the data file. The index
+ * file contains an entry of {@value #INDEX_ENTRY_SIZE} bytes per record with its offset, length, type, probe id and timestamps,
+ * which allows random access to all records without parsing the data file.
+ */
+@SuppressWarnings("checkstyle:magicnumber")
+public final class IntervalStore {
+
+    public static final String DATA_FILE_SUFFIX = ".hdrs";
+    public static final String INDEX_FILE_SUFFIX = ".hdri";
+
+    static final int DATA_MAGIC = 0x48445253;
+    static final int INDEX_MAGIC = 0x48445249;
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 32;
+    static final int INDEX_ENTRY_SIZE = 32;
+
+    static final int ENTRY_LENGTH_OFFSET = 8;
+    static final int ENTRY_TYPE_OFFSET = 12;
+    static final int ENTRY_PROBE_ID_OFFSET = 14;
+    static final int ENTRY_START_TIMESTAMP_OFFSET = 16;
+    static final int ENTRY_END_TIMESTAMP_OFFSET = 24;
+
+    static final int DATA_REGION_SIZE = 16 * 1024 * 1024;
+    static final int INDEX_REGION_SIZE = INDEX_ENTRY_SIZE * 32 * 1024;
+
+    static final short TYPE_EMPTY = 0;
+    static final short TYPE_PROBE_NAME = 1;
+    static final short TYPE_HISTOGRAM = 2;
+    static final short TYPE_THROUGHPUT = 3;
+
+    static final int THROUGHPUT_RECORD_SIZE = 24;
+
+    private IntervalStore() {
+    }
+
+    /**
+     * Returns the data file of an interval store for a test.
+     *
+     * @param directory the directory of the interval store
+     * @param testId    the testId of the test
+     * @return the data file of the interval store
+     */
+    public static File getDataFile(File directory, String testId) {
+        return new File(directory, "latency-" + testId + DATA_FILE_SUFFIX);
+    }
+
+    /**
+     * Returns the index file which belongs to the data file of an interval store.
+     *
+     * @param dataFile the data file of the interval store
+     * @return the index file of the interval store
+     */
+    public static File getIndexFile(File dataFile) {
+        String name = dataFile.getName();
+        if (name.endsWith(DATA_FILE_SUFFIX)) {
+            name = name.substring(0, name.length() - DATA_FILE_SUFFIX.length());
+        }
+        return new File(dataFile.getParentFile(), name + INDEX_FILE_SUFFIX);
+    }
+}
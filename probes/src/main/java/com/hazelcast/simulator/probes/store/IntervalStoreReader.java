@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.probes.store;
+
+import com.hazelcast.simulator.utils.FileUtilsException;
+import org.HdrHistogram.Histogram;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+
+import static com.hazelcast.simulator.probes.store.IntervalStore.DATA_MAGIC;
+import static com.hazelcast.simulator.probes.store.IntervalStore.ENTRY_END_TIMESTAMP_OFFSET;
+import static com.hazelcast.simulator.probes.store.IntervalStore.ENTRY_LENGTH_OFFSET;
+import static com.hazelcast.simulator.probes.store.IntervalStore.ENTRY_PROBE_ID_OFFSET;
+import static com.hazelcast.simulator.probes.store.IntervalStore.ENTRY_START_TIMESTAMP_OFFSET;
+import static com.hazelcast.simulator.probes.store.IntervalStore.ENTRY_TYPE_OFFSET;
+import static com.hazelcast.simulator.probes.store.IntervalStore.HEADER_SIZE;
+import static com.hazelcast.simulator.probes.store.IntervalStore.INDEX_ENTRY_SIZE;
+import static com.hazelcast.simulator.probes.store.IntervalStore.INDEX_MAGIC;
+import static com.hazelcast.simulator.probes.store.IntervalStore.TYPE_EMPTY;
+import static com.hazelcast.simulator.probes.store.IntervalStore.TYPE_HISTOGRAM;
+import static com.hazelcast.simulator.probes.store.IntervalStore.TYPE_PROBE_NAME;
+import static com.hazelcast.simulator.probes.store.IntervalStore.TYPE_THROUGHPUT;
+import static com.hazelcast.simulator.probes.store.IntervalStore.VERSION;
+import static com.hazelcast.simulator.probes.store.IntervalStore.getIndexFile;
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
+import static java.lang.String.format;
+
+/**
+ * Reads latency histograms and throughput samples from an interval store, which was written by an {@link IntervalStoreWriter}.
+ *
+ * The index is loaded on creation, so each interval histogram can be read by its index or timestamp without reading the
+ * preceding records. The regions of the data file are memory-mapped on demand.
+ *
+ * This class is not thread-safe.
+ */
+public class IntervalStoreReader implements Closeable {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final Map<String, List<Integer>> probeEntryMap = new LinkedHashMap<String, List<Integer>>();
+    private final List<Integer> throughputEntries = new ArrayList<Integer>();
+
+    private final File dataFile;
+    private final RandomAccessFile data;
+    private final FileChannel dataChannel;
+    private final ByteBuffer index;
+
+    private final long baseTime;
+    private final int regionSize;
+
+    private MappedByteBuffer region;
+    private long regionIndex = -1;
+
+    public IntervalStoreReader(File dataFile) {
+        this.dataFile = dataFile;
+
+        RandomAccessFile dataRandomAccessFile = null;
+        try {
+            dataRandomAccessFile = new RandomAccessFile(dataFile, "r");
+            this.data = dataRandomAccessFile;
+            this.dataChannel = data.getChannel();
+            this.index = mapIndex(getIndexFile(dataFile));
+
+            ByteBuffer header = dataChannel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            checkHeader(header, DATA_MAGIC);
+            this.regionSize = header.getInt();
+            header.getInt();
+            this.baseTime = header.getLong();
+        } catch (IOException e) {
+            closeQuietly(dataRandomAccessFile);
+            throw new FileUtilsException("Could not open interval store " + dataFile.getAbsolutePath(), e);
+        }
+        readIndex();
+    }
+
+    public long getBaseTime() {
+        return baseTime;
+    }
+
+    /**
+     * Returns the names of all probes in this interval store, in the order of their first interval histogram.
+     *
+     * @return a {@link Set} of probe names
+     */
+    public Set<String> getProbeNames() {
+        return probeEntryMap.keySet();
+    }
+
+    public int getHistogramCount(String probeName) {
+        List<Integer> entries = probeEntryMap.get(probeName);
+        return (entries == null) ? 0 : entries.size();
+    }
+
+    /**
+     * Reads a single interval histogram of a probe.
+     *
+     * @param probeName     the name of the probe
+     * @param intervalIndex the index of the interval histogram of the probe
+     * @return the interval histogram with its start and end timestamps
+     */
+    public Histogram getHistogram(String probeName, int intervalIndex) {
+        List<Integer> entries = probeEntryMap.get(probeName);
+        if (entries == null || intervalIndex < 0 || intervalIndex >= entries.size()) {
+            throw new IndexOutOfBoundsException(format("No interval %d found for probe %s", intervalIndex, probeName));
+        }
+        return readHistogram(entries.get(intervalIndex));
+    }
+
+    /**
+     * Finds the first interval histogram of a probe, which ends at or after the given timestamp.
+     *
+     * @param probeName the name of the probe
+     * @param timestamp the timestamp in milliseconds
+     * @return the index of the interval histogram or {@link #getHistogramCount(String)} if there is no such interval
+     */
+    public int getHistogramIndex(String probeName, long timestamp) {
+        List<Integer> entries = probeEntryMap.get(probeName);
+        if (entries == null) {
+            return 0;
+        }
+        int low = 0;
+        int high = entries.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (getEndTimestamp(entries.get(middle)) < timestamp) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    public List<Histogram> getHistograms(String probeName) {
+        List<Integer> entries = probeEntryMap.get(probeName);
+        if (entries == null) {
+            return new ArrayList<Histogram>(0);
+        }
+        List<Histogram> histograms = new ArrayList<Histogram>(entries.size());
+        for (Integer entry : entries) {
+            histograms.add(readHistogram(entry));
+        }
+        return histograms;
+    }
+
+    public List<ThroughputSample> getThroughputSamples() {
+        List<ThroughputSample> samples = new ArrayList<ThroughputSample>(throughputEntries.size());
+        for (Integer entry : throughputEntries) {
+            ByteBuffer buffer = readRecord(entry);
+            samples.add(new ThroughputSample(getStartTimestamp(entry), buffer.getLong(), buffer.getLong(), buffer.getDouble()));
+        }
+        return samples;
+    }
+
+    @Override
+    public void close() {
+        region = null;
+        closeQuietly(data);
+    }
+
+    private void readIndex() {
+        Map<Short, String> probeNames = new LinkedHashMap<Short, String>();
+        int maxEntryCount = (index.capacity() - HEADER_SIZE) / INDEX_ENTRY_SIZE;
+        for (int entry = 0; entry < maxEntryCount; entry++) {
+            short type = index.getShort(getEntryPosition(entry) + ENTRY_TYPE_OFFSET);
+            short probeId = index.getShort(getEntryPosition(entry) + ENTRY_PROBE_ID_OFFSET);
+            if (type == TYPE_EMPTY) {
+                // the interval store has not been closed properly
+                break;
+            } else if (type == TYPE_PROBE_NAME) {
+                ByteBuffer buffer = readRecord(entry);
+                byte[] nameBytes = new byte[buffer.remaining()];
+                buffer.get(nameBytes);
+                probeNames.put(probeId, new String(nameBytes, UTF_8));
+            } else if (type == TYPE_HISTOGRAM) {
+                getOrCreateEntryList(probeNames.get(probeId)).add(entry);
+            } else if (type == TYPE_THROUGHPUT) {
+                throughputEntries.add(entry);
+            }
+        }
+    }
+
+    private List<Integer> getOrCreateEntryList(String probeName) {
+        List<Integer> entries = probeEntryMap.get(probeName);
+        if (entries == null) {
+            entries = new ArrayList<Integer>();
+            probeEntryMap.put(probeName, entries);
+        }
+        return entries;
+    }
+
+    private Histogram readHistogram(int entry) {
+        ByteBuffer buffer = readRecord(entry);
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        try {
+            Histogram histogram = Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(bytes), 0);
+            histogram.setStartTimeStamp(getStartTimestamp(entry));
+            histogram.setEndTimeStamp(getEndTimestamp(entry));
+            return histogram;
+        } catch (DataFormatException e) {
+            throw new FileUtilsException("Could not decode histogram from interval store " + dataFile.getAbsolutePath(), e);
+        }
+    }
+
+    private ByteBuffer readRecord(int entry) {
+        int entryPosition = getEntryPosition(entry);
+        long offset = index.getLong(entryPosition);
+        int length = index.getInt(entryPosition + ENTRY_LENGTH_OFFSET);
+
+        long recordRegionIndex = offset / regionSize;
+        if (recordRegionIndex != regionIndex) {
+            mapRegion(recordRegionIndex);
+        }
+
+        ByteBuffer buffer = region.duplicate();
+        int position = (int) (offset - recordRegionIndex * regionSize);
+        buffer.limit(position + length);
+        buffer.position(position);
+        return buffer.slice();
+    }
+
+    private void mapRegion(long newRegionIndex) {
+        try {
+            long start = newRegionIndex * regionSize;
+            long size = Math.min(regionSize, dataChannel.size() - start);
+            region = dataChannel.map(FileChannel.MapMode.READ_ONLY, start, size);
+            regionIndex = newRegionIndex;
+        } catch (IOException e) {
+            throw new FileUtilsException("Could not read from interval store " + dataFile.getAbsolutePath(), e);
+        }
+    }
+
+    private long getStartTimestamp(int entry) {
+        return index.getLong(getEntryPosition(entry) + ENTRY_START_TIMESTAMP_OFFSET);
+    }
+
+    private long getEndTimestamp(int entry) {
+        return index.getLong(getEntryPosition(entry) + ENTRY_END_TIMESTAMP_OFFSET);
+    }
+
+    private static int getEntryPosition(int entry) {
+        return HEADER_SIZE + entry * INDEX_ENTRY_SIZE;
+    }
+
+    private static ByteBuffer mapIndex(File indexFile) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(indexFile, "r");
+        try {
+            ByteBuffer index = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+            checkHeader(index.duplicate(), INDEX_MAGIC);
+            return index;
+        } finally {
+            closeQuietly(file);
+        }
+    }
+
+    private static void checkHeader(ByteBuffer header, int expectedMagic) throws IOException {
+        if (header.capacity() < HEADER_SIZE || header.getInt() != expectedMagic) {
+            throw new IOException("Invalid magic bytes in interval store");
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException(format("Unsupported interval store version %d", version));
+        }
+    }
+}
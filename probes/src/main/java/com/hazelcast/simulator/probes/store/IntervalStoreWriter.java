@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.probes.store;
+
+import com.hazelcast.simulator.utils.FileUtilsException;
+import org.HdrHistogram.Histogram;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+import static com.hazelcast.simulator.probes.store.IntervalStore.DATA_MAGIC;
+import static com.hazelcast.simulator.probes.store.IntervalStore.DATA_REGION_SIZE;
+import static com.hazelcast.simulator.probes.store.IntervalStore.HEADER_SIZE;
+import static com.hazelcast.simulator.probes.store.IntervalStore.INDEX_ENTRY_SIZE;
+import static com.hazelcast.simulator.probes.store.IntervalStore.INDEX_MAGIC;
+import static com.hazelcast.simulator.probes.store.IntervalStore.INDEX_REGION_SIZE;
+import static com.hazelcast.simulator.probes.store.IntervalStore.THROUGHPUT_RECORD_SIZE;
+import static com.hazelcast.simulator.probes.store.IntervalStore.TYPE_HISTOGRAM;
+import static com.hazelcast.simulator.probes.store.IntervalStore.TYPE_PROBE_NAME;
+import static com.hazelcast.simulator.probes.store.IntervalStore.TYPE_THROUGHPUT;
+import static com.hazelcast.simulator.probes.store.IntervalStore.VERSION;
+import static com.hazelcast.simulator.probes.store.IntervalStore.getIndexFile;
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
+
+/**
+ * Writes latency histograms and throughput samples to an append-only, memory-mapped interval store.
+ *
+ * The written records are visible to an {@link IntervalStoreReader} in the same process immediately. They are persisted on
+ * {@link #flush()} and {@link #close()} or by the operating system.
+ *
+ * This class is not thread-safe, it's intended to be used by a single monitor thread.
+ */
+public class IntervalStoreWriter implements Closeable {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final short NO_PROBE_ID = -1;
+
+    private final Map<String, Short> probeIds = new HashMap<String, Short>();
+
+    private final File dataFile;
+    private final MappedFileAppender data;
+    private final MappedFileAppender index;
+
+    private ByteBuffer histogramBuffer;
+
+    public IntervalStoreWriter(File dataFile, long baseTime) {
+        this.dataFile = dataFile;
+
+        MappedFileAppender dataAppender = null;
+        MappedFileAppender indexAppender = null;
+        try {
+            dataAppender = new MappedFileAppender(dataFile, DATA_REGION_SIZE);
+            indexAppender = new MappedFileAppender(getIndexFile(dataFile), INDEX_REGION_SIZE);
+
+            writeHeader(dataAppender, DATA_MAGIC, DATA_REGION_SIZE, baseTime);
+            writeHeader(indexAppender, INDEX_MAGIC, INDEX_REGION_SIZE, baseTime);
+        } catch (IOException e) {
+            closeQuietly(dataAppender);
+            closeQuietly(indexAppender);
+            throw new FileUtilsException("Could not create interval store " + dataFile.getAbsolutePath(), e);
+        }
+        this.data = dataAppender;
+        this.index = indexAppender;
+    }
+
+    /**
+     * Appends an interval histogram of a probe.
+     *
+     * The start and end timestamps of the {@link Histogram} are stored in the index.
+     *
+     * @param probeName the name of the probe
+     * @param histogram the interval histogram
+     */
+    public void writeHistogram(String probeName, Histogram histogram) {
+        short probeId = getOrCreateProbeId(probeName);
+
+        int neededCapacity = histogram.getNeededByteBufferCapacity();
+        if (histogramBuffer == null || histogramBuffer.capacity() < neededCapacity) {
+            histogramBuffer = ByteBuffer.allocate(neededCapacity);
+        }
+        histogramBuffer.clear();
+        int length = histogram.encodeIntoCompressedByteBuffer(histogramBuffer, Deflater.DEFAULT_COMPRESSION);
+
+        writeRecord(TYPE_HISTOGRAM, probeId, histogram.getStartTimeStamp(), histogram.getEndTimeStamp(),
+                histogramBuffer.array(), length);
+    }
+
+    /**
+     * Appends a throughput sample.
+     *
+     * @param timestamp              the timestamp of the sample
+     * @param totalOperationCount    the number of operations since the start of the test
+     * @param intervalOperationCount the number of operations in the last interval
+     * @param intervalThroughput     the throughput of the last interval in operations per second
+     */
+    public void writeThroughput(long timestamp, long totalOperationCount, long intervalOperationCount,
+                                double intervalThroughput) {
+        try {
+            ByteBuffer buffer = data.reserve(THROUGHPUT_RECORD_SIZE);
+            long offset = data.position();
+            buffer.putLong(totalOperationCount);
+            buffer.putLong(intervalOperationCount);
+            buffer.putDouble(intervalThroughput);
+
+            writeIndexEntry(offset, THROUGHPUT_RECORD_SIZE, TYPE_THROUGHPUT, NO_PROBE_ID, timestamp, timestamp);
+        } catch (IOException e) {
+            throw new FileUtilsException("Could not write to interval store " + dataFile.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Forces the written records to the storage device.
+     */
+    public void flush() {
+        data.force();
+        index.force();
+    }
+
+    @Override
+    public void close() {
+        try {
+            data.close();
+            index.close();
+        } catch (IOException e) {
+            throw new FileUtilsException("Could not close interval store " + dataFile.getAbsolutePath(), e);
+        }
+    }
+
+    private short getOrCreateProbeId(String probeName) {
+        Short probeId = probeIds.get(probeName);
+        if (probeId != null) {
+            return probeId;
+        }
+        if (probeIds.size() == Short.MAX_VALUE) {
+            throw new IllegalStateException("Maximum number of probes reached in interval store " + dataFile.getAbsolutePath());
+        }
+
+        short newProbeId = (short) probeIds.size();
+        byte[] nameBytes = probeName.getBytes(UTF_8);
+        writeRecord(TYPE_PROBE_NAME, newProbeId, 0, 0, nameBytes, nameBytes.length);
+        probeIds.put(probeName, newProbeId);
+        return newProbeId;
+    }
+
+    private void writeRecord(short type, short probeId, long startTimestamp, long endTimestamp, byte[] bytes, int length) {
+        try {
+            ByteBuffer buffer = data.reserve(length);
+            long offset = data.position();
+            buffer.put(bytes, 0, length);
+
+            writeIndexEntry(offset, length, type, probeId, startTimestamp, endTimestamp);
+        } catch (IOException e) {
+            throw new FileUtilsException("Could not write to interval store " + dataFile.getAbsolutePath(), e);
+        }
+    }
+
+    private void writeIndexEntry(long offset, int length, short type, short probeId, long startTimestamp, long endTimestamp)
+            throws IOException {
+        ByteBuffer buffer = index.reserve(INDEX_ENTRY_SIZE);
+        buffer.putLong(offset);
+        buffer.putInt(length);
+        buffer.putShort(type);
+        buffer.putShort(probeId);
+        buffer.putLong(startTimestamp);
+        buffer.putLong(endTimestamp);
+    }
+
+    private static void writeHeader(MappedFileAppender appender, int magic, int regionSize, long baseTime) throws IOException {
+        ByteBuffer buffer = appender.reserve(HEADER_SIZE);
+        buffer.putInt(magic);
+        buffer.putInt(VERSION);
+        buffer.putInt(regionSize);
+        buffer.putInt(0);
+        buffer.putLong(baseTime);
+        buffer.putLong(0);
+    }
+}
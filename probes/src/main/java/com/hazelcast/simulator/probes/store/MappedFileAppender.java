@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.probes.store;
+
+import com.hazelcast.simulator.utils.EmptyStatement;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static java.lang.String.format;
+
+/**
+ * Appends data to a file via memory-mapped regions of a fixed size.
+ *
+ * The data of a single {@link #reserve(int)} call never spans two regions, so the remaining bytes of a region are skipped if
+ * they are not sufficient. The file is truncated to the written data on {@link #close()}.
+ */
+final class MappedFileAppender implements Closeable {
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final int regionSize;
+
+    private MappedByteBuffer region;
+    private long regionStart;
+
+    MappedFileAppender(File file, int regionSize) throws IOException {
+        this.file = new RandomAccessFile(file, "rw");
+        this.file.setLength(0);
+        this.channel = this.file.getChannel();
+        this.regionSize = regionSize;
+
+        mapRegion(0);
+    }
+
+    long position() {
+        return regionStart + region.position();
+    }
+
+    /**
+     * Returns a {@link ByteBuffer} with at least the given number of remaining bytes, to which the data is written directly.
+     *
+     * @param length the number of bytes which will be written
+     * @return the {@link ByteBuffer} of the current region
+     * @throws IOException if the next region could not be mapped
+     */
+    ByteBuffer reserve(int length) throws IOException {
+        if (length > regionSize) {
+            throw new IllegalArgumentException(format("Length %d exceeds the region size of %d bytes", length, regionSize));
+        }
+        if (region.remaining() < length) {
+            region.force();
+            mapRegion(regionStart + regionSize);
+        }
+        return region;
+    }
+
+    void force() {
+        region.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (region == null) {
+            return;
+        }
+        long size = position();
+        region.force();
+        region = null;
+        try {
+            channel.truncate(size);
+        } catch (IOException e) {
+            // some platforms don't allow truncating a file with mapped regions, the readers ignore the trailing empty bytes
+            EmptyStatement.ignore(e);
+        }
+        file.close();
+    }
+
+    private void mapRegion(long start) throws IOException {
+        region = channel.map(FileChannel.MapMode.READ_WRITE, start, regionSize);
+        regionStart = start;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.probes.store;
+
+/**
+ * A throughput sample of a test, which is stored in an interval store.
+ */
+public class ThroughputSample {
+
+    private final long timestamp;
+    private final long totalOperationCount;
+    private final long intervalOperationCount;
+    private final double intervalThroughput;
+
+    public ThroughputSample(long timestamp, long totalOperationCount, long intervalOperationCount, double intervalThroughput) {
+        this.timestamp = timestamp;
+        this.totalOperationCount = totalOperationCount;
+        this.intervalOperationCount = intervalOperationCount;
+        this.intervalThroughput = intervalThroughput;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getTotalOperationCount() {
+        return totalOperationCount;
+    }
+
+    public long getIntervalOperationCount() {
+        return intervalOperationCount;
+    }
+
+    public double getIntervalThroughput() {
+        return intervalThroughput;
+    }
+
+    @Override
+    public String toString() {
+        return "ThroughputSample{"
+                + "timestamp=" + timestamp
+                + ", totalOperationCount=" + totalOperationCount
+                + ", intervalOperationCount=" + intervalOperationCount
+                + ", intervalThroughput=" + intervalThroughput
+                + '}';
+    }
+}
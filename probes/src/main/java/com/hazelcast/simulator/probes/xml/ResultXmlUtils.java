@@ -56,6 +56,7 @@ public final class ResultXmlUtils {
         xStream.alias("probeResult", ResultImpl.class);
         xStream.alias("histogram", Histogram.class);
         xStream.aliasField("histograms", ResultImpl.class, "probeHistogramMap");
+        xStream.aliasField("steadyStateHistograms", ResultImpl.class, "steadyStateHistogramMap");
 
         return xStream;
     }
@@ -46,6 +46,15 @@ public final class ProbeTestUtils {
         return result;
     }
 
+    public static Result createProbeResultWithSteadyState(int histogramCount) {
+        Result result = createProbeResult(histogramCount);
+        result.setSteadyState(TOLERANCE_MILLIS, HISTOGRAM_RECORD_COUNT, HISTOGRAM_RECORD_COUNT / 2);
+        for (int i = 1; i <= histogramCount; i++) {
+            result.addSteadyStateHistogram("probe" + i, createRandomHistogram(HISTOGRAM_RECORD_COUNT / 2));
+        }
+        return result;
+    }
+
     public static Histogram createRandomHistogram(int recordCount) {
         Histogram histogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
         for (int record = 0; record < recordCount; record++) {
@@ -72,7 +81,13 @@ public final class ProbeTestUtils {
             Histogram firstHistogram = firstResult.getHistogram(probeName);
             Histogram secondHistogram = secondResult.getHistogram(probeName);
             assertEquals(firstHistogram, secondHistogram);
+            assertEquals(firstResult.getSteadyStateHistogram(probeName), secondResult.getSteadyStateHistogram(probeName));
         }
+
+        assertEquals(firstResult.hasSteadyState(), secondResult.hasSteadyState());
+        assertEquals(firstResult.getWarmupMillis(), secondResult.getWarmupMillis());
+        assertEquals(firstResult.getSteadyStateInvocations(), secondResult.getSteadyStateInvocations());
+        assertEquals(firstResult.getSteadyStateThroughput(), secondResult.getSteadyStateThroughput(), 0.0001);
     }
 
     public static void assertHistogram(Histogram histogram, long expectedCount, long expectedMinValueMillis,
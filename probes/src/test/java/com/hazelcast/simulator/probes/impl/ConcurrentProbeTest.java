@@ -0,0 +1,131 @@
+package com.hazelcast.simulator.probes.impl;
+
+import com.hazelcast.simulator.probes.Probe;
+import org.HdrHistogram.Histogram;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.simulator.probes.ProbeTestUtils.assertHistogram;
+import static com.hazelcast.simulator.utils.CommonUtils.joinThread;
+import static com.hazelcast.simulator.utils.CommonUtils.sleepNanos;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ConcurrentProbeTest {
+
+    private ConcurrentProbe probe = new ConcurrentProbe(false);
+
+    @Test
+    public void testConstructor_throughputProbe() {
+        Probe tmpProbe = new ConcurrentProbe(true);
+        assertTrue(tmpProbe.isThroughputProbe());
+    }
+
+    @Test
+    public void testConstructor_noThroughputProbe() {
+        Probe tmpProbe = new ConcurrentProbe(false);
+        assertFalse(tmpProbe.isThroughputProbe());
+    }
+
+    @Test
+    public void testDone_withStarted() {
+        int expectedCount = 1;
+        long expectedLatency = 150;
+
+        probe.started();
+        sleepNanos(TimeUnit.MILLISECONDS.toNanos(expectedLatency));
+        probe.done();
+
+        assertHistogram(probe.getIntervalHistogram(), expectedCount, expectedLatency, expectedLatency, expectedLatency);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDone_withoutStarted() {
+        probe.done();
+    }
+
+    @Test
+    public void testRecordValues() {
+        int expectedCount = 3;
+        long latencyValue = 500;
+        long expectedMinValue = 200;
+        long expectedMaxValue = 1000;
+        long expectedMeanValue = (long) ((latencyValue + expectedMinValue + expectedMaxValue) / (double) expectedCount);
+
+        probe.recordValue(TimeUnit.MILLISECONDS.toNanos(latencyValue));
+        probe.recordValue(TimeUnit.MILLISECONDS.toNanos(expectedMinValue));
+        probe.recordValue(TimeUnit.MILLISECONDS.toNanos(expectedMaxValue));
+
+        assertHistogram(probe.getIntervalHistogram(), expectedCount, expectedMinValue, expectedMaxValue, expectedMeanValue);
+    }
+
+    @Test
+    public void testRecordValues_fromMultipleThreads() {
+        long expectedMinValue = 200;
+        long expectedMaxValue = 1000;
+
+        Thread minThread = new RecordValueThread(probe, expectedMinValue);
+        Thread maxThread = new RecordValueThread(probe, expectedMaxValue);
+        minThread.start();
+        maxThread.start();
+        joinThread(minThread);
+        joinThread(maxThread);
+
+        assertEquals(2, probe.getThreadProbeCount());
+        assertHistogram(probe.getIntervalHistogram(), 2, expectedMinValue, expectedMaxValue, 600);
+    }
+
+    @Test
+    public void testCreateThreadProbe() {
+        ThreadProbe firstStripe = probe.createThreadProbe();
+        ThreadProbe secondStripe = probe.createThreadProbe();
+
+        firstStripe.recordValue(TimeUnit.MILLISECONDS.toNanos(200));
+        secondStripe.recordValue(TimeUnit.MILLISECONDS.toNanos(1000));
+        probe.recordValue(TimeUnit.MILLISECONDS.toNanos(600));
+
+        assertEquals(3, probe.getThreadProbeCount());
+        assertHistogram(probe.getIntervalHistogram(), 3, 200, 1000, 600);
+    }
+
+    @Test
+    public void testCreateThreadProbe_recycledIntervalHistograms() {
+        ThreadProbe stripe = probe.createThreadProbe();
+
+        stripe.recordValue(TimeUnit.MILLISECONDS.toNanos(200));
+        stripe.recordValue(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertEquals(2, probe.getIntervalHistogram().getTotalCount());
+
+        stripe.recordValue(TimeUnit.MILLISECONDS.toNanos(300));
+        assertEquals(1, probe.getIntervalHistogram().getTotalCount());
+        assertEquals(0, probe.getIntervalHistogram().getTotalCount());
+    }
+
+    @Test
+    public void testGetIntervalHistogram_isReset() {
+        probe.recordValue(TimeUnit.MILLISECONDS.toNanos(500));
+        probe.getIntervalHistogram();
+
+        Histogram intervalHistogram = probe.getIntervalHistogram();
+        assertEquals(0, intervalHistogram.getTotalCount());
+        assertTrue(intervalHistogram.getEndTimeStamp() >= intervalHistogram.getStartTimeStamp());
+    }
+
+    private static final class RecordValueThread extends Thread {
+
+        private final Probe probe;
+        private final long latencyMillis;
+
+        private RecordValueThread(Probe probe, long latencyMillis) {
+            this.probe = probe;
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public void run() {
+            probe.recordValue(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+        }
+    }
+}
@@ -9,6 +9,7 @@ import java.io.PrintStream;
 import static com.hazelcast.simulator.probes.ProbeTestUtils.createProbeResult;
 import static com.hazelcast.simulator.probes.ProbeTestUtils.createRandomHistogram;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -28,6 +29,34 @@ public class ResultImplTest {
         assertEquals(500, result.getThroughput(), 0.0001);
         assertTrue(result.isEmpty());
         assertTrue(result.probeNames().isEmpty());
+        assertFalse(result.hasSteadyState());
+    }
+
+    @Test
+    public void testSetSteadyState() {
+        Result result = new ResultImpl("ResultImplTest", 1000, 500.0);
+        result.setSteadyState(2000, 800, 600.0);
+
+        assertTrue(result.hasSteadyState());
+        assertEquals(2000, result.getWarmupMillis());
+        assertEquals(800, result.getSteadyStateInvocations());
+        assertEquals(600.0, result.getSteadyStateThroughput(), 0.0001);
+    }
+
+    @Test
+    public void testAddSteadyStateHistogram() {
+        Result result = createProbeResult(1);
+        Histogram expected = createRandomHistogram(500);
+        result.addSteadyStateHistogram("probe1", expected.copy());
+
+        Histogram histogram = createRandomHistogram(500);
+        result.addSteadyStateHistogram("probe1", histogram);
+        result.addSteadyStateHistogram("probe1", null);
+        expected.add(histogram);
+
+        assertEquals(expected, result.getSteadyStateHistogram("probe1"));
+        assertNotNull(result.toHumanSteadyStateString("probe1"));
+        assertNull(result.toHumanSteadyStateString("probe2"));
     }
 
     @Test
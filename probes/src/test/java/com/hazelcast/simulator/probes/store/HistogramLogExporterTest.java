@@ -0,0 +1,64 @@
+package com.hazelcast.simulator.probes.store;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+import static com.hazelcast.simulator.probes.store.IntervalStore.getDataFile;
+import static com.hazelcast.simulator.probes.store.IntervalStore.getIndexFile;
+import static com.hazelcast.simulator.probes.store.IntervalStoreTest.createHistogram;
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class HistogramLogExporterTest {
+
+    private static final String TEST_ID = "HistogramLogExporterTest";
+
+    private final File directory = new File(".");
+
+    private File dataFile;
+    private File logFile;
+
+    @Before
+    public void setUp() {
+        dataFile = getDataFile(directory, TEST_ID);
+        logFile = new File(directory, "latency-" + TEST_ID + "-probe.txt");
+
+        IntervalStoreWriter writer = new IntervalStoreWriter(dataFile, 0);
+        writer.writeHistogram("probe", createHistogram(1000, 2000, 10, 100));
+        writer.writeHistogram("probe", createHistogram(2000, 3000, 20, 200));
+        writer.close();
+    }
+
+    @After
+    public void tearDown() {
+        deleteQuiet(dataFile);
+        deleteQuiet(getIndexFile(dataFile));
+        deleteQuiet(logFile);
+    }
+
+    @Test
+    public void testExportHistogramLogs() throws Exception {
+        HistogramLogExporter.exportHistogramLogs(dataFile, TEST_ID, directory);
+
+        assertTrue(logFile.exists());
+
+        HistogramLogReader logReader = new HistogramLogReader(logFile);
+        Histogram histogram = (Histogram) logReader.nextIntervalHistogram();
+        assertNotNull(histogram);
+        assertEquals(10, histogram.getTotalCount());
+
+        histogram = (Histogram) logReader.nextIntervalHistogram();
+        assertNotNull(histogram);
+        assertEquals(20, histogram.getTotalCount());
+
+        assertNull(logReader.nextIntervalHistogram());
+    }
+}
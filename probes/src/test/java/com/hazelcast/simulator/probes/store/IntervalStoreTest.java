@@ -0,0 +1,175 @@
+package com.hazelcast.simulator.probes.store;
+
+import com.hazelcast.simulator.utils.FileUtilsException;
+import org.HdrHistogram.Histogram;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.LATENCY_PRECISION;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.MAXIMUM_LATENCY;
+import static com.hazelcast.simulator.probes.store.IntervalStore.getDataFile;
+import static com.hazelcast.simulator.probes.store.IntervalStore.getIndexFile;
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.FileUtils.ensureExistingFile;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IntervalStoreTest {
+
+    private static final long BASE_TIME = 1000000;
+
+    private File dataFile;
+    private IntervalStoreWriter writer;
+    private IntervalStoreReader reader;
+
+    @Before
+    public void setUp() {
+        dataFile = getDataFile(new File("."), "IntervalStoreTest");
+        writer = new IntervalStoreWriter(dataFile, BASE_TIME);
+    }
+
+    @After
+    public void tearDown() {
+        if (reader != null) {
+            reader.close();
+        }
+        writer.close();
+
+        deleteQuiet(dataFile);
+        deleteQuiet(getIndexFile(dataFile));
+    }
+
+    @Test
+    public void testGetIndexFile() {
+        assertEquals("latency-IntervalStoreTest.hdri", getIndexFile(dataFile).getName());
+    }
+
+    @Test
+    public void testEmptyStore() {
+        writer.close();
+        reader = new IntervalStoreReader(dataFile);
+
+        assertEquals(BASE_TIME, reader.getBaseTime());
+        assertTrue(reader.getProbeNames().isEmpty());
+        assertEquals(0, reader.getHistogramCount("probe"));
+        assertTrue(reader.getHistograms("probe").isEmpty());
+        assertTrue(reader.getThroughputSamples().isEmpty());
+    }
+
+    @Test
+    public void testWriteAndRead() {
+        writer.writeHistogram("probe1", createHistogram(BASE_TIME, BASE_TIME + 1000, 10, 100));
+        writer.writeHistogram("probe2", createHistogram(BASE_TIME, BASE_TIME + 1000, 20, 200));
+        writer.writeHistogram("probe1", createHistogram(BASE_TIME + 1000, BASE_TIME + 2000, 30, 300));
+        writer.close();
+
+        reader = new IntervalStoreReader(dataFile);
+
+        assertEquals(2, reader.getProbeNames().size());
+        assertEquals(2, reader.getHistogramCount("probe1"));
+        assertEquals(1, reader.getHistogramCount("probe2"));
+
+        assertHistogram(reader.getHistogram("probe1", 0), BASE_TIME, BASE_TIME + 1000, 10, 100);
+        assertHistogram(reader.getHistogram("probe1", 1), BASE_TIME + 1000, BASE_TIME + 2000, 30, 300);
+        assertHistogram(reader.getHistogram("probe2", 0), BASE_TIME, BASE_TIME + 1000, 20, 200);
+
+        List<Histogram> histograms = reader.getHistograms("probe1");
+        assertEquals(2, histograms.size());
+        assertHistogram(histograms.get(1), BASE_TIME + 1000, BASE_TIME + 2000, 30, 300);
+    }
+
+    @Test
+    public void testRead_whileWriterIsOpen() {
+        writer.writeHistogram("probe", createHistogram(BASE_TIME, BASE_TIME + 1000, 10, 100));
+        writer.flush();
+
+        reader = new IntervalStoreReader(dataFile);
+
+        assertEquals(1, reader.getHistogramCount("probe"));
+        assertHistogram(reader.getHistogram("probe", 0), BASE_TIME, BASE_TIME + 1000, 10, 100);
+    }
+
+    @Test
+    public void testGetHistogramIndex() {
+        for (int i = 0; i < 10; i++) {
+            writer.writeHistogram("probe", createHistogram(BASE_TIME + i * 1000, BASE_TIME + (i + 1) * 1000, i + 1, 100));
+        }
+        writer.close();
+
+        reader = new IntervalStoreReader(dataFile);
+
+        assertEquals(0, reader.getHistogramIndex("probe", 0));
+        assertEquals(0, reader.getHistogramIndex("probe", BASE_TIME + 1000));
+        assertEquals(5, reader.getHistogramIndex("probe", BASE_TIME + 5500));
+        assertEquals(10, reader.getHistogramIndex("probe", BASE_TIME + 20000));
+        assertEquals(0, reader.getHistogramIndex("notFound", BASE_TIME));
+
+        assertHistogram(reader.getHistogram("probe", 5), BASE_TIME + 5000, BASE_TIME + 6000, 6, 100);
+    }
+
+    @Test
+    public void testThroughputSamples() {
+        writer.writeThroughput(BASE_TIME + 1000, 500, 500, 500.0);
+        writer.writeHistogram("probe", createHistogram(BASE_TIME, BASE_TIME + 1000, 10, 100));
+        writer.writeThroughput(BASE_TIME + 2000, 1500, 1000, 1000.0);
+        writer.close();
+
+        reader = new IntervalStoreReader(dataFile);
+
+        List<ThroughputSample> samples = reader.getThroughputSamples();
+        assertEquals(2, samples.size());
+
+        ThroughputSample sample = samples.get(1);
+        assertEquals(BASE_TIME + 2000, sample.getTimestamp());
+        assertEquals(1500, sample.getTotalOperationCount());
+        assertEquals(1000, sample.getIntervalOperationCount());
+        assertEquals(1000.0, sample.getIntervalThroughput(), 0.0001);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetHistogram_invalidIndex() {
+        writer.writeHistogram("probe", createHistogram(BASE_TIME, BASE_TIME + 1000, 10, 100));
+        writer.close();
+
+        reader = new IntervalStoreReader(dataFile);
+        reader.getHistogram("probe", 1);
+    }
+
+    @Test(expected = FileUtilsException.class)
+    public void testReader_fileNotFound() {
+        reader = new IntervalStoreReader(new File("notFound.hdrs"));
+    }
+
+    @Test(expected = FileUtilsException.class)
+    public void testReader_invalidFile() {
+        File invalidFile = new File("invalidIntervalStore.hdrs");
+        File invalidIndexFile = getIndexFile(invalidFile);
+        ensureExistingFile(invalidFile);
+        ensureExistingFile(invalidIndexFile);
+        try {
+            reader = new IntervalStoreReader(invalidFile);
+        } finally {
+            deleteQuiet(invalidFile);
+            deleteQuiet(invalidIndexFile);
+        }
+    }
+
+    static Histogram createHistogram(long startTimestamp, long endTimestamp, int count, long value) {
+        Histogram histogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+        histogram.recordValueWithCount(value, count);
+        histogram.setStartTimeStamp(startTimestamp);
+        histogram.setEndTimeStamp(endTimestamp);
+        return histogram;
+    }
+
+    private static void assertHistogram(Histogram histogram, long startTimestamp, long endTimestamp, int count, long value) {
+        assertEquals(startTimestamp, histogram.getStartTimeStamp());
+        assertEquals(endTimestamp, histogram.getEndTimeStamp());
+        assertEquals(count, histogram.getTotalCount());
+        assertTrue(histogram.valuesAreEquivalent(value, histogram.getMaxValue()));
+    }
+}
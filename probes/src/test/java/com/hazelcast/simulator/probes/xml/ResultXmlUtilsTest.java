@@ -9,6 +9,7 @@ import org.junit.Test;
 import static com.hazelcast.simulator.probes.ProbeTestUtils.assertEqualsResult;
 import static com.hazelcast.simulator.probes.ProbeTestUtils.cleanup;
 import static com.hazelcast.simulator.probes.ProbeTestUtils.createProbeResult;
+import static com.hazelcast.simulator.probes.ProbeTestUtils.createProbeResultWithSteadyState;
 import static com.hazelcast.simulator.probes.ProbeTestUtils.getResultFile;
 import static com.hazelcast.simulator.probes.ProbeTestUtils.serializeAndDeserializeAgain;
 import static com.hazelcast.simulator.probes.xml.ResultXmlUtils.fromXml;
@@ -16,6 +17,9 @@ import static com.hazelcast.simulator.probes.xml.ResultXmlUtils.toXml;
 import static com.hazelcast.simulator.utils.FileUtils.writeText;
 import static com.hazelcast.simulator.utils.ReflectionUtils.invokePrivateConstructor;
 import static org.apache.commons.codec.binary.Base64.encodeBase64String;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 
 public class ResultXmlUtilsTest {
 
@@ -50,6 +54,31 @@ public class ResultXmlUtilsTest {
         assertEqualsResult(expected, actual);
     }
 
+    @Test
+    public void testProbeResult_withSteadyState() {
+        Result expected = createProbeResultWithSteadyState(2);
+        Result actual = serializeAndDeserializeAgain(expected);
+        assertEqualsResult(expected, actual);
+    }
+
+    @Test
+    public void testProbeResult_withoutSteadyStateFields() {
+        Result result = new ResultImpl("OldResultXmlTest", 1000, 500.0);
+
+        // results of older versions don't contain the steady-state fields
+        String xml = toXml(result)
+                .replace("<steadyStateHistograms/>", "")
+                .replace("<steadyStateInvocations>0</steadyStateInvocations>", "")
+                .replace("<steadyStateThroughput>0.0</steadyStateThroughput>", "");
+        writeText(xml, getResultFile());
+
+        Result actual = fromXml(getResultFile());
+        assertEquals(1000, actual.getInvocations());
+        assertFalse(actual.hasSteadyState());
+        assertEquals(0, actual.getWarmupMillis());
+        assertNull(actual.getSteadyStateHistogram("probe1"));
+    }
+
     @Test(expected = ConversionException.class)
     public void testProbeResult_invalidHistogramXml() {
         Result result = new ResultImpl("InvalidHistogramXmlTest", 1000, 500.0);
@@ -15,8 +15,10 @@
  */
 package com.hazelcast.simulator.agent;
 
+import com.hazelcast.simulator.agent.workerjvm.WorkerArtifactStreamer;
 import com.hazelcast.simulator.agent.workerjvm.WorkerJvmFailureMonitor;
 import com.hazelcast.simulator.agent.workerjvm.WorkerJvmManager;
+import com.hazelcast.simulator.agent.workerjvm.WorkerPerformanceAggregator;
 import com.hazelcast.simulator.common.CoordinatorLogger;
 import com.hazelcast.simulator.protocol.connector.AgentConnector;
 import com.hazelcast.simulator.test.TestSuite;
@@ -58,11 +60,14 @@ public class Agent {
     private final WorkerJvmFailureMonitor workerJvmFailureMonitor;
     private final AgentConnector agentConnector;
     private final CoordinatorLogger coordinatorLogger;
+    private final WorkerPerformanceAggregator workerPerformanceAggregator;
+    private final WorkerArtifactStreamer workerArtifactStreamer;
 
     private volatile TestSuite testSuite;
 
     public Agent(int addressIndex, String publicAddress, int port, String cloudProvider, String cloudIdentity,
-                 String cloudCredential, int threadPoolSize, int workerLastSeenTimeoutSeconds) {
+                 String cloudCredential, int threadPoolSize, int eventLoopThreads, boolean useNativeTransport,
+                 int workerLastSeenTimeoutSeconds) {
         SHUTDOWN_STARTED.set(false);
 
         this.addressIndex = addressIndex;
@@ -75,10 +80,13 @@ public class Agent {
 
         this.workerJvmFailureMonitor = new WorkerJvmFailureMonitor(this, workerJvmManager, workerLastSeenTimeoutSeconds);
 
-        this.agentConnector = AgentConnector.createInstance(this, workerJvmManager, port, threadPoolSize);
+        this.agentConnector = AgentConnector.createInstance(this, workerJvmManager, port, threadPoolSize, useNativeTransport,
+                eventLoopThreads);
         this.agentConnector.start();
 
         this.coordinatorLogger = new CoordinatorLogger(agentConnector);
+        this.workerPerformanceAggregator = new WorkerPerformanceAggregator(agentConnector);
+        this.workerArtifactStreamer = new WorkerArtifactStreamer(agentConnector, new File(getSimulatorHome(), "workers"));
 
         Runtime.getRuntime().addShutdownHook(new ShutdownThread(true));
 
@@ -116,6 +124,14 @@ public class Agent {
         return workerJvmFailureMonitor;
     }
 
+    public WorkerPerformanceAggregator getWorkerPerformanceAggregator() {
+        return workerPerformanceAggregator;
+    }
+
+    public WorkerArtifactStreamer getWorkerArtifactStreamer() {
+        return workerArtifactStreamer;
+    }
+
     public void setTestSuite(TestSuite testSuite) {
         this.testSuite = testSuite;
     }
@@ -215,6 +231,12 @@ public class Agent {
             LOGGER.info("Stopping WorkerJvmFailureMonitor...");
             workerJvmFailureMonitor.shutdown();
 
+            LOGGER.info("Stopping WorkerPerformanceAggregator...");
+            workerPerformanceAggregator.shutdown();
+
+            LOGGER.info("Stopping WorkerArtifactStreamer...");
+            workerArtifactStreamer.shutdown();
+
             LOGGER.info("Stopping AgentConnector...");
             agentConnector.shutdown();
 
@@ -43,6 +43,13 @@ final class AgentCli {
             "Size of the thread pool to connect to Worker instances.")
             .withRequiredArg().ofType(Integer.class).defaultsTo(0);
 
+    private final OptionSpec<Integer> eventLoopThreadsSpec = parser.accepts("eventLoopThreads",
+            "Size of the thread pool for the connection from the Coordinator.")
+            .withRequiredArg().ofType(Integer.class).defaultsTo(0);
+
+    private final OptionSpec nativeTransportSpec = parser.accepts("nativeTransport",
+            "Uses the native epoll transport for the Simulator protocol if available.");
+
     private final OptionSpec<Integer> workerLastSeenTimeoutSecondsSpec = parser.accepts("workerLastSeenTimeoutSeconds",
             "Timeout value for worker timeout detection.")
             .withRequiredArg().ofType(Integer.class).defaultsTo(DEFAULT_WORKER_LAST_SEEN_TIMEOUT_SECONDS);
@@ -85,9 +92,11 @@ final class AgentCli {
         String cloudIdentity = options.valueOf(agentCli.cloudIdentitySpec);
         String cloudCredential = options.valueOf(agentCli.cloudCredentialSpec);
         Integer threadPoolSize = options.valueOf(agentCli.threadPoolSizeSpec);
+        Integer eventLoopThreads = options.valueOf(agentCli.eventLoopThreadsSpec);
+        boolean useNativeTransport = options.has(agentCli.nativeTransportSpec);
         Integer workerLastSeenTimeoutSeconds = options.valueOf(agentCli.workerLastSeenTimeoutSecondsSpec);
 
         return new Agent(addressIndex, publicAddress, port, cloudProvider, cloudIdentity, cloudCredential, threadPoolSize,
-                workerLastSeenTimeoutSeconds);
+                eventLoopThreads, useNativeTransport, workerLastSeenTimeoutSeconds);
     }
 }
@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.agent.workerjvm;
+
+import com.hazelcast.simulator.protocol.connector.ServerConnector;
+import com.hazelcast.simulator.protocol.core.Response;
+import com.hazelcast.simulator.protocol.core.ResponseType;
+import com.hazelcast.simulator.protocol.core.SimulatorProtocolException;
+import com.hazelcast.simulator.protocol.operation.ArtifactChunkOperation;
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.simulator.probes.store.IntervalStore.DATA_FILE_SUFFIX;
+import static com.hazelcast.simulator.probes.store.IntervalStore.INDEX_FILE_SUFFIX;
+import static com.hazelcast.simulator.protocol.core.SimulatorAddress.COORDINATOR;
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
+import static com.hazelcast.simulator.utils.CommonUtils.joinThread;
+import static com.hazelcast.simulator.utils.CommonUtils.sleepMillis;
+import static com.hazelcast.simulator.utils.ZipUtils.deflate;
+import static java.lang.String.format;
+
+/**
+ * Streams the result files of the Worker directories of a test suite to the Coordinator, while the test suite is running.
+ *
+ * The new content of each file is sent in compressed chunks, so the Coordinator has a copy of all results when the test suite
+ * has finished. The result files are expected to be appended to, e.g. logs and throughput files, or to be written once.
+ * A file which shrinks or which is modified without a change of its size is sent again from the beginning.
+ *
+ * The directories {@value #LIB_DIRECTORY} and {@value #UPLOAD_DIRECTORY} of the test suite are skipped, since they are
+ * uploaded by the Coordinator.
+ *
+ * The interval store files of the Workers are skipped by the periodic streaming. They are preallocated and written in place
+ * via memory-mapped regions while a test is running, so they are only sent by an explicit {@link #sync()} after the Workers
+ * have closed them.
+ */
+public class WorkerArtifactStreamer {
+
+    static final String LIB_DIRECTORY = "lib";
+    static final String UPLOAD_DIRECTORY = "upload";
+
+    static final int MAX_CHUNK_BYTES = 1024 * 1024;
+
+    private static final Logger LOGGER = Logger.getLogger(WorkerArtifactStreamer.class);
+
+    // holds the number of sent bytes and the last modification time of the sent content per relative path
+    private final Map<String, SentState> sentStates = new HashMap<String, SentState>();
+
+    private final ServerConnector serverConnector;
+    private final File workersHome;
+
+    private String testSuiteId;
+    private StreamThread streamThread;
+
+    public WorkerArtifactStreamer(ServerConnector serverConnector, File workersHome) {
+        this.serverConnector = serverConnector;
+        this.workersHome = workersHome;
+    }
+
+    /**
+     * Starts to stream the result files of a test suite.
+     *
+     * @param testSuiteId     the id of the test suite
+     * @param intervalSeconds the interval to look for new content, a value of 0 disables the periodic streaming
+     */
+    public void start(String testSuiteId, int intervalSeconds) {
+        stopStreamThread();
+        synchronized (this) {
+            this.testSuiteId = testSuiteId;
+            sentStates.clear();
+        }
+        if (intervalSeconds > 0) {
+            StreamThread thread = new StreamThread(TimeUnit.SECONDS.toMillis(intervalSeconds));
+            thread.start();
+            setStreamThread(thread);
+        }
+    }
+
+    /**
+     * Sends all new content of the result files to the Coordinator.
+     *
+     * @return {@code true} if all content was sent, {@code false} otherwise
+     */
+    public boolean sync() {
+        return sync(true);
+    }
+
+    synchronized boolean sync(boolean includeIntervalStores) {
+        if (testSuiteId == null) {
+            return true;
+        }
+        File testSuiteDir = new File(workersHome, testSuiteId);
+        File[] children = testSuiteDir.listFiles();
+        if (children == null) {
+            return true;
+        }
+
+        boolean success = true;
+        for (File child : children) {
+            String name = child.getName();
+            if (child.isDirectory() && (LIB_DIRECTORY.equals(name) || UPLOAD_DIRECTORY.equals(name))) {
+                continue;
+            }
+            success &= syncFile(child, name, includeIntervalStores);
+        }
+        return success;
+    }
+
+    public void shutdown() {
+        stopStreamThread();
+        sync();
+    }
+
+    private boolean syncFile(File file, String path, boolean includeIntervalStores) {
+        if (file.isDirectory()) {
+            File[] children = file.listFiles();
+            if (children == null) {
+                return true;
+            }
+            boolean success = true;
+            for (File child : children) {
+                success &= syncFile(child, path + '/' + child.getName(), includeIntervalStores);
+            }
+            return success;
+        }
+        if (!includeIntervalStores && isIntervalStoreFile(path)) {
+            return true;
+        }
+
+        // the length is read first, so content which is appended concurrently is sent by the next sync
+        long length = file.length();
+        long lastModified = file.lastModified();
+
+        SentState sentState = sentStates.get(path);
+        if (sentState == null || length < sentState.length
+                || (length == sentState.length && lastModified != sentState.lastModified)) {
+            sentState = new SentState();
+            sentStates.put(path, sentState);
+        } else if (length == sentState.length) {
+            return true;
+        }
+
+        try {
+            return sendChunks(file, path, sentState, length, lastModified);
+        } catch (IOException e) {
+            LOGGER.warn(format("Could not read result file %s: %s", file.getAbsolutePath(), e.getMessage()));
+            return false;
+        }
+    }
+
+    private boolean sendChunks(File file, String path, SentState sentState, long length, long lastModified)
+            throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            byte[] buffer = new byte[(int) Math.min(MAX_CHUNK_BYTES, Math.max(length - sentState.length, 0))];
+            do {
+                int chunkLength = (int) Math.min(buffer.length, length - sentState.length);
+                randomAccessFile.seek(sentState.length);
+                randomAccessFile.readFully(buffer, 0, chunkLength);
+
+                byte[] compressedData = deflate(buffer, chunkLength);
+                if (!send(new ArtifactChunkOperation(testSuiteId, path, sentState.length, lastModified, compressedData))) {
+                    return false;
+                }
+                sentState.length += chunkLength;
+                sentState.lastModified = lastModified;
+            } while (sentState.length < length);
+            return true;
+        } finally {
+            closeQuietly(randomAccessFile);
+        }
+    }
+
+    private boolean send(ArtifactChunkOperation operation) {
+        try {
+            Response response = serverConnector.write(COORDINATOR, operation);
+            ResponseType responseType = response.getFirstErrorResponseType();
+            if (responseType != ResponseType.SUCCESS) {
+                LOGGER.warn(format("Could not send result file %s to Coordinator: %s", operation.getPath(), responseType));
+                return false;
+            }
+            return true;
+        } catch (SimulatorProtocolException e) {
+            LOGGER.warn(format("Could not send result file %s to Coordinator: %s", operation.getPath(), e.getMessage()));
+            return false;
+        }
+    }
+
+    private static boolean isIntervalStoreFile(String path) {
+        return path.endsWith(DATA_FILE_SUFFIX) || path.endsWith(INDEX_FILE_SUFFIX);
+    }
+
+    private synchronized void setStreamThread(StreamThread streamThread) {
+        this.streamThread = streamThread;
+    }
+
+    private void stopStreamThread() {
+        StreamThread thread;
+        synchronized (this) {
+            thread = streamThread;
+            streamThread = null;
+        }
+        if (thread != null) {
+            thread.isRunning = false;
+            thread.interrupt();
+            joinThread(thread);
+        }
+    }
+
+    private static final class SentState {
+
+        private long length;
+        private long lastModified;
+    }
+
+    private final class StreamThread extends Thread {
+
+        private final long intervalMillis;
+
+        private volatile boolean isRunning = true;
+
+        private StreamThread(long intervalMillis) {
+            super("WorkerArtifactStreamerThread");
+            setDaemon(true);
+
+            this.intervalMillis = intervalMillis;
+        }
+
+        @Override
+        public void run() {
+            while (isRunning) {
+                sleepMillis((int) intervalMillis);
+                if (isRunning) {
+                    sync(false);
+                }
+            }
+        }
+    }
+}
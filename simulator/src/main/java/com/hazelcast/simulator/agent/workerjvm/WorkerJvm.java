@@ -18,23 +18,33 @@ package com.hazelcast.simulator.agent.workerjvm;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 
 import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 public class WorkerJvm {
 
     private final SimulatorAddress address;
     private final String id;
     private final File workerHome;
+    private final long heartbeatIntervalMillis;
+    private final CountDownLatch readyLatch = new CountDownLatch(1);
 
     private volatile long lastSeen = System.currentTimeMillis();
     private volatile boolean oomeDetected;
     private volatile boolean isFinished;
     private volatile Process process;
     private volatile String hzAddress;
+    private volatile boolean standby;
 
     WorkerJvm(SimulatorAddress address, String id, File workerHome) {
+        this(address, id, workerHome, 0);
+    }
+
+    WorkerJvm(SimulatorAddress address, String id, File workerHome, int heartbeatIntervalSeconds) {
         this.address = address;
         this.id = id;
         this.workerHome = workerHome;
+        this.heartbeatIntervalMillis = TimeUnit.SECONDS.toMillis(heartbeatIntervalSeconds);
     }
 
     public SimulatorAddress getAddress() {
@@ -49,6 +59,15 @@ public class WorkerJvm {
         return workerHome;
     }
 
+    /**
+     * Returns the interval in which the Worker sends a heartbeat.
+     *
+     * @return the heartbeat interval in milliseconds or {@code 0} if the Worker sends no heartbeats
+     */
+    public long getHeartbeatIntervalMillis() {
+        return heartbeatIntervalMillis;
+    }
+
     public long getLastSeen() {
         return lastSeen;
     }
@@ -92,4 +111,39 @@ public class WorkerJvm {
     public void setHzAddress(String memberAddress) {
         this.hzAddress = memberAddress;
     }
+
+    /**
+     * Returns if the Worker JVM has been started in standby mode and waits to be attached to a Hazelcast config.
+     *
+     * @return {@code true} if the Worker JVM is in standby mode, {@code false} otherwise
+     */
+    public boolean isStandby() {
+        return standby;
+    }
+
+    public void setStandby(boolean standby) {
+        this.standby = standby;
+    }
+
+    /**
+     * Marks the Worker as ready, after it has signalled its startup via the protocol.
+     *
+     * @param memberAddress the address of the HazelcastInstance of the Worker
+     */
+    public void setReady(String memberAddress) {
+        this.hzAddress = memberAddress;
+        updateLastSeen();
+        readyLatch.countDown();
+    }
+
+    /**
+     * Waits until the Worker has signalled its startup.
+     *
+     * @param timeoutMillis the maximum time to wait in milliseconds
+     * @return {@code true} if the Worker is ready, {@code false} if the timeout elapsed
+     * @throws InterruptedException if the waiting thread was interrupted
+     */
+    public boolean awaitReady(long timeoutMillis) throws InterruptedException {
+        return readyLatch.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
 }
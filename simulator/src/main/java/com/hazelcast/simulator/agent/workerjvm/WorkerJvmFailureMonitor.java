@@ -43,6 +43,7 @@ import static java.lang.String.format;
 public class WorkerJvmFailureMonitor {
 
     private static final int DEFAULT_CHECK_INTERVAL_MILLIS = (int) TimeUnit.SECONDS.toMillis(1);
+    private static final int MISSED_HEARTBEATS_BEFORE_OOME_SCAN = 2;
 
     private static final Logger LOGGER = Logger.getLogger(WorkerJvmFailureMonitor.class);
 
@@ -128,6 +129,10 @@ public class WorkerJvmFailureMonitor {
             detectUnexpectedExit(workerJvm);
         }
 
+        /**
+         * Workers send their exceptions to the Coordinator, so exception files are just written as fallback, e.g. if a Worker
+         * fails before it's connected or if an exception could not be delivered.
+         */
         private void detectExceptions(WorkerJvm workerJvm) {
             File workerHome = workerJvm.getWorkerHome();
             if (!workerHome.exists()) {
@@ -154,7 +159,7 @@ public class WorkerJvmFailureMonitor {
         }
 
         private void detectOomeFailure(WorkerJvm workerJvm) {
-            if (!isOomeFound(workerJvm.getWorkerHome())) {
+            if (!isHeartbeatMissing(workerJvm) || !isOomeFound(workerJvm.getWorkerHome())) {
                 return;
             }
             workerJvm.setOomeDetected();
@@ -162,6 +167,19 @@ public class WorkerJvmFailureMonitor {
             sendFailureOperation("Worker ran into an OOME", WORKER_OOM, workerJvm);
         }
 
+        /**
+         * A Worker which sends its heartbeats is alive and not busy with a heap dump, so there is no need to scan its directory
+         * for OOME files. The scan is done if the Worker sends no heartbeats at all or if they are overdue.
+         */
+        private boolean isHeartbeatMissing(WorkerJvm workerJvm) {
+            long heartbeatIntervalMillis = workerJvm.getHeartbeatIntervalMillis();
+            if (heartbeatIntervalMillis <= 0) {
+                return true;
+            }
+            long silenceMillis = System.currentTimeMillis() - workerJvm.getLastSeen();
+            return (silenceMillis > heartbeatIntervalMillis * MISSED_HEARTBEATS_BEFORE_OOME_SCAN);
+        }
+
         private boolean isOomeFound(File workerHome) {
             File oomeFile = new File(workerHome, "worker.oome");
             if (oomeFile.exists()) {
@@ -223,6 +241,13 @@ public class WorkerJvmFailureMonitor {
                 LOGGER.info(format("Worker %s (%s) finished.", jvm.getId(), jvm.getAddress()));
             }
 
+            if (type.isWorkerFinishedFailure()) {
+                // the Coordinator has to receive the remaining performance data of the Worker before it's reported as finished
+                WorkerPerformanceAggregator performanceAggregator = agent.getWorkerPerformanceAggregator();
+                performanceAggregator.flush();
+                performanceAggregator.removeWorker(workerAddress);
+            }
+
             AgentConnector agentConnector = agent.getAgentConnector();
             try {
                 Response response = agentConnector.write(SimulatorAddress.COORDINATOR, operation);
@@ -19,22 +19,23 @@ import com.hazelcast.simulator.agent.Agent;
 import com.hazelcast.simulator.agent.SpawnWorkerFailedException;
 import com.hazelcast.simulator.protocol.core.AddressLevel;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
+import com.hazelcast.simulator.utils.EmptyStatement;
 import com.hazelcast.simulator.worker.WorkerType;
 import org.apache.log4j.Logger;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
 import static com.hazelcast.simulator.utils.CommonUtils.sleepMillis;
-import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
 import static com.hazelcast.simulator.utils.FileUtils.ensureExistingDirectory;
 import static com.hazelcast.simulator.utils.FileUtils.getSimulatorHome;
-import static com.hazelcast.simulator.utils.FileUtils.readObject;
 import static com.hazelcast.simulator.utils.FileUtils.writeText;
 import static com.hazelcast.simulator.utils.FormatUtils.NEW_LINE;
 import static com.hazelcast.simulator.utils.NativeUtils.execute;
@@ -44,7 +45,7 @@ import static java.util.Arrays.asList;
 
 public class WorkerJvmLauncher {
 
-    private static final int WAIT_FOR_WORKER_STARTUP_INTERVAL_MILLIS = 500;
+    private static final int CONNECT_RETRY_INTERVAL_MILLIS = 100;
 
     private static final String CLASSPATH = System.getProperty("java.class.path");
     private static final String CLASSPATH_SEPARATOR = System.getProperty("path.separator");
@@ -67,24 +68,54 @@ public class WorkerJvmLauncher {
         this.workerJvmSettings = workerJvmSettings;
     }
 
-    public void launch() {
+    /**
+     * Starts the Worker JVM in standby mode.
+     *
+     * The Worker JVM is started and class-loaded, but waits for {@link #launch()} to attach it to its Hazelcast config.
+     */
+    public void prepare() {
         try {
-            testSuiteDir = agent.getTestSuiteDir();
-            ensureExistingDirectory(testSuiteDir);
+            WorkerType type = workerJvmSettings.getWorkerType();
+            int workerIndex = workerJvmSettings.getWorkerIndex();
+            LOGGER.info(format("Starting a standby Java Virtual Machine for %s Worker #%d", type, workerIndex));
+
+            startWorkerJvm(true);
+            LOGGER.info(format("Finished starting a standby JVM for %s Worker #%d", type, workerIndex));
+        } catch (Exception e) {
+            LOGGER.error("Failed to prepare Worker", e);
+
+            agent.getCoordinatorLogger().fatal("Failed to prepare Worker: " + e.getMessage());
+            throw new SpawnWorkerFailedException("Failed to prepare Worker", e);
+        }
+    }
 
+    /**
+     * Launches the Worker and connects to it.
+     *
+     * A standby Worker JVM of a previous {@link #prepare()} is attached to the Hazelcast config, otherwise a new Worker JVM is
+     * started. The Worker signals its readiness via the protocol, as soon as its HazelcastInstance has been created.
+     *
+     * @return the {@link SimulatorAddress} of the Worker
+     */
+    public SimulatorAddress launch() {
+        try {
             WorkerType type = workerJvmSettings.getWorkerType();
             int workerIndex = workerJvmSettings.getWorkerIndex();
-            LOGGER.info(format("Starting a Java Virtual Machine for %s Worker #%d", type, workerIndex));
 
             String hzConfigFileName = (type == WorkerType.MEMBER) ? "hazelcast" : "client-hazelcast";
             hzConfigFile = createTmpXmlFile(hzConfigFileName, workerJvmSettings.getHazelcastConfig());
-            log4jFile = createTmpXmlFile("worker-log4j", workerJvmSettings.getLog4jConfig());
-            LOGGER.info("Spawning Worker JVM using settings: " + workerJvmSettings);
 
-            WorkerJvm worker = startWorkerJvm();
-            LOGGER.info(format("Finished starting a JVM for %s Worker #%d", type, workerIndex));
+            WorkerJvm worker = getStandbyWorkerJvm();
+            if (worker != null) {
+                LOGGER.info(format("Attaching the standby JVM of %s Worker #%d to its Hazelcast config", type, workerIndex));
+                attachWorkerJvm(worker);
+            } else {
+                LOGGER.info(format("Starting a Java Virtual Machine for %s Worker #%d", type, workerIndex));
+                worker = startWorkerJvm(false);
+                LOGGER.info(format("Finished starting a JVM for %s Worker #%d", type, workerIndex));
+            }
 
-            waitForWorkersStartup(worker, workerJvmSettings.getWorkerStartupTimeout());
+            return waitForWorkerStartup(worker, workerJvmSettings.getWorkerStartupTimeout());
         } catch (Exception e) {
             LOGGER.error("Failed to start Worker", e);
 
@@ -101,18 +132,22 @@ public class WorkerJvmLauncher {
         return tmpXmlFile;
     }
 
-    private WorkerJvm startWorkerJvm() throws IOException {
-        int workerIndex = workerJvmSettings.getWorkerIndex();
-        WorkerType type = workerJvmSettings.getWorkerType();
+    private WorkerJvm startWorkerJvm(boolean standby) throws IOException {
+        testSuiteDir = agent.getTestSuiteDir();
+        ensureExistingDirectory(testSuiteDir);
+
+        log4jFile = createTmpXmlFile("worker-log4j", workerJvmSettings.getLog4jConfig());
+        LOGGER.info("Spawning Worker JVM using settings: " + workerJvmSettings);
 
-        SimulatorAddress workerAddress = new SimulatorAddress(AddressLevel.WORKER, agent.getAddressIndex(), workerIndex, 0);
-        String workerId = "worker-" + agent.getPublicAddress() + '-' + workerIndex + '-' + type.toLowerCase();
+        String workerId = getWorkerId();
         File workerHome = new File(testSuiteDir, workerId);
         ensureExistingDirectory(workerHome);
 
-        WorkerJvm workerJvm = new WorkerJvm(workerAddress, workerId, workerHome);
+        WorkerJvm workerJvm = new WorkerJvm(getWorkerAddress(), workerId, workerHome,
+                workerJvmSettings.getWorkerHeartbeatIntervalSeconds());
+        workerJvm.setStandby(standby);
 
-        generateWorkerStartScript(type, workerJvm);
+        generateWorkerStartScript(workerJvmSettings.getWorkerType(), workerJvm);
 
         ProcessBuilder processBuilder = new ProcessBuilder(new String[]{"bash", "worker.sh"})
                 .directory(workerHome)
@@ -127,31 +162,87 @@ public class WorkerJvmLauncher {
         Process process = processBuilder.start();
         workerJvm.setProcess(process);
         copyResourcesToWorkerId(workerId);
-        workerJvmManager.add(workerAddress, workerJvm);
+        workerJvmManager.add(workerJvm.getAddress(), workerJvm);
 
         return workerJvm;
     }
 
-    private void waitForWorkersStartup(WorkerJvm worker, int workerTimeoutSec) {
-        int loopCount = (int) TimeUnit.SECONDS.toMillis(workerTimeoutSec) / WAIT_FOR_WORKER_STARTUP_INTERVAL_MILLIS;
-        for (int i = 0; i < loopCount; i++) {
+    private SimulatorAddress getWorkerAddress() {
+        return new SimulatorAddress(AddressLevel.WORKER, agent.getAddressIndex(), workerJvmSettings.getWorkerIndex(), 0);
+    }
+
+    private String getWorkerId() {
+        WorkerType type = workerJvmSettings.getWorkerType();
+        return "worker-" + agent.getPublicAddress() + '-' + workerJvmSettings.getWorkerIndex() + '-' + type.toLowerCase();
+    }
+
+    private WorkerJvm getStandbyWorkerJvm() {
+        WorkerJvm workerJvm = workerJvmManager.get(getWorkerAddress());
+        if (workerJvm == null || !workerJvm.isStandby()) {
+            return null;
+        }
+        if (!workerJvm.getId().equals(getWorkerId()) || hasExited(workerJvm)) {
+            LOGGER.warn(format("Discarding standby JVM %s, since it has exited or doesn't match the requested Worker",
+                    workerJvm.getId()));
+            workerJvmManager.shutdown(workerJvm);
+            return null;
+        }
+        return workerJvm;
+    }
+
+    private void attachWorkerJvm(WorkerJvm workerJvm) throws IOException {
+        // the standby Worker reads the path of its Hazelcast config from stdin
+        OutputStream outputStream = workerJvm.getProcess().getOutputStream();
+        try {
+            outputStream.write((hzConfigFile.getAbsolutePath() + '\n').getBytes());
+            outputStream.flush();
+        } finally {
+            closeQuietly(outputStream);
+        }
+        workerJvm.setStandby(false);
+    }
+
+    private SimulatorAddress waitForWorkerStartup(WorkerJvm worker, int workerTimeoutSec) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(workerTimeoutSec);
+
+        SimulatorAddress workerAddress = connectToWorker(worker, workerTimeoutSec, deadline);
+
+        long remainingMillis = deadline - System.currentTimeMillis();
+        if (remainingMillis <= 0 || !worker.awaitReady(remainingMillis)) {
+            throw createStartupTimeoutException(worker, workerTimeoutSec);
+        }
+
+        LOGGER.info(format("Worker %s started", worker.getId()));
+        return workerAddress;
+    }
+
+    /**
+     * Connects to the Worker, which opens its port after its HazelcastInstance has been created.
+     */
+    private SimulatorAddress connectToWorker(WorkerJvm worker, int workerTimeoutSec, long deadline) {
+        int workerIndex = workerJvmSettings.getWorkerIndex();
+        int workerPort = agent.getPort() + workerIndex;
+        while (System.currentTimeMillis() < deadline) {
             if (hasExited(worker)) {
                 throw new SpawnWorkerFailedException(format(
                         "Startup of Worker %s on Agent %s failed, check log files in %s for more information!",
                         worker.getAddress(), agent.getPublicAddress(), worker.getWorkerHome()));
             }
 
-            String address = readAddress(worker);
-            if (address != null) {
-                worker.setHzAddress(address);
-                LOGGER.info(format("Worker %s started", worker.getId()));
-                return;
+            try {
+                return agent.getAgentConnector().addWorker(workerIndex, "127.0.0.1", workerPort);
+            } catch (Exception e) {
+                EmptyStatement.ignore(e);
             }
 
-            sleepMillis(WAIT_FOR_WORKER_STARTUP_INTERVAL_MILLIS);
+            sleepMillis(CONNECT_RETRY_INTERVAL_MILLIS);
         }
 
-        throw new SpawnWorkerFailedException(format(
+        throw createStartupTimeoutException(worker, workerTimeoutSec);
+    }
+
+    private SpawnWorkerFailedException createStartupTimeoutException(WorkerJvm worker, int workerTimeoutSec) {
+        return new SpawnWorkerFailedException(format(
                 "Worker %s on Agent %s didn't start within %s seconds, check log files in %s for more information!",
                 worker.getAddress(), agent.getPublicAddress(), workerTimeoutSec, worker.getWorkerHome()));
     }
@@ -205,18 +296,6 @@ public class WorkerJvmLauncher {
         }
     }
 
-    private String readAddress(WorkerJvm jvm) {
-        File file = new File(jvm.getWorkerHome(), "worker.address");
-        if (!file.exists()) {
-            return null;
-        }
-
-        String address = readObject(file);
-        deleteQuiet(file);
-
-        return address;
-    }
-
     private String[] buildArgs(WorkerJvm workerJvm, WorkerType type) {
         List<String> args = new LinkedList<String>();
 
@@ -242,7 +321,12 @@ public class WorkerJvmLauncher {
         args.add("-DworkerPort=" + workerPort);
         args.add("-DautoCreateHzInstance=" + workerJvmSettings.isAutoCreateHzInstance());
         args.add("-DworkerPerformanceMonitorIntervalSeconds=" + workerJvmSettings.getWorkerPerformanceMonitorIntervalSeconds());
-        args.add("-DhzConfigFile=" + hzConfigFile.getAbsolutePath());
+        args.add("-DworkerHeartbeatIntervalSeconds=" + workerJvmSettings.getWorkerHeartbeatIntervalSeconds());
+        if (workerJvm.isStandby()) {
+            args.add("-DworkerStandby=true");
+        } else {
+            args.add("-DhzConfigFile=" + hzConfigFile.getAbsolutePath());
+        }
 
         // add class name to start correct worker type
         args.add(type.getClassName());
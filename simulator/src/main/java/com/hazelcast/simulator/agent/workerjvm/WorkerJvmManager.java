@@ -41,6 +41,10 @@ public class WorkerJvmManager {
         workerJVMs.put(workerAddress, workerJvm);
     }
 
+    public WorkerJvm get(SimulatorAddress workerAddress) {
+        return workerJVMs.get(workerAddress);
+    }
+
     public Collection<WorkerJvm> getWorkerJVMs() {
         return workerJVMs.values();
     }
@@ -69,7 +73,9 @@ public class WorkerJvmManager {
         if (workerJvm == null) {
             LOGGER.warn("Should update LastSeenTimestamp for unknown WorkerJVM: " + sourceAddress);
         } else {
-            LOGGER.info("Updated LastSeenTimestamp for: " + sourceAddress);
+            if (LOGGER.isTraceEnabled()) {
+                LOGGER.trace("Updated LastSeenTimestamp for: " + sourceAddress);
+            }
             workerJvm.updateLastSeen();
         }
     }
@@ -0,0 +1,463 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.agent.workerjvm;
+
+import com.hazelcast.simulator.protocol.connector.ServerConnector;
+import com.hazelcast.simulator.protocol.core.Response;
+import com.hazelcast.simulator.protocol.core.ResponseType;
+import com.hazelcast.simulator.protocol.core.SimulatorAddress;
+import com.hazelcast.simulator.protocol.core.SimulatorProtocolException;
+import com.hazelcast.simulator.protocol.operation.PerformanceStateOperation;
+import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
+import com.hazelcast.simulator.protocol.operation.TestHistogramOperation;
+import com.hazelcast.simulator.protocol.operation.WorkerPerformanceStatesOperation;
+import com.hazelcast.simulator.worker.performance.PerformanceState;
+import org.HdrHistogram.Histogram;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.simulator.protocol.core.SimulatorAddress.COORDINATOR;
+import static com.hazelcast.simulator.utils.CommonUtils.joinThread;
+import static com.hazelcast.simulator.utils.HistogramUtils.decodeHistogram;
+import static com.hazelcast.simulator.utils.HistogramUtils.encodeHistogram;
+import static java.lang.String.format;
+
+/**
+ * Aggregates the performance states and interval histograms of all Workers of an Agent.
+ *
+ * The Workers send their performance data to their Agent, which merges it per test and sends a single
+ * {@link PerformanceStateOperation} and a single {@link TestHistogramOperation} per test to the Coordinator per interval. So
+ * the number of messages the Coordinator has to process depends on the number of Agents instead of the number of Workers.
+ *
+ * The data is flushed as soon as all known Workers of the pending tests have sent their performance state and histograms,
+ * but latest after the performance monitor interval of the Workers. So the flushes follow the intervals of the Workers and
+ * an interval isn't split into partial aggregates. A Worker which missed an interval contributes its last interval throughput
+ * once more, since its report is most likely just late. Afterwards it only contributes its totals. A finished Worker is removed
+ * via {@link #removeWorker(SimulatorAddress)}, so it's no longer waited for and only contributes its totals.
+ *
+ * The last {@link PerformanceState} per Worker and test is kept, so the per-Worker detail is available on demand via
+ * {@link #sendWorkerPerformanceStates()} and is logged on debug level.
+ */
+public class WorkerPerformanceAggregator {
+
+    private static final int DEFAULT_MAX_FLUSH_DELAY_SECONDS = 10;
+    private static final long NOT_PENDING = -1;
+
+    private static final Logger LOGGER = Logger.getLogger(WorkerPerformanceAggregator.class);
+
+    // holds the last PerformanceState per testId and Worker
+    private final Map<String, Map<SimulatorAddress, PerformanceState>> testWorkerPerformanceStates
+            = new HashMap<String, Map<SimulatorAddress, PerformanceState>>();
+
+    // holds the last PerformanceState per testId and finished Worker, whose totals are still part of the Agent totals
+    private final Map<String, Map<SimulatorAddress, PerformanceState>> testFinishedWorkerPerformanceStates
+            = new HashMap<String, Map<SimulatorAddress, PerformanceState>>();
+
+    // holds the Workers per testId, which have sent a PerformanceState since the last flush
+    private final Map<String, Set<SimulatorAddress>> testUpdatedWorkers = new HashMap<String, Set<SimulatorAddress>>();
+
+    // holds the Workers per testId, which have sent their interval histograms since the last flush
+    private final Map<String, Set<SimulatorAddress>> testHistogramWorkers = new HashMap<String, Set<SimulatorAddress>>();
+
+    // holds the Workers per testId, whose last interval throughput was carried forward by the last flush
+    private final Map<String, Set<SimulatorAddress>> testCarriedForwardWorkers = new HashMap<String, Set<SimulatorAddress>>();
+
+    // holds the merged interval histogram per testId and probe since the last flush
+    private final Map<String, Map<String, Histogram>> testProbeHistograms = new HashMap<String, Map<String, Histogram>>();
+
+    private final Object flushLock = new Object();
+
+    private final ServerConnector serverConnector;
+    private final FlushThread flushThread;
+
+    private long maxFlushDelayNanos;
+    private long firstPendingNanos = NOT_PENDING;
+
+    public WorkerPerformanceAggregator(ServerConnector serverConnector) {
+        this(serverConnector, DEFAULT_MAX_FLUSH_DELAY_SECONDS, true);
+    }
+
+    WorkerPerformanceAggregator(ServerConnector serverConnector, int maxFlushDelaySeconds, boolean startFlushThread) {
+        this.serverConnector = serverConnector;
+        this.maxFlushDelayNanos = TimeUnit.SECONDS.toNanos(maxFlushDelaySeconds);
+        this.flushThread = new FlushThread();
+        if (startFlushThread) {
+            flushThread.start();
+        }
+    }
+
+    public void shutdown() {
+        flushThread.isRunning = false;
+        flushThread.interrupt();
+        joinThread(flushThread);
+
+        flush();
+    }
+
+    /**
+     * Sets the performance monitor interval of the Workers, which is the maximum delay of the data until it's flushed.
+     *
+     * @param intervalSeconds the performance monitor interval of the Workers in seconds
+     */
+    public synchronized void setWorkerPerformanceMonitorIntervalSeconds(int intervalSeconds) {
+        if (intervalSeconds > 0) {
+            maxFlushDelayNanos = TimeUnit.SECONDS.toNanos(intervalSeconds);
+            notifyAll();
+        }
+    }
+
+    /**
+     * Adds the performance states of a Worker.
+     *
+     * @param workerAddress     the {@link SimulatorAddress} of the Worker
+     * @param performanceStates the {@link PerformanceState} per testId
+     */
+    public synchronized void addPerformanceStates(SimulatorAddress workerAddress,
+                                                  Map<String, PerformanceState> performanceStates) {
+        for (Map.Entry<String, PerformanceState> entry : performanceStates.entrySet()) {
+            String testId = entry.getKey();
+            if (isFinishedWorker(testId, workerAddress)) {
+                LOGGER.warn(format("Ignoring performance state of test %s from finished Worker %s", testId, workerAddress));
+                continue;
+            }
+            getOrCreatePerformanceStates(testWorkerPerformanceStates, testId).put(workerAddress, entry.getValue());
+
+            getOrCreateWorkers(testUpdatedWorkers, testId).add(workerAddress);
+        }
+        markPending();
+    }
+
+    /**
+     * Merges the encoded interval histograms of a Worker into the interval histograms of the test.
+     *
+     * @param workerAddress the {@link SimulatorAddress} of the Worker
+     * @param testId        the testId of the test
+     * @param histograms    the compressed and Base64 encoded interval histograms per probe name
+     */
+    public synchronized void addTestHistograms(SimulatorAddress workerAddress, String testId, Map<String, String> histograms) {
+        Map<String, Histogram> probeHistograms = testProbeHistograms.get(testId);
+        if (probeHistograms == null) {
+            probeHistograms = new HashMap<String, Histogram>();
+            testProbeHistograms.put(testId, probeHistograms);
+        }
+        for (Map.Entry<String, String> entry : histograms.entrySet()) {
+            String probeName = entry.getKey();
+            Histogram intervalHistogram;
+            try {
+                intervalHistogram = decodeHistogram(entry.getValue());
+            } catch (IllegalArgumentException e) {
+                LOGGER.warn(format("Could not decode histogram of probe %s from test %s of Worker %s", probeName, testId,
+                        workerAddress));
+                continue;
+            }
+            Histogram histogram = probeHistograms.get(probeName);
+            if (histogram == null) {
+                probeHistograms.put(probeName, intervalHistogram);
+            } else {
+                histogram.add(intervalHistogram);
+            }
+        }
+        if (!isFinishedWorker(testId, workerAddress)) {
+            getOrCreateWorkers(testHistogramWorkers, testId).add(workerAddress);
+        }
+        markPending();
+    }
+
+    /**
+     * Removes a finished Worker, so it's no longer expected to report its performance data.
+     *
+     * The totals of the Worker are still part of the aggregated performance states and its last {@link PerformanceState} is
+     * still returned by {@link #getWorkerPerformanceStates()}. The remaining performance data of the Worker should be flushed
+     * before the Worker is removed.
+     *
+     * @param workerAddress the {@link SimulatorAddress} of the finished Worker
+     */
+    public synchronized void removeWorker(SimulatorAddress workerAddress) {
+        for (Map.Entry<String, Map<SimulatorAddress, PerformanceState>> entry : testWorkerPerformanceStates.entrySet()) {
+            PerformanceState performanceState = entry.getValue().remove(workerAddress);
+            if (performanceState != null) {
+                getOrCreatePerformanceStates(testFinishedWorkerPerformanceStates, entry.getKey())
+                        .put(workerAddress, performanceState);
+            }
+        }
+        removeFromWorkers(testUpdatedWorkers, workerAddress);
+        removeFromWorkers(testHistogramWorkers, workerAddress);
+        removeFromWorkers(testCarriedForwardWorkers, workerAddress);
+        // the remaining Workers may have reported already
+        notifyAll();
+    }
+
+    /**
+     * Returns the last {@link PerformanceState} per testId of all Workers.
+     *
+     * @return a {@link Map} with the last {@link PerformanceState} per testId per {@link SimulatorAddress} of a Worker
+     */
+    public synchronized Map<SimulatorAddress, Map<String, PerformanceState>> getWorkerPerformanceStates() {
+        Map<SimulatorAddress, Map<String, PerformanceState>> workerPerformanceStates
+                = new HashMap<SimulatorAddress, Map<String, PerformanceState>>();
+        addWorkerPerformanceStates(workerPerformanceStates, testFinishedWorkerPerformanceStates);
+        addWorkerPerformanceStates(workerPerformanceStates, testWorkerPerformanceStates);
+        return workerPerformanceStates;
+    }
+
+    /**
+     * Sends the last {@link PerformanceState} per testId of all Workers to the Coordinator.
+     *
+     * @return {@code true} if the {@link WorkerPerformanceStatesOperation} was sent successfully, {@code false} otherwise
+     */
+    public boolean sendWorkerPerformanceStates() {
+        WorkerPerformanceStatesOperation operation = new WorkerPerformanceStatesOperation();
+        for (Map.Entry<SimulatorAddress, Map<String, PerformanceState>> entry : getWorkerPerformanceStates().entrySet()) {
+            operation.addWorkerPerformanceStates(entry.getKey(), entry.getValue());
+        }
+        return write(operation);
+    }
+
+    /**
+     * Returns the last {@link PerformanceState} per testId of a single Worker.
+     *
+     * @param workerAddress the {@link SimulatorAddress} of the Worker
+     * @return a {@link Map} with the last {@link PerformanceState} per testId
+     */
+    public synchronized Map<String, PerformanceState> getWorkerPerformanceStates(SimulatorAddress workerAddress) {
+        Map<String, PerformanceState> performanceStates = getWorkerPerformanceStates().get(workerAddress);
+        return (performanceStates == null) ? new HashMap<String, PerformanceState>() : performanceStates;
+    }
+
+    /**
+     * Sends the aggregated performance data since the last flush to the Coordinator.
+     *
+     * When this method returns, all data which was added before the call has been sent, e.g. before the Agent reports a
+     * finished Worker.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            for (SimulatorOperation operation : drainOperations()) {
+                write(operation);
+            }
+        }
+    }
+
+    synchronized List<SimulatorOperation> drainOperations() {
+        List<SimulatorOperation> operations = new ArrayList<SimulatorOperation>();
+
+        if (!testUpdatedWorkers.isEmpty()) {
+            PerformanceStateOperation operation = new PerformanceStateOperation();
+            for (Map.Entry<String, Set<SimulatorAddress>> entry : testUpdatedWorkers.entrySet()) {
+                String testId = entry.getKey();
+                operation.addPerformanceState(testId, aggregatePerformanceState(testId, entry.getValue()));
+            }
+            testUpdatedWorkers.clear();
+            operations.add(operation);
+        }
+
+        for (Map.Entry<String, Map<String, Histogram>> entry : testProbeHistograms.entrySet()) {
+            Map<String, String> encodedHistograms = new HashMap<String, String>();
+            for (Map.Entry<String, Histogram> histogramEntry : entry.getValue().entrySet()) {
+                encodedHistograms.put(histogramEntry.getKey(), encodeHistogram(histogramEntry.getValue()));
+            }
+            if (!encodedHistograms.isEmpty()) {
+                operations.add(new TestHistogramOperation(entry.getKey(), encodedHistograms));
+            }
+        }
+        testProbeHistograms.clear();
+        testHistogramWorkers.clear();
+        firstPendingNanos = NOT_PENDING;
+
+        return operations;
+    }
+
+    /**
+     * Checks if the pending data should be flushed.
+     *
+     * @param nowNanos the current time, as measured by {@link System#nanoTime()}
+     * @return {@code true} if all known Workers of the pending tests have reported or the maximum delay has passed
+     */
+    synchronized boolean isFlushDue(long nowNanos) {
+        if (firstPendingNanos == NOT_PENDING) {
+            return false;
+        }
+        return nowNanos - firstPendingNanos >= maxFlushDelayNanos || haveAllWorkersReported();
+    }
+
+    private boolean haveAllWorkersReported() {
+        Set<String> pendingTestIds = new HashSet<String>(testUpdatedWorkers.keySet());
+        pendingTestIds.addAll(testHistogramWorkers.keySet());
+        for (String testId : pendingTestIds) {
+            Map<SimulatorAddress, PerformanceState> workerPerformanceStates = testWorkerPerformanceStates.get(testId);
+            if (workerPerformanceStates == null) {
+                return false;
+            }
+            int workerCount = workerPerformanceStates.size();
+            if (getWorkerCount(testUpdatedWorkers, testId) < workerCount
+                    || getWorkerCount(testHistogramWorkers, testId) < workerCount) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void markPending() {
+        if (firstPendingNanos == NOT_PENDING) {
+            firstPendingNanos = System.nanoTime();
+        }
+        notifyAll();
+    }
+
+    private PerformanceState aggregatePerformanceState(String testId, Set<SimulatorAddress> updatedWorkers) {
+        Set<SimulatorAddress> carriedForwardWorkers = getOrCreateWorkers(testCarriedForwardWorkers, testId);
+        PerformanceState aggregatedState = new PerformanceState();
+        for (Map.Entry<SimulatorAddress, PerformanceState> entry : testWorkerPerformanceStates.get(testId).entrySet()) {
+            SimulatorAddress workerAddress = entry.getKey();
+            PerformanceState workerState = entry.getValue();
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug(format("%s %s %s", testId, workerAddress, workerState));
+            }
+            if (updatedWorkers.contains(workerAddress)) {
+                carriedForwardWorkers.remove(workerAddress);
+                aggregatedState.add(workerState);
+            } else if (carriedForwardWorkers.add(workerAddress)) {
+                // the report of the Worker is most likely just late, so its last interval is carried forward once
+                aggregatedState.add(workerState);
+            } else {
+                // the totals of a Worker without an update in this interval are still part of the Agent totals
+                aggregatedState.add(createTotalsPerformanceState(workerState));
+            }
+        }
+        Map<SimulatorAddress, PerformanceState> finishedWorkerPerformanceStates = testFinishedWorkerPerformanceStates.get(testId);
+        if (finishedWorkerPerformanceStates != null) {
+            // the totals of finished Workers are still part of the Agent totals
+            for (PerformanceState workerState : finishedWorkerPerformanceStates.values()) {
+                aggregatedState.add(createTotalsPerformanceState(workerState));
+            }
+        }
+        return aggregatedState;
+    }
+
+    private boolean isFinishedWorker(String testId, SimulatorAddress workerAddress) {
+        Map<SimulatorAddress, PerformanceState> finishedWorkerPerformanceStates = testFinishedWorkerPerformanceStates.get(testId);
+        return (finishedWorkerPerformanceStates != null && finishedWorkerPerformanceStates.containsKey(workerAddress));
+    }
+
+    private static PerformanceState createTotalsPerformanceState(PerformanceState workerState) {
+        return new PerformanceState(workerState.getOperationCount(), 0, workerState.getTotalThroughput(), 0, 0, 0);
+    }
+
+    private boolean write(SimulatorOperation operation) {
+        try {
+            Response response = serverConnector.write(COORDINATOR, operation);
+            ResponseType responseType = response.getFirstErrorResponseType();
+            if (responseType != ResponseType.SUCCESS) {
+                LOGGER.error(format("Could not send %s to Coordinator: %s", operation.getClass().getSimpleName(), responseType));
+                return false;
+            }
+            return true;
+        } catch (SimulatorProtocolException e) {
+            LOGGER.error(format("Could not send %s to Coordinator", operation.getClass().getSimpleName()), e);
+            return false;
+        }
+    }
+
+    private synchronized void awaitFlush() throws InterruptedException {
+        while (flushThread.isRunning) {
+            long nowNanos = System.nanoTime();
+            if (isFlushDue(nowNanos)) {
+                return;
+            }
+            if (firstPendingNanos == NOT_PENDING) {
+                wait();
+            } else {
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(firstPendingNanos + maxFlushDelayNanos - nowNanos);
+                wait(Math.max(1, remainingMillis));
+            }
+        }
+    }
+
+    private static Set<SimulatorAddress> getOrCreateWorkers(Map<String, Set<SimulatorAddress>> testWorkers, String testId) {
+        Set<SimulatorAddress> workers = testWorkers.get(testId);
+        if (workers == null) {
+            workers = new HashSet<SimulatorAddress>();
+            testWorkers.put(testId, workers);
+        }
+        return workers;
+    }
+
+    private static Map<SimulatorAddress, PerformanceState> getOrCreatePerformanceStates(
+            Map<String, Map<SimulatorAddress, PerformanceState>> testPerformanceStates, String testId) {
+        Map<SimulatorAddress, PerformanceState> performanceStates = testPerformanceStates.get(testId);
+        if (performanceStates == null) {
+            performanceStates = new HashMap<SimulatorAddress, PerformanceState>();
+            testPerformanceStates.put(testId, performanceStates);
+        }
+        return performanceStates;
+    }
+
+    private static void addWorkerPerformanceStates(Map<SimulatorAddress, Map<String, PerformanceState>> workerPerformanceStates,
+                                                   Map<String, Map<SimulatorAddress, PerformanceState>> testPerformanceStates) {
+        for (Map.Entry<String, Map<SimulatorAddress, PerformanceState>> testEntry : testPerformanceStates.entrySet()) {
+            for (Map.Entry<SimulatorAddress, PerformanceState> entry : testEntry.getValue().entrySet()) {
+                Map<String, PerformanceState> performanceStates = workerPerformanceStates.get(entry.getKey());
+                if (performanceStates == null) {
+                    performanceStates = new HashMap<String, PerformanceState>();
+                    workerPerformanceStates.put(entry.getKey(), performanceStates);
+                }
+                performanceStates.put(testEntry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private static void removeFromWorkers(Map<String, Set<SimulatorAddress>> testWorkers, SimulatorAddress workerAddress) {
+        for (Set<SimulatorAddress> workers : testWorkers.values()) {
+            workers.remove(workerAddress);
+        }
+    }
+
+    private static int getWorkerCount(Map<String, Set<SimulatorAddress>> testWorkers, String testId) {
+        Set<SimulatorAddress> workers = testWorkers.get(testId);
+        return (workers == null) ? 0 : workers.size();
+    }
+
+    private final class FlushThread extends Thread {
+
+        private volatile boolean isRunning = true;
+
+        private FlushThread() {
+            super("WorkerPerformanceAggregatorFlushThread");
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (isRunning) {
+                try {
+                    awaitFlush();
+                } catch (InterruptedException e) {
+                    break;
+                }
+                if (isRunning) {
+                    flush();
+                }
+            }
+        }
+    }
+}
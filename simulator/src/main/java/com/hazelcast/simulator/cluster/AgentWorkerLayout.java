@@ -48,6 +48,10 @@ public final class AgentWorkerLayout {
         return workerJvmSettingsList;
     }
 
+    public AgentData getAgentData() {
+        return agentData;
+    }
+
     public SimulatorAddress getSimulatorAddress() {
         return agentData.getAddress();
     }
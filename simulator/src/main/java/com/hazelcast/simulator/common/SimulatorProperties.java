@@ -30,6 +30,7 @@ import static com.hazelcast.simulator.utils.FileUtils.getSimulatorHome;
 import static com.hazelcast.simulator.utils.FileUtils.newFile;
 import static com.hazelcast.simulator.utils.jars.HazelcastJARs.GIT_VERSION_PREFIX;
 import static com.hazelcast.simulator.utils.jars.HazelcastJARs.OUT_OF_THE_BOX;
+import static java.lang.Boolean.parseBoolean;
 import static java.lang.Integer.parseInt;
 import static java.lang.String.format;
 
@@ -44,7 +45,7 @@ public class SimulatorProperties {
 
     public static final String PROPERTIES_FILE_NAME = "simulator.properties";
 
-    private static final int WORKER_TIMEOUT_FACTOR = 3;
+    private static final int WORKER_TIMEOUT_FACTOR = 12;
 
     private static final Logger LOGGER = Logger.getLogger(SimulatorProperties.class);
 
@@ -122,12 +123,17 @@ public class SimulatorProperties {
         }
     }
 
-    public int getWorkerPingIntervalSeconds() {
-        return parseInt(get("WORKER_PING_INTERVAL_SECONDS", "60"));
+    public int getWorkerHeartbeatIntervalSeconds() {
+        int heartbeatIntervalSeconds = parseInt(get("WORKER_HEARTBEAT_INTERVAL_SECONDS", "5"));
+        if (heartbeatIntervalSeconds < 1) {
+            throw new CommandLineExitException(format("WORKER_HEARTBEAT_INTERVAL_SECONDS has to be at least 1, but was %d",
+                    heartbeatIntervalSeconds));
+        }
+        return heartbeatIntervalSeconds;
     }
 
     public int getWorkerLastSeenTimeoutSeconds() {
-        return getWorkerPingIntervalSeconds() * WORKER_TIMEOUT_FACTOR;
+        return getWorkerHeartbeatIntervalSeconds() * WORKER_TIMEOUT_FACTOR;
     }
 
     public int getMemberWorkerShutdownDelaySeconds() {
@@ -138,10 +144,30 @@ public class SimulatorProperties {
         return parseInt(get("WAIT_FOR_WORKER_SHUTDOWN_TIMEOUT_SECONDS", "120"));
     }
 
+    public int getArtifactStreamIntervalSeconds() {
+        return parseInt(get("ARTIFACT_STREAM_INTERVAL_SECONDS", "10"));
+    }
+
     public int getAgentThreadPoolSize() {
         return parseInt(get("AGENT_THREAD_POOL_SIZE", "0"));
     }
 
+    public int getAgentEventLoopThreads() {
+        return parseInt(get("AGENT_EVENT_LOOP_THREADS", "0"));
+    }
+
+    public int getCoordinatorEventLoopThreads() {
+        return parseInt(get("COORDINATOR_EVENT_LOOP_THREADS", "0"));
+    }
+
+    public boolean isProtocolNativeTransport() {
+        return parseBoolean(get("PROTOCOL_NATIVE_TRANSPORT", "false"));
+    }
+
+    public boolean isUploadFanOut() {
+        return parseBoolean(get("UPLOAD_FAN_OUT", "false"));
+    }
+
     public int getAgentPort() {
         return parseInt(get("AGENT_PORT", "9000"));
     }
@@ -32,6 +32,7 @@ import com.hazelcast.simulator.utils.ThreadSpawner;
 import com.hazelcast.simulator.utils.jars.HazelcastJARs;
 import org.apache.log4j.Logger;
 
+import java.io.File;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
@@ -60,6 +61,8 @@ public final class Coordinator {
     private final TestPhaseListenerContainer testPhaseListenerContainer = new TestPhaseListenerContainer();
     private final PerformanceStateContainer performanceStateContainer = new PerformanceStateContainer();
     private final TestHistogramContainer testHistogramContainer = new TestHistogramContainer(performanceStateContainer);
+    private final WorkerHeartbeatContainer workerHeartbeatContainer = new WorkerHeartbeatContainer();
+    private final WorkerArtifactContainer workerArtifactContainer = new WorkerArtifactContainer(new File("workers"));
 
     private final TestSuite testSuite;
     private final ComponentRegistry componentRegistry;
@@ -182,7 +185,8 @@ public final class Coordinator {
     private void uploadFiles() {
         CoordinatorUploader uploader = new CoordinatorUploader(bash, componentRegistry, clusterLayout, hazelcastJARs,
                 coordinatorParameters.isUploadHazelcastJARs(), coordinatorParameters.isEnterpriseEnabled(),
-                coordinatorParameters.getWorkerClassPath(), workerParameters.getProfiler(), testSuite.getId());
+                coordinatorParameters.getWorkerClassPath(), workerParameters.getProfiler(), testSuite.getId(),
+                simulatorProperties.isUploadFanOut());
         uploader.run();
     }
 
@@ -203,13 +207,14 @@ public final class Coordinator {
         }
 
         remoteClient = new RemoteClient(coordinatorConnector, componentRegistry,
-                simulatorProperties.getWorkerPingIntervalSeconds(), simulatorProperties.getMemberWorkerShutdownDelaySeconds());
-        remoteClient.initTestSuite(testSuite);
+                simulatorProperties.getMemberWorkerShutdownDelaySeconds());
+        remoteClient.initTestSuite(testSuite, simulatorProperties.getArtifactStreamIntervalSeconds());
     }
 
     private void startCoordinatorConnector() {
         coordinatorConnector = new CoordinatorConnector(testPhaseListenerContainer, performanceStateContainer,
-                testHistogramContainer, failureContainer);
+                testHistogramContainer, failureContainer, workerHeartbeatContainer, workerArtifactContainer,
+                simulatorProperties.isProtocolNativeTransport(), simulatorProperties.getCoordinatorEventLoopThreads());
         ThreadSpawner spawner = new ThreadSpawner("startCoordinatorConnector", true);
         for (final AgentData agentData : componentRegistry.getAgents()) {
             final int agentPort = simulatorProperties.getAgentPort();
@@ -238,7 +243,7 @@ public final class Coordinator {
             int totalWorkerCount = clusterLayout.getTotalWorkerCount();
             echo("Starting %d Workers (%d members, %d clients)...", totalWorkerCount, clusterLayout.getMemberWorkerCount(),
                     clusterLayout.getClientWorkerCount());
-            remoteClient.createWorkers(clusterLayout, true);
+            remoteClient.createWorkers(clusterLayout);
 
             if (componentRegistry.workerCount() > 0) {
                 WorkerData firstWorker = componentRegistry.getFirstWorker();
@@ -271,6 +276,7 @@ public final class Coordinator {
                 echo("Configuration for %s (T%d):%n%s", testCase.getId(), testIndex, testCase);
                 TestCaseRunner runner = new TestCaseRunner(testIndex, testCase, this, maxTestCaseIdLength, testPhaseSyncMap);
                 testPhaseListenerContainer.addListener(testIndex, runner);
+                failureContainer.addListener(runner);
             }
 
             echoTestSuiteStart(testCount, isParallel);
@@ -291,7 +297,9 @@ public final class Coordinator {
                 Set<SimulatorAddress> finishedWorkers = failureContainer.getFinishedWorkers();
                 LOGGER.warn(format("Unfinished workers: %s", componentRegistry.getMissingWorkers(finishedWorkers).toString()));
             }
+            syncArtifacts();
 
+            requestWorkerPerformanceStates();
             performanceStateContainer.logDetailedPerformanceInfo();
             for (TestCase testCase : testSuite.getTestCaseList()) {
                 testHistogramContainer.createProbeResults(testSuite.getId(), testCase.getId());
@@ -299,6 +307,26 @@ public final class Coordinator {
         }
     }
 
+    private void syncArtifacts() {
+        if (simulatorProperties.getArtifactStreamIntervalSeconds() <= 0) {
+            return;
+        }
+        try {
+            echo("Syncing Worker artifacts...");
+            remoteClient.syncArtifacts();
+        } catch (Exception e) {
+            LOGGER.warn("Could not sync Worker artifacts, use provisioner --download to retrieve them", e);
+        }
+    }
+
+    private void requestWorkerPerformanceStates() {
+        try {
+            remoteClient.requestWorkerPerformanceStates();
+        } catch (Exception e) {
+            LOGGER.warn("Could not retrieve the performance states of the Workers", e);
+        }
+    }
+
     private void logTestSuiteDuration(boolean isParallel) {
         int testDuration = testSuite.getDurationSeconds();
         if (testDuration > 0) {
@@ -416,9 +444,13 @@ public final class Coordinator {
             echoLocal("Starting Agent on %s", ip);
             String mandatoryParameters = format("--addressIndex %d --publicAddress %s --port %s",
                     agentData.getAddressIndex(), ip, agentPort);
-            String optionalParameters = format(" --threadPoolSize %d --workerLastSeenTimeoutSeconds %d",
+            String optionalParameters = format(" --threadPoolSize %d --eventLoopThreads %d --workerLastSeenTimeoutSeconds %d",
                     simulatorProperties.getAgentThreadPoolSize(),
+                    simulatorProperties.getAgentEventLoopThreads(),
                     simulatorProperties.getWorkerLastSeenTimeoutSeconds());
+            if (simulatorProperties.isProtocolNativeTransport()) {
+                optionalParameters += " --nativeTransport";
+            }
             if (isEC2(simulatorProperties)) {
                 optionalParameters += format(" --cloudProvider %s --cloudIdentity %s --cloudCredential %s",
                         simulatorProperties.getCloudProvider(),
@@ -22,13 +22,16 @@ import com.hazelcast.simulator.protocol.registry.AgentData;
 import com.hazelcast.simulator.protocol.registry.ComponentRegistry;
 import com.hazelcast.simulator.utils.Bash;
 import com.hazelcast.simulator.utils.CommandLineExitException;
+import com.hazelcast.simulator.utils.DeltaUploader;
 import com.hazelcast.simulator.utils.ThreadSpawner;
 import com.hazelcast.simulator.utils.jars.HazelcastJARs;
 import org.apache.log4j.Logger;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 import static com.hazelcast.simulator.coordinator.Coordinator.SIMULATOR_VERSION;
 import static com.hazelcast.simulator.utils.CommonUtils.getElapsedSeconds;
@@ -36,6 +39,7 @@ import static com.hazelcast.simulator.utils.FileUtils.getFilesFromClassPath;
 import static com.hazelcast.simulator.utils.FileUtils.getSimulatorHome;
 import static com.hazelcast.simulator.utils.FormatUtils.HORIZONTAL_RULER;
 import static com.hazelcast.simulator.utils.FormatUtils.formatIpAddress;
+import static com.hazelcast.simulator.utils.jars.HazelcastJARs.directoryForVersionSpec;
 import static java.lang.String.format;
 
 class CoordinatorUploader {
@@ -48,6 +52,7 @@ class CoordinatorUploader {
     private final String simulatorHome = getSimulatorHome().getAbsolutePath();
 
     private final Bash bash;
+    private final DeltaUploader deltaUploader;
     private final ComponentRegistry componentRegistry;
     private final ClusterLayout clusterLayout;
 
@@ -60,9 +65,10 @@ class CoordinatorUploader {
     private final String testSuiteId;
 
     CoordinatorUploader(Bash bash, ComponentRegistry componentRegistry, ClusterLayout clusterLayout,
-                               HazelcastJARs hazelcastJARs, boolean uploadHazelcastJARs, boolean isEnterpriseEnabled,
-                               String workerClassPath, JavaProfiler javaProfiler, String testSuiteId) {
+                        HazelcastJARs hazelcastJARs, boolean uploadHazelcastJARs, boolean isEnterpriseEnabled,
+                        String workerClassPath, JavaProfiler javaProfiler, String testSuiteId, boolean uploadFanOut) {
         this.bash = bash;
+        this.deltaUploader = new DeltaUploader(bash, uploadFanOut);
         this.componentRegistry = componentRegistry;
         this.clusterLayout = clusterLayout;
 
@@ -103,20 +109,17 @@ class CoordinatorUploader {
         hazelcastJARs.prepare(isEnterpriseEnabled);
 
         LOGGER.info("Uploading Hazelcast JARs...");
-        ThreadSpawner spawner = new ThreadSpawner("uploadHazelcastJARs", true);
         long started = System.nanoTime();
-        for (AgentWorkerLayout agentWorkerLayout : clusterLayout.getAgentWorkerLayouts()) {
-            final String ip = agentWorkerLayout.getPublicAddress();
-            final Set<String> hazelcastVersionSpecs = agentWorkerLayout.getHazelcastVersionSpecs();
-            spawner.spawn(new Runnable() {
-                @Override
-                public void run() {
-                    hazelcastJARs.upload(ip, simulatorHome, hazelcastVersionSpecs);
-                    LOGGER.info(format("    Agent %s  done %s", formatIpAddress(ip), hazelcastVersionSpecs));
-                }
-            });
+        for (Map.Entry<String, List<AgentData>> entry : getAgentsByVersionSpec().entrySet()) {
+            String versionSpec = entry.getKey();
+            String versionDir = directoryForVersionSpec(versionSpec);
+            if (versionDir == null) {
+                continue;
+            }
+            List<File> sourceFiles = hazelcastJARs.getJARs(versionSpec, simulatorHome);
+            deltaUploader.upload(entry.getValue(), sourceFiles, format("hz-lib/%s/", versionDir));
+            LOGGER.info(format("    Hazelcast JARs %s done", versionSpec));
         }
-        spawner.awaitCompletion();
         LOGGER.info(format("Finished upload of Hazelcast JARs to agents (%d seconds)", getElapsedSeconds(started)));
     }
 
@@ -127,26 +130,12 @@ class CoordinatorUploader {
             }
 
             String sourcePath = UPLOAD_DIRECTORY.getAbsolutePath();
-            final String targetPath = format("workers/%s/", testSuiteId);
-            final List<File> sourceFiles = getFilesFromClassPath(sourcePath);
+            String targetPath = format("workers/%s/", testSuiteId);
+            List<File> sourceFiles = getFilesFromClassPath(sourcePath);
 
             LOGGER.info(format("Starting uploading '%s' to agents", sourcePath));
-            ThreadSpawner spawner = new ThreadSpawner("uploadUploadDirectory", true);
             long started = System.nanoTime();
-            for (AgentData agentData : componentRegistry.getAgents()) {
-                final String ip = agentData.getPublicAddress();
-                spawner.spawn(new Runnable() {
-                    @Override
-                    public void run() {
-                        bash.ssh(ip, format("mkdir -p hazelcast-simulator-%s/%s", SIMULATOR_VERSION, targetPath));
-                        for (File sourceFile : sourceFiles) {
-                            bash.uploadToRemoteSimulatorDir(ip, sourceFile.getAbsolutePath(), targetPath);
-                        }
-                        logAgentDone(ip);
-                    }
-                });
-            }
-            spawner.awaitCompletion();
+            deltaUploader.upload(componentRegistry.getAgents(), sourceFiles, targetPath);
             LOGGER.info(format("Finished uploading '%s' to agents (%d seconds)", sourcePath, getElapsedSeconds(started)));
         } catch (Exception e) {
             throw new CommandLineExitException("Could not copy upload directory to agents", e);
@@ -159,26 +148,12 @@ class CoordinatorUploader {
         }
 
         try {
-            final String targetPath = format("workers/%s/lib/", testSuiteId);
-            final List<File> sourceFiles = getFilesFromClassPath(workerClassPath);
+            String targetPath = format("workers/%s/lib/", testSuiteId);
+            List<File> sourceFiles = getFilesFromClassPath(workerClassPath);
 
             LOGGER.info(format("Copying %d files from workerClasspath '%s' to agents", sourceFiles.size(), workerClassPath));
-            ThreadSpawner spawner = new ThreadSpawner("uploadWorkerClassPath", true);
             long started = System.nanoTime();
-            for (AgentData agentData : componentRegistry.getAgents()) {
-                final String ip = agentData.getPublicAddress();
-                spawner.spawn(new Runnable() {
-                    @Override
-                    public void run() {
-                        bash.ssh(ip, format("mkdir -p hazelcast-simulator-%s/%s", SIMULATOR_VERSION, targetPath));
-                        for (File sourceFile : sourceFiles) {
-                            bash.uploadToRemoteSimulatorDir(ip, sourceFile.getAbsolutePath(), targetPath);
-                        }
-                        logAgentDone(ip);
-                    }
-                });
-            }
-            spawner.awaitCompletion();
+            deltaUploader.upload(componentRegistry.getAgents(), sourceFiles, targetPath);
             long elapsed = getElapsedSeconds(started);
             LOGGER.info(format("Finished copying workerClasspath '%s' to agents (%d seconds)", workerClassPath, elapsed));
         } catch (Exception e) {
@@ -210,6 +185,21 @@ class CoordinatorUploader {
         LOGGER.info(format("Finished upload of YourKit to Agents (%d seconds)", getElapsedSeconds(started)));
     }
 
+    private Map<String, List<AgentData>> getAgentsByVersionSpec() {
+        Map<String, List<AgentData>> agentsByVersionSpec = new HashMap<String, List<AgentData>>();
+        for (AgentWorkerLayout agentWorkerLayout : clusterLayout.getAgentWorkerLayouts()) {
+            for (String versionSpec : agentWorkerLayout.getHazelcastVersionSpecs()) {
+                List<AgentData> agents = agentsByVersionSpec.get(versionSpec);
+                if (agents == null) {
+                    agents = new ArrayList<AgentData>();
+                    agentsByVersionSpec.put(versionSpec, agents);
+                }
+                agents.add(agentWorkerLayout.getAgentData());
+            }
+        }
+        return agentsByVersionSpec;
+    }
+
     private void logAgentDone(String ip) {
         LOGGER.info(format("    Agent %s  done", formatIpAddress(ip)));
     }
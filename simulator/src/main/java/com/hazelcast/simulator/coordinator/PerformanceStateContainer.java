@@ -17,6 +17,7 @@ package com.hazelcast.simulator.coordinator;
 
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.worker.performance.PerformanceState;
+import org.HdrHistogram.Histogram;
 import org.apache.log4j.Logger;
 
 import java.util.HashMap;
@@ -28,18 +29,28 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static com.hazelcast.simulator.protocol.core.AddressLevel.AGENT;
 import static com.hazelcast.simulator.utils.FileUtils.appendText;
 import static com.hazelcast.simulator.utils.FormatUtils.NEW_LINE;
 import static com.hazelcast.simulator.utils.FormatUtils.formatDouble;
 import static com.hazelcast.simulator.utils.FormatUtils.formatLong;
 import static com.hazelcast.simulator.utils.FormatUtils.formatPercentage;
 import static com.hazelcast.simulator.worker.performance.PerformanceState.INTERVAL_LATENCY_PERCENTILE;
+import static java.lang.Math.max;
 import static java.lang.Math.round;
 import static java.lang.String.format;
 import static java.util.concurrent.TimeUnit.MICROSECONDS;
 
 /**
  * Responsible for storing and formatting performance metrics from Simulator workers.
+ *
+ * The latency values are calculated from the interval histograms of all workers, which are merged per test and probe. So the
+ * reported percentiles are real cluster-wide percentiles. If no histograms have been received for an interval, the latency
+ * values of the {@link PerformanceState} instances are used.
+ *
+ * The performance states and interval histograms are aggregated by each Agent for all of its Workers, so there is a single
+ * {@link PerformanceState} per Agent and test and interval. The last {@link PerformanceState} of each Worker can be requested
+ * from the Agents for the detailed performance info.
  */
 public class PerformanceStateContainer {
 
@@ -48,22 +59,36 @@ public class PerformanceStateContainer {
 
     static final String PERFORMANCE_FILE_NAME = "performance.txt";
 
+    static final double[] LATENCY_PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
     private static final long DISPLAY_LATENCY_AS_MICROS_MAX_VALUE = TimeUnit.SECONDS.toMicros(1);
 
     private static final Logger LOGGER = Logger.getLogger(PerformanceStateContainer.class);
 
-    // holds a map per Worker SimulatorAddress which contains the last PerformanceState per testCaseId
+    // holds a map per SimulatorAddress of an Agent (which aggregates its Workers) or Worker with the last PerformanceState per
+    // testCaseId
     private final ConcurrentMap<SimulatorAddress, ConcurrentMap<String, PerformanceState>> workerLastPerformanceStateMap
             = new ConcurrentHashMap<SimulatorAddress, ConcurrentMap<String, PerformanceState>>();
 
+    // holds a map per SimulatorAddress of a Worker with the last PerformanceState per testCaseId, as requested from the Agents
+    private final ConcurrentMap<SimulatorAddress, Map<String, PerformanceState>> workerDetailPerformanceStateMap
+            = new ConcurrentHashMap<SimulatorAddress, Map<String, PerformanceState>>();
+
     // holds an AtomicReference per testCaseId with a queue of WorkerPerformanceState instances over time
     private final ConcurrentMap<String, AtomicReference<Queue<WorkerPerformanceState>>> testPerformanceStateQueue
             = new ConcurrentHashMap<String, AtomicReference<Queue<WorkerPerformanceState>>>();
 
+    // holds a map per testCaseId with the merged interval histogram per probe of all Workers since the last retrieval
+    private final Map<String, Map<String, Histogram>> testIntervalHistogramMap = new HashMap<String, Map<String, Histogram>>();
+
     public void init(String testCaseId) {
         Queue<WorkerPerformanceState> queue = new ConcurrentLinkedQueue<WorkerPerformanceState>();
         AtomicReference<Queue<WorkerPerformanceState>> reference = new AtomicReference<Queue<WorkerPerformanceState>>(queue);
         testPerformanceStateQueue.put(testCaseId, reference);
+
+        synchronized (testIntervalHistogramMap) {
+            testIntervalHistogramMap.put(testCaseId, new HashMap<String, Histogram>());
+        }
     }
 
     public void updatePerformanceState(SimulatorAddress workerAddress, Map<String, PerformanceState> performanceStates) {
@@ -84,11 +109,48 @@ public class PerformanceStateContainer {
         }
     }
 
+    /**
+     * Stores the last {@link PerformanceState} per testCaseId of single Workers, which are aggregated by their Agents otherwise.
+     *
+     * @param workerPerformanceStates the last {@link PerformanceState} per testCaseId per {@link SimulatorAddress} of a Worker
+     */
+    public void updateWorkerPerformanceStates(Map<SimulatorAddress, Map<String, PerformanceState>> workerPerformanceStates) {
+        workerDetailPerformanceStateMap.putAll(workerPerformanceStates);
+    }
+
+    /**
+     * Merges an interval histogram of a Worker into the interval histogram of the test and probe.
+     *
+     * The given histogram is not modified or stored, so it can be used by the caller afterwards.
+     *
+     * @param testCaseId the testCaseId of the test
+     * @param probeName  the name of the probe
+     * @param histogram  the interval histogram of the Worker
+     */
+    public void addIntervalHistogram(String testCaseId, String probeName, Histogram histogram) {
+        synchronized (testIntervalHistogramMap) {
+            Map<String, Histogram> probeHistogramMap = testIntervalHistogramMap.get(testCaseId);
+            if (probeHistogramMap == null) {
+                return;
+            }
+            Histogram intervalHistogram = probeHistogramMap.get(probeName);
+            if (intervalHistogram == null) {
+                probeHistogramMap.put(probeName, histogram.copy());
+            } else {
+                intervalHistogram.add(histogram);
+            }
+        }
+    }
+
     public String getPerformanceNumbers(String testCaseId) {
         PerformanceState performanceState = getPerformanceStateForTestCase(testCaseId);
+        Map<String, Histogram> intervalHistograms = getAndResetIntervalHistograms(testCaseId);
         if (performanceState.isEmpty() || performanceState.getOperationCount() < 1) {
             return "";
         }
+        if (!intervalHistograms.isEmpty()) {
+            return formatPerformanceNumbers(performanceState, new ClusterLatency(intervalHistograms));
+        }
         String latencyUnit = "µs";
         long avgLatencyValue = round(performanceState.getIntervalAvgLatency());
         long percentileLatencyValue = performanceState.getIntervalPercentileLatency();
@@ -112,6 +174,46 @@ public class PerformanceStateContainer {
         );
     }
 
+    private static String formatPerformanceNumbers(PerformanceState performanceState, ClusterLatency latency) {
+        StringBuilder sb = new StringBuilder(format("%s ops %s ops/s",
+                formatLong(performanceState.getOperationCount(), THROUGHPUT_FORMAT_LENGTH),
+                formatDouble(performanceState.getIntervalThroughput(), THROUGHPUT_FORMAT_LENGTH)));
+
+        String latencyUnit = "µs";
+        boolean displayAsMillis = latency.getAvgValue() > DISPLAY_LATENCY_AS_MICROS_MAX_VALUE;
+        if (displayAsMillis) {
+            latencyUnit = "ms";
+        }
+        appendLatency(sb, round(latency.getAvgValue()), displayAsMillis, latencyUnit, "avg");
+        for (int i = 0; i < LATENCY_PERCENTILES.length; i++) {
+            String label = formatPercentile(LATENCY_PERCENTILES[i]) + "th";
+            appendLatency(sb, latency.getPercentileValue(i), displayAsMillis, latencyUnit, label);
+        }
+        appendLatency(sb, latency.getMaxValue(), displayAsMillis, latencyUnit, "max");
+        return sb.toString();
+    }
+
+    private static String formatPercentile(double percentile) {
+        long roundedPercentile = round(percentile);
+        return (roundedPercentile == percentile) ? String.valueOf(roundedPercentile) : String.valueOf(percentile);
+    }
+
+    private static void appendLatency(StringBuilder sb, long value, boolean displayAsMillis, String latencyUnit, String label) {
+        long displayValue = displayAsMillis ? MICROSECONDS.toMillis(value) : value;
+        sb.append(format(" %s %s (%s)", formatLong(displayValue, LATENCY_FORMAT_LENGTH), latencyUnit, label));
+    }
+
+    Map<String, Histogram> getAndResetIntervalHistograms(String testCaseId) {
+        synchronized (testIntervalHistogramMap) {
+            Map<String, Histogram> probeHistogramMap = testIntervalHistogramMap.get(testCaseId);
+            if (probeHistogramMap == null) {
+                return new HashMap<String, Histogram>();
+            }
+            testIntervalHistogramMap.put(testCaseId, new HashMap<String, Histogram>());
+            return probeHistogramMap;
+        }
+    }
+
     PerformanceState getPerformanceStateForTestCase(String testCaseId) {
         // return if no queue of WorkerPerformanceState can be found (unknown testCaseId)
         AtomicReference<Queue<WorkerPerformanceState>> atomicReference = testPerformanceStateQueue.get(testCaseId);
@@ -123,7 +225,7 @@ public class PerformanceStateContainer {
         ConcurrentLinkedQueue<WorkerPerformanceState> newQueue = new ConcurrentLinkedQueue<WorkerPerformanceState>();
         Queue<WorkerPerformanceState> performanceStates = atomicReference.getAndSet(newQueue);
 
-        // aggregate the PerformanceState instances per Worker by maximum values (since from same Worker)
+        // aggregate the PerformanceState instances per Agent by maximum values (since from same Agent)
         Map<SimulatorAddress, PerformanceState> workerPerformanceStateMap = new HashMap<SimulatorAddress, PerformanceState>();
         for (WorkerPerformanceState workerPerformanceState : performanceStates) {
             PerformanceState candidate = workerPerformanceStateMap.get(workerPerformanceState.simulatorAddress);
@@ -134,7 +236,7 @@ public class PerformanceStateContainer {
             }
         }
 
-        // aggregate the PerformanceState instances from all Workers by adding values (since from different Workers)
+        // aggregate the PerformanceState instances from all Agents by adding values (since from different Agents)
         PerformanceState performanceState = new PerformanceState();
         for (PerformanceState workerPerformanceState : workerPerformanceStateMap.values()) {
             performanceState.add(workerPerformanceState);
@@ -147,6 +249,7 @@ public class PerformanceStateContainer {
         Map<SimulatorAddress, PerformanceState> agentPerformanceStateMap = new HashMap<SimulatorAddress, PerformanceState>();
 
         calculatePerformanceStates(totalPerformanceState, agentPerformanceStateMap);
+        Map<SimulatorAddress, PerformanceState> workerPerformanceStateMap = calculateWorkerPerformanceStates();
 
         long totalOperationCount = totalPerformanceState.getOperationCount();
         if (totalOperationCount < 1) {
@@ -170,14 +273,54 @@ public class PerformanceStateContainer {
                     formatPercentage(operationCount, totalOperationCount),
                     formatLong(operationCount, THROUGHPUT_FORMAT_LENGTH),
                     formatDouble(performanceState.getTotalThroughput(), THROUGHPUT_FORMAT_LENGTH)));
+
+            logWorkerPerformanceInfo(agentAddress, workerPerformanceStateMap, totalOperationCount);
+        }
+    }
+
+    private static void logWorkerPerformanceInfo(SimulatorAddress agentAddress,
+                                                 Map<SimulatorAddress, PerformanceState> workerPerformanceStateMap,
+                                                 long totalOperationCount) {
+        for (Map.Entry<SimulatorAddress, PerformanceState> entry : workerPerformanceStateMap.entrySet()) {
+            SimulatorAddress workerAddress = entry.getKey();
+            if (!agentAddress.equals(workerAddress.getParent())) {
+                continue;
+            }
+            PerformanceState performanceState = entry.getValue();
+
+            long operationCount = performanceState.getOperationCount();
+            LOGGER.info(format("    Worker %-12s %s%% %s ops %s ops/s",
+                    workerAddress,
+                    formatPercentage(operationCount, totalOperationCount),
+                    formatLong(operationCount, THROUGHPUT_FORMAT_LENGTH),
+                    formatDouble(performanceState.getTotalThroughput(), THROUGHPUT_FORMAT_LENGTH)));
+        }
+    }
+
+    Map<SimulatorAddress, PerformanceState> calculateWorkerPerformanceStates() {
+        Map<SimulatorAddress, PerformanceState> workerPerformanceStateMap = new HashMap<SimulatorAddress, PerformanceState>();
+        for (Map.Entry<SimulatorAddress, Map<String, PerformanceState>> workerEntry
+                : workerDetailPerformanceStateMap.entrySet()) {
+            PerformanceState workerPerformanceState = new PerformanceState();
+            for (PerformanceState performanceState : workerEntry.getValue().values()) {
+                if (performanceState != null) {
+                    workerPerformanceState.add(performanceState);
+                }
+            }
+            workerPerformanceStateMap.put(workerEntry.getKey(), workerPerformanceState);
         }
+        return workerPerformanceStateMap;
     }
 
     void calculatePerformanceStates(PerformanceState totalPerformanceState,
                                     Map<SimulatorAddress, PerformanceState> agentPerformanceStateMap) {
         for (Map.Entry<SimulatorAddress, ConcurrentMap<String, PerformanceState>> workerEntry
                 : workerLastPerformanceStateMap.entrySet()) {
-            SimulatorAddress agentAddress = workerEntry.getKey().getParent();
+            SimulatorAddress sourceAddress = workerEntry.getKey();
+            SimulatorAddress agentAddress = sourceAddress;
+            if (sourceAddress.getAddressLevel() != AGENT) {
+                agentAddress = sourceAddress.getParent();
+            }
 
             // get or create PerformanceState for agentAddress
             PerformanceState agentPerformanceState = agentPerformanceStateMap.get(agentAddress);
@@ -206,6 +349,44 @@ public class PerformanceStateContainer {
         return (map == null ? candidate : map);
     }
 
+    /**
+     * Calculates the latency values of a test from the merged interval histograms of all Workers.
+     *
+     * The values are calculated per probe and the maximum over all probes is taken, like a Worker does for its own probes. The
+     * average is the mean of the merged histogram, so it is weighted by the number of operations per Worker.
+     */
+    static final class ClusterLatency {
+
+        private final long[] percentileValues = new long[LATENCY_PERCENTILES.length];
+        private double avgValue;
+        private long maxValue;
+
+        ClusterLatency(Map<String, Histogram> probeHistograms) {
+            for (Histogram histogram : probeHistograms.values()) {
+                if (histogram.getTotalCount() == 0) {
+                    continue;
+                }
+                for (int i = 0; i < LATENCY_PERCENTILES.length; i++) {
+                    percentileValues[i] = max(percentileValues[i], histogram.getValueAtPercentile(LATENCY_PERCENTILES[i]));
+                }
+                avgValue = max(avgValue, histogram.getMean());
+                maxValue = max(maxValue, histogram.getMaxValue());
+            }
+        }
+
+        long getPercentileValue(int index) {
+            return percentileValues[index];
+        }
+
+        double getAvgValue() {
+            return avgValue;
+        }
+
+        long getMaxValue() {
+            return maxValue;
+        }
+    }
+
     private static final class WorkerPerformanceState {
 
         private final SimulatorAddress simulatorAddress;
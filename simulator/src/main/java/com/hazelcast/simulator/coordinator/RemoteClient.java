@@ -22,14 +22,15 @@ import com.hazelcast.simulator.protocol.connector.CoordinatorConnector;
 import com.hazelcast.simulator.protocol.core.Response;
 import com.hazelcast.simulator.protocol.core.ResponseType;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
-import com.hazelcast.simulator.protocol.core.SimulatorProtocolException;
 import com.hazelcast.simulator.protocol.operation.CreateWorkerOperation;
 import com.hazelcast.simulator.protocol.operation.InitTestSuiteOperation;
 import com.hazelcast.simulator.protocol.operation.LogOperation;
-import com.hazelcast.simulator.protocol.operation.PingOperation;
+import com.hazelcast.simulator.protocol.operation.PrepareWorkerOperation;
+import com.hazelcast.simulator.protocol.operation.RequestWorkerPerformanceStatesOperation;
 import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
 import com.hazelcast.simulator.protocol.operation.StartTimeoutDetectionOperation;
 import com.hazelcast.simulator.protocol.operation.StopTimeoutDetectionOperation;
+import com.hazelcast.simulator.protocol.operation.SyncArtifactsOperation;
 import com.hazelcast.simulator.protocol.operation.TerminateWorkerOperation;
 import com.hazelcast.simulator.protocol.registry.ComponentRegistry;
 import com.hazelcast.simulator.test.TestSuite;
@@ -44,8 +45,6 @@ import java.util.Map;
 
 import static com.hazelcast.simulator.protocol.core.SimulatorAddress.ALL_AGENTS;
 import static com.hazelcast.simulator.protocol.core.SimulatorAddress.ALL_WORKERS;
-import static com.hazelcast.simulator.utils.CommonUtils.joinThread;
-import static com.hazelcast.simulator.utils.CommonUtils.sleepSeconds;
 import static java.lang.String.format;
 
 public class RemoteClient {
@@ -54,14 +53,12 @@ public class RemoteClient {
 
     private final CoordinatorConnector coordinatorConnector;
     private final ComponentRegistry componentRegistry;
-    private final WorkerPingThread workerPingThread;
     private final int memberWorkerShutdownDelaySeconds;
 
     public RemoteClient(CoordinatorConnector coordinatorConnector, ComponentRegistry componentRegistry,
-                        int workerPingIntervalSeconds, int memberWorkerShutdownDelaySeconds) {
+                        int memberWorkerShutdownDelaySeconds) {
         this.coordinatorConnector = coordinatorConnector;
         this.componentRegistry = componentRegistry;
-        this.workerPingThread = new WorkerPingThread(workerPingIntervalSeconds);
         this.memberWorkerShutdownDelaySeconds = memberWorkerShutdownDelaySeconds;
     }
 
@@ -73,24 +70,44 @@ public class RemoteClient {
         coordinatorConnector.write(ALL_WORKERS, new LogOperation(message));
     }
 
-    public void createWorkers(ClusterLayout clusterLayout, boolean startPokeThread) {
+    public void createWorkers(ClusterLayout clusterLayout) {
+        prepareWorkers(clusterLayout);
         createWorkersByType(clusterLayout, true);
         createWorkersByType(clusterLayout, false);
 
         sendToAllAgents(new StartTimeoutDetectionOperation());
-        if (startPokeThread) {
-            startWorkerPingThread();
-        }
     }
 
-    void startWorkerPingThread() {
-        workerPingThread.start();
-    }
+    /**
+     * Starts all Worker JVMs in standby mode, so the client Worker JVMs are started and class-loaded while the members are
+     * forming the cluster.
+     */
+    private void prepareWorkers(ClusterLayout clusterLayout) {
+        ThreadSpawner spawner = new ThreadSpawner("prepareWorkers", true);
+        for (AgentWorkerLayout agentWorkerLayout : clusterLayout.getAgentWorkerLayouts()) {
+            final List<WorkerJvmSettings> settingsList = agentWorkerLayout.getWorkerJvmSettings();
+            final int workerCount = settingsList.size();
+            if (workerCount == 0) {
+                continue;
+            }
+            final SimulatorAddress agentAddress = agentWorkerLayout.getSimulatorAddress();
+            spawner.spawn(new Runnable() {
+                @Override
+                public void run() {
+                    PrepareWorkerOperation operation = new PrepareWorkerOperation(settingsList);
+                    Response response = coordinatorConnector.write(agentAddress, operation);
+
+                    ResponseType responseType = response.getFirstErrorResponseType();
+                    if (responseType != ResponseType.SUCCESS) {
+                        throw new CommandLineExitException(format("Could not prepare %d Worker on %s (%s)",
+                                workerCount, agentAddress, responseType));
+                    }
 
-    void stopWorkerPingThread() {
-        workerPingThread.running = false;
-        workerPingThread.interrupt();
-        joinThread(workerPingThread);
+                    LOGGER.info(format("Prepared %d Worker on %s", workerCount, agentAddress));
+                }
+            });
+        }
+        spawner.awaitCompletion();
     }
 
     private void createWorkersByType(ClusterLayout clusterLayout, boolean isMemberType) {
@@ -130,11 +147,9 @@ public class RemoteClient {
         spawner.awaitCompletion();
     }
 
-    public void terminateWorkers(boolean stopPokeThread) {
-        if (stopPokeThread) {
+    public void terminateWorkers(boolean stopTimeoutDetection) {
+        if (stopTimeoutDetection) {
             sendToAllAgents(new StopTimeoutDetectionOperation());
-
-            stopWorkerPingThread();
         }
 
         int shutdownDelaySeconds = (componentRegistry.hasClientWorkers() ? memberWorkerShutdownDelaySeconds : 0);
@@ -142,7 +157,19 @@ public class RemoteClient {
     }
 
     public void initTestSuite(TestSuite testSuite) {
-        sendToAllAgents(new InitTestSuiteOperation(testSuite));
+        initTestSuite(testSuite, 0);
+    }
+
+    public void initTestSuite(TestSuite testSuite, int artifactStreamIntervalSeconds) {
+        sendToAllAgents(new InitTestSuiteOperation(testSuite, artifactStreamIntervalSeconds));
+    }
+
+    public void syncArtifacts() {
+        sendToAllAgents(new SyncArtifactsOperation());
+    }
+
+    public void requestWorkerPerformanceStates() {
+        sendToAllAgents(new RequestWorkerPerformanceStatesOperation());
     }
 
     public void sendToAllAgents(SimulatorOperation operation) {
@@ -181,34 +208,4 @@ public class RemoteClient {
             }
         }
     }
-
-    private final class WorkerPingThread extends Thread {
-
-        private final int pingIntervalSeconds;
-
-        private volatile boolean running = true;
-
-        private WorkerPingThread(int pingIntervalSeconds) {
-            super("WorkerPingThread");
-            this.pingIntervalSeconds = pingIntervalSeconds;
-
-            setDaemon(true);
-        }
-
-        @Override
-        public void run() {
-            PingOperation operation = new PingOperation();
-            while (running) {
-                try {
-                    sendToAllWorkers(operation);
-                    sleepSeconds(pingIntervalSeconds);
-                } catch (SimulatorProtocolException e) {
-                    if (e.getCause() instanceof InterruptedException) {
-                        break;
-                    }
-                    LOGGER.error("Exception in WorkerPingThread", e);
-                }
-            }
-        }
-    }
 }
@@ -16,6 +16,7 @@
 package com.hazelcast.simulator.coordinator;
 
 import com.hazelcast.simulator.protocol.operation.CreateTestOperation;
+import com.hazelcast.simulator.protocol.operation.FailureOperation;
 import com.hazelcast.simulator.protocol.operation.StartTestOperation;
 import com.hazelcast.simulator.protocol.operation.StartTestPhaseOperation;
 import com.hazelcast.simulator.protocol.operation.StopTestOperation;
@@ -51,11 +52,17 @@ import static java.lang.String.format;
  * Responsible for running a single {@link TestCase}.
  *
  * Multiple TestCases can be run in parallel, by having multiple TestCaseRunners in parallel.
+ *
+ * The completion of a {@link TestPhase} is awaited event-driven: {@link #completed(TestPhase)} and
+ * {@link #onFailure(FailureOperation)} wake up the waiting thread directly, so a phase transition just takes the roundtrip
+ * time of the involved operations.
  */
-final class TestCaseRunner implements TestPhaseListener {
+final class TestCaseRunner implements TestPhaseListener, FailureListener {
 
     private static final int RUN_PHASE_LOG_INTERVAL_SECONDS = 30;
     private static final int WAIT_FOR_PHASE_COMPLETION_LOG_INTERVAL_SECONDS = 30;
+    // safety net to re-check the expected worker count, which changes without an event if a Worker finishes
+    private static final long WAIT_FOR_PHASE_COMPLETION_RECHECK_MILLIS = 1000;
 
     private static final Logger LOGGER = Logger.getLogger(TestCaseRunner.class);
     private static final ConcurrentMap<TestPhase, Object> LOG_TEST_PHASE_COMPLETION = new ConcurrentHashMap<TestPhase, Object>();
@@ -63,6 +70,9 @@ final class TestCaseRunner implements TestPhaseListener {
     private final ConcurrentMap<TestPhase, AtomicInteger> phaseCompletedMap = new ConcurrentHashMap<TestPhase, AtomicInteger>();
     private final CountDownLatch waitForStopThread = new CountDownLatch(1);
 
+    private final Object phaseEventMonitor = new Object();
+    private long phaseEventCount;
+
     private final int testIndex;
     private final TestCase testCase;
     private final String testCaseId;
@@ -83,8 +93,15 @@ final class TestCaseRunner implements TestPhaseListener {
     private final int logPerformanceIntervalSeconds;
     private final int logRunPhaseIntervalSeconds;
 
+    private final long phaseCompletionRecheckMillis;
+
     TestCaseRunner(int testIndex, TestCase testCase, Coordinator coordinator, int paddingLength,
                    Map<TestPhase, CountDownLatch> testPhaseSyncMap) {
+        this(testIndex, testCase, coordinator, paddingLength, testPhaseSyncMap, WAIT_FOR_PHASE_COMPLETION_RECHECK_MILLIS);
+    }
+
+    TestCaseRunner(int testIndex, TestCase testCase, Coordinator coordinator, int paddingLength,
+                   Map<TestPhase, CountDownLatch> testPhaseSyncMap, long phaseCompletionRecheckMillis) {
         this.testIndex = testIndex;
         this.testCase = testCase;
         this.testCaseId = testCase.getId();
@@ -109,6 +126,8 @@ final class TestCaseRunner implements TestPhaseListener {
         this.logPerformanceIntervalSeconds = workerParameters.getWorkerPerformanceMonitorIntervalSeconds();
         this.logRunPhaseIntervalSeconds = workerParameters.getRunPhaseLogIntervalSeconds(RUN_PHASE_LOG_INTERVAL_SECONDS);
 
+        this.phaseCompletionRecheckMillis = phaseCompletionRecheckMillis;
+
         for (TestPhase testPhase : TestPhase.values()) {
             phaseCompletedMap.put(testPhase, new AtomicInteger());
         }
@@ -117,6 +136,14 @@ final class TestCaseRunner implements TestPhaseListener {
     @Override
     public void completed(TestPhase testPhase) {
         phaseCompletedMap.get(testPhase).incrementAndGet();
+        signalPhaseEvent();
+    }
+
+    @Override
+    public void onFailure(FailureOperation operation) {
+        if (testCaseId.equals(operation.getTestId()) || operation.getType().isWorkerFinishedFailure()) {
+            signalPhaseEvent();
+        }
     }
 
     void run() {
@@ -204,26 +231,63 @@ final class TestCaseRunner implements TestPhaseListener {
         waitForGlobalTestPhaseCompletion(RUN);
     }
 
-    private void waitForPhaseCompletion(TestPhase testPhase) {
-        int completedWorkers = phaseCompletedMap.get(testPhase).get();
-        int expectedWorkers = getExpectedWorkerCount(testPhase);
-
+    void waitForPhaseCompletion(TestPhase testPhase) {
         long started = System.nanoTime();
-        while (completedWorkers < expectedWorkers) {
-            sleepSeconds(1);
+        long nextLogSeconds = WAIT_FOR_PHASE_COMPLETION_LOG_INTERVAL_SECONDS;
+        while (true) {
+            // the event count has to be read before the checks, so we don't miss an event which happens in between
+            long lastPhaseEventCount = getPhaseEventCount();
+
+            int completedWorkers = phaseCompletedMap.get(testPhase).get();
+            int expectedWorkers = getExpectedWorkerCount(testPhase);
+            if (completedWorkers >= expectedWorkers) {
+                return;
+            }
 
             if (failureContainer.hasCriticalFailure(testCaseId)) {
                 echo(format("Waiting for %s completion aborted (critical failure)", testPhase.desc()));
-                break;
+                return;
             }
 
-            completedWorkers = phaseCompletedMap.get(testPhase).get();
-            expectedWorkers = getExpectedWorkerCount(testPhase);
-
             long elapsed = getElapsedSeconds(started);
-            if (elapsed % WAIT_FOR_PHASE_COMPLETION_LOG_INTERVAL_SECONDS == 0) {
+            if (elapsed >= nextLogSeconds) {
                 echo(format("Waiting %s for %s completion (%d/%d workers)", secondsToHuman(elapsed), testPhase.desc(),
                         completedWorkers, expectedWorkers));
+                nextLogSeconds += WAIT_FOR_PHASE_COMPLETION_LOG_INTERVAL_SECONDS;
+            }
+
+            if (!awaitPhaseEvent(lastPhaseEventCount)) {
+                echo(format("Waiting for %s completion aborted (interrupted)", testPhase.desc()));
+                return;
+            }
+        }
+    }
+
+    private void signalPhaseEvent() {
+        synchronized (phaseEventMonitor) {
+            phaseEventCount++;
+            phaseEventMonitor.notifyAll();
+        }
+    }
+
+    private long getPhaseEventCount() {
+        synchronized (phaseEventMonitor) {
+            return phaseEventCount;
+        }
+    }
+
+    // returns false if the calling thread was interrupted, so the caller doesn't spin with the restored interrupt flag
+    private boolean awaitPhaseEvent(long lastPhaseEventCount) {
+        synchronized (phaseEventMonitor) {
+            if (phaseEventCount != lastPhaseEventCount) {
+                return true;
+            }
+            try {
+                phaseEventMonitor.wait(phaseCompletionRecheckMillis);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
             }
         }
     }
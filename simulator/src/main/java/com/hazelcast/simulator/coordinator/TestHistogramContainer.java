@@ -19,29 +19,38 @@ import com.hazelcast.simulator.probes.Result;
 import com.hazelcast.simulator.probes.impl.ResultImpl;
 import com.hazelcast.simulator.probes.xml.ResultXmlUtils;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
+import com.hazelcast.simulator.protocol.operation.SteadyStateOperation;
 import com.hazelcast.simulator.worker.performance.PerformanceState;
 import org.HdrHistogram.Histogram;
 import org.apache.log4j.Logger;
 
 import java.io.File;
-import java.nio.ByteBuffer;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
+import static com.hazelcast.simulator.utils.FormatUtils.formatDouble;
+import static com.hazelcast.simulator.utils.FormatUtils.secondsToHuman;
+import static com.hazelcast.simulator.utils.HistogramUtils.decodeHistogram;
 import static java.lang.String.format;
-import static javax.xml.bind.DatatypeConverter.parseBase64Binary;
-import static org.HdrHistogram.Histogram.decodeFromCompressedByteBuffer;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * Responsible for storing and aggregating test histograms from Simulator workers.
+ *
+ * The workers stream their interval histograms during the test run, which are merged incrementally per worker, test and probe.
+ * When the workers are shut down, they report the steady state of each test, which excludes the warmup of the test.
  */
 public class TestHistogramContainer {
 
     private static final Logger LOGGER = Logger.getLogger(TestHistogramContainer.class);
 
-    private final ConcurrentMap<SimulatorAddress, ConcurrentMap<String, Map<String, String>>> workerTestProbeHistogramMap
-            = new ConcurrentHashMap<SimulatorAddress, ConcurrentMap<String, Map<String, String>>>();
+    private final ConcurrentMap<SimulatorAddress, ConcurrentMap<String, Map<String, Histogram>>> workerTestProbeHistogramMap
+            = new ConcurrentHashMap<SimulatorAddress, ConcurrentMap<String, Map<String, Histogram>>>();
+
+    private final Map<String, SteadyState> testSteadyStateMap = new HashMap<String, SteadyState>();
 
     private final PerformanceStateContainer performanceStateContainer;
 
@@ -49,19 +58,112 @@ public class TestHistogramContainer {
         this.performanceStateContainer = performanceStateContainer;
     }
 
+    /**
+     * Adds the encoded interval histograms of a test to the already received histograms of the worker.
+     *
+     * @param workerAddress the {@link SimulatorAddress} of the sending worker
+     * @param testId        the testId of the test
+     * @param histograms    the compressed and Base64 encoded interval histograms per probe name
+     */
     public synchronized void addTestHistograms(SimulatorAddress workerAddress, String testId, Map<String, String> histograms) {
-        ConcurrentMap<String, Map<String, String>> testHistogramMap = workerTestProbeHistogramMap.get(workerAddress);
+        ConcurrentMap<String, Map<String, Histogram>> testHistogramMap = workerTestProbeHistogramMap.get(workerAddress);
         if (testHistogramMap == null) {
-            testHistogramMap = new ConcurrentHashMap<String, Map<String, String>>();
+            testHistogramMap = new ConcurrentHashMap<String, Map<String, Histogram>>();
             workerTestProbeHistogramMap.put(workerAddress, testHistogramMap);
         }
-        testHistogramMap.put(testId, histograms);
+        Map<String, Histogram> probeHistogramMap = testHistogramMap.get(testId);
+        if (probeHistogramMap == null) {
+            probeHistogramMap = new HashMap<String, Histogram>();
+            testHistogramMap.put(testId, probeHistogramMap);
+        }
+
+        for (Map.Entry<String, String> mapEntry : histograms.entrySet()) {
+            String probeName = mapEntry.getKey();
+            Histogram intervalHistogram = decodeIntervalHistogram(testId, probeName, mapEntry.getValue());
+            if (intervalHistogram == null) {
+                continue;
+            }
+            performanceStateContainer.addIntervalHistogram(testId, probeName, intervalHistogram);
+
+            Histogram histogram = probeHistogramMap.get(probeName);
+            if (histogram == null) {
+                probeHistogramMap.put(probeName, intervalHistogram);
+            } else {
+                histogram.add(intervalHistogram);
+            }
+        }
     }
 
-    public ConcurrentMap<String, Map<String, String>> getTestHistograms(SimulatorAddress workerAddress) {
+    /**
+     * Adds the steady state of a test on a worker.
+     *
+     * The steady-state throughput of the test is the sum of the steady-state throughput of all workers, the warmup is the
+     * longest warmup of all workers.
+     *
+     * @param workerAddress the {@link SimulatorAddress} of the sending worker
+     * @param operation     the {@link SteadyStateOperation} of the worker
+     */
+    public synchronized void addSteadyState(SimulatorAddress workerAddress, SteadyStateOperation operation) {
+        String testId = operation.getTestId();
+        SteadyState steadyState = testSteadyStateMap.get(testId);
+        if (steadyState == null) {
+            steadyState = new SteadyState();
+            testSteadyStateMap.put(testId, steadyState);
+        }
+
+        steadyState.warmupMillis = Math.max(steadyState.warmupMillis, operation.getWarmupMillis());
+        steadyState.operationCount += operation.getOperationCount();
+        if (operation.getDurationMillis() > 0) {
+            steadyState.throughput += operation.getOperationCount() * (double) SECONDS.toMillis(1)
+                    / operation.getDurationMillis();
+        }
+
+        for (Map.Entry<String, String> mapEntry : operation.getProbeHistograms().entrySet()) {
+            String probeName = mapEntry.getKey();
+            Histogram histogram = decodeIntervalHistogram(testId, probeName, mapEntry.getValue());
+            if (histogram == null) {
+                continue;
+            }
+            Histogram steadyStateHistogram = steadyState.probeHistogramMap.get(probeName);
+            if (steadyStateHistogram == null) {
+                steadyState.probeHistogramMap.put(probeName, histogram);
+            } else {
+                steadyStateHistogram.add(histogram);
+            }
+        }
+        LOGGER.debug(format("Received steady state of test %s from %s", testId, workerAddress));
+    }
+
+    public ConcurrentMap<String, Map<String, Histogram>> getTestHistograms(SimulatorAddress workerAddress) {
         return workerTestProbeHistogramMap.get(workerAddress);
     }
 
+    /**
+     * Returns the histograms of a test merged over all workers, which contain all values received so far.
+     *
+     * @param testId the testId of the test
+     * @return a {@link Map} with a copy of the merged histogram per probe name
+     */
+    public synchronized Map<String, Histogram> getAggregatedTestHistograms(String testId) {
+        Map<String, Histogram> aggregatedHistograms = new HashMap<String, Histogram>();
+        for (ConcurrentMap<String, Map<String, Histogram>> testHistogramMap : workerTestProbeHistogramMap.values()) {
+            Map<String, Histogram> probeHistogramMap = testHistogramMap.get(testId);
+            if (probeHistogramMap == null) {
+                continue;
+            }
+            for (Map.Entry<String, Histogram> mapEntry : probeHistogramMap.entrySet()) {
+                String probeName = mapEntry.getKey();
+                Histogram aggregatedHistogram = aggregatedHistograms.get(probeName);
+                if (aggregatedHistogram == null) {
+                    aggregatedHistograms.put(probeName, mapEntry.getValue().copy());
+                } else {
+                    aggregatedHistogram.add(mapEntry.getValue());
+                }
+            }
+        }
+        return aggregatedHistograms;
+    }
+
     void createProbeResults(String testSuiteId, String testCaseId) {
         PerformanceState performanceState = performanceStateContainer.getPerformanceStateForTestCase(testCaseId);
         Result result = aggregateHistogramsForTestCase(testCaseId, performanceState);
@@ -72,34 +174,62 @@ public class TestHistogramContainer {
         }
     }
 
-    private synchronized Result aggregateHistogramsForTestCase(String testCaseId, PerformanceState state) {
+    private Result aggregateHistogramsForTestCase(String testCaseId, PerformanceState state) {
         if (state == null) {
             return new ResultImpl(testCaseId, 0, 0.0d);
         }
         Result result = new ResultImpl(testCaseId, state.getOperationCount(), state.getTotalThroughput());
-        for (ConcurrentMap<String, Map<String, String>> testHistogramMap : workerTestProbeHistogramMap.values()) {
-            Map<String, String> probeHistogramMap = testHistogramMap.get(testCaseId);
-            if (probeHistogramMap == null) {
-                continue;
-            }
-            for (Map.Entry<String, String> mapEntry : probeHistogramMap.entrySet()) {
-                String probeName = mapEntry.getKey();
-                String encodedHistogram = mapEntry.getValue();
-                try {
-                    ByteBuffer buffer = ByteBuffer.wrap(parseBase64Binary(encodedHistogram));
-                    Histogram histogram = decodeFromCompressedByteBuffer(buffer, 0);
-                    result.addHistogram(probeName, histogram);
-                } catch (Exception e) {
-                    LOGGER.warn("Could not decode histogram from test " + testCaseId + " of probe " + probeName);
-                }
-            }
+        for (Map.Entry<String, Histogram> mapEntry : getAggregatedTestHistograms(testCaseId).entrySet()) {
+            result.addHistogram(mapEntry.getKey(), mapEntry.getValue());
         }
+        addSteadyState(testCaseId, result);
         return result;
     }
 
+    private synchronized void addSteadyState(String testCaseId, Result result) {
+        SteadyState steadyState = testSteadyStateMap.get(testCaseId);
+        if (steadyState == null) {
+            return;
+        }
+        result.setSteadyState(steadyState.warmupMillis, steadyState.operationCount, steadyState.throughput);
+        for (Map.Entry<String, Histogram> mapEntry : steadyState.probeHistogramMap.entrySet()) {
+            result.addSteadyStateHistogram(mapEntry.getKey(), mapEntry.getValue().copy());
+        }
+    }
+
+    private static Histogram decodeIntervalHistogram(String testId, String probeName, String encodedHistogram) {
+        try {
+            return decodeHistogram(encodedHistogram);
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Could not decode histogram from test " + testId + " of probe " + probeName);
+            return null;
+        }
+    }
+
     private void logProbesResultInHumanReadableFormat(String testId, Result result) {
         for (String probeName : result.probeNames()) {
             LOGGER.info(format("%s Results of probe %s:%n%s", testId, probeName, result.toHumanString(probeName)));
         }
+        if (!result.hasSteadyState()) {
+            return;
+        }
+        LOGGER.info(format("%s Steady state after %s warmup: %s ops/s (full run: %s ops/s)", testId,
+                secondsToHuman(MILLISECONDS.toSeconds(result.getWarmupMillis())),
+                formatDouble(result.getSteadyStateThroughput(), 1), formatDouble(result.getThroughput(), 1)));
+        for (String probeName : result.probeNames()) {
+            String steadyStateString = result.toHumanSteadyStateString(probeName);
+            if (steadyStateString != null) {
+                LOGGER.info(format("%s Steady-state results of probe %s:%n%s", testId, probeName, steadyStateString));
+            }
+        }
+    }
+
+    private static final class SteadyState {
+
+        private final Map<String, Histogram> probeHistogramMap = new HashMap<String, Histogram>();
+
+        private long warmupMillis;
+        private long operationCount;
+        private double throughput;
     }
 }
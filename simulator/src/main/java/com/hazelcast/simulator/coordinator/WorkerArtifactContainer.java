@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.coordinator;
+
+import com.hazelcast.simulator.protocol.core.SimulatorAddress;
+import com.hazelcast.simulator.protocol.operation.ArtifactChunkOperation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
+import static com.hazelcast.simulator.utils.FileUtils.ensureExistingDirectory;
+import static com.hazelcast.simulator.utils.FileUtils.rename;
+import static com.hazelcast.simulator.utils.FileUtils.writeText;
+import static com.hazelcast.simulator.utils.FormatUtils.NEW_LINE;
+import static com.hazelcast.simulator.utils.ZipUtils.inflate;
+import static java.lang.String.format;
+
+/**
+ * Writes the result files, which are streamed by the Agents during a test suite, into the local artifact directory.
+ *
+ * The files are stored with the same layout as {@code provisioner --download}, so a later download only has to transfer
+ * missing content. The last modification time of each file is set to the one on the Agent for the same reason.
+ *
+ * Each test suite directory contains an index file {@value #INDEX_FILE_NAME} with the path, the number of received bytes,
+ * the last modification time and the Agent of each file. The index is replaced atomically after each chunk, so analysis
+ * tools can read the listed number of bytes of each file while the test suite is still running.
+ */
+public class WorkerArtifactContainer {
+
+    public static final String INDEX_FILE_NAME = "artifacts.index";
+
+    private final Map<String, SortedMap<String, IndexEntry>> testSuiteIndexes
+            = new HashMap<String, SortedMap<String, IndexEntry>>();
+
+    private final File artifactDirectory;
+
+    public WorkerArtifactContainer(File artifactDirectory) {
+        this.artifactDirectory = artifactDirectory;
+    }
+
+    public synchronized void addChunk(SimulatorAddress agentAddress, ArtifactChunkOperation operation) throws IOException {
+        String testSuiteId = operation.getTestSuiteId();
+        String path = operation.getPath();
+        checkPath(testSuiteId);
+        checkPath(path);
+
+        File testSuiteDirectory = new File(artifactDirectory, testSuiteId);
+        File file = new File(testSuiteDirectory, path);
+        ensureExistingDirectory(file.getParentFile());
+
+        byte[] data = inflate(operation.getCompressedData());
+        long length = operation.getOffset() + data.length;
+
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            randomAccessFile.setLength(operation.getOffset());
+            randomAccessFile.seek(operation.getOffset());
+            randomAccessFile.write(data);
+        } finally {
+            closeQuietly(randomAccessFile);
+        }
+        if (!file.setLastModified(operation.getLastModified())) {
+            throw new IOException(format("Could not set last modification time of %s", file.getAbsolutePath()));
+        }
+
+        SortedMap<String, IndexEntry> index = testSuiteIndexes.get(testSuiteId);
+        if (index == null) {
+            index = new TreeMap<String, IndexEntry>();
+            testSuiteIndexes.put(testSuiteId, index);
+        }
+        index.put(path, new IndexEntry(length, operation.getLastModified(), agentAddress));
+        writeIndex(testSuiteDirectory, index);
+    }
+
+    // just for testing
+    synchronized long getLength(String testSuiteId, String path) {
+        SortedMap<String, IndexEntry> index = testSuiteIndexes.get(testSuiteId);
+        if (index == null || !index.containsKey(path)) {
+            return -1;
+        }
+        return index.get(path).length;
+    }
+
+    private static void checkPath(String path) {
+        if (path == null || path.isEmpty() || path.startsWith("/") || path.contains("\\")) {
+            throw new IllegalArgumentException(format("Invalid artifact path: %s", path));
+        }
+        for (String element : path.split("/")) {
+            if ("..".equals(element)) {
+                throw new IllegalArgumentException(format("Invalid artifact path: %s", path));
+            }
+        }
+    }
+
+    private static void writeIndex(File testSuiteDirectory, SortedMap<String, IndexEntry> index) {
+        StringBuilder sb = new StringBuilder("# path length lastModified agent").append(NEW_LINE);
+        for (Map.Entry<String, IndexEntry> entry : index.entrySet()) {
+            IndexEntry indexEntry = entry.getValue();
+            sb.append(entry.getKey())
+                    .append(' ').append(indexEntry.length)
+                    .append(' ').append(indexEntry.lastModified)
+                    .append(' ').append(indexEntry.agentAddress)
+                    .append(NEW_LINE);
+        }
+
+        File indexFile = new File(testSuiteDirectory, INDEX_FILE_NAME);
+        File tmpFile = new File(testSuiteDirectory, INDEX_FILE_NAME + ".tmp");
+        writeText(sb.toString(), tmpFile);
+        rename(tmpFile, indexFile);
+    }
+
+    private static final class IndexEntry {
+
+        private final long length;
+        private final long lastModified;
+        private final SimulatorAddress agentAddress;
+
+        private IndexEntry(long length, long lastModified, SimulatorAddress agentAddress) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.agentAddress = agentAddress;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.coordinator;
+
+import com.hazelcast.simulator.protocol.core.SimulatorAddress;
+import com.hazelcast.simulator.protocol.operation.HeartbeatOperation;
+import org.apache.log4j.Logger;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.simulator.utils.FormatUtils.formatPercentage;
+import static java.lang.String.format;
+
+/**
+ * Stores the latest {@link HeartbeatOperation} of each Simulator Worker, which gives a live view of their resource usage.
+ */
+public class WorkerHeartbeatContainer {
+
+    private static final int HEAP_USAGE_WARNING_PERCENTAGE = 90;
+    private static final int ONE_HUNDRED = 100;
+
+    private static final Logger LOGGER = Logger.getLogger(WorkerHeartbeatContainer.class);
+
+    private final ConcurrentMap<SimulatorAddress, HeartbeatOperation> heartbeats
+            = new ConcurrentHashMap<SimulatorAddress, HeartbeatOperation>();
+
+    public void updateHeartbeat(SimulatorAddress workerAddress, HeartbeatOperation heartbeat) {
+        HeartbeatOperation previous = heartbeats.put(workerAddress, heartbeat);
+
+        if (isHeapUsageCritical(heartbeat) && (previous == null || !isHeapUsageCritical(previous))) {
+            LOGGER.warn(format("Worker %s uses %s%% of its heap", workerAddress,
+                    formatPercentage(heartbeat.getHeapUsedBytes(), heartbeat.getHeapMaxBytes()).trim()));
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug(format("Heartbeat of Worker %s: %s", workerAddress, formatHeartbeat(previous, heartbeat)));
+        }
+    }
+
+    public HeartbeatOperation getHeartbeat(SimulatorAddress workerAddress) {
+        return heartbeats.get(workerAddress);
+    }
+
+    public Map<SimulatorAddress, HeartbeatOperation> getHeartbeats() {
+        return Collections.unmodifiableMap(heartbeats);
+    }
+
+    static boolean isHeapUsageCritical(HeartbeatOperation heartbeat) {
+        long heapMaxBytes = heartbeat.getHeapMaxBytes();
+        return (heapMaxBytes > 0 && heartbeat.getHeapUsedBytes() * ONE_HUNDRED >= heapMaxBytes * HEAP_USAGE_WARNING_PERCENTAGE);
+    }
+
+    static String formatHeartbeat(HeartbeatOperation previous, HeartbeatOperation current) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("heap ").append(formatPercentage(current.getHeapUsedBytes(), current.getHeapMaxBytes()).trim()).append('%');
+        if (previous != null) {
+            long intervalMillis = current.getTimestamp() - previous.getTimestamp();
+            long gcMillis = current.getGcTimeMillis() - previous.getGcTimeMillis();
+            sb.append(", GC ").append(gcMillis).append(" ms in ").append(intervalMillis).append(" ms");
+            if (current.getCpuTimeNanos() >= 0 && previous.getCpuTimeNanos() >= 0) {
+                long cpuMillis = TimeUnit.NANOSECONDS.toMillis(current.getCpuTimeNanos() - previous.getCpuTimeNanos());
+                sb.append(", thread CPU ").append(cpuMillis).append(" ms");
+            }
+        }
+        sb.append(", threads ").append(current.getThreadCount());
+        sb.append(", queued operations ").append(current.getQueuedOperations());
+        return sb.toString();
+    }
+}
@@ -44,6 +44,7 @@ public class WorkerParameters {
 
     private final boolean monitorPerformance;
     private final int workerPerformanceMonitorIntervalSeconds;
+    private final int workerHeartbeatIntervalSeconds;
 
     private final JavaProfiler profiler;
     private final String profilerSettings;
@@ -66,6 +67,7 @@ public class WorkerParameters {
 
         this.monitorPerformance = monitorPerformance;
         this.workerPerformanceMonitorIntervalSeconds = initWorkerPerformanceMonitorIntervalSeconds(properties);
+        this.workerHeartbeatIntervalSeconds = properties.getWorkerHeartbeatIntervalSeconds();
 
         this.profiler = initProfiler(properties);
         this.profilerSettings = initProfilerSettings(properties);
@@ -142,6 +144,10 @@ public class WorkerParameters {
         return workerPerformanceMonitorIntervalSeconds;
     }
 
+    public int getWorkerHeartbeatIntervalSeconds() {
+        return workerHeartbeatIntervalSeconds;
+    }
+
     public int getRunPhaseLogIntervalSeconds(int runPhaseLogIntervalSeconds) {
         if (!monitorPerformance) {
             return runPhaseLogIntervalSeconds;
@@ -15,15 +15,22 @@
  */
 package com.hazelcast.simulator.heatmap;
 
+import com.hazelcast.simulator.probes.store.IntervalStoreReader;
 import com.hazelcast.simulator.utils.CommandLineExitException;
+import com.hazelcast.simulator.utils.EmptyStatement;
 import org.HdrHistogram.Histogram;
 import org.HdrHistogram.HistogramLogReader;
 import org.apache.log4j.Logger;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static com.hazelcast.simulator.common.GitInfo.getBuildTime;
 import static com.hazelcast.simulator.common.GitInfo.getCommitIdAbbrev;
@@ -31,37 +38,71 @@ import static com.hazelcast.simulator.heatmap.HeatMapCli.init;
 import static com.hazelcast.simulator.heatmap.HeatMapCli.run;
 import static com.hazelcast.simulator.utils.CommonUtils.exitWithError;
 import static com.hazelcast.simulator.utils.CommonUtils.getSimulatorVersion;
+import static com.hazelcast.simulator.utils.ExecutorFactory.createFixedThreadPool;
 import static com.hazelcast.simulator.utils.FileUtils.getSimulatorHome;
-import static java.lang.Math.round;
 import static java.lang.String.format;
 
 /**
  * Commandline tool to create heatmaps from Simulator test runs.
+ *
+ * The latency files are processed in parallel in two passes, which stream the interval histograms one by one. The first pass
+ * determines the maximum latency and number of intervals, which define the dimensions of the heatmap. The second pass adds
+ * the interval histograms of each file to its own {@link HeatMapGrid}, which is merged into the heatmap as soon as the file is
+ * done. So the memory usage depends on the size of the heatmap and the number of threads, not on the size of the archive.
  */
 public class HeatMap {
 
+    static final String FORMAT_PNG = "png";
+    static final String FORMAT_CSV = "csv";
+
+    private static final int DIMENSION_X = 1200;
     private static final int DIMENSION_Y = 800;
+    private static final int EXECUTOR_TERMINATION_TIMEOUT_SECONDS = 10;
 
     private static final Logger LOGGER = Logger.getLogger(HeatMap.class);
 
     private final File directory;
     private final String testName;
     private final String probeName;
+    private final boolean logScale;
+    private final String outputFormat;
+    private final File outputFile;
+    private final ExecutorService executor;
 
     private int histogramCount;
 
     public HeatMap(String directory, String testName, String probeName) {
+        this(directory, testName, probeName, false, FORMAT_PNG, Runtime.getRuntime().availableProcessors());
+    }
+
+    public HeatMap(String directory, String testName, String probeName, boolean logScale, String outputFormat,
+                   int threadCount) {
         LOGGER.info("Hazelcast Simulator HeatMap");
         LOGGER.info(format("Version: %s, Commit: %s, Build Time: %s", getSimulatorVersion(), getCommitIdAbbrev(),
                 getBuildTime()));
         LOGGER.info(format("SIMULATOR_HOME: %s", getSimulatorHome()));
 
+        if (!FORMAT_PNG.equals(outputFormat) && !FORMAT_CSV.equals(outputFormat)) {
+            throw new CommandLineExitException(format("Unsupported output format %s (supported formats: %s, %s)",
+                    outputFormat, FORMAT_PNG, FORMAT_CSV));
+        }
+
         this.directory = new File(directory).getAbsoluteFile();
         this.testName = testName;
         this.probeName = probeName;
+        this.logScale = logScale;
+        this.outputFormat = outputFormat;
+        this.outputFile = new File((testName.isEmpty() ? "heatmap" : "heatmap-" + testName) + '.' + outputFormat);
+        this.executor = createFixedThreadPool(threadCount, HeatMap.class);
     }
 
     void shutdown() {
+        try {
+            executor.shutdown();
+            executor.awaitTermination(EXECUTOR_TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            EmptyStatement.ignore(e);
+        }
     }
 
     void createHeatMap() {
@@ -69,30 +110,45 @@ public class HeatMap {
         HistogramFilenameFilter filenameFilter = new HistogramFilenameFilter(testName, probeName);
         FileWalker fileWalker = new FileWalker(filenameFilter);
         fileWalker.walk(directory);
+        List<File> latencyFiles = fileWalker.getGetFiles();
 
-        List<Histogram> histograms = getHistograms(testName, fileWalker);
-        histogramCount = histograms.size();
+        long totalMaxLatency = 0;
+        histogramCount = 0;
+        CompletionService<FileStats> statsService = new ExecutorCompletionService<FileStats>(executor);
+        for (File latencyFile : latencyFiles) {
+            statsService.submit(new FileStatsTask(latencyFile, filenameFilter));
+        }
+        for (int i = 0; i < latencyFiles.size(); i++) {
+            FileStats fileStats = take(statsService);
+            totalMaxLatency = Math.max(totalMaxLatency, fileStats.maxLatency);
+            histogramCount = Math.max(histogramCount, fileStats.histogramCount);
+        }
         LOGGER.info(format("Found %d histograms in total", histogramCount));
-
-        long totalMinLatency = Long.MAX_VALUE;
-        long totalMaxLatency = Long.MIN_VALUE;
-        for (Histogram histogram : histograms) {
-            long minValue = histogram.getMinValue();
-            if (minValue < totalMinLatency) {
-                totalMinLatency = minValue;
-            }
-            long maxValue = histogram.getMaxValue();
-            if (maxValue > totalMaxLatency) {
-                totalMaxLatency = maxValue;
-            }
-            LOGGER.info(format("Minimum latency: %d µs, maximum latency: %d µs", minValue, maxValue));
+        if (histogramCount == 0) {
+            return;
         }
-        LOGGER.info(format("Total minimum latency: %d µs, total maximum latency: %d µs", totalMinLatency, totalMaxLatency));
+        LOGGER.info(format("Total maximum latency: %d µs", totalMaxLatency));
+
+        int columnCount = Math.min(histogramCount, DIMENSION_X);
+        int intervalsPerColumn = (histogramCount + columnCount - 1) / columnCount;
+        columnCount = (histogramCount + intervalsPerColumn - 1) / intervalsPerColumn;
+        LOGGER.info(format("Intervals per column: %d, %s latency axis", intervalsPerColumn, logScale ? "logarithmic" : "linear"));
 
-        double latencyWindowSize = totalMaxLatency / (double) DIMENSION_Y;
-        LOGGER.info(format("Latency window per pixel: %.2f µs", latencyWindowSize));
+        HeatMapGrid heatMapGrid = new HeatMapGrid(columnCount, DIMENSION_Y, intervalsPerColumn, totalMaxLatency, logScale);
+        CompletionService<HeatMapGrid> gridService = new ExecutorCompletionService<HeatMapGrid>(executor);
+        for (File latencyFile : latencyFiles) {
+            gridService.submit(new FileGridTask(latencyFile, filenameFilter, heatMapGrid));
+        }
+        for (int i = 0; i < latencyFiles.size(); i++) {
+            heatMapGrid.add(take(gridService));
+        }
 
-        calculateLinearHeatMap(histograms, latencyWindowSize, totalMaxLatency);
+        LOGGER.info(format("Writing heatmap to %s...", outputFile.getAbsolutePath()));
+        if (FORMAT_CSV.equals(outputFormat)) {
+            HeatMapWriter.writeCsv(heatMapGrid, outputFile);
+        } else {
+            HeatMapWriter.writeImage(heatMapGrid, outputFile);
+        }
     }
 
     // just for testing
@@ -100,6 +156,11 @@ public class HeatMap {
         return histogramCount;
     }
 
+    // just for testing
+    File getOutputFile() {
+        return outputFile;
+    }
+
     public static void main(String[] args) {
         try {
             run(init(args));
@@ -116,51 +177,110 @@ public class HeatMap {
         }
     }
 
-    private static List<Histogram> getHistograms(String testName, FileWalker fileWalker) {
-        ArrayList<Histogram> histograms = new ArrayList<Histogram>();
-        for (File latencyFile : fileWalker.getGetFiles()) {
-            LOGGER.info(format("Processing latency file %s...", latencyFile.getAbsolutePath()));
-            HistogramLogReader histogramLogReader = createHistogramLogReader(latencyFile, testName);
-
-            int index = 0;
-            Histogram histogram = (Histogram) histogramLogReader.nextIntervalHistogram();
-            while (histogram != null) {
-                if (histograms.size() > index) {
-                    Histogram combined = histograms.get(index);
-                    combined.add(histogram);
-                } else {
-                    histograms.add(histogram);
+    /**
+     * Streams the interval histograms of a latency file, which is either a text based histogram log or an interval store.
+     *
+     * Only the probes of an interval store which are accepted by the {@link HistogramFilenameFilter} are read.
+     */
+    private void readHistograms(File latencyFile, HistogramFilenameFilter filenameFilter, HistogramHandler handler) {
+        if (filenameFilter.isIntervalStore(latencyFile)) {
+            IntervalStoreReader intervalStoreReader = new IntervalStoreReader(latencyFile);
+            try {
+                for (String storeProbeName : intervalStoreReader.getProbeNames()) {
+                    if (!filenameFilter.acceptProbeName(storeProbeName)) {
+                        continue;
+                    }
+                    int storeHistogramCount = intervalStoreReader.getHistogramCount(storeProbeName);
+                    for (int index = 0; index < storeHistogramCount; index++) {
+                        handler.handle(index, intervalStoreReader.getHistogram(storeProbeName, index));
+                    }
                 }
-                index++;
-                histogram = (Histogram) histogramLogReader.nextIntervalHistogram();
+            } finally {
+                intervalStoreReader.close();
             }
+            return;
+        }
+
+        HistogramLogReader histogramLogReader = createHistogramLogReader(latencyFile, testName);
+        int index = 0;
+        Histogram histogram = (Histogram) histogramLogReader.nextIntervalHistogram();
+        while (histogram != null) {
+            handler.handle(index++, histogram);
+            histogram = (Histogram) histogramLogReader.nextIntervalHistogram();
+        }
+    }
+
+    private static <E> E take(CompletionService<E> completionService) {
+        try {
+            return completionService.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CommandLineExitException("Interrupted while creating heatmap", e);
+        } catch (ExecutionException e) {
+            throw new CommandLineExitException("Could not process latency file", e.getCause());
+        }
+    }
+
+    private interface HistogramHandler {
+
+        void handle(int intervalIndex, Histogram histogram);
+    }
+
+    private static final class FileStats {
+
+        private long maxLatency;
+        private int histogramCount;
+    }
+
+    private final class FileStatsTask implements Callable<FileStats> {
+
+        private final File latencyFile;
+        private final HistogramFilenameFilter filenameFilter;
+
+        private FileStatsTask(File latencyFile, HistogramFilenameFilter filenameFilter) {
+            this.latencyFile = latencyFile;
+            this.filenameFilter = filenameFilter;
+        }
+
+        @Override
+        public FileStats call() {
+            LOGGER.info(format("Scanning latency file %s...", latencyFile.getAbsolutePath()));
+            final FileStats fileStats = new FileStats();
+            readHistograms(latencyFile, filenameFilter, new HistogramHandler() {
+                @Override
+                public void handle(int intervalIndex, Histogram histogram) {
+                    fileStats.maxLatency = Math.max(fileStats.maxLatency, histogram.getMaxValue());
+                    fileStats.histogramCount = Math.max(fileStats.histogramCount, intervalIndex + 1);
+                }
+            });
+            return fileStats;
         }
-        return histograms;
     }
 
-    private static List<ArrayList<Long>> calculateLinearHeatMap(List<Histogram> histograms, double latencyWindowSize,
-                                                                long totalMaxLatency) {
-        int histogramCount = histograms.size();
+    private final class FileGridTask implements Callable<HeatMapGrid> {
+
+        private final File latencyFile;
+        private final HistogramFilenameFilter filenameFilter;
+        private final HeatMapGrid heatMapGrid;
 
-        ArrayList<ArrayList<Long>> heatmap = new ArrayList<ArrayList<Long>>(histogramCount);
-        for (int i = 0; i < histogramCount; i++) {
-            heatmap.add(new ArrayList<Long>(DIMENSION_Y));
+        private FileGridTask(File latencyFile, HistogramFilenameFilter filenameFilter, HeatMapGrid heatMapGrid) {
+            this.latencyFile = latencyFile;
+            this.filenameFilter = filenameFilter;
+            this.heatMapGrid = heatMapGrid;
         }
 
-        for (int yPos = 1; yPos <= DIMENSION_Y; yPos++) {
-            long lowValue = (yPos == 1) ? 0 : round((yPos - 1) * latencyWindowSize);
-            long highValue = (yPos == DIMENSION_Y) ? totalMaxLatency : round(yPos * latencyWindowSize);
-            long maxValue = Long.MIN_VALUE;
-            for (int histogramIndex = 0; histogramIndex < histogramCount; histogramIndex++) {
-                Histogram histogram = histograms.get(histogramIndex);
-                long latencyCount = histogram.getCountBetweenValues(lowValue, highValue);
-                if (latencyCount > maxValue) {
-                    maxValue = latencyCount;
+        @Override
+        public HeatMapGrid call() {
+            LOGGER.info(format("Processing latency file %s...", latencyFile.getAbsolutePath()));
+            // the grid is created by the task, so only the grids of running and unmerged tasks are kept in memory
+            final HeatMapGrid fileGrid = heatMapGrid.createEmptyCopy();
+            readHistograms(latencyFile, filenameFilter, new HistogramHandler() {
+                @Override
+                public void handle(int intervalIndex, Histogram histogram) {
+                    fileGrid.add(intervalIndex, histogram);
                 }
-                heatmap.get(histogramIndex).add(latencyCount);
-            }
-            LOGGER.info(format("%4d: lowValue: %d, highValue: %d, maxValue: %d", yPos, lowValue, highValue, maxValue));
+            });
+            return fileGrid;
         }
-        return heatmap;
     }
 }
@@ -40,6 +40,17 @@ final class HeatMapCli {
             "Name of the probe to search for.")
             .withRequiredArg().ofType(String.class).defaultsTo("");
 
+    private final OptionSpec logScaleSpec = parser.accepts("logScale",
+            "Uses a logarithmic latency axis, which shows the distribution of low latencies in presence of outliers.");
+
+    private final OptionSpec<String> outputFormatSpec = parser.accepts("outputFormat",
+            "Defines the output format of the heatmap (" + HeatMap.FORMAT_PNG + " or " + HeatMap.FORMAT_CSV + ").")
+            .withRequiredArg().ofType(String.class).defaultsTo(HeatMap.FORMAT_PNG);
+
+    private final OptionSpec<Integer> threadCountSpec = parser.accepts("threadCount",
+            "Defines the number of threads which process the histogram files in parallel.")
+            .withRequiredArg().ofType(Integer.class).defaultsTo(Runtime.getRuntime().availableProcessors());
+
     private final OptionSpec<String> propertiesFileSpec = parser.accepts("propertiesFile",
             "The file containing the simulator properties. If no file is explicitly configured, first the working directory is "
                     + "checked for a file 'simulator.properties'. All missing properties are always loaded from "
@@ -57,7 +68,8 @@ final class HeatMapCli {
         simulatorProperties.init(getPropertiesFile(cli, options));
 
         return new HeatMap(options.valueOf(cli.directorySpec), options.valueOf(cli.testNameSpec),
-                options.valueOf(cli.probeNameSpec));
+                options.valueOf(cli.probeNameSpec), options.has(cli.logScaleSpec), options.valueOf(cli.outputFormatSpec),
+                options.valueOf(cli.threadCountSpec));
     }
 
     static void run(HeatMap heatMap) {
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.heatmap;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+
+import static java.lang.Math.expm1;
+import static java.lang.Math.log1p;
+import static java.lang.Math.min;
+import static java.lang.Math.round;
+
+/**
+ * Contains the latency counts of a heatmap, with a column per time bucket and a row per latency bucket.
+ *
+ * Each time bucket contains a fixed number of consecutive interval histograms. The latency buckets cover the range from zero
+ * to the maximum latency either linearly or logarithmically. Interval histograms are added one by one, so they don't have to
+ * be kept in memory. Grids with the same dimensions can be merged, so multiple files can be processed in parallel.
+ *
+ * This class is not thread-safe.
+ */
+final class HeatMapGrid {
+
+    private final long[][] counts;
+    private final int columnCount;
+    private final int rowCount;
+    private final int intervalsPerColumn;
+    private final long maxLatency;
+    private final boolean logScale;
+    private final double rowScale;
+
+    HeatMapGrid(int columnCount, int rowCount, int intervalsPerColumn, long maxLatency, boolean logScale) {
+        this.counts = new long[columnCount][rowCount];
+        this.columnCount = columnCount;
+        this.rowCount = rowCount;
+        this.intervalsPerColumn = intervalsPerColumn;
+        this.maxLatency = Math.max(maxLatency, 1);
+        this.logScale = logScale;
+        this.rowScale = (logScale ? log1p(this.maxLatency) : this.maxLatency) / rowCount;
+    }
+
+    /**
+     * Creates an empty {@link HeatMapGrid} with the same dimensions and latency scale.
+     *
+     * @return the new {@link HeatMapGrid}
+     */
+    HeatMapGrid createEmptyCopy() {
+        return new HeatMapGrid(columnCount, rowCount, intervalsPerColumn, maxLatency, logScale);
+    }
+
+    int getColumnCount() {
+        return columnCount;
+    }
+
+    int getRowCount() {
+        return rowCount;
+    }
+
+    int getIntervalsPerColumn() {
+        return intervalsPerColumn;
+    }
+
+    boolean isLogScale() {
+        return logScale;
+    }
+
+    long getCount(int column, int row) {
+        return counts[column][row];
+    }
+
+    long getMaxCount() {
+        long maxCount = 0;
+        for (long[] column : counts) {
+            for (long count : column) {
+                if (count > maxCount) {
+                    maxCount = count;
+                }
+            }
+        }
+        return maxCount;
+    }
+
+    /**
+     * Returns the lowest latency of a row, which is the highest latency of the previous row.
+     *
+     * @param row the row of the latency bucket
+     * @return the lowest latency in µs
+     */
+    long getLowValue(int row) {
+        if (row == 0) {
+            return 0;
+        }
+        return logScale ? round(expm1(row * rowScale)) : round(row * rowScale);
+    }
+
+    /**
+     * Returns the highest latency of a row.
+     *
+     * @param row the row of the latency bucket
+     * @return the highest latency in µs
+     */
+    long getHighValue(int row) {
+        if (row == rowCount - 1) {
+            return maxLatency;
+        }
+        return getLowValue(row + 1);
+    }
+
+    /**
+     * Adds the recorded values of an interval histogram to the column of its interval.
+     *
+     * The histogram is iterated once over its recorded values, so the costs don't depend on the number of rows.
+     *
+     * @param intervalIndex the index of the interval histogram in its file
+     * @param histogram     the interval histogram
+     */
+    void add(int intervalIndex, Histogram histogram) {
+        int column = intervalIndex / intervalsPerColumn;
+        if (column >= columnCount) {
+            return;
+        }
+        long[] columnCounts = counts[column];
+        for (HistogramIterationValue value : histogram.recordedValues()) {
+            columnCounts[getRow(value.getValueIteratedTo())] += value.getCountAtValueIteratedTo();
+        }
+    }
+
+    /**
+     * Adds the counts of another grid with the same dimensions to this grid.
+     *
+     * @param other the {@link HeatMapGrid} to add
+     */
+    void add(HeatMapGrid other) {
+        if (other.columnCount != columnCount || other.rowCount != rowCount) {
+            throw new IllegalArgumentException("Cannot merge heatmap grids with different dimensions");
+        }
+        for (int column = 0; column < columnCount; column++) {
+            long[] columnCounts = counts[column];
+            long[] otherColumnCounts = other.counts[column];
+            for (int row = 0; row < rowCount; row++) {
+                columnCounts[row] += otherColumnCounts[row];
+            }
+        }
+    }
+
+    int getRow(long latency) {
+        if (latency <= 0) {
+            return 0;
+        }
+        double scaledLatency = logScale ? log1p(latency) : latency;
+        return min(rowCount - 1, (int) (scaledLatency / rowScale));
+    }
+}
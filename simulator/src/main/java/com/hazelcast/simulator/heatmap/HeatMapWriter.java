@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.heatmap;
+
+import com.hazelcast.simulator.utils.CommandLineExitException;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
+import static java.lang.Math.log1p;
+import static java.lang.Math.max;
+
+/**
+ * Writes a {@link HeatMapGrid} as PNG image or CSV file.
+ */
+final class HeatMapWriter {
+
+    private static final int MIN_IMAGE_WIDTH = 800;
+    private static final float MIN_HUE = 0.0f;
+    private static final float MAX_HUE = 0.66f;
+
+    private HeatMapWriter() {
+    }
+
+    /**
+     * Writes the heatmap as PNG image.
+     *
+     * The time runs from left to right and the latency from bottom to top. Empty cells are white, the other cells are colored
+     * from blue to red on a logarithmic scale of their count.
+     *
+     * @param grid the {@link HeatMapGrid} to write
+     * @param file the target file
+     */
+    static void writeImage(HeatMapGrid grid, File file) {
+        int columnCount = grid.getColumnCount();
+        int rowCount = grid.getRowCount();
+        int columnWidth = max(1, MIN_IMAGE_WIDTH / columnCount);
+        double maxCount = log1p(grid.getMaxCount());
+
+        BufferedImage image = new BufferedImage(columnCount * columnWidth, rowCount, BufferedImage.TYPE_INT_RGB);
+        for (int column = 0; column < columnCount; column++) {
+            for (int row = 0; row < rowCount; row++) {
+                int rgb = getColor(grid.getCount(column, row), maxCount);
+                int y = rowCount - 1 - row;
+                for (int x = column * columnWidth; x < (column + 1) * columnWidth; x++) {
+                    image.setRGB(x, y, rgb);
+                }
+            }
+        }
+
+        try {
+            ImageIO.write(image, "png", file);
+        } catch (IOException e) {
+            throw new CommandLineExitException("Could not write heatmap image " + file.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Writes the heatmap as CSV file.
+     *
+     * The file contains a line per latency bucket with its lowest and highest latency in µs, followed by the latency count of
+     * each time bucket. The header line contains the index of the first interval histogram of each time bucket.
+     *
+     * @param grid the {@link HeatMapGrid} to write
+     * @param file the target file
+     */
+    static void writeCsv(HeatMapGrid grid, File file) {
+        Writer writer = null;
+        try {
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+            writer.write("lowLatency,highLatency");
+            for (int column = 0; column < grid.getColumnCount(); column++) {
+                writer.write(',' + String.valueOf(column * grid.getIntervalsPerColumn()));
+            }
+            writer.write('\n');
+
+            for (int row = 0; row < grid.getRowCount(); row++) {
+                writer.write(grid.getLowValue(row) + "," + grid.getHighValue(row));
+                for (int column = 0; column < grid.getColumnCount(); column++) {
+                    writer.write(',' + String.valueOf(grid.getCount(column, row)));
+                }
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            throw new CommandLineExitException("Could not write heatmap file " + file.getAbsolutePath(), e);
+        } finally {
+            closeQuietly(writer);
+        }
+    }
+
+    private static int getColor(long count, double maxCount) {
+        if (count == 0) {
+            return Color.WHITE.getRGB();
+        }
+        float ratio = (maxCount > 0) ? (float) (log1p(count) / maxCount) : 1.0f;
+        return Color.HSBtoRGB(MAX_HUE - ratio * (MAX_HUE - MIN_HUE), 1.0f, 1.0f);
+    }
+}
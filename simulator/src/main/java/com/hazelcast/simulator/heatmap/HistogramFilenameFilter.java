@@ -18,10 +18,14 @@ package com.hazelcast.simulator.heatmap;
 import java.io.File;
 import java.io.FilenameFilter;
 
+import static com.hazelcast.simulator.probes.store.IntervalStore.DATA_FILE_SUFFIX;
+
 class HistogramFilenameFilter implements FilenameFilter {
 
     private final String aggregatedFileRegex;
     private final String latencyFileRegex;
+    private final String intervalStoreRegex;
+    private final String probeNameRegex;
 
     HistogramFilenameFilter(String testName, String probeName) {
         testName = (!testName.isEmpty()) ? testName : ".*";
@@ -29,6 +33,16 @@ class HistogramFilenameFilter implements FilenameFilter {
 
         this.aggregatedFileRegex = "^latency-" + testName + "-aggregated\\.txt$";
         this.latencyFileRegex = "^latency-" + testName + "-" + probeName + "\\.txt$";
+        this.intervalStoreRegex = "^latency-" + testName + "\\" + DATA_FILE_SUFFIX + "$";
+        this.probeNameRegex = "^" + probeName + "$";
+    }
+
+    boolean isIntervalStore(File file) {
+        return file.getName().matches(intervalStoreRegex);
+    }
+
+    boolean acceptProbeName(String probeName) {
+        return probeName.matches(probeNameRegex);
     }
 
     @Override
@@ -40,9 +54,6 @@ class HistogramFilenameFilter implements FilenameFilter {
         if (name.matches(aggregatedFileRegex)) {
             return false;
         }
-        if (!name.matches(latencyFileRegex)) {
-            return false;
-        }
-        return true;
+        return name.matches(latencyFileRegex) || name.matches(intervalStoreRegex);
     }
 }
@@ -17,35 +17,46 @@ package com.hazelcast.simulator.protocol.connector;
 
 import com.hazelcast.simulator.protocol.core.Response;
 import com.hazelcast.simulator.protocol.core.ResponseFuture;
+import com.hazelcast.simulator.protocol.core.ResponseFutureRegistry;
+import com.hazelcast.simulator.protocol.core.ResponseListener;
 import com.hazelcast.simulator.protocol.core.ResponseType;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.core.SimulatorMessage;
 import com.hazelcast.simulator.protocol.core.SimulatorProtocolException;
+import com.hazelcast.simulator.protocol.operation.BatchOperation;
 import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.group.ChannelGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import org.apache.log4j.Logger;
 
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
-import static com.hazelcast.simulator.protocol.core.ResponseFuture.createFutureKey;
-import static com.hazelcast.simulator.protocol.core.ResponseFuture.createInstance;
-import static com.hazelcast.simulator.protocol.operation.OperationCodec.toJson;
+import static com.hazelcast.simulator.protocol.connector.TransportUtils.ALLOCATOR;
+import static com.hazelcast.simulator.protocol.connector.TransportUtils.createEventLoopGroup;
+import static com.hazelcast.simulator.protocol.connector.TransportUtils.getServerChannelClass;
+import static com.hazelcast.simulator.protocol.operation.BinaryOperationCodec.isBinaryFormat;
+import static com.hazelcast.simulator.protocol.operation.OperationType.BATCH;
 import static com.hazelcast.simulator.protocol.operation.OperationType.getOperationType;
 import static com.hazelcast.simulator.utils.CommonUtils.joinThread;
 import static com.hazelcast.simulator.utils.CommonUtils.sleepMillis;
@@ -59,28 +70,32 @@ abstract class AbstractServerConnector implements ServerConnector {
 
     private static final Logger LOGGER = Logger.getLogger(AbstractServerConnector.class);
 
-    private static final SimulatorMessage POISON_PILL = new SimulatorMessage(null, null, 0, null, null);
+    private static final SimulatorMessage POISON_PILL = new SimulatorMessage(null, null, 0, null, (String) null);
+    private static final SimulatorMessage RESPONSE_RECEIVED = new SimulatorMessage(null, null, 0, null, (String) null);
 
-    private final EventLoopGroup bossGroup = new NioEventLoopGroup();
-    private final EventLoopGroup workerGroup = new NioEventLoopGroup();
+    private static final int MAX_BATCH_SIZE = 100;
 
     private final AtomicLong messageIds = new AtomicLong();
-    private final ConcurrentMap<String, ResponseFuture> messageQueueFutures = new ConcurrentHashMap<String, ResponseFuture>();
+    private final ResponseFutureRegistry messageQueueFutures = new ResponseFutureRegistry();
     private final BlockingQueue<SimulatorMessage> messageQueue = new LinkedBlockingQueue<SimulatorMessage>();
     private final MessageQueueThread messageQueueThread = new MessageQueueThread();
 
+    private final EventLoopGroup bossGroup;
+    private final EventLoopGroup workerGroup;
     private final ExecutorService executorService;
-    private final ConcurrentMap<String, ResponseFuture> futureMap;
+    private final ResponseFutureRegistry futureRegistry;
     private final SimulatorAddress localAddress;
     private final int addressIndex;
     private final int port;
 
     private Channel channel;
 
-    AbstractServerConnector(ConcurrentMap<String, ResponseFuture> futureMap, SimulatorAddress localAddress, int port,
-                            int threadPoolSize) {
+    AbstractServerConnector(ResponseFutureRegistry futureRegistry, SimulatorAddress localAddress, int port,
+                            int threadPoolSize, boolean useNativeTransport, int eventLoopThreads) {
+        this.bossGroup = createEventLoopGroup(useNativeTransport, 1);
+        this.workerGroup = createEventLoopGroup(useNativeTransport, eventLoopThreads);
         this.executorService = createFixedThreadPool(threadPoolSize, "AbstractServerConnector");
-        this.futureMap = futureMap;
+        this.futureRegistry = futureRegistry;
         this.localAddress = localAddress;
         this.addressIndex = localAddress.getAddressIndex();
         this.port = port;
@@ -106,8 +121,10 @@ abstract class AbstractServerConnector implements ServerConnector {
     private ServerBootstrap getServerBootstrap() {
         ServerBootstrap bootstrap = new ServerBootstrap();
         bootstrap.group(bossGroup, workerGroup)
-                .channel(NioServerSocketChannel.class)
+                .channel(getServerChannelClass(bossGroup))
                 .localAddress(new InetSocketAddress(port))
+                .option(ChannelOption.ALLOCATOR, ALLOCATOR)
+                .childOption(ChannelOption.ALLOCATOR, ALLOCATOR)
                 .childHandler(new ChannelInitializer<SocketChannel>() {
                     @Override
                     public void initChannel(SocketChannel channel) {
@@ -149,8 +166,8 @@ abstract class AbstractServerConnector implements ServerConnector {
     }
 
     @Override
-    public ConcurrentMap<String, ResponseFuture> getFutureMap() {
-        return futureMap;
+    public ResponseFutureRegistry getFutureRegistry() {
+        return futureRegistry;
     }
 
     @Override
@@ -188,76 +205,144 @@ abstract class AbstractServerConnector implements ServerConnector {
     }
 
     int getMessageQueueSizeInternal() {
-        return messageQueue.size();
+        return messageQueue.size() + messageQueueThread.getPendingMessageCount();
     }
 
     ResponseFuture submit(SimulatorAddress source, SimulatorAddress destination, SimulatorOperation operation) {
         SimulatorMessage message = createSimulatorMessage(source, destination, operation);
-        String futureKey = createFutureKey(source, message.getMessageId(), 0);
-        ResponseFuture responseFuture = createInstance(messageQueueFutures, futureKey);
+        ResponseFuture responseFuture = messageQueueFutures.createFuture(source, message.getMessageId(), 0);
         messageQueue.add(message);
         return responseFuture;
     }
 
     private SimulatorMessage createSimulatorMessage(SimulatorAddress src, SimulatorAddress dst, SimulatorOperation op) {
-        return new SimulatorMessage(dst, src, messageIds.incrementAndGet(), getOperationType(op), toJson(op));
+        return new SimulatorMessage(dst, src, messageIds.incrementAndGet(), getOperationType(op), op);
     }
 
     private ResponseFuture writeAsync(SimulatorMessage message) {
         long messageId = message.getMessageId();
-        String futureKey = createFutureKey(message.getSource(), messageId, addressIndex);
-        ResponseFuture future = createInstance(futureMap, futureKey);
+        ResponseFuture future = futureRegistry.createFuture(message.getSource(), messageId, addressIndex);
         if (LOGGER.isTraceEnabled()) {
-            LOGGER.trace(format("[%d] %s created ResponseFuture %s", messageId, localAddress, futureKey));
+            LOGGER.trace(format("[%d] %s created ResponseFuture for %s", messageId, localAddress, message.getSource()));
         }
         getChannelGroup().writeAndFlush(message);
 
         return future;
     }
 
+    /**
+     * Sends the submitted messages in a pipelined fashion.
+     *
+     * Each destination has a single batch of messages in flight, so the messages to a destination are processed in the order
+     * they have been submitted. Consecutive messages with the same source and destination are coalesced into a single
+     * {@link BatchOperation}, so a burst of submitted messages is sent in a single round trip instead of one round trip per
+     * message. Messages to different destinations are sent in parallel.
+     */
     private final class MessageQueueThread extends Thread {
 
         private static final int WAIT_FOR_EMPTY_QUEUE_MILLIS = 100;
 
+        private final Map<SimulatorAddress, Queue<SimulatorMessage>> pendingMessages
+                = new HashMap<SimulatorAddress, Queue<SimulatorMessage>>();
+        private final Set<SimulatorAddress> inFlightDestinations
+                = Collections.newSetFromMap(new ConcurrentHashMap<SimulatorAddress, Boolean>());
+        private final int maxBatchSize = isBinaryFormat(BATCH) ? MAX_BATCH_SIZE : 1;
+
+        private volatile int pendingMessageCount;
+        private boolean isShutdown;
+
         private MessageQueueThread() {
             super("ServerConnectorMessageQueueThread");
         }
 
         @Override
         public void run() {
-            while (true) {
-                try {
+            try {
+                while (!isShutdown || pendingMessageCount > 0 || !inFlightDestinations.isEmpty()) {
                     SimulatorMessage message = messageQueue.take();
-                    if (POISON_PILL.equals(message)) {
-                        LOGGER.info("ServerConnectorMessageQueueThread received POISON_PILL and will stop...");
-                        break;
-                    }
+                    do {
+                        addPendingMessage(message);
+                        message = messageQueue.poll();
+                    } while (message != null);
 
-                    Response response = writeAsync(message).get();
+                    sendPendingMessages();
+                }
+            } catch (Exception e) {
+                LOGGER.error("Error while sending message from messageQueue", e);
+                throw new SimulatorProtocolException("Error while sending message from messageQueue", e);
+            }
+        }
 
-                    String futureKey = createFutureKey(message.getSource(), message.getMessageId(), 0);
-                    ResponseFuture responseFuture = messageQueueFutures.get(futureKey);
-                    if (responseFuture != null) {
-                        responseFuture.set(response);
-                    }
+        private void addPendingMessage(SimulatorMessage message) {
+            if (POISON_PILL.equals(message)) {
+                LOGGER.info("ServerConnectorMessageQueueThread received POISON_PILL and will stop...");
+                isShutdown = true;
+                return;
+            }
+            if (RESPONSE_RECEIVED.equals(message)) {
+                return;
+            }
 
-                    ResponseType responseType = response.getFirstErrorResponseType();
-                    if (!responseType.equals(ResponseType.SUCCESS)) {
-                        LOGGER.error("Got response type " + responseType + " for " + message);
-                    }
-                } catch (Exception e) {
-                    LOGGER.error("Error while sending message from messageQueue", e);
-                    throw new SimulatorProtocolException("Error while sending message from messageQueue", e);
+            SimulatorAddress destination = message.getDestination();
+            Queue<SimulatorMessage> queue = pendingMessages.get(destination);
+            if (queue == null) {
+                queue = new LinkedList<SimulatorMessage>();
+                pendingMessages.put(destination, queue);
+            }
+            queue.add(message);
+            pendingMessageCount++;
+        }
+
+        private void sendPendingMessages() {
+            for (Map.Entry<SimulatorAddress, Queue<SimulatorMessage>> entry : pendingMessages.entrySet()) {
+                SimulatorAddress destination = entry.getKey();
+                Queue<SimulatorMessage> queue = entry.getValue();
+                if (queue.isEmpty() || inFlightDestinations.contains(destination)) {
+                    continue;
                 }
+
+                List<SimulatorMessage> batch = pollBatch(queue);
+                pendingMessageCount -= batch.size();
+                inFlightDestinations.add(destination);
+                sendBatch(destination, batch);
             }
         }
 
+        private List<SimulatorMessage> pollBatch(Queue<SimulatorMessage> queue) {
+            SimulatorMessage first = queue.poll();
+            List<SimulatorMessage> batch = new ArrayList<SimulatorMessage>();
+            batch.add(first);
+
+            SimulatorMessage next = queue.peek();
+            while (next != null && batch.size() < maxBatchSize && first.getSource().equals(next.getSource())) {
+                batch.add(queue.poll());
+                next = queue.peek();
+            }
+            return batch;
+        }
+
+        private void sendBatch(SimulatorAddress destination, List<SimulatorMessage> batch) {
+            SimulatorMessage message = batch.get(0);
+            if (batch.size() > 1) {
+                BatchOperation operation = new BatchOperation();
+                for (SimulatorMessage batchMessage : batch) {
+                    operation.addOperation(batchMessage.getOperation());
+                }
+                message = createSimulatorMessage(message.getSource(), destination, operation);
+            }
+            writeAsync(message).addListener(new BatchResponseListener(destination, batch));
+        }
+
+        int getPendingMessageCount() {
+            return pendingMessageCount;
+        }
+
         public void shutdown() {
             messageQueue.add(POISON_PILL);
 
             SimulatorMessage message = messageQueue.peek();
             while (message != null) {
-                if (!POISON_PILL.equals(message)) {
+                if (!POISON_PILL.equals(message) && !RESPONSE_RECEIVED.equals(message)) {
                     int queueSize = messageQueue.size();
                     LOGGER.info(format("%d messages pending on messageQueue, first message: %s", queueSize, message));
                 }
@@ -267,5 +352,46 @@ abstract class AbstractServerConnector implements ServerConnector {
 
             joinThread(messageQueueThread);
         }
+
+        /**
+         * Completes the {@link ResponseFuture} instances of a sent batch and unblocks its destination.
+         */
+        private final class BatchResponseListener implements ResponseListener {
+
+            private final SimulatorAddress destination;
+            private final List<SimulatorMessage> batch;
+
+            private BatchResponseListener(SimulatorAddress destination, List<SimulatorMessage> batch) {
+                this.destination = destination;
+                this.batch = batch;
+            }
+
+            @Override
+            public void onResponse(Response response) {
+                ResponseType responseType = response.getFirstErrorResponseType();
+                for (SimulatorMessage message : batch) {
+                    if (!responseType.equals(ResponseType.SUCCESS)) {
+                        LOGGER.error("Got response type " + responseType + " for " + message);
+                    }
+
+                    ResponseFuture responseFuture = messageQueueFutures.remove(message.getSource(), message.getMessageId(), 0);
+                    if (responseFuture != null) {
+                        responseFuture.set(getMessageResponse(message, response));
+                    }
+                }
+
+                inFlightDestinations.remove(destination);
+                messageQueue.add(RESPONSE_RECEIVED);
+            }
+
+            private Response getMessageResponse(SimulatorMessage message, Response response) {
+                if (batch.size() == 1) {
+                    return response;
+                }
+                Response messageResponse = new Response(message.getMessageId(), message.getSource());
+                messageResponse.addResponse(response);
+                return messageResponse;
+            }
+        }
     }
 }
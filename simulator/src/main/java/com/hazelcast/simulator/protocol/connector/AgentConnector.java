@@ -20,7 +20,7 @@ import com.hazelcast.simulator.agent.workerjvm.WorkerJvmManager;
 import com.hazelcast.simulator.protocol.core.ClientConnectorManager;
 import com.hazelcast.simulator.protocol.core.ConnectionManager;
 import com.hazelcast.simulator.protocol.core.Response;
-import com.hazelcast.simulator.protocol.core.ResponseFuture;
+import com.hazelcast.simulator.protocol.core.ResponseFutureRegistry;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.exception.RemoteExceptionLogger;
 import com.hazelcast.simulator.protocol.handler.ConnectionListenerHandler;
@@ -39,12 +39,10 @@ import com.hazelcast.simulator.protocol.processors.AgentOperationProcessor;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.group.ChannelGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
+import static com.hazelcast.simulator.protocol.connector.TransportUtils.createEventLoopGroup;
 import static com.hazelcast.simulator.protocol.core.AddressLevel.AGENT;
 import static com.hazelcast.simulator.protocol.core.SimulatorAddress.COORDINATOR;
 import static com.hazelcast.simulator.protocol.exception.ExceptionType.AGENT_EXCEPTION;
@@ -60,8 +58,9 @@ public class AgentConnector extends AbstractServerConnector implements ClientPip
 
     private final EventLoopGroup group;
 
+    private final RemoteExceptionLogger exceptionLogger;
     private final AgentOperationProcessor processor;
-    private final ConcurrentMap<String, ResponseFuture> futureMap;
+    private final ResponseFutureRegistry futureRegistry;
 
     private final SimulatorAddress localAddress;
     private final int addressIndex;
@@ -69,16 +68,17 @@ public class AgentConnector extends AbstractServerConnector implements ClientPip
     private final ConnectionManager connectionManager;
     private final WorkerJvmManager workerJvmManager;
 
-    AgentConnector(ConcurrentMap<String, ResponseFuture> futureMap, SimulatorAddress localAddress, int port, Agent agent,
-                   WorkerJvmManager workerJvmManager, ConnectionManager connectionManager, int threadPoolSize) {
-        super(futureMap, localAddress, port, THREAD_POOL_SIZE);
+    AgentConnector(ResponseFutureRegistry futureRegistry, SimulatorAddress localAddress, int port, Agent agent,
+                   WorkerJvmManager workerJvmManager, ConnectionManager connectionManager, int threadPoolSize,
+                   boolean useNativeTransport, int eventLoopThreads) {
+        super(futureRegistry, localAddress, port, THREAD_POOL_SIZE, useNativeTransport, eventLoopThreads);
 
-        this.group = new NioEventLoopGroup(threadPoolSize);
+        this.group = createEventLoopGroup(useNativeTransport, threadPoolSize);
 
-        RemoteExceptionLogger exceptionLogger = new RemoteExceptionLogger(localAddress, AGENT_EXCEPTION, this);
+        this.exceptionLogger = new RemoteExceptionLogger(localAddress, AGENT_EXCEPTION, this);
         this.processor = new AgentOperationProcessor(exceptionLogger, agent, workerJvmManager);
 
-        this.futureMap = futureMap;
+        this.futureRegistry = futureRegistry;
 
         this.localAddress = localAddress;
         this.addressIndex = localAddress.getAddressIndex();
@@ -89,14 +89,14 @@ public class AgentConnector extends AbstractServerConnector implements ClientPip
 
     @Override
     public void configureClientPipeline(ChannelPipeline pipeline, SimulatorAddress remoteAddress,
-                                        ConcurrentMap<String, ResponseFuture> futureMap) {
+                                        ResponseFutureRegistry futureRegistry) {
         pipeline.addLast("responseEncoder", new ResponseEncoder(localAddress));
         pipeline.addLast("messageEncoder", new MessageEncoder(localAddress, remoteAddress));
         pipeline.addLast("frameDecoder", new SimulatorFrameDecoder());
         pipeline.addLast("protocolDecoder", new SimulatorProtocolDecoder(localAddress, workerJvmManager));
         pipeline.addLast("forwardToCoordinatorHandler", new ForwardToCoordinatorHandler(localAddress, connectionManager,
                 workerJvmManager));
-        pipeline.addLast("responseHandler", new ResponseHandler(localAddress, remoteAddress, getFutureMap()));
+        pipeline.addLast("responseHandler", new ResponseHandler(localAddress, remoteAddress, getFutureRegistry()));
         pipeline.addLast("messageConsumeHandler", new MessageConsumeHandler(localAddress, processor, getExecutorService()));
         pipeline.addLast("exceptionHandler", new ExceptionHandler(this));
     }
@@ -109,16 +109,16 @@ public class AgentConnector extends AbstractServerConnector implements ClientPip
         pipeline.addLast("messageEncoder", new MessageEncoder(localAddress, COORDINATOR));
         pipeline.addLast("frameDecoder", new SimulatorFrameDecoder());
         pipeline.addLast("protocolDecoder", new SimulatorProtocolDecoder(localAddress));
-        pipeline.addLast("forwardToWorkerHandler", new ForwardToWorkerHandler(localAddress, clientConnectorManager,
-                getExecutorService()));
+        pipeline.addLast("forwardToWorkerHandler", new ForwardToWorkerHandler(localAddress, clientConnectorManager));
         pipeline.addLast("messageConsumeHandler", new MessageConsumeHandler(localAddress, processor, getExecutorService()));
-        pipeline.addLast("responseHandler", new ResponseHandler(localAddress, COORDINATOR, futureMap, addressIndex));
+        pipeline.addLast("responseHandler", new ResponseHandler(localAddress, COORDINATOR, futureRegistry, addressIndex));
         pipeline.addLast("exceptionHandler", new ExceptionHandler(this));
     }
 
     @Override
     void connectorShutdown() {
         processor.shutdown();
+        exceptionLogger.shutdown();
         group.shutdownGracefully(DEFAULT_SHUTDOWN_QUIET_PERIOD, DEFAULT_SHUTDOWN_TIMEOUT, TimeUnit.SECONDS).syncUninterruptibly();
     }
 
@@ -142,11 +142,27 @@ public class AgentConnector extends AbstractServerConnector implements ClientPip
      * @param threadPoolSize   size of the Netty thread pool to connect to Worker instances
      */
     public static AgentConnector createInstance(Agent agent, WorkerJvmManager workerJvmManager, int port, int threadPoolSize) {
-        ConcurrentMap<String, ResponseFuture> futureMap = new ConcurrentHashMap<String, ResponseFuture>();
+        return createInstance(agent, workerJvmManager, port, threadPoolSize, false, 0);
+    }
+
+    /**
+     * Creates an {@link AgentConnector} instance.
+     *
+     * @param agent              instance of this Simulator Agent
+     * @param workerJvmManager   manager for WorkerJVM instances
+     * @param port               the port for incoming connections
+     * @param threadPoolSize     size of the Netty thread pool to connect to Worker instances
+     * @param useNativeTransport {@code true} if the native epoll transport should be used if available
+     * @param eventLoopThreads   size of the Netty thread pool for the connection from the Coordinator
+     */
+    public static AgentConnector createInstance(Agent agent, WorkerJvmManager workerJvmManager, int port, int threadPoolSize,
+                                                boolean useNativeTransport, int eventLoopThreads) {
+        ResponseFutureRegistry futureRegistry = new ResponseFutureRegistry();
         SimulatorAddress localAddress = new SimulatorAddress(AGENT, agent.getAddressIndex(), 0, 0);
         ConnectionManager connectionManager = new ConnectionManager();
 
-        return new AgentConnector(futureMap, localAddress, port, agent, workerJvmManager, connectionManager, threadPoolSize);
+        return new AgentConnector(futureRegistry, localAddress, port, agent, workerJvmManager, connectionManager, threadPoolSize,
+                useNativeTransport, eventLoopThreads);
     }
 
     /**
@@ -159,8 +175,8 @@ public class AgentConnector extends AbstractServerConnector implements ClientPip
      */
     public SimulatorAddress addWorker(int workerIndex, String workerHost, int workerPort) {
         SimulatorAddress remoteAddress = localAddress.getChild(workerIndex);
-        ClientConnector clientConnector = new ClientConnector(this, group, futureMap, localAddress, remoteAddress, workerIndex,
-                workerHost, workerPort);
+        ClientConnector clientConnector = new ClientConnector(this, group, futureRegistry, localAddress, remoteAddress,
+                workerIndex, workerHost, workerPort);
         clientConnector.start();
 
         clientConnectorManager.addClient(workerIndex, clientConnector);
@@ -17,6 +17,7 @@ package com.hazelcast.simulator.protocol.connector;
 
 import com.hazelcast.simulator.protocol.core.Response;
 import com.hazelcast.simulator.protocol.core.ResponseFuture;
+import com.hazelcast.simulator.protocol.core.ResponseFutureRegistry;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.core.SimulatorMessage;
 import com.hazelcast.simulator.protocol.core.SimulatorProtocolException;
@@ -28,15 +29,13 @@ import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import org.apache.log4j.Logger;
 
 import java.net.InetSocketAddress;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
-import static com.hazelcast.simulator.protocol.core.ResponseFuture.createFutureKey;
-import static com.hazelcast.simulator.protocol.core.ResponseFuture.createInstance;
+import static com.hazelcast.simulator.protocol.connector.TransportUtils.ALLOCATOR;
+import static com.hazelcast.simulator.protocol.connector.TransportUtils.getSocketChannelClass;
 import static com.hazelcast.simulator.protocol.core.SimulatorMessageCodec.getMessageId;
 import static com.hazelcast.simulator.protocol.core.SimulatorMessageCodec.getSourceAddress;
 import static java.lang.String.format;
@@ -52,7 +51,7 @@ public class ClientConnector {
 
     private final ClientPipelineConfigurator pipelineConfigurator;
     private final EventLoopGroup group;
-    private final ConcurrentMap<String, ResponseFuture> futureMap;
+    private final ResponseFutureRegistry futureRegistry;
 
     private final SimulatorAddress localAddress;
     private final SimulatorAddress remoteAddress;
@@ -64,11 +63,11 @@ public class ClientConnector {
     private Channel channel;
 
     ClientConnector(ClientPipelineConfigurator pipelineConfigurator, EventLoopGroup group,
-                    ConcurrentMap<String, ResponseFuture> futureMap, SimulatorAddress localAddress,
+                    ResponseFutureRegistry futureRegistry, SimulatorAddress localAddress,
                     SimulatorAddress remoteAddress, int remoteIndex, String remoteHost, int remotePort) {
         this.pipelineConfigurator = pipelineConfigurator;
         this.group = group;
-        this.futureMap = futureMap;
+        this.futureRegistry = futureRegistry;
 
         this.localAddress = localAddress;
         this.remoteAddress = remoteAddress;
@@ -90,14 +89,15 @@ public class ClientConnector {
         Bootstrap bootstrap = new Bootstrap();
         bootstrap
                 .group(group)
-                .channel(NioSocketChannel.class)
+                .channel(getSocketChannelClass(group))
                 .remoteAddress(new InetSocketAddress(remoteHost, remotePort))
+                .option(ChannelOption.ALLOCATOR, ALLOCATOR)
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, CONNECT_TIMEOUT_MILLIS)
                 .option(ChannelOption.SO_KEEPALIVE, true)
                 .handler(new ChannelInitializer<SocketChannel>() {
                     @Override
                     public void initChannel(SocketChannel channel) {
-                        pipelineConfigurator.configureClientPipeline(channel.pipeline(), remoteAddress, futureMap);
+                        pipelineConfigurator.configureClientPipeline(channel.pipeline(), remoteAddress, futureRegistry);
                     }
                 });
         return bootstrap;
@@ -109,8 +109,8 @@ public class ClientConnector {
         }
     }
 
-    public ConcurrentMap<String, ResponseFuture> getFutureMap() {
-        return futureMap;
+    public ResponseFutureRegistry getFutureRegistry() {
+        return futureRegistry;
     }
 
     public SimulatorAddress getRemoteAddress() {
@@ -140,10 +140,9 @@ public class ClientConnector {
     }
 
     private ResponseFuture writeAsync(SimulatorAddress source, long messageId, Object msg) {
-        String futureKey = createFutureKey(source, messageId, remoteIndex);
-        ResponseFuture future = createInstance(futureMap, futureKey);
+        ResponseFuture future = futureRegistry.createFuture(source, messageId, remoteIndex);
         if (LOGGER.isTraceEnabled()) {
-            LOGGER.trace(format("[%d] %s created ResponseFuture %s", messageId, localAddress, futureKey));
+            LOGGER.trace(format("[%d] %s created ResponseFuture for %s", messageId, localAddress, source));
         }
         channel.writeAndFlush(msg);
 
@@ -15,14 +15,12 @@
  */
 package com.hazelcast.simulator.protocol.connector;
 
-import com.hazelcast.simulator.protocol.core.ResponseFuture;
+import com.hazelcast.simulator.protocol.core.ResponseFutureRegistry;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import io.netty.channel.ChannelPipeline;
 
-import java.util.concurrent.ConcurrentMap;
-
 interface ClientPipelineConfigurator {
 
-    void configureClientPipeline(ChannelPipeline pipeline, SimulatorAddress remoteAddress, ConcurrentMap<String,
-            ResponseFuture> futureMap);
+    void configureClientPipeline(ChannelPipeline pipeline, SimulatorAddress remoteAddress,
+                                 ResponseFutureRegistry futureRegistry);
 }
@@ -19,8 +19,11 @@ import com.hazelcast.simulator.coordinator.FailureContainer;
 import com.hazelcast.simulator.coordinator.PerformanceStateContainer;
 import com.hazelcast.simulator.coordinator.TestHistogramContainer;
 import com.hazelcast.simulator.coordinator.TestPhaseListenerContainer;
+import com.hazelcast.simulator.coordinator.WorkerArtifactContainer;
+import com.hazelcast.simulator.coordinator.WorkerHeartbeatContainer;
 import com.hazelcast.simulator.protocol.core.Response;
 import com.hazelcast.simulator.protocol.core.ResponseFuture;
+import com.hazelcast.simulator.protocol.core.ResponseFutureRegistry;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.core.SimulatorMessage;
 import com.hazelcast.simulator.protocol.core.SimulatorProtocolException;
@@ -36,9 +39,9 @@ import com.hazelcast.simulator.protocol.processors.CoordinatorOperationProcessor
 import com.hazelcast.simulator.utils.ThreadSpawner;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import org.apache.log4j.Logger;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
@@ -49,9 +52,9 @@ import java.util.concurrent.atomic.AtomicLong;
 
 import static com.hazelcast.simulator.protocol.connector.ServerConnector.DEFAULT_SHUTDOWN_QUIET_PERIOD;
 import static com.hazelcast.simulator.protocol.connector.ServerConnector.DEFAULT_SHUTDOWN_TIMEOUT;
+import static com.hazelcast.simulator.protocol.connector.TransportUtils.createEventLoopGroup;
 import static com.hazelcast.simulator.protocol.core.ResponseType.FAILURE_AGENT_NOT_FOUND;
 import static com.hazelcast.simulator.protocol.core.SimulatorAddress.COORDINATOR;
-import static com.hazelcast.simulator.protocol.operation.OperationCodec.toJson;
 import static com.hazelcast.simulator.protocol.operation.OperationType.getOperationType;
 import static com.hazelcast.simulator.utils.ExecutorFactory.createFixedThreadPool;
 import static java.lang.String.format;
@@ -65,29 +68,40 @@ public class CoordinatorConnector implements ClientPipelineConfigurator {
     private static final Logger LOGGER = Logger.getLogger(CoordinatorConnector.class);
     private static final int EXECUTOR_POOL_SIZE = Runtime.getRuntime().availableProcessors() + 1;
 
-    private final EventLoopGroup group = new NioEventLoopGroup();
     private final ExecutorService executorService = createFixedThreadPool(EXECUTOR_POOL_SIZE, "AbstractServerConnector");
     private final AtomicLong messageIds = new AtomicLong();
     private final ConcurrentMap<Integer, ClientConnector> agents = new ConcurrentHashMap<Integer, ClientConnector>();
     private final LocalExceptionLogger exceptionLogger = new LocalExceptionLogger();
 
+    private final EventLoopGroup group;
     private final CoordinatorOperationProcessor processor;
 
     public CoordinatorConnector(TestPhaseListenerContainer testPhaseListenerContainer,
                                 PerformanceStateContainer performanceStateContainer,
                                 TestHistogramContainer testHistogramContainer, FailureContainer failureContainer) {
+        this(testPhaseListenerContainer, performanceStateContainer, testHistogramContainer, failureContainer,
+                new WorkerHeartbeatContainer(), new WorkerArtifactContainer(new File("workers")), false, 0);
+    }
+
+    public CoordinatorConnector(TestPhaseListenerContainer testPhaseListenerContainer,
+                                PerformanceStateContainer performanceStateContainer,
+                                TestHistogramContainer testHistogramContainer, FailureContainer failureContainer,
+                                WorkerHeartbeatContainer workerHeartbeatContainer,
+                                WorkerArtifactContainer workerArtifactContainer, boolean useNativeTransport,
+                                int eventLoopThreads) {
+        this.group = createEventLoopGroup(useNativeTransport, eventLoopThreads);
         this.processor = new CoordinatorOperationProcessor(exceptionLogger, testPhaseListenerContainer, performanceStateContainer,
-                testHistogramContainer, failureContainer);
+                testHistogramContainer, failureContainer, workerHeartbeatContainer, workerArtifactContainer);
     }
 
     @Override
     public void configureClientPipeline(ChannelPipeline pipeline, SimulatorAddress remoteAddress,
-                                        ConcurrentMap<String, ResponseFuture> futureMap) {
+                                        ResponseFutureRegistry futureRegistry) {
         pipeline.addLast("messageEncoder", new MessageEncoder(COORDINATOR, remoteAddress));
         pipeline.addLast("responseEncoder", new ResponseEncoder(COORDINATOR));
         pipeline.addLast("frameDecoder", new SimulatorFrameDecoder());
         pipeline.addLast("protocolDecoder", new SimulatorProtocolDecoder(COORDINATOR));
-        pipeline.addLast("responseHandler", new ResponseHandler(COORDINATOR, remoteAddress, futureMap));
+        pipeline.addLast("responseHandler", new ResponseHandler(COORDINATOR, remoteAddress, futureRegistry));
         pipeline.addLast("messageConsumeHandler", new MessageConsumeHandler(COORDINATOR, processor, executorService));
     }
 
@@ -125,8 +139,8 @@ public class CoordinatorConnector implements ClientPipelineConfigurator {
      * @param agentPort  the port of the Simulator Agent
      */
     public void addAgent(int agentIndex, String agentHost, int agentPort) {
-        ConcurrentHashMap<String, ResponseFuture> futureMap = new ConcurrentHashMap<String, ResponseFuture>();
-        ClientConnector client = new ClientConnector(this, group, futureMap, COORDINATOR, COORDINATOR.getChild(agentIndex),
+        ResponseFutureRegistry futureRegistry = new ResponseFutureRegistry();
+        ClientConnector client = new ClientConnector(this, group, futureRegistry, COORDINATOR, COORDINATOR.getChild(agentIndex),
                 agentIndex, agentHost, agentPort);
         client.start();
 
@@ -154,7 +168,7 @@ public class CoordinatorConnector implements ClientPipelineConfigurator {
      */
     public Response write(SimulatorAddress destination, SimulatorOperation operation) {
         SimulatorMessage message = new SimulatorMessage(destination, COORDINATOR, messageIds.incrementAndGet(),
-                getOperationType(operation), toJson(operation));
+                getOperationType(operation), operation);
 
         int agentAddressIndex = destination.getAgentIndex();
         Response response = new Response(message);
@@ -191,16 +205,15 @@ public class CoordinatorConnector implements ClientPipelineConfigurator {
     }
 
     /**
-     * Asserts that the {@link ResponseFuture} maps from all connected {@link ClientConnector} instances are empty.
+     * Asserts that the {@link ResponseFutureRegistry} instances from all connected {@link ClientConnector} instances are empty.
      */
     public void assertEmptyFutureMaps() {
         for (ClientConnector clientConnector : agents.values()) {
-            ConcurrentMap<String, ResponseFuture> futureMap = clientConnector.getFutureMap();
+            ResponseFutureRegistry futureRegistry = clientConnector.getFutureRegistry();
             SimulatorAddress remoteAddress = clientConnector.getRemoteAddress();
-            int futureMapSize = futureMap.size();
-            if (futureMapSize > 0) {
-                LOGGER.error("Future entries: " + futureMap.toString());
-                fail(format("FutureMap of ClientConnector %s is not empty", remoteAddress));
+            if (!futureRegistry.isEmpty()) {
+                LOGGER.error("Future entries: " + futureRegistry.toString());
+                fail(format("ResponseFutureRegistry of ClientConnector %s is not empty", remoteAddress));
             }
         }
     }
@@ -17,11 +17,10 @@ package com.hazelcast.simulator.protocol.connector;
 
 import com.hazelcast.simulator.protocol.core.Response;
 import com.hazelcast.simulator.protocol.core.ResponseFuture;
+import com.hazelcast.simulator.protocol.core.ResponseFutureRegistry;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
 
-import java.util.concurrent.ConcurrentMap;
-
 /**
  * Connector which listens for incoming Simulator component connections.
  */
@@ -55,11 +54,11 @@ public interface ServerConnector {
     int getPort();
 
     /**
-     * Returns the map for {@link ResponseFuture} instances.
+     * Returns the registry for {@link ResponseFuture} instances.
      *
-     * @return the {@link ResponseFuture} map
+     * @return the {@link ResponseFutureRegistry}
      */
-    ConcurrentMap<String, ResponseFuture> getFutureMap();
+    ResponseFutureRegistry getFutureRegistry();
 
     /**
      * Submits a {@link SimulatorOperation} to a {@link SimulatorAddress}.
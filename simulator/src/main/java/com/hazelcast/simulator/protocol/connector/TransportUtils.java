@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.protocol.connector;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.apache.log4j.Logger;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Creates the Netty transport for the Simulator connectors.
+ *
+ * The native epoll transport is used if it has been requested and is available on this platform, otherwise the connectors
+ * fall back to the NIO transport. The channel classes are derived from the created {@link EventLoopGroup}, so a bootstrap
+ * always gets a matching pair.
+ */
+final class TransportUtils {
+
+    /**
+     * Pooled direct buffers for all channels, so the encoders write straight into off-heap memory which is recycled.
+     */
+    static final ByteBufAllocator ALLOCATOR = PooledByteBufAllocator.DEFAULT;
+
+    private static final Logger LOGGER = Logger.getLogger(TransportUtils.class);
+    private static final AtomicBoolean FALLBACK_LOGGED = new AtomicBoolean();
+
+    private TransportUtils() {
+    }
+
+    /**
+     * Creates an {@link EventLoopGroup} for the Simulator connectors.
+     *
+     * @param useNativeTransport {@code true} if the native epoll transport should be used if available
+     * @param threadCount        the number of event loop threads, {@code 0} uses the default of Netty
+     * @return the created {@link EventLoopGroup}
+     */
+    static EventLoopGroup createEventLoopGroup(boolean useNativeTransport, int threadCount) {
+        if (useNativeTransport) {
+            if (Epoll.isAvailable()) {
+                return new EpollEventLoopGroup(threadCount);
+            }
+            if (FALLBACK_LOGGED.compareAndSet(false, true)) {
+                LOGGER.warn("Native epoll transport is not available, falling back to NIO: " + Epoll.unavailabilityCause());
+            }
+        }
+        return new NioEventLoopGroup(threadCount);
+    }
+
+    static Class<? extends ServerChannel> getServerChannelClass(EventLoopGroup group) {
+        if (group instanceof EpollEventLoopGroup) {
+            return EpollServerSocketChannel.class;
+        }
+        return NioServerSocketChannel.class;
+    }
+
+    static Class<? extends SocketChannel> getSocketChannelClass(EventLoopGroup group) {
+        if (group instanceof EpollEventLoopGroup) {
+            return EpollSocketChannel.class;
+        }
+        return NioSocketChannel.class;
+    }
+}
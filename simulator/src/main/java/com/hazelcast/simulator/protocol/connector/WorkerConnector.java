@@ -16,8 +16,10 @@
 package com.hazelcast.simulator.protocol.connector;
 
 import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.simulator.protocol.core.ConnectionListener;
 import com.hazelcast.simulator.protocol.core.ConnectionManager;
 import com.hazelcast.simulator.protocol.core.ResponseFuture;
+import com.hazelcast.simulator.protocol.core.ResponseFutureRegistry;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.core.TestProcessorManager;
 import com.hazelcast.simulator.protocol.exception.ExceptionLogger;
@@ -34,16 +36,17 @@ import com.hazelcast.simulator.protocol.handler.ResponseHandler;
 import com.hazelcast.simulator.protocol.handler.SimulatorFrameDecoder;
 import com.hazelcast.simulator.protocol.handler.SimulatorProtocolDecoder;
 import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
+import com.hazelcast.simulator.protocol.operation.WorkerReadyOperation;
 import com.hazelcast.simulator.protocol.processors.OperationProcessor;
 import com.hazelcast.simulator.protocol.processors.TestOperationProcessor;
 import com.hazelcast.simulator.protocol.processors.WorkerOperationProcessor;
 import com.hazelcast.simulator.worker.Worker;
 import com.hazelcast.simulator.worker.WorkerType;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.group.ChannelGroup;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.hazelcast.simulator.protocol.core.AddressLevel.WORKER;
 import static com.hazelcast.simulator.protocol.exception.ExceptionType.WORKER_EXCEPTION;
@@ -54,7 +57,9 @@ import static com.hazelcast.simulator.protocol.exception.ExceptionType.WORKER_EX
 public class WorkerConnector extends AbstractServerConnector {
 
     private static final int THREAD_POOL_SIZE = 2;
+    private static final int EVENT_LOOP_THREADS = 1;
 
+    private final ExceptionLogger exceptionLogger;
     private final OperationProcessor processor;
 
     private final SimulatorAddress localAddress;
@@ -62,14 +67,16 @@ public class WorkerConnector extends AbstractServerConnector {
 
     private final ConnectionManager connectionManager;
     private final TestProcessorManager testProcessorManager;
-    private final ConcurrentMap<String, ResponseFuture> futureMap;
+    private final ResponseFutureRegistry futureRegistry;
 
-    WorkerConnector(ConcurrentMap<String, ResponseFuture> futureMap, SimulatorAddress localAddress, int port,
+    private final AtomicReference<WorkerReadyOperation> pendingReadyOperation = new AtomicReference<WorkerReadyOperation>();
+
+    WorkerConnector(ResponseFutureRegistry futureRegistry, SimulatorAddress localAddress, int port,
                     boolean useRemoteLogger, WorkerType type, HazelcastInstance hazelcastInstance, Worker worker,
                     ConnectionManager connectionManager) {
-        super(futureMap, localAddress, port, THREAD_POOL_SIZE);
+        super(futureRegistry, localAddress, port, THREAD_POOL_SIZE, false, EVENT_LOOP_THREADS);
 
-        ExceptionLogger exceptionLogger = createExceptionLogger(localAddress, useRemoteLogger);
+        this.exceptionLogger = createExceptionLogger(localAddress, useRemoteLogger);
         this.processor = new WorkerOperationProcessor(exceptionLogger, type, hazelcastInstance, worker, localAddress);
 
         this.localAddress = localAddress;
@@ -77,13 +84,13 @@ public class WorkerConnector extends AbstractServerConnector {
 
         this.connectionManager = connectionManager;
         this.testProcessorManager = new TestProcessorManager(localAddress);
-        this.futureMap = futureMap;
+        this.futureRegistry = futureRegistry;
     }
 
     @Override
     void configureServerPipeline(ChannelPipeline pipeline, ServerConnector serverConnector) {
         pipeline.addLast("connectionValidationHandler", new ConnectionValidationHandler());
-        pipeline.addLast("connectionListenerHandler", new ConnectionListenerHandler(connectionManager));
+        pipeline.addLast("connectionListenerHandler", new ConnectionListenerHandler(new ReadySignalConnectionListener()));
         pipeline.addLast("responseEncoder", new ResponseEncoder(localAddress));
         pipeline.addLast("messageEncoder", new MessageEncoder(localAddress, localAddress.getParent()));
         pipeline.addLast("frameDecoder", new SimulatorFrameDecoder());
@@ -92,13 +99,17 @@ public class WorkerConnector extends AbstractServerConnector {
         pipeline.addLast("testProtocolDecoder", new SimulatorProtocolDecoder(localAddress.getChild(0)));
         pipeline.addLast("testMessageConsumeHandler", new MessageTestConsumeHandler(testProcessorManager, localAddress,
                 getExecutorService()));
-        pipeline.addLast("responseHandler", new ResponseHandler(localAddress, localAddress.getParent(), futureMap, addressIndex));
+        pipeline.addLast("responseHandler", new ResponseHandler(localAddress, localAddress.getParent(), futureRegistry,
+                addressIndex));
         pipeline.addLast("exceptionHandler", new ExceptionHandler(serverConnector));
     }
 
     @Override
     void connectorShutdown() {
         processor.shutdown();
+        if (exceptionLogger instanceof RemoteExceptionLogger) {
+            ((RemoteExceptionLogger) exceptionLogger).shutdown();
+        }
     }
 
     @Override
@@ -135,11 +146,11 @@ public class WorkerConnector extends AbstractServerConnector {
      */
     public static WorkerConnector createInstance(int parentAddressIndex, int addressIndex, int port, WorkerType type,
                                                  HazelcastInstance hazelcastInstance, Worker worker, boolean useRemoteLogger) {
-        ConcurrentMap<String, ResponseFuture> futureMap = new ConcurrentHashMap<String, ResponseFuture>();
+        ResponseFutureRegistry futureRegistry = new ResponseFutureRegistry();
         SimulatorAddress localAddress = new SimulatorAddress(WORKER, parentAddressIndex, addressIndex, 0);
         ConnectionManager connectionManager = new ConnectionManager();
 
-        return new WorkerConnector(futureMap, localAddress, port, useRemoteLogger, type, hazelcastInstance, worker,
+        return new WorkerConnector(futureRegistry, localAddress, port, useRemoteLogger, type, hazelcastInstance, worker,
                 connectionManager);
     }
 
@@ -203,6 +214,32 @@ public class WorkerConnector extends AbstractServerConnector {
         return processor;
     }
 
+    public ExceptionLogger getExceptionLogger() {
+        return exceptionLogger;
+    }
+
+    /**
+     * Signals the readiness of this Simulator Worker to its parent Simulator Agent.
+     *
+     * The {@link WorkerReadyOperation} is sent as soon as the Simulator Agent has connected, so a Worker which is never
+     * connected doesn't block its shutdown with an undeliverable message.
+     *
+     * @param hzAddress the address of the {@link HazelcastInstance} of this Simulator Worker
+     */
+    public void signalReady(String hzAddress) {
+        pendingReadyOperation.set(new WorkerReadyOperation(hzAddress));
+        if (!connectionManager.getChannels().isEmpty()) {
+            sendPendingReadyOperation();
+        }
+    }
+
+    private void sendPendingReadyOperation() {
+        WorkerReadyOperation operation = pendingReadyOperation.getAndSet(null);
+        if (operation != null) {
+            submit(localAddress.getParent(), operation);
+        }
+    }
+
     private ExceptionLogger createExceptionLogger(SimulatorAddress localAddress, boolean useRemoteLogger) {
         if (useRemoteLogger) {
             return new RemoteExceptionLogger(localAddress, WORKER_EXCEPTION, this);
@@ -210,4 +247,18 @@ public class WorkerConnector extends AbstractServerConnector {
             return new FileExceptionLogger(localAddress, WORKER_EXCEPTION);
         }
     }
+
+    private final class ReadySignalConnectionListener implements ConnectionListener {
+
+        @Override
+        public void connected(Channel channel) {
+            connectionManager.connected(channel);
+            sendPendingReadyOperation();
+        }
+
+        @Override
+        public void disconnected(Channel channel) {
+            connectionManager.disconnected(channel);
+        }
+    }
 }
@@ -15,66 +15,32 @@
  */
 package com.hazelcast.simulator.protocol.core;
 
-import java.util.concurrent.ConcurrentMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
 
-import static java.lang.Long.parseLong;
 import static java.lang.String.format;
 
 /**
  * A {@link Future} implementation to wait asynchronously for the {@link Response} to a {@link SimulatorMessage}.
+ *
+ * Instead of blocking in {@link #get()} a {@link ResponseListener} can be added, which is notified on completion. The
+ * completion is lock-free, so the Netty I/O thread which sets the {@link Response} is never blocked by a waiting thread.
+ *
+ * The whole state is a single volatile field, which is updated via CAS. It is {@code null} while there is neither a waiting
+ * thread nor a listener, a stack of {@link WaitNode} instances while the future is pending and the {@link Response} after
+ * the completion. So a future which is completed before anyone waits for it doesn't allocate anything.
  */
 public final class ResponseFuture implements Future<Response> {
 
-    private static final long ONE_MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
-
-    private final ConcurrentMap<String, ResponseFuture> futureMap;
-    private final String key;
-
-    private volatile Response response;
+    private static final AtomicReferenceFieldUpdater<ResponseFuture, Object> STATE
+            = AtomicReferenceFieldUpdater.newUpdater(ResponseFuture.class, Object.class, "state");
 
-    private ResponseFuture(ConcurrentMap<String, ResponseFuture> futureMap, String key) {
-        this.futureMap = futureMap;
-        this.key = key;
-    }
-
-    /**
-     * Creates a {@link ResponseFuture} instance.
-     *
-     * @param futureMap the map of {@link ResponseFuture} where we add this one to
-     * @param key       the key for this {@link ResponseFuture} in the map
-     * @return the {@link ResponseFuture} instance
-     */
-    public static ResponseFuture createInstance(ConcurrentMap<String, ResponseFuture> futureMap, String key) {
-        ResponseFuture future = new ResponseFuture(futureMap, key);
-        futureMap.put(key, future);
-
-        return future;
-    }
-
-    /**
-     * Creates a map key for a {@link ResponseFuture}.
-     *
-     * @param source             the source {@link SimulatorAddress} of a {@link SimulatorMessage}
-     * @param messageId          the messageId of a {@link SimulatorMessage}
-     * @param remoteAddressIndex the address index of a remote Simulator component
-     * @return the key for the {@link ResponseFuture} map
-     */
-    public static String createFutureKey(SimulatorAddress source, long messageId, int remoteAddressIndex) {
-        return source.toString() + '-' + messageId + '-' + remoteAddressIndex;
-    }
-
-    public static SimulatorAddress getSourceFromFutureKey(String futureKey) {
-        String sourceString = futureKey.substring(0, futureKey.indexOf('-'));
-        return SimulatorAddress.fromString(sourceString);
-    }
-
-    public static long getMessageIdFromFutureKey(String futureKey) {
-        String messageIdString = futureKey.substring(futureKey.indexOf('-') + 1, futureKey.lastIndexOf('-'));
-        return parseLong(messageIdString);
-    }
+    private volatile Object state;
 
     @Override
     public boolean cancel(boolean mayInterruptIfRunning) {
@@ -88,30 +54,66 @@ public final class ResponseFuture implements Future<Response> {
 
     @Override
     public boolean isDone() {
-        return (response != null);
+        return (state instanceof Response);
     }
 
+    /**
+     * Completes this {@link ResponseFuture} and notifies all waiting threads and {@link ResponseListener} instances.
+     *
+     * Only the first {@link Response} is set, subsequent calls are ignored.
+     *
+     * @param response the {@link Response} to set
+     */
     public void set(Response response) {
         if (response == null) {
             throw new IllegalArgumentException("response is null");
         }
 
-        synchronized (this) {
-            this.response = response;
-            notifyAll();
+        for (; ; ) {
+            Object current = state;
+            if (current instanceof Response) {
+                return;
+            }
+            if (STATE.compareAndSet(this, current, response)) {
+                notifyWaiters((WaitNode) current, response);
+                return;
+            }
         }
     }
 
-    @Override
-    public Response get() throws InterruptedException {
-        synchronized (this) {
-            while (response == null) {
-                wait();
+    /**
+     * Adds a {@link ResponseListener} which is notified when this {@link ResponseFuture} is completed.
+     *
+     * If the {@link ResponseFuture} is already completed, the listener is notified directly by the calling thread.
+     *
+     * @param listener the {@link ResponseListener} to add
+     */
+    public void addListener(ResponseListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("listener is null");
+        }
+
+        WaitNode node = new WaitNode(listener, null);
+        for (; ; ) {
+            Object current = state;
+            if (current instanceof Response) {
+                listener.onResponse((Response) current);
+                return;
+            }
+            node.next = (WaitNode) current;
+            if (STATE.compareAndSet(this, current, node)) {
+                return;
             }
+        }
+    }
 
-            futureMap.remove(key);
-            return response;
+    @Override
+    public Response get() throws InterruptedException {
+        Object current = state;
+        if (current instanceof Response) {
+            return (Response) current;
         }
+        return await(false, 0);
     }
 
     @Override
@@ -120,21 +122,81 @@ public final class ResponseFuture implements Future<Response> {
             throw new IllegalArgumentException("Invalid timeout or timeUnit for ResponseFuture.get()");
         }
 
-        long remainingTimeoutNanos = timeUnit.toNanos(timeout);
-        synchronized (this) {
-            while (response == null && remainingTimeoutNanos > ONE_MILLISECOND) {
-                long started = System.nanoTime();
-                wait(TimeUnit.NANOSECONDS.toMillis(remainingTimeoutNanos));
-                remainingTimeoutNanos -= System.nanoTime() - started;
+        Object current = state;
+        if (current instanceof Response) {
+            return (Response) current;
+        }
+        Response response = await(true, timeUnit.toNanos(timeout));
+        if (response == null) {
+            throw new TimeoutException(format("Timeout while waiting for response (%d ms)", timeUnit.toMillis(timeout)));
+        }
+        return response;
+    }
+
+    private Response await(boolean timed, long timeoutNanos) throws InterruptedException {
+        long deadline = timed ? System.nanoTime() + timeoutNanos : 0;
+        WaitNode node = null;
+        boolean queued = false;
+        for (; ; ) {
+            Object current = state;
+            if (current instanceof Response) {
+                return (Response) current;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
             }
 
-            Response tmpResponse = response;
-            if (tmpResponse == null) {
-                throw new TimeoutException(format("Timeout while waiting for response (%d ms)", timeUnit.toMillis(timeout)));
+            if (node == null) {
+                node = new WaitNode(null, Thread.currentThread());
+            } else if (!queued) {
+                node.next = (WaitNode) current;
+                queued = STATE.compareAndSet(this, current, node);
+            } else if (timed) {
+                long remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    return null;
+                }
+                LockSupport.parkNanos(this, remainingNanos);
+            } else {
+                LockSupport.park(this);
             }
+        }
+    }
+
+    private static void notifyWaiters(WaitNode head, Response response) {
+        List<ResponseListener> listeners = null;
+        for (WaitNode node = head; node != null; node = node.next) {
+            if (node.thread != null) {
+                LockSupport.unpark(node.thread);
+            } else {
+                if (listeners == null) {
+                    listeners = new ArrayList<ResponseListener>();
+                }
+                listeners.add(node.listener);
+            }
+        }
+        if (listeners == null) {
+            return;
+        }
+        // the listeners are stored as a stack, so we iterate backwards to notify them in the order they were added
+        for (int i = listeners.size() - 1; i >= 0; i--) {
+            listeners.get(i).onResponse(response);
+        }
+    }
+
+    /**
+     * Either a {@link ResponseListener} or a waiting thread, which has to be notified on completion.
+     */
+    private static final class WaitNode {
+
+        private final ResponseListener listener;
+        private final Thread thread;
+
+        private WaitNode next;
 
-            futureMap.remove(key);
-            return tmpResponse;
+        private WaitNode(ResponseListener listener, Thread thread) {
+            this.listener = listener;
+            this.thread = thread;
         }
     }
 }
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.protocol.core;
+
+/**
+ * Registry for the pending {@link ResponseFuture} instances of a connector.
+ *
+ * A {@link ResponseFuture} is identified by the source {@link SimulatorAddress} and the messageId of its
+ * {@link SimulatorMessage} and by the address index of the remote Simulator component, which will send the {@link Response}.
+ * The messageId and the address index are stored as primitives and the source address is compared by reference first, so
+ * neither a lookup nor a removal creates any garbage.
+ *
+ * The entries are spread over multiple segments with open addressing, so concurrent connections don't contend on a
+ * single lock.
+ */
+public final class ResponseFutureRegistry {
+
+    private static final int SEGMENT_COUNT = 16;
+    private static final int SEGMENT_SHIFT = 28;
+    private static final int INITIAL_SEGMENT_CAPACITY = 16;
+
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+
+    public ResponseFutureRegistry() {
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Creates a new {@link ResponseFuture} and adds it to this registry.
+     *
+     * @param source             the source {@link SimulatorAddress} of a {@link SimulatorMessage}
+     * @param messageId          the messageId of a {@link SimulatorMessage}
+     * @param remoteAddressIndex the address index of a remote Simulator component
+     * @return the new {@link ResponseFuture}
+     */
+    public ResponseFuture createFuture(SimulatorAddress source, long messageId, int remoteAddressIndex) {
+        ResponseFuture future = new ResponseFuture();
+        int hash = hash(source, messageId, remoteAddressIndex);
+        getSegment(hash).put(hash, source, messageId, remoteAddressIndex, future);
+        return future;
+    }
+
+    public ResponseFuture get(SimulatorAddress source, long messageId, int remoteAddressIndex) {
+        int hash = hash(source, messageId, remoteAddressIndex);
+        return getSegment(hash).get(hash, source, messageId, remoteAddressIndex);
+    }
+
+    public ResponseFuture remove(SimulatorAddress source, long messageId, int remoteAddressIndex) {
+        int hash = hash(source, messageId, remoteAddressIndex);
+        return getSegment(hash).remove(hash, source, messageId, remoteAddressIndex);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return (size() == 0);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ResponseFutureRegistry{");
+        String separator = "";
+        for (Segment segment : segments) {
+            separator = segment.appendTo(sb, separator);
+        }
+        return sb.append('}').toString();
+    }
+
+    private Segment getSegment(int hash) {
+        return segments[hash >>> SEGMENT_SHIFT];
+    }
+
+    @SuppressWarnings("checkstyle:magicnumber")
+    static int hash(SimulatorAddress source, long messageId, int remoteAddressIndex) {
+        int hash = (int) (messageId ^ (messageId >>> 32));
+        hash = 31 * hash + remoteAddressIndex;
+        hash = 31 * hash + source.hashCode();
+
+        // finalizer of MurmurHash3 to spread the bits for the segment and slot selection
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    /**
+     * Hash table with linear probing, which uses backward shift deletion to keep the probe sequences intact.
+     */
+    private static final class Segment {
+
+        private int[] hashes;
+        private SimulatorAddress[] sources;
+        private long[] messageIds;
+        private int[] remoteAddressIndexes;
+        private ResponseFuture[] futures;
+        private int size;
+
+        private Segment() {
+            allocate(INITIAL_SEGMENT_CAPACITY);
+        }
+
+        private synchronized void put(int hash, SimulatorAddress source, long messageId, int remoteAddressIndex,
+                                      ResponseFuture future) {
+            // keep the load factor below 0.5
+            if ((size + 1) * 2 > futures.length) {
+                resize(futures.length * 2);
+            }
+
+            int mask = futures.length - 1;
+            int index = hash & mask;
+            while (futures[index] != null) {
+                if (matches(index, hash, source, messageId, remoteAddressIndex)) {
+                    futures[index] = future;
+                    return;
+                }
+                index = (index + 1) & mask;
+            }
+            store(index, hash, source, messageId, remoteAddressIndex, future);
+            size++;
+        }
+
+        private synchronized ResponseFuture get(int hash, SimulatorAddress source, long messageId, int remoteAddressIndex) {
+            int index = indexOf(hash, source, messageId, remoteAddressIndex);
+            return (index < 0) ? null : futures[index];
+        }
+
+        private synchronized ResponseFuture remove(int hash, SimulatorAddress source, long messageId, int remoteAddressIndex) {
+            int index = indexOf(hash, source, messageId, remoteAddressIndex);
+            if (index < 0) {
+                return null;
+            }
+            ResponseFuture future = futures[index];
+            delete(index);
+            size--;
+            return future;
+        }
+
+        private synchronized int size() {
+            return size;
+        }
+
+        private synchronized String appendTo(StringBuilder sb, String separator) {
+            String tmpSeparator = separator;
+            for (int i = 0; i < futures.length; i++) {
+                if (futures[i] != null) {
+                    sb.append(tmpSeparator).append(sources[i]).append('-').append(messageIds[i]).append('-')
+                            .append(remoteAddressIndexes[i]).append('=').append(futures[i].isDone() ? "done" : "pending");
+                    tmpSeparator = ", ";
+                }
+            }
+            return tmpSeparator;
+        }
+
+        private int indexOf(int hash, SimulatorAddress source, long messageId, int remoteAddressIndex) {
+            int mask = futures.length - 1;
+            int index = hash & mask;
+            while (futures[index] != null) {
+                if (matches(index, hash, source, messageId, remoteAddressIndex)) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        private boolean matches(int index, int hash, SimulatorAddress source, long messageId, int remoteAddressIndex) {
+            if (hashes[index] != hash || messageIds[index] != messageId || remoteAddressIndexes[index] != remoteAddressIndex) {
+                return false;
+            }
+            SimulatorAddress storedSource = sources[index];
+            return (storedSource == source || storedSource.equals(source));
+        }
+
+        private void delete(int index) {
+            int mask = futures.length - 1;
+            int gap = index;
+            int next = (gap + 1) & mask;
+            while (futures[next] != null) {
+                int home = hashes[next] & mask;
+                // an entry can be moved into the gap, if the gap is between its home slot and its current slot
+                if (((next - home) & mask) >= ((next - gap) & mask)) {
+                    store(gap, hashes[next], sources[next], messageIds[next], remoteAddressIndexes[next], futures[next]);
+                    gap = next;
+                }
+                next = (next + 1) & mask;
+            }
+            store(gap, 0, null, 0, 0, null);
+        }
+
+        private void resize(int capacity) {
+            int[] oldHashes = hashes;
+            SimulatorAddress[] oldSources = sources;
+            long[] oldMessageIds = messageIds;
+            int[] oldRemoteAddressIndexes = remoteAddressIndexes;
+            ResponseFuture[] oldFutures = futures;
+
+            allocate(capacity);
+            int mask = capacity - 1;
+            for (int i = 0; i < oldFutures.length; i++) {
+                if (oldFutures[i] != null) {
+                    int index = oldHashes[i] & mask;
+                    while (futures[index] != null) {
+                        index = (index + 1) & mask;
+                    }
+                    store(index, oldHashes[i], oldSources[i], oldMessageIds[i], oldRemoteAddressIndexes[i], oldFutures[i]);
+                }
+            }
+        }
+
+        private void allocate(int capacity) {
+            hashes = new int[capacity];
+            sources = new SimulatorAddress[capacity];
+            messageIds = new long[capacity];
+            remoteAddressIndexes = new int[capacity];
+            futures = new ResponseFuture[capacity];
+        }
+
+        private void store(int index, int hash, SimulatorAddress source, long messageId, int remoteAddressIndex,
+                           ResponseFuture future) {
+            hashes[index] = hash;
+            sources[index] = source;
+            messageIds[index] = messageId;
+            remoteAddressIndexes[index] = remoteAddressIndex;
+            futures[index] = future;
+        }
+    }
+}
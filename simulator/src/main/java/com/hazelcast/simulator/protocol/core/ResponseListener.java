@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.protocol.core;
+
+/**
+ * Listener which is notified when a {@link ResponseFuture} has been completed.
+ */
+public interface ResponseListener {
+
+    /**
+     * Is called with the {@link Response} of a completed {@link ResponseFuture}.
+     *
+     * The listener is called by the thread which completes the {@link ResponseFuture}, which is usually a Netty I/O thread.
+     * So the listener must not block.
+     *
+     * @param response the {@link Response} of the {@link ResponseFuture}
+     */
+    void onResponse(Response response);
+}
@@ -16,10 +16,15 @@
 package com.hazelcast.simulator.protocol.core;
 
 import com.hazelcast.simulator.protocol.operation.OperationType;
+import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
+
+import static com.hazelcast.simulator.protocol.operation.OperationCodec.toJson;
 
 /**
- * Message with a JSON serialized {@link com.hazelcast.simulator.protocol.operation.SimulatorOperation} which can be sent
- * from any Simulator component to another.
+ * Message with a {@link SimulatorOperation} which can be sent from any Simulator component to another.
+ *
+ * The operation is either contained as JSON serialized {@link String} or as {@link SimulatorOperation} instance, which is
+ * serialized by the {@link SimulatorMessageCodec} in the format of its {@link OperationType}.
  */
 public class SimulatorMessage {
 
@@ -29,14 +34,26 @@ public class SimulatorMessage {
 
     private final OperationType operationType;
     private final String operationData;
+    private final SimulatorOperation operation;
 
     public SimulatorMessage(SimulatorAddress destination, SimulatorAddress source, long messageId,
                             OperationType operationType, String operationData) {
+        this(destination, source, messageId, operationType, operationData, null);
+    }
+
+    public SimulatorMessage(SimulatorAddress destination, SimulatorAddress source, long messageId,
+                            OperationType operationType, SimulatorOperation operation) {
+        this(destination, source, messageId, operationType, null, operation);
+    }
+
+    private SimulatorMessage(SimulatorAddress destination, SimulatorAddress source, long messageId,
+                             OperationType operationType, String operationData, SimulatorOperation operation) {
         this.destination = destination;
         this.source = source;
         this.messageId = messageId;
         this.operationType = operationType;
         this.operationData = operationData;
+        this.operation = operation;
     }
 
     public SimulatorAddress getDestination() {
@@ -55,10 +72,29 @@ public class SimulatorMessage {
         return operationType;
     }
 
+    /**
+     * Returns the JSON serialized {@link SimulatorOperation} of this message.
+     *
+     * If the message contains a {@link SimulatorOperation} instance, it will be serialized on each call.
+     *
+     * @return the JSON serialized {@link SimulatorOperation}
+     */
     public String getOperationData() {
+        if (operationData == null && operation != null) {
+            return toJson(operation);
+        }
         return operationData;
     }
 
+    /**
+     * Returns the {@link SimulatorOperation} instance of this message.
+     *
+     * @return the {@link SimulatorOperation} or {@code null} if the message just contains the JSON serialized operation
+     */
+    public SimulatorOperation getOperation() {
+        return operation;
+    }
+
     @Override
     public String toString() {
         return "SimulatorMessage{"
@@ -66,7 +102,7 @@ public class SimulatorMessage {
                 + ", source=" + source
                 + ", messageId=" + messageId
                 + ", operationType=" + operationType
-                + ", operationData='" + operationData + '\''
+                + ", operationData='" + getOperationData() + '\''
                 + '}';
     }
 }
@@ -15,13 +15,20 @@
  */
 package com.hazelcast.simulator.protocol.core;
 
+import com.hazelcast.simulator.protocol.operation.BinaryOperationCodec;
 import com.hazelcast.simulator.protocol.operation.OperationType;
+import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
 import io.netty.buffer.ByteBuf;
 
 import static com.hazelcast.simulator.protocol.core.BaseCodec.ADDRESS_SIZE;
 import static com.hazelcast.simulator.protocol.core.BaseCodec.INT_SIZE;
 import static com.hazelcast.simulator.protocol.core.BaseCodec.LONG_SIZE;
 import static com.hazelcast.simulator.protocol.core.SimulatorAddressCodec.decodeSimulatorAddress;
+import static com.hazelcast.simulator.protocol.operation.BinaryOperationCodec.BINARY_FORMAT_VERSION;
+import static com.hazelcast.simulator.protocol.operation.BinaryOperationCodec.JSON_FORMAT;
+import static com.hazelcast.simulator.protocol.operation.BinaryOperationCodec.decodeSimulatorOperation;
+import static com.hazelcast.simulator.protocol.operation.BinaryOperationCodec.isBinaryFormat;
+import static io.netty.buffer.ByteBufUtil.writeUtf8;
 import static io.netty.util.CharsetUtil.UTF_8;
 
 /**
@@ -36,24 +43,34 @@ public final class SimulatorMessageCodec {
     private static final int OFFSET_SRC_ADDRESS = OFFSET_DST_ADDRESS + ADDRESS_SIZE;
     private static final int OFFSET_MESSAGE_ID = OFFSET_SRC_ADDRESS + ADDRESS_SIZE;
 
-    private static final int HEADER_SIZE = 2 * INT_SIZE + LONG_SIZE + 2 * ADDRESS_SIZE;
+    private static final int FORMAT_SIZE = 1;
+    private static final int HEADER_SIZE = 2 * INT_SIZE + LONG_SIZE + 2 * ADDRESS_SIZE + FORMAT_SIZE;
 
     private SimulatorMessageCodec() {
     }
 
     public static void encodeByteBuf(SimulatorMessage msg, ByteBuf buffer) {
-        byte[] data = msg.getOperationData().getBytes(UTF_8);
-
-        buffer.writeInt(HEADER_SIZE + data.length);
+        int frameLengthIndex = buffer.writerIndex();
+        buffer.writeInt(0);
         buffer.writeInt(MAGIC_BYTES);
 
         SimulatorAddressCodec.encodeByteBuf(msg.getDestination(), buffer);
         SimulatorAddressCodec.encodeByteBuf(msg.getSource(), buffer);
 
+        OperationType operationType = msg.getOperationType();
         buffer.writeLong(msg.getMessageId());
-        buffer.writeInt(msg.getOperationType().toInt());
+        buffer.writeInt(operationType.toInt());
+
+        SimulatorOperation operation = msg.getOperation();
+        if (operation != null && isBinaryFormat(operationType)) {
+            buffer.writeByte(BINARY_FORMAT_VERSION);
+            BinaryOperationCodec.encodeByteBuf(operationType, operation, buffer);
+        } else {
+            buffer.writeByte(JSON_FORMAT);
+            writeUtf8(buffer, msg.getOperationData());
+        }
 
-        buffer.writeBytes(data);
+        buffer.setInt(frameLengthIndex, buffer.writerIndex() - frameLengthIndex - INT_SIZE);
     }
 
     public static SimulatorMessage decodeSimulatorMessage(ByteBuf buffer) {
@@ -70,9 +87,18 @@ public final class SimulatorMessageCodec {
         long messageId = buffer.readLong();
         OperationType operationType = OperationType.fromInt(buffer.readInt());
 
-        String operationData = buffer.readSlice(dataLength).toString(UTF_8);
-
-        return new SimulatorMessage(destination, source, messageId, operationType, operationData);
+        byte format = buffer.readByte();
+        ByteBuf operationBuffer = buffer.readSlice(dataLength);
+        switch (format) {
+            case JSON_FORMAT:
+                String operationData = operationBuffer.toString(UTF_8);
+                return new SimulatorMessage(destination, source, messageId, operationType, operationData);
+            case BINARY_FORMAT_VERSION:
+                SimulatorOperation operation = decodeSimulatorOperation(operationType, operationBuffer);
+                return new SimulatorMessage(destination, source, messageId, operationType, operation);
+            default:
+                throw new IllegalArgumentException("Unsupported operation format " + format + " for SimulatorMessage");
+        }
     }
 
     public static boolean isSimulatorMessage(ByteBuf in) {
@@ -16,23 +16,266 @@
 package com.hazelcast.simulator.protocol.exception;
 
 import com.hazelcast.simulator.protocol.connector.ServerConnector;
+import com.hazelcast.simulator.protocol.core.Response;
+import com.hazelcast.simulator.protocol.core.ResponseFuture;
+import com.hazelcast.simulator.protocol.core.ResponseListener;
+import com.hazelcast.simulator.protocol.core.ResponseType;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.operation.ExceptionOperation;
+import org.apache.log4j.Logger;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.simulator.protocol.core.ResponseType.SUCCESS;
+import static com.hazelcast.simulator.utils.CommonUtils.joinThread;
+import static com.hazelcast.simulator.utils.CommonUtils.sleepMillis;
+import static java.lang.String.format;
 
 /**
- * Sends exceptions to the parent Simulator component (via a {@link ServerConnector}).
+ * Sends exceptions to the Simulator Coordinator (via a {@link ServerConnector}).
+ *
+ * Exceptions are grouped by their test and their stacktrace signature, which ignores the exception message. So an exception
+ * storm of the same exception results in a single {@link ExceptionOperation} with an occurrence count. The pending groups are
+ * sent by a background thread once per flush interval, at most {@value #MAX_OPERATIONS_PER_FLUSH} per interval. The submitted
+ * operations are coalesced into batches by the {@link ServerConnector}.
+ *
+ * Up to {@value #MAX_EXCEPTION_COUNT} different exceptions can be pending at the same time. Additional new exceptions are
+ * dropped and their number is logged.
+ *
+ * Exceptions which could not be delivered, or which are logged after {@link #shutdown()}, are written to files by a
+ * {@link FileExceptionLogger}, so the Simulator Agent can pick them up.
  */
-public class RemoteExceptionLogger extends AbstractExceptionLogger {
+public class RemoteExceptionLogger implements ExceptionLogger {
+
+    static final int MAX_OPERATIONS_PER_FLUSH = 100;
+
+    private static final int DEFAULT_FLUSH_INTERVAL_MILLIS = (int) TimeUnit.SECONDS.toMillis(1);
+    private static final int MAX_CAUSE_DEPTH = 10;
 
+    private static final Logger LOGGER = Logger.getLogger(RemoteExceptionLogger.class);
+
+    private final ConcurrentMap<String, ExceptionGroup> pendingGroups = new ConcurrentHashMap<String, ExceptionGroup>();
+    private final Queue<ExceptionGroup> undeliveredGroups = new ConcurrentLinkedQueue<ExceptionGroup>();
+    private final AtomicLong exceptionCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicBoolean isFlushThreadStarted = new AtomicBoolean();
+
+    private final SimulatorAddress localAddress;
+    private final ExceptionType exceptionType;
     private final ServerConnector serverConnector;
+    private final FileExceptionLogger fallbackLogger;
+    private final FlushThread flushThread;
+
+    private volatile boolean isShutdown;
 
     public RemoteExceptionLogger(SimulatorAddress localAddress, ExceptionType exceptionType, ServerConnector serverConnector) {
-        super(localAddress, exceptionType);
+        this(localAddress, exceptionType, serverConnector, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    RemoteExceptionLogger(SimulatorAddress localAddress, ExceptionType exceptionType, ServerConnector serverConnector,
+                          int flushIntervalMillis) {
+        this.localAddress = localAddress;
+        this.exceptionType = exceptionType;
         this.serverConnector = serverConnector;
+        this.fallbackLogger = new FileExceptionLogger(localAddress, exceptionType);
+        this.flushThread = new FlushThread(flushIntervalMillis);
+    }
+
+    @Override
+    public long getLogInvocationCount() {
+        return exceptionCount.get();
     }
 
     @Override
-    protected void handleOperation(long exceptionId, ExceptionOperation operation) {
-        serverConnector.submit(SimulatorAddress.COORDINATOR, operation);
+    public void log(Throwable cause) {
+        log(cause, null);
+    }
+
+    @Override
+    public void log(Throwable cause, String testId) {
+        if (cause == null) {
+            throw new IllegalArgumentException("Exception for RemoteExceptionLogger cannot be null");
+        }
+
+        long exceptionId = exceptionCount.incrementAndGet();
+        if (isShutdown) {
+            fallbackLogger.log(cause, testId);
+            return;
+        }
+
+        String signature = getSignature(testId, cause);
+        while (true) {
+            ExceptionGroup group = pendingGroups.get(signature);
+            if (group != null) {
+                // the increment fails if the group has just been sent, so we retry with a new group
+                if (group.increment()) {
+                    return;
+                }
+            } else if (pendingGroups.size() >= MAX_EXCEPTION_COUNT) {
+                droppedCount.incrementAndGet();
+                return;
+            } else if (pendingGroups.putIfAbsent(signature, new ExceptionGroup(testId, cause)) == null) {
+                LOGGER.warn(format("Logged exception #%d: %s(%s)", exceptionId, cause.getClass().getSimpleName(),
+                        cause.getMessage()));
+                startFlushThread();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Stops the background thread and writes all pending exceptions to files.
+     */
+    public void shutdown() {
+        isShutdown = true;
+        if (isFlushThreadStarted.get()) {
+            flushThread.interrupt();
+            joinThread(flushThread);
+        }
+        for (String signature : pendingGroups.keySet()) {
+            ExceptionGroup group = pendingGroups.remove(signature);
+            if (group != null) {
+                group.close();
+                undeliveredGroups.add(group);
+            }
+        }
+        logUndeliveredGroups();
+    }
+
+    int getPendingCount() {
+        return pendingGroups.size();
+    }
+
+    void flush() {
+        logUndeliveredGroups();
+
+        int sentOperations = 0;
+        for (Map.Entry<String, ExceptionGroup> entry : pendingGroups.entrySet()) {
+            if (sentOperations == MAX_OPERATIONS_PER_FLUSH) {
+                break;
+            }
+            ExceptionGroup group = entry.getValue();
+            if (pendingGroups.remove(entry.getKey(), group)) {
+                send(group, group.close());
+                sentOperations++;
+            }
+        }
+
+        long dropped = droppedCount.getAndSet(0);
+        if (dropped > 0) {
+            LOGGER.warn(format("Dropped %d exceptions, since %d different exceptions were pending", dropped,
+                    MAX_EXCEPTION_COUNT));
+        }
+    }
+
+    private void send(final ExceptionGroup group, int count) {
+        ExceptionOperation operation = new ExceptionOperation(exceptionType.name(), localAddress.toString(), group.testId,
+                group.cause, count);
+        ResponseFuture future = serverConnector.submit(SimulatorAddress.COORDINATOR, operation);
+        future.addListener(new ResponseListener() {
+            @Override
+            public void onResponse(Response response) {
+                ResponseType responseType = response.getFirstErrorResponseType();
+                if (responseType != SUCCESS) {
+                    // the listener is called by an I/O thread, so the exception file is written by the flush thread
+                    LOGGER.warn(format("Could not send exception to Coordinator: %s", responseType));
+                    undeliveredGroups.add(group);
+                }
+            }
+        });
+    }
+
+    private void logUndeliveredGroups() {
+        ExceptionGroup group;
+        while ((group = undeliveredGroups.poll()) != null) {
+            fallbackLogger.log(group.cause, group.testId);
+        }
+    }
+
+    private void startFlushThread() {
+        if (isFlushThreadStarted.compareAndSet(false, true)) {
+            flushThread.start();
+        }
+    }
+
+    static String getSignature(String testId, Throwable cause) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(testId);
+
+        Throwable throwable = cause;
+        for (int depth = 0; throwable != null && depth < MAX_CAUSE_DEPTH; depth++) {
+            sb.append('|').append(throwable.getClass().getName());
+            for (StackTraceElement element : throwable.getStackTrace()) {
+                sb.append('|').append(element);
+            }
+            throwable = throwable.getCause();
+        }
+        return sb.toString();
+    }
+
+    private static final class ExceptionGroup {
+
+        private static final int CLOSED = -1;
+
+        private final AtomicInteger count = new AtomicInteger(1);
+
+        private final String testId;
+        private final Throwable cause;
+
+        private ExceptionGroup(String testId, Throwable cause) {
+            this.testId = testId;
+            this.cause = cause;
+        }
+
+        private boolean increment() {
+            while (true) {
+                int current = count.get();
+                if (current == CLOSED) {
+                    return false;
+                }
+                if (count.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        private int close() {
+            return count.getAndSet(CLOSED);
+        }
+    }
+
+    private final class FlushThread extends Thread {
+
+        private final int flushIntervalMillis;
+
+        private FlushThread(int flushIntervalMillis) {
+            super("RemoteExceptionLoggerFlushThread");
+            setDaemon(true);
+
+            this.flushIntervalMillis = flushIntervalMillis;
+        }
+
+        @Override
+        public void run() {
+            while (!isShutdown) {
+                sleepMillis(flushIntervalMillis);
+                if (isShutdown) {
+                    break;
+                }
+                try {
+                    flush();
+                } catch (Exception e) {
+                    LOGGER.error("Could not send exceptions to Coordinator", e);
+                }
+            }
+        }
     }
 }
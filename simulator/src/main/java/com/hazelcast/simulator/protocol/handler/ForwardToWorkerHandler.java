@@ -20,10 +20,9 @@ import com.hazelcast.simulator.protocol.core.AddressLevel;
 import com.hazelcast.simulator.protocol.core.ClientConnectorManager;
 import com.hazelcast.simulator.protocol.core.Response;
 import com.hazelcast.simulator.protocol.core.ResponseCodec;
-import com.hazelcast.simulator.protocol.core.ResponseFuture;
+import com.hazelcast.simulator.protocol.core.ResponseListener;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.core.SimulatorMessageCodec;
-import com.hazelcast.simulator.protocol.core.SimulatorProtocolException;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
@@ -32,7 +31,7 @@ import org.apache.log4j.Logger;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.hazelcast.simulator.protocol.core.ResponseCodec.isResponse;
 import static com.hazelcast.simulator.protocol.core.ResponseType.FAILURE_WORKER_NOT_FOUND;
@@ -53,19 +52,16 @@ public class ForwardToWorkerHandler extends SimpleChannelInboundHandler<ByteBuf>
     private final AddressLevel addressLevel;
 
     private final ClientConnectorManager clientConnectorManager;
-    private final ExecutorService executorService;
 
-    public ForwardToWorkerHandler(SimulatorAddress localAddress, ClientConnectorManager clientConnectorManager,
-                                  ExecutorService executorService) {
+    public ForwardToWorkerHandler(SimulatorAddress localAddress, ClientConnectorManager clientConnectorManager) {
         this.localAddress = localAddress;
         this.addressLevel = localAddress.getAddressLevel();
 
         this.clientConnectorManager = clientConnectorManager;
-        this.executorService = executorService;
     }
 
     @Override
-    protected void channelRead0(final ChannelHandlerContext ctx, final ByteBuf buffer) throws Exception {
+    protected void channelRead0(ChannelHandlerContext ctx, ByteBuf buffer) throws Exception {
         if (LOGGER.isTraceEnabled()) {
             LOGGER.trace(format("ForwardToWorkerHandler.channelRead0() %s %s", addressLevel, localAddress));
         }
@@ -78,32 +74,24 @@ public class ForwardToWorkerHandler extends SimpleChannelInboundHandler<ByteBuf>
         }
     }
 
-    private void forwardSimulatorMessage(final ChannelHandlerContext ctx, ByteBuf buffer, int workerAddressIndex) {
-        final long messageId = SimulatorMessageCodec.getMessageId(buffer);
+    private void forwardSimulatorMessage(ChannelHandlerContext ctx, ByteBuf buffer, int workerAddressIndex) {
+        long messageId = SimulatorMessageCodec.getMessageId(buffer);
 
-        final Response response = new Response(messageId, getSourceAddress(buffer));
+        Response response = new Response(messageId, getSourceAddress(buffer));
         if (workerAddressIndex == 0) {
             if (LOGGER.isTraceEnabled()) {
                 LOGGER.trace(format("[%d] %s forwarding message to all workers", messageId, addressLevel));
             }
-            final List<ResponseFuture> futureList = new ArrayList<ResponseFuture>();
-            for (ClientConnector clientConnector : clientConnectorManager.getClientConnectors()) {
+            List<ClientConnector> clientConnectors = new ArrayList<ClientConnector>(clientConnectorManager.getClientConnectors());
+            if (clientConnectors.isEmpty()) {
+                ctx.writeAndFlush(response);
+                return;
+            }
+            ResponseAggregator aggregator = new ResponseAggregator(ctx, response, clientConnectors.size());
+            for (ClientConnector clientConnector : clientConnectors) {
                 buffer.retain();
-                futureList.add(clientConnector.writeAsync(buffer));
+                clientConnector.writeAsync(buffer).addListener(aggregator);
             }
-            executorService.submit(new Runnable() {
-                @Override
-                public void run() {
-                    try {
-                        for (ResponseFuture future : futureList) {
-                            response.addResponse(future.get());
-                        }
-                        ctx.writeAndFlush(response);
-                    } catch (InterruptedException e) {
-                        throw new SimulatorProtocolException("ResponseFuture.get() got interrupted!", e);
-                    }
-                }
-            });
         } else {
             ClientConnector clientConnector = clientConnectorManager.get(workerAddressIndex);
             if (clientConnector == null) {
@@ -116,8 +104,7 @@ public class ForwardToWorkerHandler extends SimpleChannelInboundHandler<ByteBuf>
                 LOGGER.trace(format("[%d] %s forwarding message to Worker %d", messageId, addressLevel, workerAddressIndex));
             }
             buffer.retain();
-            response.addResponse(clientConnector.write(buffer));
-            ctx.writeAndFlush(response);
+            clientConnector.writeAsync(buffer).addListener(new ResponseAggregator(ctx, response, 1));
         }
     }
 
@@ -137,4 +124,31 @@ public class ForwardToWorkerHandler extends SimpleChannelInboundHandler<ByteBuf>
         buffer.retain();
         clientConnector.forwardToChannel(buffer);
     }
+
+    /**
+     * Collects the {@link Response} of each addressed Simulator Worker and writes the combined {@link Response}, when the last
+     * Worker has answered. So neither the I/O thread nor an executor thread has to wait for the Workers.
+     */
+    private static final class ResponseAggregator implements ResponseListener {
+
+        private final AtomicInteger pendingResponses;
+        private final ChannelHandlerContext ctx;
+        private final Response response;
+
+        private ResponseAggregator(ChannelHandlerContext ctx, Response response, int expectedResponses) {
+            this.pendingResponses = new AtomicInteger(expectedResponses);
+            this.ctx = ctx;
+            this.response = response;
+        }
+
+        @Override
+        public void onResponse(Response workerResponse) {
+            synchronized (response) {
+                response.addResponse(workerResponse);
+            }
+            if (pendingResponses.decrementAndGet() == 0) {
+                ctx.writeAndFlush(response);
+            }
+        }
+    }
 }
@@ -17,14 +17,12 @@ package com.hazelcast.simulator.protocol.handler;
 
 import com.hazelcast.simulator.protocol.core.Response;
 import com.hazelcast.simulator.protocol.core.ResponseFuture;
+import com.hazelcast.simulator.protocol.core.ResponseFutureRegistry;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import org.apache.log4j.Logger;
 
-import java.util.concurrent.ConcurrentMap;
-
-import static com.hazelcast.simulator.protocol.core.ResponseFuture.createFutureKey;
 import static java.lang.String.format;
 
 /**
@@ -37,38 +35,39 @@ public class ResponseHandler extends SimpleChannelInboundHandler<Response> {
     private final SimulatorAddress localAddress;
     private final SimulatorAddress remoteAddress;
 
-    private final ConcurrentMap<String, ResponseFuture> futureMap;
+    private final ResponseFutureRegistry futureRegistry;
     private final int futureKeyIndex;
 
     public ResponseHandler(SimulatorAddress localAddress, SimulatorAddress remoteAddress,
-                           ConcurrentMap<String, ResponseFuture> futureMap) {
-        this(localAddress, remoteAddress, futureMap, remoteAddress.getAddressIndex());
+                           ResponseFutureRegistry futureRegistry) {
+        this(localAddress, remoteAddress, futureRegistry, remoteAddress.getAddressIndex());
     }
 
     public ResponseHandler(SimulatorAddress localAddress, SimulatorAddress remoteAddress,
-                           ConcurrentMap<String, ResponseFuture> futureMap, int futureKeyIndex) {
+                           ResponseFutureRegistry futureRegistry, int futureKeyIndex) {
         this.localAddress = localAddress;
         this.remoteAddress = remoteAddress;
 
-        this.futureMap = futureMap;
+        this.futureRegistry = futureRegistry;
         this.futureKeyIndex = futureKeyIndex;
     }
 
     @Override
     public void channelRead0(ChannelHandlerContext ctx, Response response) {
         long messageId = response.getMessageId();
-        String key = createFutureKey(response.getDestination(), messageId, futureKeyIndex);
+        SimulatorAddress destination = response.getDestination();
         if (LOGGER.isTraceEnabled()) {
-            LOGGER.trace(format("[%d] %s <- %s received %s for %s", messageId, localAddress, remoteAddress, response, key));
+            LOGGER.trace(format("[%d] %s <- %s received %s", messageId, localAddress, remoteAddress, response));
         }
 
-        ResponseFuture future = futureMap.get(key);
+        ResponseFuture future = futureRegistry.remove(destination, messageId, futureKeyIndex);
         if (future != null) {
             future.set(response);
             return;
         }
 
-        String msg = format("[%d] %s <- %s futureKey %s not found for %s", messageId, localAddress, remoteAddress, key, response);
+        String msg = format("[%d] %s <- %s ResponseFuture for %s and index %d not found for %s", messageId, localAddress,
+                remoteAddress, destination, futureKeyIndex, response);
         LOGGER.error(msg);
         throw new IllegalArgumentException(msg);
     }
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.protocol.operation;
+
+/**
+ * Transfers a compressed part of a result file from the Worker directories of an Agent to the Coordinator.
+ *
+ * The path is relative to the directory of the test suite, e.g. {@code C_A1_W1-member/worker.log}. A chunk with offset 0
+ * replaces the content of the file, all other chunks are written at their offset.
+ */
+public class ArtifactChunkOperation implements SimulatorOperation {
+
+    private final String testSuiteId;
+    private final String path;
+    private final long offset;
+    private final long lastModified;
+    private final byte[] compressedData;
+
+    public ArtifactChunkOperation(String testSuiteId, String path, long offset, long lastModified, byte[] compressedData) {
+        this.testSuiteId = testSuiteId;
+        this.path = path;
+        this.offset = offset;
+        this.lastModified = lastModified;
+        this.compressedData = compressedData;
+    }
+
+    public String getTestSuiteId() {
+        return testSuiteId;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public byte[] getCompressedData() {
+        return compressedData;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.protocol.operation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Contains multiple {@link SimulatorOperation} instances from the same source to the same destination, which are sent in a
+ * single {@link com.hazelcast.simulator.protocol.core.SimulatorMessage}.
+ *
+ * The operations are processed in the order they have been added. This operation is always serialized by the
+ * {@link BinaryOperationCodec}, since the contained operations are just known by their interface.
+ */
+public class BatchOperation implements SimulatorOperation {
+
+    private final List<SimulatorOperation> operations;
+
+    public BatchOperation() {
+        this.operations = new ArrayList<SimulatorOperation>();
+    }
+
+    public BatchOperation(List<SimulatorOperation> operations) {
+        this.operations = new ArrayList<SimulatorOperation>(operations);
+    }
+
+    public void addOperation(SimulatorOperation operation) {
+        operations.add(operation);
+    }
+
+    public List<SimulatorOperation> getOperations() {
+        return operations;
+    }
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.protocol.operation;
+
+import com.hazelcast.simulator.test.TestPhase;
+import com.hazelcast.simulator.worker.performance.PerformanceState;
+import io.netty.buffer.ByteBuf;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.simulator.protocol.operation.OperationType.getOperationType;
+import static com.hazelcast.simulator.utils.HistogramUtils.toCompressedBytes;
+import static com.hazelcast.simulator.utils.HistogramUtils.toEncodedHistogram;
+import static io.netty.buffer.ByteBufUtil.writeUtf8;
+import static io.netty.util.CharsetUtil.UTF_8;
+import static java.lang.String.format;
+
+/**
+ * Encodes and decodes {@link SimulatorOperation} instances of frequently sent {@link OperationType} values in a compact
+ * binary format, which is written directly into and read directly from a {@link ByteBuf}.
+ *
+ * All other operation types are serialized as JSON by {@link OperationCodec}. The JSON format can also be forced for all
+ * operation types via the system property {@value #JSON_FORMAT_PROPERTY}, which is useful for debugging.
+ */
+public final class BinaryOperationCodec {
+
+    /**
+     * Format byte of an operation which is serialized as JSON.
+     */
+    public static final byte JSON_FORMAT = 0;
+
+    /**
+     * Format byte of an operation which is serialized in the binary format. The value is increased on incompatible changes.
+     */
+    public static final byte BINARY_FORMAT_VERSION = 1;
+
+    public static final String JSON_FORMAT_PROPERTY = "simulator.protocol.json";
+
+    private static final boolean FORCE_JSON_FORMAT = Boolean.getBoolean(JSON_FORMAT_PROPERTY);
+
+    private static final int NULL_LENGTH = -1;
+
+    private BinaryOperationCodec() {
+    }
+
+    /**
+     * Checks if an {@link OperationType} should be serialized with the binary format.
+     *
+     * @param operationType the {@link OperationType} to check
+     * @return {@code true} if the binary format should be used, {@code false} if JSON should be used
+     */
+    public static boolean isBinaryFormat(OperationType operationType) {
+        return !FORCE_JSON_FORMAT && hasBinaryCodec(operationType);
+    }
+
+    static boolean hasBinaryCodec(OperationType operationType) {
+        switch (operationType) {
+            case PERFORMANCE_STATE:
+            case TEST_HISTOGRAMS:
+            case PHASE_COMPLETED:
+            case PING:
+            case PONG:
+            case BATCH:
+            case HEARTBEAT:
+            case ARTIFACT_CHUNK:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public static void encodeByteBuf(OperationType operationType, SimulatorOperation operation, ByteBuf buffer) {
+        switch (operationType) {
+            case PERFORMANCE_STATE:
+                encodePerformanceStateOperation((PerformanceStateOperation) operation, buffer);
+                break;
+            case TEST_HISTOGRAMS:
+                encodeTestHistogramOperation((TestHistogramOperation) operation, buffer);
+                break;
+            case PHASE_COMPLETED:
+                writeString(((PhaseCompletedOperation) operation).getTestPhase().name(), buffer);
+                break;
+            case PING:
+            case PONG:
+                break;
+            case BATCH:
+                encodeBatchOperation((BatchOperation) operation, buffer);
+                break;
+            case HEARTBEAT:
+                encodeHeartbeatOperation((HeartbeatOperation) operation, buffer);
+                break;
+            case ARTIFACT_CHUNK:
+                encodeArtifactChunkOperation((ArtifactChunkOperation) operation, buffer);
+                break;
+            default:
+                throw new IllegalArgumentException(format("No binary codec registered for %s", operationType));
+        }
+    }
+
+    public static SimulatorOperation decodeSimulatorOperation(OperationType operationType, ByteBuf buffer) {
+        switch (operationType) {
+            case PERFORMANCE_STATE:
+                return decodePerformanceStateOperation(buffer);
+            case TEST_HISTOGRAMS:
+                return decodeTestHistogramOperation(buffer);
+            case PHASE_COMPLETED:
+                return new PhaseCompletedOperation(TestPhase.valueOf(readString(buffer)));
+            case PING:
+                return new PingOperation();
+            case PONG:
+                return new PongOperation();
+            case BATCH:
+                return decodeBatchOperation(buffer);
+            case HEARTBEAT:
+                return decodeHeartbeatOperation(buffer);
+            case ARTIFACT_CHUNK:
+                return decodeArtifactChunkOperation(buffer);
+            default:
+                throw new IllegalArgumentException(format("No binary codec registered for %s", operationType));
+        }
+    }
+
+    private static void encodePerformanceStateOperation(PerformanceStateOperation operation, ByteBuf buffer) {
+        Map<String, PerformanceState> performanceStates = operation.getPerformanceStates();
+        buffer.writeInt(performanceStates.size());
+        for (Map.Entry<String, PerformanceState> entry : performanceStates.entrySet()) {
+            PerformanceState state = entry.getValue();
+            writeString(entry.getKey(), buffer);
+            buffer.writeLong(state.getOperationCount());
+            buffer.writeDouble(state.getIntervalThroughput());
+            buffer.writeDouble(state.getTotalThroughput());
+            buffer.writeDouble(state.getIntervalAvgLatency());
+            buffer.writeLong(state.getIntervalPercentileLatency());
+            buffer.writeLong(state.getIntervalMaxLatency());
+        }
+    }
+
+    private static PerformanceStateOperation decodePerformanceStateOperation(ByteBuf buffer) {
+        PerformanceStateOperation operation = new PerformanceStateOperation();
+        int size = buffer.readInt();
+        for (int i = 0; i < size; i++) {
+            String testId = readString(buffer);
+            long operationCount = buffer.readLong();
+            double intervalThroughput = buffer.readDouble();
+            double totalThroughput = buffer.readDouble();
+            double intervalAvgLatency = buffer.readDouble();
+            long intervalPercentileLatency = buffer.readLong();
+            long intervalMaxLatency = buffer.readLong();
+            operation.addPerformanceState(testId, new PerformanceState(operationCount, intervalThroughput, totalThroughput,
+                    intervalAvgLatency, intervalPercentileLatency, intervalMaxLatency));
+        }
+        return operation;
+    }
+
+    private static void encodeTestHistogramOperation(TestHistogramOperation operation, ByteBuf buffer) {
+        writeString(operation.getTestId(), buffer);
+        Map<String, String> probeHistograms = operation.getProbeHistograms();
+        buffer.writeInt(probeHistograms.size());
+        for (Map.Entry<String, String> entry : probeHistograms.entrySet()) {
+            writeString(entry.getKey(), buffer);
+            writeBytes(entry.getValue() == null ? null : toCompressedBytes(entry.getValue()), buffer);
+        }
+    }
+
+    private static TestHistogramOperation decodeTestHistogramOperation(ByteBuf buffer) {
+        String testId = readString(buffer);
+        int size = buffer.readInt();
+        Map<String, String> probeHistograms = new HashMap<String, String>(size * 2);
+        for (int i = 0; i < size; i++) {
+            String probeName = readString(buffer);
+            byte[] compressedHistogram = readBytes(buffer);
+            probeHistograms.put(probeName, compressedHistogram == null ? null : toEncodedHistogram(compressedHistogram));
+        }
+        return new TestHistogramOperation(testId, probeHistograms);
+    }
+
+    private static void encodeBatchOperation(BatchOperation operation, ByteBuf buffer) {
+        List<SimulatorOperation> operations = operation.getOperations();
+        buffer.writeInt(operations.size());
+        for (SimulatorOperation nestedOperation : operations) {
+            OperationType operationType = getOperationType(nestedOperation);
+            buffer.writeInt(operationType.toInt());
+            if (hasBinaryCodec(operationType)) {
+                buffer.writeByte(BINARY_FORMAT_VERSION);
+                encodeByteBuf(operationType, nestedOperation, buffer);
+            } else {
+                buffer.writeByte(JSON_FORMAT);
+                writeString(OperationCodec.toJson(nestedOperation), buffer);
+            }
+        }
+    }
+
+    private static BatchOperation decodeBatchOperation(ByteBuf buffer) {
+        int size = buffer.readInt();
+        List<SimulatorOperation> operations = new ArrayList<SimulatorOperation>(size);
+        for (int i = 0; i < size; i++) {
+            OperationType operationType = OperationType.fromInt(buffer.readInt());
+            byte format = buffer.readByte();
+            switch (format) {
+                case JSON_FORMAT:
+                    operations.add(OperationCodec.fromJson(readString(buffer), operationType.getClassType()));
+                    break;
+                case BINARY_FORMAT_VERSION:
+                    operations.add(decodeSimulatorOperation(operationType, buffer));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported operation format " + format + " in BatchOperation");
+            }
+        }
+        return new BatchOperation(operations);
+    }
+
+    private static void encodeHeartbeatOperation(HeartbeatOperation operation, ByteBuf buffer) {
+        buffer.writeLong(operation.getTimestamp());
+        buffer.writeLong(operation.getHeapUsedBytes());
+        buffer.writeLong(operation.getHeapMaxBytes());
+        buffer.writeLong(operation.getGcTimeMillis());
+        buffer.writeLong(operation.getCpuTimeNanos());
+        buffer.writeInt(operation.getThreadCount());
+        buffer.writeInt(operation.getQueuedOperations());
+    }
+
+    private static HeartbeatOperation decodeHeartbeatOperation(ByteBuf buffer) {
+        long timestamp = buffer.readLong();
+        long heapUsedBytes = buffer.readLong();
+        long heapMaxBytes = buffer.readLong();
+        long gcTimeMillis = buffer.readLong();
+        long cpuTimeNanos = buffer.readLong();
+        int threadCount = buffer.readInt();
+        int queuedOperations = buffer.readInt();
+        return new HeartbeatOperation(timestamp, heapUsedBytes, heapMaxBytes, gcTimeMillis, cpuTimeNanos, threadCount,
+                queuedOperations);
+    }
+
+    private static void encodeArtifactChunkOperation(ArtifactChunkOperation operation, ByteBuf buffer) {
+        writeString(operation.getTestSuiteId(), buffer);
+        writeString(operation.getPath(), buffer);
+        buffer.writeLong(operation.getOffset());
+        buffer.writeLong(operation.getLastModified());
+        writeBytes(operation.getCompressedData(), buffer);
+    }
+
+    private static ArtifactChunkOperation decodeArtifactChunkOperation(ByteBuf buffer) {
+        String testSuiteId = readString(buffer);
+        String path = readString(buffer);
+        long offset = buffer.readLong();
+        long lastModified = buffer.readLong();
+        byte[] compressedData = readBytes(buffer);
+        return new ArtifactChunkOperation(testSuiteId, path, offset, lastModified, compressedData);
+    }
+
+    private static void writeBytes(byte[] value, ByteBuf buffer) {
+        if (value == null) {
+            buffer.writeInt(NULL_LENGTH);
+            return;
+        }
+        buffer.writeInt(value.length);
+        buffer.writeBytes(value);
+    }
+
+    private static byte[] readBytes(ByteBuf buffer) {
+        int length = buffer.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        buffer.readBytes(value);
+        return value;
+    }
+
+    private static void writeString(String value, ByteBuf buffer) {
+        if (value == null) {
+            buffer.writeInt(NULL_LENGTH);
+            return;
+        }
+        int lengthIndex = buffer.writerIndex();
+        buffer.writeInt(0);
+        int length = writeUtf8(buffer, value);
+        buffer.setInt(lengthIndex, length);
+    }
+
+    private static String readString(ByteBuf buffer) {
+        int length = buffer.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        String value = buffer.toString(buffer.readerIndex(), length, UTF_8);
+        buffer.skipBytes(length);
+        return value;
+    }
+}
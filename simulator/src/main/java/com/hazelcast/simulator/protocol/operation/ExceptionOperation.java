@@ -34,20 +34,39 @@ public class ExceptionOperation implements SimulatorOperation {
     private final String cause;
     private final String stacktrace;
     private final long time;
+    private final int count;
 
     public ExceptionOperation(String type, String address, String testId, Throwable cause) {
+        this(type, address, testId, cause, 1);
+    }
+
+    /**
+     * Creates an {@link ExceptionOperation} for an exception which occurred multiple times.
+     *
+     * @param type    the {@link ExceptionType} of the exception
+     * @param address the address of the Simulator component which caught the exception
+     * @param testId  the id of the test which caused the exception or <tt>null</tt> if it is not known
+     * @param cause   the first occurrence of the exception
+     * @param count   the number of occurrences of the exception with the same stacktrace signature
+     */
+    public ExceptionOperation(String type, String address, String testId, Throwable cause, int count) {
         this.type = type;
         this.address = address;
         this.testId = testId;
         this.cause = cause.toString();
         this.stacktrace = throwableToString(cause);
         this.time = System.currentTimeMillis();
+        this.count = count;
     }
 
     public String getTestId() {
         return testId;
     }
 
+    public int getCount() {
+        return count;
+    }
+
     public String getStacktrace() {
         return stacktrace;
     }
@@ -62,6 +81,9 @@ public class ExceptionOperation implements SimulatorOperation {
             sb.append("Test: ").append(testId).append(' ');
         }
         sb.append(type);
+        if (count > 1) {
+            sb.append(" (").append(count).append(" times)");
+        }
         if (cause != null) {
             String[] lines = cause.split(NEW_LINE);
             if (lines.length > 0) {
@@ -80,6 +102,7 @@ public class ExceptionOperation implements SimulatorOperation {
         sb.append("   type=").append(type).append(NEW_LINE);
         sb.append("   address=").append(address).append(NEW_LINE);
         sb.append("   time=").append(new Date(time)).append(NEW_LINE);
+        sb.append("   count=").append(count).append(NEW_LINE);
 
         if (testCase != null) {
             String prefix = "   test=";
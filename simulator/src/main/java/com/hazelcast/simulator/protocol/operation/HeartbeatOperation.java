@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.protocol.operation;
+
+/**
+ * Periodic heartbeat of a Simulator Worker, which carries its liveness and resource usage.
+ *
+ * The GC and CPU times are cumulative since the start of the Worker JVM, so a lost heartbeat doesn't falsify the next interval.
+ * The queued operations are the messages of the Worker, which are waiting to be sent to the Coordinator.
+ */
+public class HeartbeatOperation implements SimulatorOperation {
+
+    private final long timestamp;
+    private final long heapUsedBytes;
+    private final long heapMaxBytes;
+    private final long gcTimeMillis;
+    private final long cpuTimeNanos;
+    private final int threadCount;
+    private final int queuedOperations;
+
+    public HeartbeatOperation(long timestamp, long heapUsedBytes, long heapMaxBytes, long gcTimeMillis, long cpuTimeNanos,
+                              int threadCount, int queuedOperations) {
+        this.timestamp = timestamp;
+        this.heapUsedBytes = heapUsedBytes;
+        this.heapMaxBytes = heapMaxBytes;
+        this.gcTimeMillis = gcTimeMillis;
+        this.cpuTimeNanos = cpuTimeNanos;
+        this.threadCount = threadCount;
+        this.queuedOperations = queuedOperations;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getHeapUsedBytes() {
+        return heapUsedBytes;
+    }
+
+    public long getHeapMaxBytes() {
+        return heapMaxBytes;
+    }
+
+    public long getGcTimeMillis() {
+        return gcTimeMillis;
+    }
+
+    public long getCpuTimeNanos() {
+        return cpuTimeNanos;
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public int getQueuedOperations() {
+        return queuedOperations;
+    }
+}
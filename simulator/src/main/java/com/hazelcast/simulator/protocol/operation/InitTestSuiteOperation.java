@@ -20,12 +20,22 @@ import com.hazelcast.simulator.test.TestSuite;
 public class InitTestSuiteOperation implements SimulatorOperation {
 
     private final TestSuite testSuite;
+    private final int artifactStreamIntervalSeconds;
 
     public InitTestSuiteOperation(TestSuite testSuite) {
+        this(testSuite, 0);
+    }
+
+    public InitTestSuiteOperation(TestSuite testSuite, int artifactStreamIntervalSeconds) {
         this.testSuite = testSuite;
+        this.artifactStreamIntervalSeconds = artifactStreamIntervalSeconds;
     }
 
     public TestSuite getTestSuite() {
         return testSuite;
     }
+
+    public int getArtifactStreamIntervalSeconds() {
+        return artifactStreamIntervalSeconds;
+    }
 }
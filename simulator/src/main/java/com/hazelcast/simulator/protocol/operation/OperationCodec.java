@@ -37,6 +37,10 @@ public final class OperationCodec {
     }
 
     public static SimulatorOperation fromSimulatorMessage(SimulatorMessage message) {
+        SimulatorOperation operation = message.getOperation();
+        if (operation != null) {
+            return operation;
+        }
         return fromJson(message.getOperationData(), message.getOperationType().getClassType());
     }
 }
@@ -52,7 +52,22 @@ public enum OperationType {
     PING(PingOperation.class, 16),
     PONG(PongOperation.class, 17),
 
-    CHAOS_MONKEY(ChaosMonkeyOperation.class, 18);
+    CHAOS_MONKEY(ChaosMonkeyOperation.class, 18),
+
+    BATCH(BatchOperation.class, 19),
+
+    HEARTBEAT(HeartbeatOperation.class, 20),
+
+    PREPARE_WORKER(PrepareWorkerOperation.class, 21),
+    WORKER_READY(WorkerReadyOperation.class, 22),
+
+    ARTIFACT_CHUNK(ArtifactChunkOperation.class, 23),
+    SYNC_ARTIFACTS(SyncArtifactsOperation.class, 24),
+
+    STEADY_STATE(SteadyStateOperation.class, 25),
+
+    REQUEST_WORKER_PERFORMANCE_STATES(RequestWorkerPerformanceStatesOperation.class, 26),
+    WORKER_PERFORMANCE_STATES(WorkerPerformanceStatesOperation.class, 27);
 
     private final Class<? extends SimulatorOperation> classType;
     private final int classId;
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.protocol.operation;
+
+import com.hazelcast.simulator.agent.workerjvm.WorkerJvmSettings;
+
+import java.util.List;
+
+/**
+ * Spawns Worker JVMs in standby mode, so they are started and class-loaded before they are needed.
+ *
+ * A standby Worker waits for a {@link CreateWorkerOperation} with the same Worker index to attach to its Hazelcast config.
+ */
+public class PrepareWorkerOperation implements SimulatorOperation {
+
+    private final List<WorkerJvmSettings> settingsList;
+
+    public PrepareWorkerOperation(List<WorkerJvmSettings> settingsList) {
+        this.settingsList = settingsList;
+    }
+
+    public List<WorkerJvmSettings> getWorkerJvmSettings() {
+        return settingsList;
+    }
+}
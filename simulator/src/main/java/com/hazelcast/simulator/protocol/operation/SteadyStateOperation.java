@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.protocol.operation;
+
+import java.util.Map;
+
+/**
+ * Reports the steady-state window of a test on a Worker, which excludes the warmup of the test.
+ */
+public class SteadyStateOperation implements SimulatorOperation {
+
+    private final String testId;
+    private final long warmupMillis;
+    private final long operationCount;
+    private final long durationMillis;
+    private final Map<String, String> probeHistograms;
+
+    public SteadyStateOperation(String testId, long warmupMillis, long operationCount, long durationMillis,
+                                Map<String, String> probeHistograms) {
+        this.testId = testId;
+        this.warmupMillis = warmupMillis;
+        this.operationCount = operationCount;
+        this.durationMillis = durationMillis;
+        this.probeHistograms = probeHistograms;
+    }
+
+    public String getTestId() {
+        return testId;
+    }
+
+    public long getWarmupMillis() {
+        return warmupMillis;
+    }
+
+    public long getOperationCount() {
+        return operationCount;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public Map<String, String> getProbeHistograms() {
+        return probeHistograms;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.protocol.operation;
+
+import com.hazelcast.simulator.protocol.core.SimulatorAddress;
+import com.hazelcast.simulator.worker.performance.PerformanceState;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Contains the last {@link PerformanceState} per test of each Worker of an Agent.
+ *
+ * Sent by an Agent as answer to a {@link RequestWorkerPerformanceStatesOperation}.
+ */
+public class WorkerPerformanceStatesOperation implements SimulatorOperation {
+
+    /**
+     * Defines the last {@link PerformanceState} per testId per {@link SimulatorAddress} of a Worker.
+     */
+    private final Map<String, Map<String, PerformanceState>> workerPerformanceStates
+            = new HashMap<String, Map<String, PerformanceState>>();
+
+    public void addWorkerPerformanceStates(SimulatorAddress workerAddress, Map<String, PerformanceState> performanceStates) {
+        workerPerformanceStates.put(workerAddress.toString(), performanceStates);
+    }
+
+    public Map<SimulatorAddress, Map<String, PerformanceState>> getWorkerPerformanceStates() {
+        Map<SimulatorAddress, Map<String, PerformanceState>> performanceStates
+                = new HashMap<SimulatorAddress, Map<String, PerformanceState>>();
+        for (Map.Entry<String, Map<String, PerformanceState>> entry : workerPerformanceStates.entrySet()) {
+            performanceStates.put(SimulatorAddress.fromString(entry.getKey()), entry.getValue());
+        }
+        return performanceStates;
+    }
+}
@@ -16,6 +16,7 @@
 package com.hazelcast.simulator.protocol.processors;
 
 import com.hazelcast.simulator.agent.Agent;
+import com.hazelcast.simulator.agent.workerjvm.WorkerJvm;
 import com.hazelcast.simulator.agent.workerjvm.WorkerJvmLauncher;
 import com.hazelcast.simulator.agent.workerjvm.WorkerJvmManager;
 import com.hazelcast.simulator.agent.workerjvm.WorkerJvmSettings;
@@ -25,13 +26,18 @@ import com.hazelcast.simulator.protocol.exception.ExceptionLogger;
 import com.hazelcast.simulator.protocol.operation.CreateWorkerOperation;
 import com.hazelcast.simulator.protocol.operation.InitTestSuiteOperation;
 import com.hazelcast.simulator.protocol.operation.OperationType;
+import com.hazelcast.simulator.protocol.operation.PerformanceStateOperation;
+import com.hazelcast.simulator.protocol.operation.PrepareWorkerOperation;
 import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
+import com.hazelcast.simulator.protocol.operation.TestHistogramOperation;
+import com.hazelcast.simulator.protocol.operation.WorkerReadyOperation;
 import com.hazelcast.simulator.utils.EmptyStatement;
 import com.hazelcast.simulator.worker.WorkerType;
 import org.apache.log4j.Logger;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -87,11 +93,26 @@ public class AgentOperationProcessor extends OperationProcessor {
     protected ResponseType processOperation(OperationType operationType, SimulatorOperation operation,
                                             SimulatorAddress sourceAddress) throws Exception {
         switch (operationType) {
+            case PREPARE_WORKER:
+                return processPrepareWorker((PrepareWorkerOperation) operation);
             case CREATE_WORKER:
                 return processCreateWorker((CreateWorkerOperation) operation);
+            case WORKER_READY:
+                processWorkerReady((WorkerReadyOperation) operation, sourceAddress);
+                break;
             case INIT_TEST_SUITE:
                 processInitTestSuite((InitTestSuiteOperation) operation);
                 break;
+            case SYNC_ARTIFACTS:
+                return processSyncArtifacts();
+            case REQUEST_WORKER_PERFORMANCE_STATES:
+                return processRequestWorkerPerformanceStates();
+            case PERFORMANCE_STATE:
+                processPerformanceState((PerformanceStateOperation) operation, sourceAddress);
+                break;
+            case TEST_HISTOGRAMS:
+                processTestHistogram((TestHistogramOperation) operation, sourceAddress);
+                break;
             case START_TIMEOUT_DETECTION:
                 processStartTimeoutDetection();
                 break;
@@ -104,11 +125,21 @@ public class AgentOperationProcessor extends OperationProcessor {
         return SUCCESS;
     }
 
+    private ResponseType processPrepareWorker(PrepareWorkerOperation operation) throws Exception {
+        return launchWorkers(operation.getWorkerJvmSettings(), true);
+    }
+
     private ResponseType processCreateWorker(CreateWorkerOperation operation) throws Exception {
+        return launchWorkers(operation.getWorkerJvmSettings(), false);
+    }
+
+    private ResponseType launchWorkers(List<WorkerJvmSettings> settingsList, boolean standby) throws Exception {
         ArrayList<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
-        for (WorkerJvmSettings workerJvmSettings : operation.getWorkerJvmSettings()) {
+        for (WorkerJvmSettings workerJvmSettings : settingsList) {
+            agent.getWorkerPerformanceAggregator().setWorkerPerformanceMonitorIntervalSeconds(
+                    workerJvmSettings.getWorkerPerformanceMonitorIntervalSeconds());
             WorkerJvmLauncher launcher = new WorkerJvmLauncher(agent, workerJvmManager, workerJvmSettings);
-            Future<Boolean> future = executorService.submit(new LaunchWorkerCallable(launcher, workerJvmSettings));
+            Future<Boolean> future = executorService.submit(new LaunchWorkerCallable(launcher, workerJvmSettings, standby));
             futures.add(future);
         }
         for (Future<Boolean> future : futures) {
@@ -119,6 +150,24 @@ public class AgentOperationProcessor extends OperationProcessor {
         return SUCCESS;
     }
 
+    private void processPerformanceState(PerformanceStateOperation operation, SimulatorAddress sourceAddress) {
+        agent.getWorkerPerformanceAggregator().addPerformanceStates(sourceAddress, operation.getPerformanceStates());
+    }
+
+    private void processTestHistogram(TestHistogramOperation operation, SimulatorAddress sourceAddress) {
+        agent.getWorkerPerformanceAggregator().addTestHistograms(sourceAddress, operation.getTestId(),
+                operation.getProbeHistograms());
+    }
+
+    private void processWorkerReady(WorkerReadyOperation operation, SimulatorAddress sourceAddress) {
+        WorkerJvm workerJvm = workerJvmManager.get(sourceAddress);
+        if (workerJvm == null) {
+            LOGGER.warn("Received WorkerReadyOperation from unknown Worker: " + sourceAddress);
+            return;
+        }
+        workerJvm.setReady(operation.getHzAddress());
+    }
+
     private void processInitTestSuite(InitTestSuiteOperation operation) {
         agent.setTestSuite(operation.getTestSuite());
 
@@ -128,6 +177,23 @@ public class AgentOperationProcessor extends OperationProcessor {
 
         File libDir = new File(testSuiteDir, "lib");
         ensureExistingDirectory(libDir);
+
+        agent.getWorkerArtifactStreamer().start(operation.getTestSuite().getId(),
+                operation.getArtifactStreamIntervalSeconds());
+    }
+
+    private ResponseType processSyncArtifacts() {
+        if (!agent.getWorkerArtifactStreamer().sync()) {
+            return ResponseType.EXCEPTION_DURING_OPERATION_EXECUTION;
+        }
+        return SUCCESS;
+    }
+
+    private ResponseType processRequestWorkerPerformanceStates() {
+        if (!agent.getWorkerPerformanceAggregator().sendWorkerPerformanceStates()) {
+            return ResponseType.EXCEPTION_DURING_OPERATION_EXECUTION;
+        }
+        return SUCCESS;
     }
 
     private void processStartTimeoutDetection() {
@@ -142,24 +208,26 @@ public class AgentOperationProcessor extends OperationProcessor {
 
         private final WorkerJvmLauncher launcher;
         private final WorkerJvmSettings workerJvmSettings;
+        private final boolean standby;
 
-        private LaunchWorkerCallable(WorkerJvmLauncher launcher, WorkerJvmSettings workerJvmSettings) {
+        private LaunchWorkerCallable(WorkerJvmLauncher launcher, WorkerJvmSettings workerJvmSettings, boolean standby) {
             this.launcher = launcher;
             this.workerJvmSettings = workerJvmSettings;
+            this.standby = standby;
         }
 
         @Override
         public Boolean call() {
             try {
-                launcher.launch();
-
-                int workerIndex = workerJvmSettings.getWorkerIndex();
-                int workerPort = agent.getPort() + workerIndex;
-                SimulatorAddress workerAddress = agent.getAgentConnector().addWorker(workerIndex, "127.0.0.1", workerPort);
-
                 WorkerType workerType = workerJvmSettings.getWorkerType();
-                agent.getCoordinatorLogger().debug(format("Created %s Worker %s", workerType, workerAddress));
-
+                if (standby) {
+                    launcher.prepare();
+                    agent.getCoordinatorLogger().debug(format("Prepared %s Worker #%d", workerType,
+                            workerJvmSettings.getWorkerIndex()));
+                } else {
+                    SimulatorAddress workerAddress = launcher.launch();
+                    agent.getCoordinatorLogger().debug(format("Created %s Worker %s", workerType, workerAddress));
+                }
                 return true;
             } catch (Exception e) {
                 return false;
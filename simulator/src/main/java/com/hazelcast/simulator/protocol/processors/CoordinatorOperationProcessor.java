@@ -19,22 +19,31 @@ import com.hazelcast.simulator.coordinator.FailureContainer;
 import com.hazelcast.simulator.coordinator.PerformanceStateContainer;
 import com.hazelcast.simulator.coordinator.TestHistogramContainer;
 import com.hazelcast.simulator.coordinator.TestPhaseListenerContainer;
+import com.hazelcast.simulator.coordinator.WorkerArtifactContainer;
+import com.hazelcast.simulator.coordinator.WorkerHeartbeatContainer;
 import com.hazelcast.simulator.protocol.core.ResponseType;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.exception.LocalExceptionLogger;
+import com.hazelcast.simulator.protocol.operation.ArtifactChunkOperation;
 import com.hazelcast.simulator.protocol.operation.ExceptionOperation;
 import com.hazelcast.simulator.protocol.operation.FailureOperation;
+import com.hazelcast.simulator.protocol.operation.HeartbeatOperation;
 import com.hazelcast.simulator.protocol.operation.OperationType;
 import com.hazelcast.simulator.protocol.operation.PerformanceStateOperation;
 import com.hazelcast.simulator.protocol.operation.PhaseCompletedOperation;
 import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
+import com.hazelcast.simulator.protocol.operation.SteadyStateOperation;
 import com.hazelcast.simulator.protocol.operation.TestHistogramOperation;
+import com.hazelcast.simulator.protocol.operation.WorkerPerformanceStatesOperation;
+import com.hazelcast.simulator.test.FailureType;
 import org.apache.log4j.Logger;
 
 import static com.hazelcast.simulator.protocol.core.AddressLevel.TEST;
+import static com.hazelcast.simulator.protocol.core.AddressLevel.WORKER;
 import static com.hazelcast.simulator.protocol.core.ResponseType.EXCEPTION_DURING_OPERATION_EXECUTION;
 import static com.hazelcast.simulator.protocol.core.ResponseType.SUCCESS;
 import static com.hazelcast.simulator.protocol.core.ResponseType.UNSUPPORTED_OPERATION_ON_THIS_PROCESSOR;
+import static com.hazelcast.simulator.protocol.exception.ExceptionType.WORKER_EXCEPTION;
 import static java.lang.String.format;
 
 /**
@@ -49,17 +58,23 @@ public class CoordinatorOperationProcessor extends OperationProcessor {
     private final PerformanceStateContainer performanceStateContainer;
     private final TestHistogramContainer testHistogramContainer;
     private final FailureContainer failureContainer;
+    private final WorkerHeartbeatContainer workerHeartbeatContainer;
+    private final WorkerArtifactContainer workerArtifactContainer;
 
     public CoordinatorOperationProcessor(LocalExceptionLogger exceptionLogger,
                                          TestPhaseListenerContainer testPhaseListenerContainer,
                                          PerformanceStateContainer performanceStateContainer,
-                                         TestHistogramContainer testHistogramContainer, FailureContainer failureContainer) {
+                                         TestHistogramContainer testHistogramContainer, FailureContainer failureContainer,
+                                         WorkerHeartbeatContainer workerHeartbeatContainer,
+                                         WorkerArtifactContainer workerArtifactContainer) {
         super(exceptionLogger);
         this.exceptionLogger = exceptionLogger;
         this.testPhaseListenerContainer = testPhaseListenerContainer;
         this.performanceStateContainer = performanceStateContainer;
         this.testHistogramContainer = testHistogramContainer;
         this.failureContainer = failureContainer;
+        this.workerHeartbeatContainer = workerHeartbeatContainer;
+        this.workerArtifactContainer = workerArtifactContainer;
     }
 
     @Override
@@ -67,7 +82,7 @@ public class CoordinatorOperationProcessor extends OperationProcessor {
                                             SimulatorAddress sourceAddress) throws Exception {
         switch (operationType) {
             case EXCEPTION:
-                processException((ExceptionOperation) operation);
+                processException((ExceptionOperation) operation, sourceAddress);
                 break;
             case PHASE_COMPLETED:
                 return processPhaseCompletion((PhaseCompletedOperation) operation, sourceAddress);
@@ -83,14 +98,36 @@ public class CoordinatorOperationProcessor extends OperationProcessor {
             case PONG:
                 processPong(sourceAddress);
                 break;
+            case HEARTBEAT:
+                processHeartbeat((HeartbeatOperation) operation, sourceAddress);
+                break;
+            case STEADY_STATE:
+                testHistogramContainer.addSteadyState(sourceAddress, (SteadyStateOperation) operation);
+                break;
+            case ARTIFACT_CHUNK:
+                workerArtifactContainer.addChunk(sourceAddress, (ArtifactChunkOperation) operation);
+                break;
+            case WORKER_PERFORMANCE_STATES:
+                processWorkerPerformanceStates((WorkerPerformanceStatesOperation) operation);
+                break;
             default:
                 return UNSUPPORTED_OPERATION_ON_THIS_PROCESSOR;
         }
         return SUCCESS;
     }
 
-    private void processException(ExceptionOperation operation) {
+    private void processException(ExceptionOperation operation, SimulatorAddress sourceAddress) {
         exceptionLogger.logOperation(operation);
+
+        // exceptions of Workers are failures, like the exception files which are picked up by the Agent
+        if (WORKER.equals(sourceAddress.getAddressLevel())) {
+            String message = WORKER_EXCEPTION.getHumanReadable();
+            if (operation.getCount() > 1) {
+                message = format("%s (%d times)", message, operation.getCount());
+            }
+            failureContainer.addFailureOperation(new FailureOperation(message, FailureType.WORKER_EXCEPTION, sourceAddress, null,
+                    null, null, operation.getTestId(), null, operation.getStacktrace()));
+        }
     }
 
     private ResponseType processPhaseCompletion(PhaseCompletedOperation operation, SimulatorAddress sourceAddress) {
@@ -107,6 +144,10 @@ public class CoordinatorOperationProcessor extends OperationProcessor {
         performanceStateContainer.updatePerformanceState(sourceAddress, operation.getPerformanceStates());
     }
 
+    private void processWorkerPerformanceStates(WorkerPerformanceStatesOperation operation) {
+        performanceStateContainer.updateWorkerPerformanceStates(operation.getWorkerPerformanceStates());
+    }
+
     private void processTestHistogram(TestHistogramOperation operation, SimulatorAddress sourceAddress) {
         testHistogramContainer.addTestHistograms(sourceAddress, operation.getTestId(), operation.getProbeHistograms());
     }
@@ -115,6 +156,10 @@ public class CoordinatorOperationProcessor extends OperationProcessor {
         failureContainer.addFailureOperation(operation);
     }
 
+    private void processHeartbeat(HeartbeatOperation operation, SimulatorAddress sourceAddress) {
+        workerHeartbeatContainer.updateHeartbeat(sourceAddress, operation);
+    }
+
     private void processPong(SimulatorAddress sourceAddress) {
         if (LOGGER.isTraceEnabled()) {
             LOGGER.trace("Received Pong from " + sourceAddress);
@@ -18,6 +18,7 @@ package com.hazelcast.simulator.protocol.processors;
 import com.hazelcast.simulator.protocol.core.ResponseType;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.exception.ExceptionLogger;
+import com.hazelcast.simulator.protocol.operation.BatchOperation;
 import com.hazelcast.simulator.protocol.operation.ChaosMonkeyOperation;
 import com.hazelcast.simulator.protocol.operation.IntegrationTestOperation;
 import com.hazelcast.simulator.protocol.operation.LogOperation;
@@ -63,6 +64,8 @@ public abstract class OperationProcessor {
                 case CHAOS_MONKEY:
                     processChaosMonkey((ChaosMonkeyOperation) operation);
                     break;
+                case BATCH:
+                    return processBatch((BatchOperation) operation, sourceAddress);
                 default:
                     return processOperation(operationType, operation, sourceAddress);
             }
@@ -95,6 +98,17 @@ public abstract class OperationProcessor {
         ChaosMonkeyUtils.execute(operation.getType());
     }
 
+    private ResponseType processBatch(BatchOperation operation, SimulatorAddress sourceAddress) {
+        ResponseType batchResponseType = SUCCESS;
+        for (SimulatorOperation nestedOperation : operation.getOperations()) {
+            ResponseType responseType = process(nestedOperation, sourceAddress);
+            if (batchResponseType == SUCCESS) {
+                batchResponseType = responseType;
+            }
+        }
+        return batchResponseType;
+    }
+
     protected abstract ResponseType processOperation(OperationType operationType, SimulatorOperation operation,
                                                      SimulatorAddress sourceAddress) throws Exception;
 }
@@ -34,6 +34,7 @@ import com.hazelcast.simulator.test.TestContainer;
 import com.hazelcast.simulator.test.TestContextImpl;
 import com.hazelcast.simulator.worker.Worker;
 import com.hazelcast.simulator.worker.WorkerType;
+import com.hazelcast.simulator.worker.loadsupport.CoordinatorLoadProgressListener;
 import org.apache.log4j.Logger;
 
 import java.util.Collection;
@@ -151,10 +152,12 @@ public class WorkerOperationProcessor extends OperationProcessor {
 
         Object testInstance = CreateTestOperation.class.getClassLoader().loadClass(testCase.getClassname()).newInstance();
         bindProperties(testInstance, testCase, TestContainer.OPTIONAL_TEST_PROPERTIES);
-        TestContextImpl testContext = new TestContextImpl(testId, hazelcastInstance);
+        SimulatorAddress testAddress = workerAddress.getChild(testIndex);
+        CoordinatorLoadProgressListener loadProgressListener = new CoordinatorLoadProgressListener(workerConnector, testAddress);
+        TestContextImpl testContext = new TestContextImpl(testId, hazelcastInstance, loadProgressListener);
         TestContainer testContainer = new TestContainer(testInstance, testContext, testCase);
         TestOperationProcessor processor = new TestOperationProcessor(exceptionLogger, worker, type, testIndex, testId,
-                testContainer, workerAddress.getChild(testIndex));
+                testContainer, testAddress);
 
         workerConnector.addTest(testIndex, processor);
         tests.put(testId, testContainer);
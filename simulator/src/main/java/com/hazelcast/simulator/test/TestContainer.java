@@ -16,8 +16,10 @@
 package com.hazelcast.simulator.test;
 
 import com.hazelcast.simulator.probes.Probe;
-import com.hazelcast.simulator.probes.impl.ProbeImpl;
+import com.hazelcast.simulator.probes.impl.ConcurrentProbe;
+import com.hazelcast.simulator.test.annotations.InjectMetronome;
 import com.hazelcast.simulator.test.annotations.InjectProbe;
+import com.hazelcast.simulator.test.annotations.InjectResponseTimeProbe;
 import com.hazelcast.simulator.test.annotations.InjectTestContainer;
 import com.hazelcast.simulator.test.annotations.Run;
 import com.hazelcast.simulator.test.annotations.RunWithWorker;
@@ -29,6 +31,12 @@ import com.hazelcast.simulator.utils.AnnotationFilter.TeardownFilter;
 import com.hazelcast.simulator.utils.AnnotationFilter.VerifyFilter;
 import com.hazelcast.simulator.utils.AnnotationFilter.WarmupFilter;
 import com.hazelcast.simulator.utils.ThreadSpawner;
+import com.hazelcast.simulator.worker.metronome.CpuBudget;
+import com.hazelcast.simulator.worker.metronome.Metronome;
+import com.hazelcast.simulator.worker.metronome.MetronomeType;
+import com.hazelcast.simulator.worker.performance.ThreadCpuTimeTracker;
+import com.hazelcast.simulator.worker.tasks.AbstractBoundedAsyncWorker;
+import com.hazelcast.simulator.worker.tasks.AbstractWorker;
 import com.hazelcast.simulator.worker.tasks.IWorker;
 import org.apache.log4j.Logger;
 
@@ -49,6 +57,8 @@ import static com.hazelcast.simulator.utils.PropertyBindingSupport.bindOptionalP
 import static com.hazelcast.simulator.utils.ReflectionUtils.getFirstField;
 import static com.hazelcast.simulator.utils.ReflectionUtils.invokeMethod;
 import static com.hazelcast.simulator.utils.ReflectionUtils.setFieldValue;
+import static com.hazelcast.simulator.worker.metronome.MetronomeFactory.withCpuBudget;
+import static com.hazelcast.simulator.worker.metronome.MetronomeFactory.withFixedRate;
 import static java.lang.String.format;
 
 /**
@@ -68,7 +78,11 @@ public class TestContainer {
 
     private enum OptionalTestProperties {
         THREAD_COUNT("threadCount"),
-        LOG_FREQUENCY("logFrequency");
+        LOG_FREQUENCY("logFrequency"),
+        TARGET_THROUGHPUT("targetThroughput"),
+        WORKER_METRONOME_TYPE("workerMetronomeType"),
+        MAX_IN_FLIGHT("maxInFlight"),
+        CPU_SHARE("cpuShare");
 
         private final String propertyName;
 
@@ -92,8 +106,15 @@ public class TestContainer {
     // properties
     @SuppressWarnings("checkstyle:visibilitymodifier")
     public int threadCount = DEFAULT_THREAD_COUNT;
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public double targetThroughput;
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public MetronomeType workerMetronomeType = MetronomeType.SLEEPING;
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public double cpuShare;
 
     private final Map<String, Probe> probeMap = new ConcurrentHashMap<String, Probe>();
+    private final ThreadCpuTimeTracker cpuTimeTracker = new ThreadCpuTimeTracker();
 
     private final Object testClassInstance;
     private final Class testClassType;
@@ -150,6 +171,15 @@ public class TestContainer {
         return probeMap;
     }
 
+    /**
+     * Returns the CPU time, which was consumed by the threads running the test.
+     *
+     * @return the CPU time in nanoseconds
+     */
+    public long getCpuTimeNanos() {
+        return cpuTimeTracker.getCpuTimeNanos();
+    }
+
     public void invoke(TestPhase testPhase) throws Exception {
         switch (testPhase) {
             case SETUP:
@@ -187,7 +217,12 @@ public class TestContainer {
             invokeRunWithWorkerMethod();
         } else {
             isRunning = true;
-            invokeMethod(testClassInstance, runMethod);
+            cpuTimeTracker.threadStarted();
+            try {
+                invokeMethod(testClassInstance, runMethod);
+            } finally {
+                cpuTimeTracker.threadFinished();
+            }
         }
         isRunning = false;
     }
@@ -272,10 +307,10 @@ public class TestContainer {
         }
     }
 
-    private Probe getOrCreateProbe(String probeName, Field field) {
-        Probe probe = probeMap.get(probeName);
+    private ConcurrentProbe getOrCreateProbe(String probeName, Field field) {
+        ConcurrentProbe probe = (ConcurrentProbe) probeMap.get(probeName);
         if (probe == null) {
-            probe = new ProbeImpl(isThroughputProbe(field));
+            probe = new ConcurrentProbe(isThroughputProbe(field));
             probeMap.put(probeName, probe);
         }
         return probe;
@@ -283,6 +318,9 @@ public class TestContainer {
 
     private void invokeRunWithWorkerMethod() throws Exception {
         bindOptionalProperty(this, testCase, OptionalTestProperties.THREAD_COUNT.getPropertyName());
+        bindOptionalProperty(this, testCase, OptionalTestProperties.TARGET_THROUGHPUT.getPropertyName());
+        bindOptionalProperty(this, testCase, OptionalTestProperties.WORKER_METRONOME_TYPE.getPropertyName());
+        bindOptionalProperty(this, testCase, OptionalTestProperties.CPU_SHARE.getPropertyName());
 
         LOGGER.info(format("Spawning %d worker threads for test %s", threadCount, testContext.getTestId()));
         if (threadCount <= 0) {
@@ -292,20 +330,13 @@ public class TestContainer {
         // create instance to get class of worker
         Class workerClass = invokeMethod(testClassInstance, runWithWorkerMethod).getClass();
 
-        Field testContextField = getFirstField(workerClass, InjectTestContainer.class);
-        Field workerProbeField = getFirstField(workerClass, InjectProbe.class);
-
-        Probe probe = null;
-        if (workerProbeField != null) {
-            // create one probe per test and inject it in all worker instances of the test
-            probe = getOrCreateProbe(testContext.getTestId() + "WorkerProbe", workerProbeField);
-        }
+        WorkerInjector workerInjector = new WorkerInjector(workerClass);
 
         // everything is prepared, we can notify the outside world now
         isRunning = true;
 
         // spawn worker and wait for completion
-        IWorker worker = spawnWorkerThreads(testContextField, workerProbeField, probe);
+        IWorker worker = spawnWorkerThreads(workerInjector);
 
         // call the afterCompletion method on a single instance of the worker
         if (worker != null) {
@@ -313,23 +344,21 @@ public class TestContainer {
         }
     }
 
-    private IWorker spawnWorkerThreads(Field testContextField, Field workerProbeField, Probe probe) throws Exception {
+    private IWorker spawnWorkerThreads(WorkerInjector workerInjector) throws Exception {
         IWorker worker = null;
 
         ThreadSpawner spawner = new ThreadSpawner(testContext.getTestId());
         for (int i = 0; i < threadCount; i++) {
             worker = invokeMethod(testClassInstance, runWithWorkerMethod);
 
-            if (testContextField != null) {
-                setFieldValue(worker, testContextField, testContext);
-            }
-            if (workerProbeField != null) {
-                setFieldValue(worker, workerProbeField, probe);
-            }
+            workerInjector.inject(worker);
 
             bindOptionalProperty(worker, testCase, OptionalTestProperties.LOG_FREQUENCY.getPropertyName());
+            if (worker instanceof AbstractBoundedAsyncWorker) {
+                bindOptionalProperty(worker, testCase, OptionalTestProperties.MAX_IN_FLIGHT.getPropertyName());
+            }
 
-            spawner.spawn(worker);
+            spawner.spawn(cpuTimeTracker.track(worker));
         }
         spawner.awaitCompletion();
 
@@ -339,4 +368,98 @@ public class TestContainer {
     boolean hasProbe(String probeName) {
         return probeMap.keySet().contains(probeName);
     }
+
+    /**
+     * Injects the dependencies of a worker, which was created by the {@link RunWithWorker} annotated method.
+     */
+    private final class WorkerInjector {
+
+        private final Field testContextField;
+        private final Field workerProbeField;
+        private final Field metronomeField;
+        private final Field responseTimeProbeField;
+
+        // the AbstractWorker only records on its own thread, so each worker can use a dedicated stripe of the probes
+        // (except the AbstractBoundedAsyncWorker, which records on the threads that complete its operations)
+        private final boolean useProbeStripes;
+
+        private final ConcurrentProbe workerProbe;
+        private final ConcurrentProbe responseTimeProbe;
+        private final double threadTargetThroughput;
+        private final CpuBudget cpuBudget;
+
+        private WorkerInjector(Class workerClass) {
+            String testId = testContext.getTestId();
+
+            testContextField = getFirstField(workerClass, InjectTestContainer.class);
+            workerProbeField = getFirstField(workerClass, InjectProbe.class);
+            metronomeField = getFirstField(workerClass, InjectMetronome.class);
+            responseTimeProbeField = getFirstField(workerClass, InjectResponseTimeProbe.class);
+
+            useProbeStripes = AbstractWorker.class.isAssignableFrom(workerClass)
+                    && !AbstractBoundedAsyncWorker.class.isAssignableFrom(workerClass);
+
+            // create one probe per test and inject it (or a stripe of it) in all worker instances of the test
+            workerProbe = (workerProbeField == null) ? null : getOrCreateProbe(testId + "WorkerProbe", workerProbeField);
+
+            if (targetThroughput > 0 && metronomeField == null) {
+                LOGGER.warn(format("Test %s defines a targetThroughput, but the worker %s has no %s field", testId,
+                        workerClass.getName(), InjectMetronome.class.getSimpleName()));
+            }
+            if (targetThroughput > 0 && metronomeField != null) {
+                threadTargetThroughput = targetThroughput / threadCount;
+                LOGGER.info(format("Worker threads of test %s are limited to %.2f ops/s", testId, threadTargetThroughput));
+                responseTimeProbe = (responseTimeProbeField == null) ? null
+                        : getOrCreateProbe(testId + "WorkerResponseTimeProbe", responseTimeProbeField);
+            } else {
+                threadTargetThroughput = 0;
+                responseTimeProbe = null;
+            }
+
+            cpuBudget = createCpuBudget(testId, workerClass);
+        }
+
+        private CpuBudget createCpuBudget(String testId, Class workerClass) {
+            if (cpuShare == 0) {
+                return null;
+            }
+            if (metronomeField == null) {
+                LOGGER.warn(format("Test %s defines a cpuShare, but the worker %s has no %s field", testId,
+                        workerClass.getName(), InjectMetronome.class.getSimpleName()));
+                return null;
+            }
+            try {
+                CpuBudget cpuBudget = new CpuBudget(cpuShare, Runtime.getRuntime().availableProcessors());
+                LOGGER.info(format("Worker threads of test %s are limited to %.2f cores", testId, cpuBudget.getAllowedCores()));
+                return cpuBudget;
+            } catch (IllegalArgumentException e) {
+                throw new IllegalTestException(e.getMessage());
+            }
+        }
+
+        private void inject(IWorker worker) {
+            if (testContextField != null) {
+                setFieldValue(worker, testContextField, testContext);
+            }
+            if (workerProbe != null) {
+                setFieldValue(worker, workerProbeField, getProbeOrStripe(workerProbe));
+            }
+            if (threadTargetThroughput > 0 || cpuBudget != null) {
+                // each worker gets its own metronome, so they are clocked interleaved
+                Metronome metronome = withFixedRate(threadTargetThroughput, workerMetronomeType);
+                if (cpuBudget != null) {
+                    // the CPU budget is shared by all worker threads of the test, so the thread count doesn't matter
+                    metronome = withCpuBudget(metronome, cpuBudget);
+                }
+                setFieldValue(worker, metronomeField, metronome);
+            }
+            if (responseTimeProbe != null) {
+                setFieldValue(worker, responseTimeProbeField, getProbeOrStripe(responseTimeProbe));
+            }
+        }
+
+        private Probe getProbeOrStripe(ConcurrentProbe probe) {
+            return useProbeStripes ? probe.createThreadProbe() : probe;
+        }
+    }
 }
@@ -16,6 +16,7 @@
 package com.hazelcast.simulator.test;
 
 import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.simulator.worker.loadsupport.LoadProgressListener;
 
 import java.util.UUID;
 
@@ -23,6 +24,7 @@ public class TestContextImpl implements TestContext {
 
     private final String testId;
     private final HazelcastInstance hazelcastInstance;
+    private final LoadProgressListener loadProgressListener;
 
     private volatile boolean stopped;
 
@@ -31,8 +33,13 @@ public class TestContextImpl implements TestContext {
     }
 
     public TestContextImpl(String testId, HazelcastInstance hazelcastInstance) {
+        this(testId, hazelcastInstance, null);
+    }
+
+    public TestContextImpl(String testId, HazelcastInstance hazelcastInstance, LoadProgressListener loadProgressListener) {
         this.testId = testId;
         this.hazelcastInstance = hazelcastInstance;
+        this.loadProgressListener = loadProgressListener;
     }
 
     @Override
@@ -45,6 +52,10 @@ public class TestContextImpl implements TestContext {
         return testId;
     }
 
+    public LoadProgressListener getLoadProgressListener() {
+        return loadProgressListener;
+    }
+
     @Override
     public boolean isStopped() {
         return stopped;
@@ -78,6 +78,39 @@ public class Bash {
         execute(command);
     }
 
+    /**
+     * Uploads files to a remote Simulator directory, skipping all files which already exist on the remote machine.
+     *
+     * This is meant for content addressed files, where an existing file with the same name has the same content.
+     *
+     * @param ip     the IP address of the remote machine
+     * @param src    the local source files or directory
+     * @param target the target directory, relative to the remote Simulator directory
+     */
+    public void uploadNewFilesToRemoteSimulatorDir(String ip, String src, String target) {
+        String command = format("rsync -r -L --ignore-existing -e \"ssh %s\" %s %s@%s:hazelcast-simulator-%s/%s",
+                sshOptions, src, user, ip, getSimulatorVersion(), target);
+        execute(command);
+    }
+
+    /**
+     * Copies files from one remote Simulator directory to another, skipping all files which already exist on the target.
+     *
+     * The copy is done by the source machine, so it doesn't use the network connection of the local machine. The source
+     * machine needs SSH access to the target machine, e.g. via the forwarded SSH agent of the local machine.
+     *
+     * @param sourceIp the IP address of the remote source machine
+     * @param targetIp the IP address of the remote target machine, as seen from the source machine
+     * @param src      the source files, relative to the Simulator directory of the source machine
+     * @param target   the target directory, relative to the Simulator directory of the target machine
+     */
+    public void forwardNewFilesToRemoteSimulatorDir(String sourceIp, String targetIp, String src, String target) {
+        String simulatorDir = "hazelcast-simulator-" + getSimulatorVersion();
+        String rsyncCommand = format("cd %s && rsync -r -L --ignore-existing -e 'ssh %s' %s %s@%s:%s/%s",
+                simulatorDir, sshOptions, src, user, targetIp, simulatorDir, target);
+        execute(format("ssh -A %s %s@%s \"%s\"", sshOptions, user, sourceIp, rsyncCommand));
+    }
+
     public void scpToRemote(String ip, File src, String target) {
         String command = format("scp -r %s %s %s@%s:%s", sshOptions, src.getAbsolutePath(), user, ip, target);
         execute(command);
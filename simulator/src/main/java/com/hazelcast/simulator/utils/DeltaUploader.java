@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.utils;
+
+import com.hazelcast.simulator.protocol.registry.AgentData;
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.hazelcast.simulator.utils.CommonUtils.getSimulatorVersion;
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.FileUtils.ensureExistingDirectory;
+import static com.hazelcast.simulator.utils.FormatUtils.formatIpAddress;
+import static java.lang.String.format;
+
+/**
+ * Uploads files to the Simulator directory of Agents, transferring only files whose content is not on the Agent yet.
+ *
+ * Each Agent has a content addressed cache in its Simulator directory, which contains the uploaded files named by the hash
+ * of their content. An upload stages the files of its {@link UploadManifest} locally under their hash, transfers the missing
+ * hashes with a single rsync call per Agent and copies the cached files to their target path on the Agent. So files which
+ * have been uploaded in a previous run are not transferred again, even to a new target directory.
+ *
+ * With fan-out enabled, the Agents which already received the files forward them to the remaining Agents. The number of
+ * Agents with the files doubles in each round, so the upload takes a logarithmic number of rounds in the cluster size and
+ * the uplink of the local machine is used once per round. The forwarding Agents need SSH access to the other Agents, e.g.
+ * via the forwarded SSH agent of the local machine.
+ */
+public class DeltaUploader {
+
+    static final String UPLOAD_CACHE_DIR = "upload-cache";
+
+    static final int LOCAL_SOURCE_INDEX = -1;
+
+    private static final Logger LOGGER = Logger.getLogger(DeltaUploader.class);
+
+    private final Bash bash;
+    private final boolean fanOut;
+
+    public DeltaUploader(Bash bash, boolean fanOut) {
+        this.bash = bash;
+        this.fanOut = fanOut;
+    }
+
+    /**
+     * Uploads files to the Simulator directory of the given Agents.
+     *
+     * @param agents      the Agents to upload the files to
+     * @param sourceFiles the local files and directories to upload
+     * @param targetPath  the target directory, relative to the Simulator directory of the Agents
+     */
+    public void upload(List<AgentData> agents, List<File> sourceFiles, String targetPath) {
+        UploadManifest manifest = UploadManifest.create(sourceFiles);
+        if (!manifest.isEmpty()) {
+            File stagingDir = new File(System.getProperty("java.io.tmpdir"), "simulator-upload-" + UUID.randomUUID());
+            try {
+                stage(manifest, stagingDir);
+                transfer(agents, manifest, stagingDir);
+            } finally {
+                deleteQuiet(stagingDir);
+            }
+        }
+        materialize(agents, manifest, targetPath);
+    }
+
+    private void stage(UploadManifest manifest, File stagingDir) {
+        ensureExistingDirectory(stagingDir);
+
+        // the staged files are symbolic links to the source files, which are resolved by rsync
+        StringBuilder command = new StringBuilder();
+        for (Map.Entry<String, File> entry : manifest.getHashFiles().entrySet()) {
+            if (command.length() > 0) {
+                command.append(" && ");
+            }
+            command.append(format("ln -s '%s' '%s/%s'", entry.getValue().getAbsolutePath(), stagingDir.getAbsolutePath(),
+                    entry.getKey()));
+        }
+        bash.execute(command.toString());
+    }
+
+    private void transfer(final List<AgentData> agents, UploadManifest manifest, File stagingDir) {
+        final String localSource = stagingDir.getAbsolutePath() + '/';
+        final String remoteSource = getRemoteSource(manifest);
+        final String cacheDir = UPLOAD_CACHE_DIR + '/';
+
+        for (List<Transfer> round : createRounds(agents.size(), fanOut)) {
+            ThreadSpawner spawner = new ThreadSpawner("deltaUpload", true);
+            for (final Transfer transfer : round) {
+                spawner.spawn(new Runnable() {
+                    @Override
+                    public void run() {
+                        AgentData target = agents.get(transfer.getTargetIndex());
+                        if (transfer.getSourceIndex() == LOCAL_SOURCE_INDEX) {
+                            bash.uploadNewFilesToRemoteSimulatorDir(target.getPublicAddress(), localSource, cacheDir);
+                        } else {
+                            AgentData source = agents.get(transfer.getSourceIndex());
+                            bash.forwardNewFilesToRemoteSimulatorDir(source.getPublicAddress(), target.getPrivateAddress(),
+                                    remoteSource, cacheDir);
+                        }
+                        if (LOGGER.isDebugEnabled()) {
+                            LOGGER.debug(format("Transferred files to Agent %s", target.getPublicAddress()));
+                        }
+                    }
+                });
+            }
+            spawner.awaitCompletion();
+        }
+    }
+
+    private void materialize(List<AgentData> agents, UploadManifest manifest, String targetPath) {
+        final String command = getMaterializeCommand(manifest, targetPath);
+
+        ThreadSpawner spawner = new ThreadSpawner("deltaUploadMaterialize", true);
+        for (AgentData agentData : agents) {
+            final String ip = agentData.getPublicAddress();
+            spawner.spawn(new Runnable() {
+                @Override
+                public void run() {
+                    bash.ssh(ip, command);
+                    LOGGER.info(format("    Agent %s  done", formatIpAddress(ip)));
+                }
+            });
+        }
+        spawner.awaitCompletion();
+    }
+
+    private static String getRemoteSource(UploadManifest manifest) {
+        StringBuilder sb = new StringBuilder();
+        for (String hash : manifest.getHashFiles().keySet()) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(UPLOAD_CACHE_DIR).append('/').append(hash);
+        }
+        return sb.toString();
+    }
+
+    static String getMaterializeCommand(UploadManifest manifest, String targetPath) {
+        String targetDir = targetPath.endsWith("/") ? targetPath : targetPath + '/';
+
+        // the files are copied instead of linked, so a modified file in the target directory cannot corrupt the cache
+        Set<String> directories = new LinkedHashSet<String>();
+        directories.add(targetDir);
+        StringBuilder copyCommands = new StringBuilder();
+        for (Map.Entry<String, String> entry : manifest.getTargetPathHashes().entrySet()) {
+            String path = targetDir + entry.getKey();
+            directories.add(path.substring(0, path.lastIndexOf('/') + 1));
+            copyCommands.append(format(" && cp -f %s/%s '%s'", UPLOAD_CACHE_DIR, entry.getValue(), path));
+        }
+
+        StringBuilder command = new StringBuilder(format("cd hazelcast-simulator-%s && mkdir -p", getSimulatorVersion()));
+        for (String directory : directories) {
+            command.append(" '").append(directory).append('\'');
+        }
+        return command.append(copyCommands).toString();
+    }
+
+    /**
+     * Creates the rounds of transfers to deliver files to all Agents.
+     *
+     * Without fan-out there is a single round, in which the local machine transfers the files to all Agents. With fan-out the
+     * local machine and each Agent which already has the files transfer them to one more Agent per round.
+     *
+     * @param agentCount the number of Agents
+     * @param fanOut     {@code true} if Agents should forward the files to other Agents
+     * @return the rounds of {@link Transfer} instances, which can be executed in parallel within a round
+     */
+    static List<List<Transfer>> createRounds(int agentCount, boolean fanOut) {
+        List<List<Transfer>> rounds = new ArrayList<List<Transfer>>();
+        if (!fanOut) {
+            List<Transfer> round = new ArrayList<Transfer>(agentCount);
+            for (int targetIndex = 0; targetIndex < agentCount; targetIndex++) {
+                round.add(new Transfer(LOCAL_SOURCE_INDEX, targetIndex));
+            }
+            rounds.add(round);
+            return rounds;
+        }
+
+        int holderCount = 0;
+        while (holderCount < agentCount) {
+            List<Transfer> round = new ArrayList<Transfer>(holderCount + 1);
+            int targetIndex = holderCount;
+            for (int sourceIndex = LOCAL_SOURCE_INDEX; sourceIndex < holderCount && targetIndex < agentCount; sourceIndex++) {
+                round.add(new Transfer(sourceIndex, targetIndex++));
+            }
+            holderCount = targetIndex;
+            rounds.add(round);
+        }
+        return rounds;
+    }
+
+    static final class Transfer {
+
+        private final int sourceIndex;
+        private final int targetIndex;
+
+        Transfer(int sourceIndex, int targetIndex) {
+            this.sourceIndex = sourceIndex;
+            this.targetIndex = targetIndex;
+        }
+
+        int getSourceIndex() {
+            return sourceIndex;
+        }
+
+        int getTargetIndex() {
+            return targetIndex;
+        }
+    }
+}
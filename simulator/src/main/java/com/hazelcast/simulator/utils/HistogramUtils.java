@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.utils;
+
+import org.HdrHistogram.Histogram;
+
+import javax.xml.bind.DatatypeConverter;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+import static org.HdrHistogram.Histogram.decodeFromCompressedByteBuffer;
+
+/**
+ * Encodes and decodes histograms for the transport within a
+ * {@link com.hazelcast.simulator.protocol.operation.SimulatorOperation}.
+ */
+public final class HistogramUtils {
+
+    private HistogramUtils() {
+    }
+
+    /**
+     * Compresses a histogram and encodes it as Base64 string.
+     *
+     * @param histogram the {@link Histogram} to encode
+     * @return the compressed and Base64 encoded histogram
+     */
+    public static String encodeHistogram(Histogram histogram) {
+        return toEncodedHistogram(encodeHistogramToBytes(histogram));
+    }
+
+    /**
+     * Compresses a histogram into a byte array.
+     *
+     * @param histogram the {@link Histogram} to compress
+     * @return the compressed histogram
+     */
+    public static byte[] encodeHistogramToBytes(Histogram histogram) {
+        ByteBuffer targetBuffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int compressedLength = histogram.encodeIntoCompressedByteBuffer(targetBuffer, Deflater.BEST_COMPRESSION);
+        return Arrays.copyOf(targetBuffer.array(), compressedLength);
+    }
+
+    /**
+     * Decodes a histogram, which was encoded by {@link #encodeHistogram(Histogram)}.
+     *
+     * @param encodedHistogram the compressed and Base64 encoded histogram
+     * @return the decoded {@link Histogram}
+     * @throws IllegalArgumentException if the histogram could not be decoded
+     */
+    public static Histogram decodeHistogram(String encodedHistogram) {
+        return decodeHistogram(toCompressedBytes(encodedHistogram));
+    }
+
+    /**
+     * Decodes a histogram, which was compressed by {@link #encodeHistogramToBytes(Histogram)}.
+     *
+     * @param compressedHistogram the compressed histogram
+     * @return the decoded {@link Histogram}
+     * @throws IllegalArgumentException if the histogram could not be decoded
+     */
+    public static Histogram decodeHistogram(byte[] compressedHistogram) {
+        try {
+            return decodeFromCompressedByteBuffer(ByteBuffer.wrap(compressedHistogram), 0);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Could not decode histogram", e);
+        }
+    }
+
+    /**
+     * Converts a Base64 encoded histogram into its compressed bytes, e.g. to write it into a binary message.
+     *
+     * @param encodedHistogram the compressed and Base64 encoded histogram
+     * @return the compressed histogram
+     */
+    public static byte[] toCompressedBytes(String encodedHistogram) {
+        return DatatypeConverter.parseBase64Binary(encodedHistogram);
+    }
+
+    /**
+     * Converts the compressed bytes of a histogram into its Base64 encoded representation.
+     *
+     * @param compressedHistogram the compressed histogram
+     * @return the compressed and Base64 encoded histogram
+     */
+    public static String toEncodedHistogram(byte[] compressedHistogram) {
+        return DatatypeConverter.printBase64Binary(compressedHistogram);
+    }
+}
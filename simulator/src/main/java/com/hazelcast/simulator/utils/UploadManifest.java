@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
+import static java.lang.String.format;
+
+/**
+ * Describes the files of an upload by their relative target path and the hash of their content.
+ *
+ * A source directory is added recursively with its own name as first path element, which matches the behavior of rsync for a
+ * source directory without a trailing slash. Files with the same content share a single hash, so they are transferred once.
+ */
+public final class UploadManifest {
+
+    private static final String HASH_ALGORITHM = "SHA-1";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int HEX_RADIX = 16;
+    private static final int BYTE_MASK = 0xFF;
+    private static final int HIGH_NIBBLE_SHIFT = 4;
+    private static final int NIBBLE_MASK = 0x0F;
+
+    private final Map<String, String> targetPathHashes = new LinkedHashMap<String, String>();
+    private final Map<String, File> hashFiles = new LinkedHashMap<String, File>();
+
+    private UploadManifest() {
+    }
+
+    /**
+     * Creates the manifest for a list of source files and directories.
+     *
+     * @param sourceFiles the files and directories to upload
+     * @return the {@link UploadManifest} of the source files
+     */
+    public static UploadManifest create(List<File> sourceFiles) {
+        UploadManifest manifest = new UploadManifest();
+        for (File sourceFile : sourceFiles) {
+            manifest.add(sourceFile, sourceFile.getName());
+        }
+        return manifest;
+    }
+
+    /**
+     * Returns the content hash per relative target path.
+     *
+     * @return a {@link Map} with the relative target paths as keys and the content hashes as values
+     */
+    public Map<String, String> getTargetPathHashes() {
+        return Collections.unmodifiableMap(targetPathHashes);
+    }
+
+    /**
+     * Returns a source file per distinct content hash.
+     *
+     * @return a {@link Map} with the content hashes as keys and the source files as values
+     */
+    public Map<String, File> getHashFiles() {
+        return Collections.unmodifiableMap(hashFiles);
+    }
+
+    public boolean isEmpty() {
+        return targetPathHashes.isEmpty();
+    }
+
+    private void add(File file, String targetPath) {
+        if (file.isDirectory()) {
+            File[] children = file.listFiles();
+            if (children == null) {
+                return;
+            }
+            for (File child : children) {
+                add(child, targetPath + '/' + child.getName());
+            }
+            return;
+        }
+
+        String hash = hash(file);
+        targetPathHashes.put(targetPath, hash);
+        if (!hashFiles.containsKey(hash)) {
+            hashFiles.put(hash, file);
+        }
+    }
+
+    static String hash(File file) {
+        InputStream inputStream = null;
+        try {
+            MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+            inputStream = new FileInputStream(file);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return toHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            throw new FileUtilsException(format("Could not calculate hash of file %s", file.getAbsolutePath()), e);
+        } finally {
+            closeQuietly(inputStream);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            int value = b & BYTE_MASK;
+            sb.append(Character.forDigit(value >> HIGH_NIBBLE_SHIFT, HEX_RADIX));
+            sb.append(Character.forDigit(value & NIBBLE_MASK, HEX_RADIX));
+        }
+        return sb.toString();
+    }
+}
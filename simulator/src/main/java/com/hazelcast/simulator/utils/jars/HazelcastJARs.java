@@ -22,7 +22,9 @@ import com.hazelcast.simulator.utils.FileUtilsException;
 import org.apache.log4j.Logger;
 
 import java.io.File;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -33,6 +35,7 @@ import static com.hazelcast.simulator.utils.CommonUtils.getSimulatorVersion;
 import static com.hazelcast.simulator.utils.FileUtils.USER_HOME;
 import static com.hazelcast.simulator.utils.FileUtils.copyFilesToDirectory;
 import static com.hazelcast.simulator.utils.FileUtils.ensureExistingDirectory;
+import static com.hazelcast.simulator.utils.FileUtils.getFilesFromClassPath;
 import static com.hazelcast.simulator.utils.FileUtils.getText;
 import static com.hazelcast.simulator.utils.FileUtils.newFile;
 import static java.lang.String.format;
@@ -117,6 +120,23 @@ public class HazelcastJARs {
         }
     }
 
+    /**
+     * Returns the Hazelcast JARs of a version spec, which have to be uploaded to the Agents.
+     *
+     * @param versionSpec   the Hazelcast version spec
+     * @param simulatorHome the Simulator home directory
+     * @return a {@link List} of the Hazelcast JARs, which is empty if the JARs are not provided by Simulator
+     */
+    public List<File> getJARs(String versionSpec, String simulatorHome) {
+        if (OUT_OF_THE_BOX.equals(versionSpec)) {
+            return getFilesFromClassPath(simulatorHome + "/lib/hazelcast*");
+        }
+        if (BRING_MY_OWN.equals(versionSpec)) {
+            return Collections.emptyList();
+        }
+        return getFilesFromClassPath(versionSpecDirs.get(versionSpec) + "/*.jar");
+    }
+
     void addVersionSpec(String versionSpec) {
         File tmpDir = new File(System.getProperty("java.io.tmpdir"));
         versionSpecDirs.put(versionSpec, new File(tmpDir, "hazelcastjars-" + UUID.randomUUID().toString()).getAbsoluteFile());
@@ -25,13 +25,17 @@ import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.Partition;
 import com.hazelcast.core.PartitionService;
 import com.hazelcast.simulator.protocol.connector.WorkerConnector;
+import com.hazelcast.simulator.protocol.exception.ExceptionLogger;
 import com.hazelcast.simulator.protocol.processors.WorkerOperationProcessor;
 import com.hazelcast.simulator.utils.ExceptionReporter;
 import com.hazelcast.simulator.worker.performance.WorkerPerformanceMonitor;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.management.ManagementFactory;
 import java.net.InetSocketAddress;
 import java.util.List;
@@ -42,7 +46,6 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import static com.hazelcast.simulator.utils.CommonUtils.exitWithError;
 import static com.hazelcast.simulator.utils.CommonUtils.sleepMillisThrowException;
 import static com.hazelcast.simulator.utils.FileUtils.fileAsText;
-import static com.hazelcast.simulator.utils.FileUtils.writeObject;
 import static com.hazelcast.simulator.utils.FormatUtils.fillString;
 import static com.hazelcast.simulator.utils.NativeUtils.getPID;
 import static java.lang.Boolean.parseBoolean;
@@ -69,11 +72,13 @@ public final class MemberWorker implements Worker {
     private final WorkerConnector workerConnector;
 
     private final WorkerPerformanceMonitor workerPerformanceMonitor;
+    private final WorkerHeartbeat workerHeartbeat;
 
     private ShutdownThread shutdownThread;
 
     MemberWorker(WorkerType type, String publicAddress, int agentIndex, int workerIndex, int workerPort,
-                 boolean autoCreateHzInstance, int workerPerformanceMonitorIntervalSeconds, String hConfigFile) throws Exception {
+                 boolean autoCreateHzInstance, int workerPerformanceMonitorIntervalSeconds, int workerHeartbeatIntervalSeconds,
+                 String hConfigFile) throws Exception {
         SHUTDOWN_STARTED.set(false);
 
         this.type = type;
@@ -84,14 +89,26 @@ public final class MemberWorker implements Worker {
 
         this.hazelcastInstance = getHazelcastInstance();
 
-        this.workerConnector = WorkerConnector.createInstance(agentIndex, workerIndex, workerPort, type, hazelcastInstance, this);
+        this.workerConnector = WorkerConnector.createInstance(agentIndex, workerIndex, workerPort, type, hazelcastInstance, this,
+                true);
         this.workerConnector.start();
+        initExceptionReporter(workerConnector.getExceptionLogger());
 
         this.workerPerformanceMonitor = initWorkerPerformanceMonitor(workerPerformanceMonitorIntervalSeconds);
+        this.workerHeartbeat = initWorkerHeartbeat(workerHeartbeatIntervalSeconds);
 
         Runtime.getRuntime().addShutdownHook(new ShutdownThread(true));
 
-        signalStartToAgent(hazelcastInstance);
+        signalStartToAgent();
+    }
+
+    private static void initExceptionReporter(final ExceptionLogger exceptionLogger) {
+        ExceptionReporter.setDelegate(new ExceptionReporter.Delegate() {
+            @Override
+            public void report(String testId, Throwable cause) {
+                exceptionLogger.log(cause, testId);
+            }
+        });
     }
 
     private WorkerPerformanceMonitor initWorkerPerformanceMonitor(int workerPerformanceMonitorIntervalSeconds) {
@@ -102,6 +119,15 @@ public final class MemberWorker implements Worker {
         return new WorkerPerformanceMonitor(workerConnector, processor.getTests(), workerPerformanceMonitorIntervalSeconds);
     }
 
+    private WorkerHeartbeat initWorkerHeartbeat(int workerHeartbeatIntervalSeconds) {
+        if (workerHeartbeatIntervalSeconds < 1) {
+            return null;
+        }
+        WorkerHeartbeat heartbeat = new WorkerHeartbeat(workerConnector, workerHeartbeatIntervalSeconds);
+        heartbeat.start();
+        return heartbeat;
+    }
+
     @Override
     public void shutdown() {
         shutdownThread = new ShutdownThread(false);
@@ -186,11 +212,11 @@ public final class MemberWorker implements Worker {
         LOGGER.info("Partitions are warmed up successfully");
     }
 
-    private void signalStartToAgent(HazelcastInstance serverInstance) {
+    private void signalStartToAgent() {
         String address;
         if (type == WorkerType.MEMBER) {
-            if (serverInstance != null) {
-                InetSocketAddress socketAddress = serverInstance.getCluster().getLocalMember().getInetSocketAddress();
+            if (hazelcastInstance != null) {
+                InetSocketAddress socketAddress = hazelcastInstance.getCluster().getLocalMember().getInetSocketAddress();
                 address = socketAddress.getAddress().getHostAddress() + ':' + socketAddress.getPort();
             } else {
                 address = "server:" + publicAddress;
@@ -198,8 +224,7 @@ public final class MemberWorker implements Worker {
         } else {
             address = "client:" + publicAddress;
         }
-        File file = new File("worker.address");
-        writeObject(address, file);
+        workerConnector.signalReady(address);
     }
 
     public static void main(String[] args) {
@@ -221,10 +246,11 @@ public final class MemberWorker implements Worker {
         int agentIndex = parseInt(System.getProperty("agentIndex"));
         int workerIndex = parseInt(System.getProperty("workerIndex"));
         int workerPort = parseInt(System.getProperty("workerPort"));
-        String hzConfigFile = System.getProperty("hzConfigFile");
+        boolean standby = parseBoolean(System.getProperty("workerStandby", "false"));
 
         boolean autoCreateHzInstance = parseBoolean(System.getProperty("autoCreateHzInstance", "true"));
         int workerPerformanceMonitorIntervalSeconds = parseInt(System.getProperty("workerPerformanceMonitorIntervalSeconds"));
+        int workerHeartbeatIntervalSeconds = parseInt(System.getProperty("workerHeartbeatIntervalSeconds", "0"));
 
         logHeader("Hazelcast Worker #" + workerIndex + " (" + type + ')');
         logInputArguments();
@@ -241,18 +267,41 @@ public final class MemberWorker implements Worker {
 
         LOGGER.info("autoCreateHzInstance: " + autoCreateHzInstance);
         LOGGER.info("workerPerformanceMonitorIntervalSeconds: " + workerPerformanceMonitorIntervalSeconds);
+        LOGGER.info("workerHeartbeatIntervalSeconds: " + workerHeartbeatIntervalSeconds);
 
+        String hzConfigFile = (standby) ? awaitHzConfigFile(type) : System.getProperty("hzConfigFile");
         LOGGER.info("Hazelcast config file: " + hzConfigFile);
         LOGGER.info(fileAsText(new File(hzConfigFile)));
 
         MemberWorker worker = new MemberWorker(type, publicAddress, agentIndex, workerIndex, workerPort, autoCreateHzInstance,
-                workerPerformanceMonitorIntervalSeconds, hzConfigFile);
+                workerPerformanceMonitorIntervalSeconds, workerHeartbeatIntervalSeconds, hzConfigFile);
 
         logHeader("Successfully started Hazelcast Worker #" + workerIndex);
 
         return worker;
     }
 
+    /**
+     * Blocks a standby Worker until the Agent attaches it to a Hazelcast config by writing the config file to stdin.
+     *
+     * The Hazelcast config classes are loaded in the meantime, so they are warmed up when the Worker is attached.
+     */
+    private static String awaitHzConfigFile(WorkerType type) throws IOException {
+        logHeader("Waiting in standby mode for Hazelcast config");
+        if (type == WorkerType.CLIENT) {
+            new ClientConfig();
+        } else {
+            new Config();
+        }
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
+        String hzConfigFile = reader.readLine();
+        if (hzConfigFile == null) {
+            throw new IllegalStateException("Agent closed stdin before the standby Worker was attached to a Hazelcast config");
+        }
+        return hzConfigFile.trim();
+    }
+
     private static void logInputArguments() {
         List<String> inputArguments = ManagementFactory.getRuntimeMXBean().getInputArguments();
         LOGGER.info("JVM input arguments: " + inputArguments);
@@ -323,10 +372,16 @@ public final class MemberWorker implements Worker {
                 workerPerformanceMonitor.shutdown();
             }
 
+            LOGGER.info("Stopping WorkerHeartbeat");
+            if (workerHeartbeat != null) {
+                workerHeartbeat.shutdown();
+            }
+
             LOGGER.info("Stopping WorkerConnector...");
             if (workerConnector != null) {
                 workerConnector.shutdown();
             }
+            ExceptionReporter.setDelegate(null);
 
             if (shutdownLog4j) {
                 // makes sure that log4j will always flush the log buffers
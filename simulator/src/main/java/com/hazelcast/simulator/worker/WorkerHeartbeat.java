@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker;
+
+import com.hazelcast.simulator.protocol.connector.WorkerConnector;
+import com.hazelcast.simulator.protocol.operation.HeartbeatOperation;
+import org.apache.log4j.Logger;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.simulator.protocol.core.SimulatorAddress.COORDINATOR;
+import static com.hazelcast.simulator.utils.CommonUtils.joinThread;
+import static com.hazelcast.simulator.utils.CommonUtils.sleepNanos;
+
+/**
+ * Pushes a periodic {@link HeartbeatOperation} from a Simulator Worker to the Coordinator.
+ *
+ * The heartbeat is forwarded by the Agent, which updates the last seen timestamp of the Worker on the way. So the Agent gets
+ * the liveness for free, while the Coordinator gets a live view of the resource usage of each Worker.
+ */
+class WorkerHeartbeat {
+
+    private final HeartbeatThread thread;
+
+    WorkerHeartbeat(WorkerConnector workerConnector, int heartbeatIntervalSeconds) {
+        this.thread = new HeartbeatThread(workerConnector, heartbeatIntervalSeconds);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void shutdown() {
+        thread.isRunning = false;
+        thread.interrupt();
+        joinThread(thread);
+    }
+
+    static HeartbeatOperation createHeartbeatOperation(int queuedOperations) {
+        MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+        MemoryUsage heapUsage = memoryMXBean.getHeapMemoryUsage();
+
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+        return new HeartbeatOperation(System.currentTimeMillis(), heapUsage.getUsed(), heapUsage.getMax(), getGcTimeMillis(),
+                getCpuTimeNanos(threadMXBean), threadMXBean.getThreadCount(), queuedOperations);
+    }
+
+    private static long getGcTimeMillis() {
+        long gcTimeMillis = 0;
+        List<GarbageCollectorMXBean> garbageCollectorMXBeans = ManagementFactory.getGarbageCollectorMXBeans();
+        for (GarbageCollectorMXBean garbageCollectorMXBean : garbageCollectorMXBeans) {
+            long collectionTime = garbageCollectorMXBean.getCollectionTime();
+            if (collectionTime > 0) {
+                gcTimeMillis += collectionTime;
+            }
+        }
+        return gcTimeMillis;
+    }
+
+    private static long getCpuTimeNanos(ThreadMXBean threadMXBean) {
+        if (!threadMXBean.isThreadCpuTimeSupported() || !threadMXBean.isThreadCpuTimeEnabled()) {
+            return -1;
+        }
+        long cpuTimeNanos = 0;
+        for (long threadId : threadMXBean.getAllThreadIds()) {
+            long threadCpuTime = threadMXBean.getThreadCpuTime(threadId);
+            if (threadCpuTime > 0) {
+                cpuTimeNanos += threadCpuTime;
+            }
+        }
+        return cpuTimeNanos;
+    }
+
+    private static final class HeartbeatThread extends Thread {
+
+        private static final Logger LOGGER = Logger.getLogger(HeartbeatThread.class);
+
+        private final WorkerConnector workerConnector;
+        private final long intervalNanos;
+
+        private volatile boolean isRunning = true;
+
+        private HeartbeatThread(WorkerConnector workerConnector, int heartbeatIntervalSeconds) {
+            super("WorkerHeartbeatThread");
+            setDaemon(true);
+
+            this.workerConnector = workerConnector;
+            this.intervalNanos = TimeUnit.SECONDS.toNanos(heartbeatIntervalSeconds);
+        }
+
+        @Override
+        public void run() {
+            while (isRunning) {
+                long startedNanos = System.nanoTime();
+                try {
+                    int queuedOperations = workerConnector.getMessageQueueSize();
+                    workerConnector.submit(COORDINATOR, createHeartbeatOperation(queuedOperations));
+                } catch (Exception e) {
+                    LOGGER.error("Could not send heartbeat", e);
+                }
+                long elapsedNanos = System.nanoTime() - startedNanos;
+                if (intervalNanos > elapsedNanos) {
+                    sleepNanos(intervalNanos - elapsedNanos);
+                }
+            }
+        }
+    }
+}
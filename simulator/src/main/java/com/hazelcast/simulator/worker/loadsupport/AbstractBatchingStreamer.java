@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.loadsupport;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.Member;
+import com.hazelcast.core.Partition;
+import com.hazelcast.core.PartitionService;
+import org.apache.log4j.Logger;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+
+import static com.hazelcast.simulator.utils.CommonUtils.rethrow;
+import static com.hazelcast.simulator.utils.ExecutorFactory.createFixedThreadPool;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Groups the pushed entries by the owner of their partition and stores them with a bulk operation per batch.
+ *
+ * A batch is flushed as soon as it reaches the configured batch size, so each bulk operation is mostly handled by a single
+ * member. Up to the configured number of batches are stored concurrently by a thread pool, which is created on demand and
+ * shut down by {@link #await()}. The loading throughput is logged periodically and by {@link #await()}.
+ *
+ * The {@link #pushEntry(Object, Object)} method must only be called by a single thread.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+abstract class AbstractBatchingStreamer<K, V> implements Streamer<K, V> {
+
+    static final int DEFAULT_BATCH_SIZE = 1000;
+    static final int DEFAULT_MAX_IN_FLIGHT_BATCHES = 8;
+
+    private static final long DEFAULT_TIMEOUT_MINUTES = 2;
+    private static final long LOG_INTERVAL_NANOS = SECONDS.toNanos(10);
+    private static final double ONE_SECOND_IN_MILLIS = SECONDS.toMillis(1);
+
+    private static final Logger LOGGER = Logger.getLogger(AbstractBatchingStreamer.class);
+
+    private final Map<Member, Map<K, V>> batches = new HashMap<Member, Map<K, V>>();
+
+    private final PartitionService partitionService;
+    private final int batchSize;
+    private final int maxInFlightBatches;
+    private final Semaphore semaphore;
+
+    private volatile Throwable storedException;
+
+    private ExecutorService executor;
+
+    private long startedNanos;
+    private long lastLogNanos;
+    private long entryCount;
+
+    AbstractBatchingStreamer(HazelcastInstance hazelcastInstance, int batchSize, int maxInFlightBatches) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1, but was " + batchSize);
+        }
+        if (maxInFlightBatches < 1) {
+            throw new IllegalArgumentException("maxInFlightBatches must be at least 1, but was " + maxInFlightBatches);
+        }
+        this.partitionService = hazelcastInstance.getPartitionService();
+        this.batchSize = batchSize;
+        this.maxInFlightBatches = maxInFlightBatches;
+        this.semaphore = new Semaphore(maxInFlightBatches);
+    }
+
+    abstract void storeBatch(Map<K, V> batch);
+
+    @Override
+    public void pushEntry(K key, V value) {
+        rethrowExceptionIfAny();
+        if (entryCount++ == 0) {
+            startedNanos = System.nanoTime();
+            lastLogNanos = startedNanos;
+        }
+
+        Member owner = getOwner(key);
+        Map<K, V> batch = batches.get(owner);
+        if (batch == null) {
+            batch = new HashMap<K, V>();
+            batches.put(owner, batch);
+        }
+        batch.put(key, value);
+
+        if (batch.size() >= batchSize) {
+            batches.remove(owner);
+            submitBatch(batch);
+            logThroughput(false);
+        }
+    }
+
+    @Override
+    public void await() {
+        try {
+            for (Map<K, V> batch : batches.values()) {
+                submitBatch(batch);
+            }
+            batches.clear();
+
+            acquirePermits(maxInFlightBatches);
+            semaphore.release(maxInFlightBatches);
+        } finally {
+            if (executor != null) {
+                executor.shutdown();
+                executor = null;
+            }
+        }
+        rethrowExceptionIfAny();
+        logThroughput(true);
+        entryCount = 0;
+    }
+
+    private Member getOwner(K key) {
+        Partition partition = partitionService.getPartition(key);
+        // the owner is null if the partition is not assigned yet, those entries are collected in a separate batch
+        return (partition == null) ? null : partition.getOwner();
+    }
+
+    private void submitBatch(final Map<K, V> batch) {
+        acquirePermits(1);
+        if (executor == null) {
+            executor = createFixedThreadPool(maxInFlightBatches, getClass());
+        }
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    storeBatch(batch);
+                } catch (Throwable t) {
+                    storedException = t;
+                } finally {
+                    semaphore.release();
+                }
+            }
+        });
+    }
+
+    private void acquirePermits(int count) {
+        try {
+            if (!semaphore.tryAcquire(count, DEFAULT_TIMEOUT_MINUTES, MINUTES)) {
+                throw new IllegalStateException("Timeout when trying to acquire a permit!");
+            }
+        } catch (InterruptedException e) {
+            throw rethrow(e);
+        }
+    }
+
+    private void rethrowExceptionIfAny() {
+        if (storedException != null) {
+            throw rethrow(storedException);
+        }
+    }
+
+    private void logThroughput(boolean isFinished) {
+        long now = System.nanoTime();
+        if (entryCount == 0 || (!isFinished && now - lastLogNanos < LOG_INTERVAL_NANOS)) {
+            return;
+        }
+        lastLogNanos = now;
+
+        long elapsedMillis = Math.max(1, NANOSECONDS.toMillis(now - startedNanos));
+        double throughput = entryCount * ONE_SECOND_IN_MILLIS / elapsedMillis;
+        LOGGER.info(format("%s %d entries in %d ms (%.2f entries/s)", isFinished ? "Loaded" : "Loading", entryCount,
+                elapsedMillis, throughput));
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.loadsupport;
+
+import com.hazelcast.core.HazelcastInstance;
+
+import javax.cache.Cache;
+import java.util.Map;
+
+/**
+ * Batching implementation of {@link Streamer} for {@link Cache}, which stores the entries per partition owner via
+ * {@link Cache#putAll(Map)}.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+final class BatchingCacheStreamer<K, V> extends AbstractBatchingStreamer<K, V> {
+
+    private final Cache<K, V> cache;
+
+    BatchingCacheStreamer(HazelcastInstance hazelcastInstance, Cache<K, V> cache, int batchSize, int maxInFlightBatches) {
+        super(hazelcastInstance, batchSize, maxInFlightBatches);
+        this.cache = cache;
+    }
+
+    @Override
+    void storeBatch(Map<K, V> batch) {
+        cache.putAll(batch);
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.loadsupport;
+
+import com.hazelcast.simulator.protocol.connector.WorkerConnector;
+import com.hazelcast.simulator.protocol.core.SimulatorAddress;
+import com.hazelcast.simulator.protocol.operation.LogOperation;
+
+import static com.hazelcast.simulator.protocol.core.SimulatorAddress.COORDINATOR;
+import static com.hazelcast.simulator.worker.loadsupport.ParallelLoader.formatProgress;
+
+/**
+ * Sends the progress of a {@link ParallelLoader} to the coordinator, which logs it with the address of the test.
+ *
+ * The progress is also logged locally, so it's contained in the worker log.
+ */
+public class CoordinatorLoadProgressListener implements LoadProgressListener {
+
+    private final WorkerConnector workerConnector;
+    private final SimulatorAddress testAddress;
+
+    public CoordinatorLoadProgressListener(WorkerConnector workerConnector, SimulatorAddress testAddress) {
+        this.workerConnector = workerConnector;
+        this.testAddress = testAddress;
+    }
+
+    @Override
+    public void onProgress(long loadedCount, long totalCount, long elapsedMillis) {
+        ParallelLoader.LOGGING_LISTENER.onProgress(loadedCount, totalCount, elapsedMillis);
+
+        LogOperation operation = new LogOperation(formatProgress(loadedCount, totalCount, elapsedMillis));
+        workerConnector.submitFromTest(testAddress, COORDINATOR, operation);
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.loadsupport;
+
+/**
+ * Receives the progress of a {@link ParallelLoader}.
+ *
+ * The listener is called periodically by the thread which started the load and once when the load is finished.
+ */
+public interface LoadProgressListener {
+
+    /**
+     * Is called with the current progress of a load.
+     *
+     * @param loadedCount   the number of loaded entries
+     * @param totalCount    the total number of entries to load
+     * @param elapsedMillis the elapsed time since the start of the load in milliseconds
+     */
+    void onProgress(long loadedCount, long totalCount, long elapsedMillis);
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.loadsupport;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.simulator.test.TestContext;
+import com.hazelcast.simulator.test.TestContextImpl;
+import org.apache.log4j.Logger;
+
+import javax.cache.Cache;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.simulator.utils.CommonUtils.rethrow;
+import static com.hazelcast.simulator.utils.ExecutorFactory.createFixedThreadPool;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Loads data in parallel during the warmup phase of a test.
+ *
+ * The index range of the entries is split into one range per thread. Each thread creates its keys and values with its own
+ * {@link Random} and stores them with its own batching {@link Streamer}, so the threads don't contend with each other. The
+ * progress is reported periodically to a {@link LoadProgressListener}. If the {@link TestContext} was created by a worker,
+ * the progress is sent to the coordinator, otherwise it's logged.
+ *
+ * <pre>
+ * {@code
+ *   ParallelLoader loader = new ParallelLoader(testContext);
+ *   loader.load(map, keyCount, new ParallelLoader.EntryGenerator<Integer, Integer>() {
+ *       public Integer generateKey(int index, Random random) {
+ *           return keys[index];
+ *       }
+ *
+ *       public Integer generateValue(int index, Integer key, Random random) {
+ *           return random.nextInt();
+ *       }
+ *   });
+ * }
+ * </pre>
+ */
+public final class ParallelLoader {
+
+    static final LoadProgressListener LOGGING_LISTENER = new LoadProgressListener() {
+        @Override
+        public void onProgress(long loadedCount, long totalCount, long elapsedMillis) {
+            LOGGER.info(formatProgress(loadedCount, totalCount, elapsedMillis));
+        }
+    };
+
+    private static final int MAX_IN_FLIGHT_BATCHES_PER_THREAD = 2;
+    private static final int PROGRESS_UPDATE_INTERVAL = 1000;
+    private static final long REPORT_INTERVAL_MILLIS = SECONDS.toMillis(10);
+    private static final double ONE_SECOND_IN_MILLIS = SECONDS.toMillis(1);
+    private static final double ONE_HUNDRED_PERCENT = 100;
+
+    private static final Logger LOGGER = Logger.getLogger(ParallelLoader.class);
+
+    private final HazelcastInstance hazelcastInstance;
+    private final TestContext testContext;
+    private final LoadProgressListener progressListener;
+    private final int threadCount;
+
+    public ParallelLoader(TestContext testContext) {
+        this(testContext, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelLoader(TestContext testContext, int threadCount) {
+        this(testContext, threadCount, getProgressListener(testContext));
+    }
+
+    public ParallelLoader(TestContext testContext, int threadCount, LoadProgressListener progressListener) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("threadCount must be at least 1, but was " + threadCount);
+        }
+        this.hazelcastInstance = testContext.getTargetInstance();
+        this.testContext = testContext;
+        this.progressListener = progressListener;
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * Creates the given number of entries in parallel and stores them in an {@link IMap}.
+     *
+     * @param map        the {@link IMap} to load
+     * @param entryCount the number of entries to create
+     * @param generator  the {@link EntryGenerator} which creates the entries
+     * @param <K>        key type
+     * @param <V>        value type
+     */
+    public <K, V> void load(final IMap<K, V> map, int entryCount, EntryGenerator<K, V> generator) {
+        load(entryCount, generator, new StreamerSupplier<K, V>() {
+            @Override
+            public Streamer<K, V> createStreamer() {
+                return new BatchingMapStreamer<K, V>(hazelcastInstance, map, AbstractBatchingStreamer.DEFAULT_BATCH_SIZE,
+                        MAX_IN_FLIGHT_BATCHES_PER_THREAD);
+            }
+        });
+    }
+
+    /**
+     * Creates the given number of entries in parallel and stores them in a {@link Cache}.
+     *
+     * @param cache      the {@link Cache} to load
+     * @param entryCount the number of entries to create
+     * @param generator  the {@link EntryGenerator} which creates the entries
+     * @param <K>        key type
+     * @param <V>        value type
+     */
+    public <K, V> void load(final Cache<K, V> cache, int entryCount, EntryGenerator<K, V> generator) {
+        load(entryCount, generator, new StreamerSupplier<K, V>() {
+            @Override
+            public Streamer<K, V> createStreamer() {
+                return new BatchingCacheStreamer<K, V>(hazelcastInstance, cache, AbstractBatchingStreamer.DEFAULT_BATCH_SIZE,
+                        MAX_IN_FLIGHT_BATCHES_PER_THREAD);
+            }
+        });
+    }
+
+    /**
+     * Executes a {@link RangeTask} for the given number of indexes in parallel.
+     *
+     * This can be used to create the keys of a test in parallel, e.g. with a {@link PartitionTable} for the key locality.
+     *
+     * @param count the number of indexes
+     * @param task  the {@link RangeTask} to execute for each index range
+     */
+    public void execute(int count, final RangeTask task) {
+        final AtomicLong progress = new AtomicLong();
+        List<Callable<Object>> callables = new ArrayList<Callable<Object>>(threadCount);
+        for (final int[] range : splitRange(count)) {
+            callables.add(new Callable<Object>() {
+                @Override
+                public Object call() {
+                    task.run(range[0], range[1], new Random(), progress);
+                    return null;
+                }
+            });
+        }
+        run(callables, count, progress);
+    }
+
+    int getThreadCount() {
+        return threadCount;
+    }
+
+    List<int[]> splitRange(int count) {
+        int rangeCount = Math.max(1, Math.min(threadCount, count));
+        List<int[]> ranges = new ArrayList<int[]>(rangeCount);
+        int rangeSize = count / rangeCount;
+        int remainder = count % rangeCount;
+        int from = 0;
+        for (int i = 0; i < rangeCount; i++) {
+            int to = from + rangeSize + (i < remainder ? 1 : 0);
+            ranges.add(new int[]{from, to});
+            from = to;
+        }
+        return ranges;
+    }
+
+    static String formatProgress(long loadedCount, long totalCount, long elapsedMillis) {
+        double percentage = (totalCount == 0) ? ONE_HUNDRED_PERCENT : loadedCount * ONE_HUNDRED_PERCENT / totalCount;
+        double throughput = loadedCount * ONE_SECOND_IN_MILLIS / Math.max(1, elapsedMillis);
+        return format("Loaded %d of %d entries (%.1f%%) in %d ms (%.2f entries/s)", loadedCount, totalCount, percentage,
+                elapsedMillis, throughput);
+    }
+
+    private <K, V> void load(int entryCount, final EntryGenerator<K, V> generator, final StreamerSupplier<K, V> supplier) {
+        execute(entryCount, new RangeTask() {
+            @Override
+            public void run(int fromIndex, int toIndex, Random random, AtomicLong progress) {
+                Streamer<K, V> streamer = supplier.createStreamer();
+                int processed = 0;
+                for (int index = fromIndex; index < toIndex; index++) {
+                    K key = generator.generateKey(index, random);
+                    streamer.pushEntry(key, generator.generateValue(index, key, random));
+                    if (++processed % PROGRESS_UPDATE_INTERVAL == 0) {
+                        progress.addAndGet(PROGRESS_UPDATE_INTERVAL);
+                        if (testContext.isStopped()) {
+                            break;
+                        }
+                    }
+                }
+                streamer.await();
+                progress.addAndGet(processed % PROGRESS_UPDATE_INTERVAL);
+            }
+        });
+    }
+
+    private void run(List<Callable<Object>> callables, int count, AtomicLong progress) {
+        ExecutorService executor = createFixedThreadPool(threadCount, ParallelLoader.class);
+        try {
+            CompletionService<Object> completionService = new ExecutorCompletionService<Object>(executor);
+            for (Callable<Object> callable : callables) {
+                completionService.submit(callable);
+            }
+
+            long started = System.nanoTime();
+            int completed = 0;
+            while (completed < callables.size()) {
+                Future<Object> future = completionService.poll(REPORT_INTERVAL_MILLIS, MILLISECONDS);
+                if (future == null) {
+                    progressListener.onProgress(progress.get(), count, NANOSECONDS.toMillis(System.nanoTime() - started));
+                    continue;
+                }
+                future.get();
+                completed++;
+            }
+            progressListener.onProgress(progress.get(), count, NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (InterruptedException e) {
+            throw rethrow(e);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static LoadProgressListener getProgressListener(TestContext testContext) {
+        if (testContext instanceof TestContextImpl) {
+            LoadProgressListener progressListener = ((TestContextImpl) testContext).getLoadProgressListener();
+            if (progressListener != null) {
+                return progressListener;
+            }
+        }
+        return LOGGING_LISTENER;
+    }
+
+    /**
+     * Creates the keys and values of the entries to load.
+     *
+     * The methods are called concurrently by multiple threads, but each thread passes its own {@link Random}.
+     *
+     * @param <K> key type
+     * @param <V> value type
+     */
+    public interface EntryGenerator<K, V> {
+
+        K generateKey(int index, Random random);
+
+        V generateValue(int index, K key, Random random);
+    }
+
+    /**
+     * Processes a range of indexes in a single thread.
+     */
+    public interface RangeTask {
+
+        /**
+         * Processes the indexes from {@code fromIndex} (inclusive) to {@code toIndex} (exclusive).
+         *
+         * @param fromIndex the first index of the range
+         * @param toIndex   the index after the last index of the range
+         * @param random    the {@link Random} of the executing thread
+         * @param progress  the number of processed indexes of all threads, which should be updated now and then
+         */
+        void run(int fromIndex, int toIndex, Random random, AtomicLong progress);
+    }
+
+    private interface StreamerSupplier<K, V> {
+
+        Streamer<K, V> createStreamer();
+    }
+}
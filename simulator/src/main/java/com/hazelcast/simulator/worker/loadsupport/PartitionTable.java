@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.loadsupport;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.Member;
+import com.hazelcast.core.Partition;
+import com.hazelcast.core.PartitionService;
+
+import java.util.Set;
+
+import static com.hazelcast.simulator.utils.CommonUtils.sleepSeconds;
+
+/**
+ * Snapshot of the partitions which are owned by the local member of a {@link HazelcastInstance}.
+ *
+ * The owners are resolved once on creation, so checking the locality of a key just needs the partition id of the key. This
+ * makes the generation of local or remote keys much faster than resolving the owner for each key. The snapshot is not updated
+ * on migrations, so it should be created when the cluster is complete, e.g. in the warmup phase.
+ *
+ * A client has no local member, so all partitions are regarded as local and as remote.
+ */
+public final class PartitionTable {
+
+    private final PartitionService partitionService;
+    private final boolean[] localPartitions;
+    private final boolean hasLocalMember;
+
+    private PartitionTable(PartitionService partitionService, boolean[] localPartitions, boolean hasLocalMember) {
+        this.partitionService = partitionService;
+        this.localPartitions = localPartitions;
+        this.hasLocalMember = hasLocalMember;
+    }
+
+    /**
+     * Creates a {@link PartitionTable} for a {@link HazelcastInstance}.
+     *
+     * Waits until all partitions have an owner.
+     *
+     * @param hazelcastInstance the {@link HazelcastInstance} to create the {@link PartitionTable} for
+     * @return the {@link PartitionTable}
+     */
+    public static PartitionTable create(HazelcastInstance hazelcastInstance) {
+        PartitionService partitionService = hazelcastInstance.getPartitionService();
+        Member localMember = getLocalMember(hazelcastInstance);
+
+        Set<Partition> partitions = partitionService.getPartitions();
+        boolean[] localPartitions = new boolean[partitions.size()];
+        for (Partition partition : partitions) {
+            Member owner = partition.getOwner();
+            while (owner == null) {
+                sleepSeconds(1);
+                owner = partition.getOwner();
+            }
+            localPartitions[partition.getPartitionId()] = (localMember == null || localMember.equals(owner));
+        }
+        return new PartitionTable(partitionService, localPartitions, localMember != null);
+    }
+
+    public boolean hasLocalMember() {
+        return hasLocalMember;
+    }
+
+    public int getPartitionCount() {
+        return localPartitions.length;
+    }
+
+    public int getPartitionId(Object key) {
+        return partitionService.getPartition(key).getPartitionId();
+    }
+
+    public boolean isLocalPartition(int partitionId) {
+        return localPartitions[partitionId];
+    }
+
+    /**
+     * Checks if a key is owned by the local member.
+     *
+     * @param key the key to check
+     * @return {@code true} if the key is owned by the local member or if there is no local member, {@code false} otherwise
+     */
+    public boolean isLocalKey(Object key) {
+        return localPartitions[getPartitionId(key)];
+    }
+
+    /**
+     * Checks if a key is owned by a remote member.
+     *
+     * @param key the key to check
+     * @return {@code true} if the key is owned by a remote member or if there is no local member, {@code false} otherwise
+     */
+    public boolean isRemoteKey(Object key) {
+        return !hasLocalMember || !localPartitions[getPartitionId(key)];
+    }
+
+    private static Member getLocalMember(HazelcastInstance hazelcastInstance) {
+        try {
+            return hazelcastInstance.getCluster().getLocalMember();
+        } catch (UnsupportedOperationException e) {
+            // clients throw UnsupportedOperationExceptions
+            return null;
+        }
+    }
+}
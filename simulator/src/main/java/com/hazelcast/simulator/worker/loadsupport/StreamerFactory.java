@@ -16,6 +16,7 @@
 package com.hazelcast.simulator.worker.loadsupport;
 
 import com.hazelcast.cache.ICache;
+import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.IMap;
 import com.hazelcast.instance.BuildInfo;
 import com.hazelcast.instance.BuildInfoProvider;
@@ -25,11 +26,16 @@ import javax.cache.Cache;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.hazelcast.simulator.utils.VersionUtils.isMinVersion;
+import static com.hazelcast.simulator.worker.loadsupport.AbstractBatchingStreamer.DEFAULT_BATCH_SIZE;
+import static com.hazelcast.simulator.worker.loadsupport.AbstractBatchingStreamer.DEFAULT_MAX_IN_FLIGHT_BATCHES;
 
 /**
  * Creates {@link Streamer} instances for {@link IMap} and {@link Cache}.
  *
  * If possible an asynchronous variant is created, otherwise it will be synchronous.
+ *
+ * The batching variants group the entries by partition owner and store them with bulk operations, which is the fastest way to
+ * load large data structures. They need the {@link HazelcastInstance} to look up the partition owners.
  */
 public final class StreamerFactory {
 
@@ -67,6 +73,24 @@ public final class StreamerFactory {
         return new SyncCacheStreamer<K, V>(cache);
     }
 
+    public static <K, V> Streamer<K, V> getBatchingInstance(HazelcastInstance hazelcastInstance, IMap<K, V> map) {
+        return getBatchingInstance(hazelcastInstance, map, DEFAULT_BATCH_SIZE, DEFAULT_MAX_IN_FLIGHT_BATCHES);
+    }
+
+    public static <K, V> Streamer<K, V> getBatchingInstance(HazelcastInstance hazelcastInstance, IMap<K, V> map,
+                                                            int batchSize, int maxInFlightBatches) {
+        return new BatchingMapStreamer<K, V>(hazelcastInstance, map, batchSize, maxInFlightBatches);
+    }
+
+    public static <K, V> Streamer<K, V> getBatchingInstance(HazelcastInstance hazelcastInstance, Cache<K, V> cache) {
+        return getBatchingInstance(hazelcastInstance, cache, DEFAULT_BATCH_SIZE, DEFAULT_MAX_IN_FLIGHT_BATCHES);
+    }
+
+    public static <K, V> Streamer<K, V> getBatchingInstance(HazelcastInstance hazelcastInstance, Cache<K, V> cache,
+                                                            int batchSize, int maxInFlightBatches) {
+        return new BatchingCacheStreamer<K, V>(hazelcastInstance, cache, batchSize, maxInFlightBatches);
+    }
+
     static void enforceAsync(boolean enforceAsync) {
         CREATE_ASYNC.set(enforceAsync);
     }
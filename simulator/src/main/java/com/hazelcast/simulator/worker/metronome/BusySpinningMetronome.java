@@ -35,7 +35,7 @@ final class BusySpinningMetronome implements Metronome {
     }
 
     @Override
-    public void waitForNext() {
+    public long waitForNext() {
         // set random interval on the first run
         if (waitUntil == 0) {
             waitUntil = System.nanoTime() + nextLong(0, intervalNanos);
@@ -48,6 +48,8 @@ final class BusySpinningMetronome implements Metronome {
         } while (now < waitUntil);
 
         // set regular interval for next call
+        long intendedStart = waitUntil;
         waitUntil = now + intervalNanos;
+        return intendedStart;
     }
 }
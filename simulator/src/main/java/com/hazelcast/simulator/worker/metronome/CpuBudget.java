@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.metronome;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.Math.min;
+import static java.lang.Math.round;
+
+/**
+ * CPU time budget of a test, which is a share of the available processors of the Worker.
+ *
+ * The budget is shared by all worker threads of a test. Each thread adds its consumed CPU time, which is taken from a token
+ * bucket. The bucket is refilled with the allowed CPU time of the test as the wall clock time passes. This lets tests, which
+ * run in parallel in the same Worker, get a fair share of the CPU regardless of their thread count.
+ *
+ * The unused CPU time is capped to {@value #MAX_BURST_MILLIS} ms of wall clock time, so a test which was idle for a while
+ * (e.g. during its warmup or while waiting for other Workers) cannot use the saved up budget to monopolize the CPU.
+ */
+public final class CpuBudget {
+
+    static final long MAX_BURST_MILLIS = 100;
+
+    private final AtomicLong consumedCpuTimeNanos = new AtomicLong();
+    private final double allowedCores;
+    private final long maxBurstNanos;
+
+    private long availableCpuTimeNanos;
+    private long lastRefillNanos = System.nanoTime();
+
+    /**
+     * Creates a {@link CpuBudget}.
+     *
+     * @param cpuShare            the share of the available processors, must be between 0 (exclusive) and 1 (inclusive)
+     * @param availableProcessors the number of available processors of the Worker
+     */
+    public CpuBudget(double cpuShare, int availableProcessors) {
+        if (cpuShare <= 0 || cpuShare > 1) {
+            throw new IllegalArgumentException("cpuShare must be > 0 and <= 1, but was " + cpuShare);
+        }
+        this.allowedCores = cpuShare * availableProcessors;
+        this.maxBurstNanos = round(TimeUnit.MILLISECONDS.toNanos(MAX_BURST_MILLIS) * allowedCores);
+    }
+
+    public double getAllowedCores() {
+        return allowedCores;
+    }
+
+    public long getConsumedCpuTimeNanos() {
+        return consumedCpuTimeNanos.get();
+    }
+
+    /**
+     * Adds consumed CPU time to the budget.
+     *
+     * @param cpuTimeNanos the consumed CPU time in nanoseconds
+     * @param nowNanos     the current time, as measured by {@link System#nanoTime()}
+     * @return the time in nanoseconds the calling thread should pause, so the test gets back within its budget
+     */
+    synchronized long consume(long cpuTimeNanos, long nowNanos) {
+        consumedCpuTimeNanos.addAndGet(cpuTimeNanos);
+
+        // the calling threads take their timestamp before they enter this method, so it may be older than the last refill
+        long elapsedNanos = nowNanos - lastRefillNanos;
+        if (elapsedNanos > 0) {
+            availableCpuTimeNanos = min(maxBurstNanos, availableCpuTimeNanos + round(elapsedNanos * allowedCores));
+            lastRefillNanos = nowNanos;
+        }
+
+        availableCpuTimeNanos -= cpuTimeNanos;
+        if (availableCpuTimeNanos >= 0) {
+            return 0;
+        }
+        return round(-availableCpuTimeNanos / allowedCores);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.metronome;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.simulator.utils.CommonUtils.sleepNanos;
+import static java.lang.Math.min;
+
+/**
+ * {@link Metronome} implementation which throttles a worker thread, when its test exceeds its {@link CpuBudget}.
+ *
+ * The CPU time of the thread is checked once per millisecond, so the overhead is negligible for short operations. If the
+ * thread was paused, the returned intended start time is the start of the pause (or the earlier intended start time of the
+ * wrapped {@link Metronome}), so a throttled operation shows up in the response time.
+ *
+ * This class must not be shared between threads, since it tracks the CPU time of the calling thread.
+ */
+final class CpuBudgetMetronome implements Metronome {
+
+    private static final long CHECK_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long MAX_PAUSE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    private final Metronome metronome;
+    private final CpuBudget cpuBudget;
+
+    private long lastCheckNanos = System.nanoTime();
+    private long lastCpuTimeNanos = -1;
+
+    CpuBudgetMetronome(Metronome metronome, CpuBudget cpuBudget) {
+        this.metronome = metronome;
+        this.cpuBudget = cpuBudget;
+    }
+
+    @Override
+    public long waitForNext() {
+        long now = System.nanoTime();
+        long pauseNanos = 0;
+        if (now - lastCheckNanos >= CHECK_INTERVAL_NANOS) {
+            lastCheckNanos = now;
+            pauseNanos = min(getPauseNanos(now), MAX_PAUSE_NANOS);
+            sleepNanos(pauseNanos);
+        }
+        long intendedStart = metronome.waitForNext();
+        return (pauseNanos > 0) ? min(intendedStart, now) : intendedStart;
+    }
+
+    private long getPauseNanos(long now) {
+        long cpuTimeNanos = threadMXBean.getCurrentThreadCpuTime();
+        if (cpuTimeNanos < 0 || lastCpuTimeNanos < 0) {
+            // the first check on this thread (or CPU time measurement is disabled)
+            lastCpuTimeNanos = cpuTimeNanos;
+            return 0;
+        }
+        long pauseNanos = cpuBudget.consume(cpuTimeNanos - lastCpuTimeNanos, now);
+        lastCpuTimeNanos = cpuTimeNanos;
+        return pauseNanos;
+    }
+}
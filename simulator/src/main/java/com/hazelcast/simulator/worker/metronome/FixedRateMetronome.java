@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.metronome;
+
+import static com.hazelcast.simulator.utils.CommonUtils.sleepNanos;
+import static org.apache.commons.lang3.RandomUtils.nextLong;
+
+/**
+ * {@link Metronome} implementation which clocks on a fixed rate schedule.
+ *
+ * The intended start times are independent of the time the caller spends between two {@link #waitForNext()} calls. If the
+ * caller falls behind the schedule, the method returns immediately with an intended start time in the past. This allows the
+ * caller to measure the latency against the intended start time, which corrects the coordinated omission problem.
+ *
+ * The first intended start time is randomized.
+ *
+ * It is recommended to create a new instance for each worker thread, so they are clocked interleaved.
+ */
+final class FixedRateMetronome implements Metronome {
+
+    private final long intervalNanos;
+    private final boolean isSleeping;
+
+    private long nextStart;
+    private boolean isFirstCall = true;
+
+    FixedRateMetronome(long intervalNanos, MetronomeType type) {
+        this.intervalNanos = intervalNanos;
+        this.isSleeping = (type == MetronomeType.SLEEPING);
+    }
+
+    @Override
+    public long waitForNext() {
+        // set random start on the first run
+        if (isFirstCall) {
+            nextStart = System.nanoTime() + nextLong(0, intervalNanos);
+            isFirstCall = false;
+        }
+
+        long remainingNanos = nextStart - System.nanoTime();
+        while (remainingNanos > 0) {
+            if (isSleeping) {
+                sleepNanos(remainingNanos);
+            }
+            remainingNanos = nextStart - System.nanoTime();
+        }
+
+        // the next start is based on the schedule, not on the current time
+        long intendedStart = nextStart;
+        nextStart += intervalNanos;
+        return intendedStart;
+    }
+}
@@ -22,6 +22,8 @@ public interface Metronome {
 
     /**
      * Waits for the defined interval.
+     *
+     * @return the intended start time of the next operation in nanoseconds, as measured by {@link System#nanoTime()}
      */
-    void waitForNext();
+    long waitForNext();
 }
@@ -88,4 +88,37 @@ public final class MetronomeFactory {
                 return new BusySpinningMetronome(intervalNanos);
         }
     }
+
+    /**
+     * Creates a {@link Metronome} instance with a fixed rate schedule.
+     *
+     * The returned {@link Metronome} doesn't adjust its schedule if the caller is delayed, so the returned intended start times
+     * can be used to measure latencies without coordinated omission.
+     *
+     * If the frequency is 0 Hz the method {@link Metronome#waitForNext()} will have no delay.
+     *
+     * @param frequency frequency in Hz
+     * @param type      {@link MetronomeType} to create
+     * @return a {@link Metronome} instance
+     */
+    public static Metronome withFixedRate(double frequency, MetronomeType type) {
+        if (frequency == 0) {
+            return EMPTY_METRONOME;
+        }
+        long intervalNanos = round(TimeUnit.SECONDS.toNanos(1) / frequency);
+        return new FixedRateMetronome(intervalNanos, type);
+    }
+
+    /**
+     * Creates a {@link Metronome} instance, which throttles the calling thread if its test exceeds the given {@link CpuBudget}.
+     *
+     * A new instance has to be created for each worker thread, since it tracks the CPU time of the calling thread.
+     *
+     * @param metronome the {@link Metronome} to clock the operations, e.g. a fixed rate {@link Metronome}
+     * @param cpuBudget the {@link CpuBudget} of the test, which is shared by all worker threads of the test
+     * @return a {@link Metronome} instance
+     */
+    public static Metronome withCpuBudget(Metronome metronome, CpuBudget cpuBudget) {
+        return new CpuBudgetMetronome(metronome, cpuBudget);
+    }
 }
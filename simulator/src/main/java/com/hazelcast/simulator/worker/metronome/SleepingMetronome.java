@@ -36,14 +36,15 @@ final class SleepingMetronome implements Metronome {
     }
 
     @Override
-    public void waitForNext() {
+    public long waitForNext() {
         // sleep random interval on the first run
         if (isFirstSleep) {
             sleepNanos(nextLong(0, intervalNanos));
             isFirstSleep = false;
-            return;
+            return System.nanoTime();
         }
 
         sleepNanos(intervalNanos);
+        return System.nanoTime();
     }
 }
@@ -70,21 +70,32 @@ public class PerformanceState {
             intervalMaxLatency = other.intervalMaxLatency;
         } else {
             if (addOperationCountAndThroughput) {
+                intervalAvgLatency = getWeightedAvgLatency(other);
+
                 operationCount += other.operationCount;
                 intervalThroughput += other.intervalThroughput;
                 totalThroughput += other.totalThroughput;
             } else {
+                intervalAvgLatency = max(intervalAvgLatency, other.intervalAvgLatency);
+
                 operationCount = max(operationCount, other.operationCount);
                 intervalThroughput = max(intervalThroughput, other.intervalThroughput);
                 totalThroughput = max(totalThroughput, other.totalThroughput);
             }
 
-            intervalAvgLatency = max(intervalAvgLatency, other.intervalAvgLatency);
             intervalPercentileLatency = max(intervalPercentileLatency, other.intervalPercentileLatency);
             intervalMaxLatency = max(intervalMaxLatency, other.intervalMaxLatency);
         }
     }
 
+    private double getWeightedAvgLatency(PerformanceState other) {
+        double throughputSum = intervalThroughput + other.intervalThroughput;
+        if (throughputSum <= 0) {
+            return max(intervalAvgLatency, other.intervalAvgLatency);
+        }
+        return (intervalAvgLatency * intervalThroughput + other.intervalAvgLatency * other.intervalThroughput) / throughputSum;
+    }
+
     public boolean isEmpty() {
         return operationCount == EMPTY_OPERATION_COUNT && intervalThroughput == EMPTY_THROUGHPUT;
     }
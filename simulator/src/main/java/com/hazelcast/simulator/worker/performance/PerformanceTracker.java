@@ -15,32 +15,46 @@
  */
 package com.hazelcast.simulator.worker.performance;
 
+import com.hazelcast.simulator.probes.store.IntervalStoreReader;
+import com.hazelcast.simulator.probes.store.IntervalStoreWriter;
+import com.hazelcast.simulator.probes.store.ThroughputSample;
+import com.hazelcast.simulator.protocol.operation.SteadyStateOperation;
 import com.hazelcast.simulator.test.TestException;
 import org.HdrHistogram.Histogram;
-import org.HdrHistogram.HistogramLogReader;
 import org.HdrHistogram.HistogramLogWriter;
 
-import javax.xml.bind.DatatypeConverter;
 import java.io.File;
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.util.Arrays;
-import java.util.Collection;
+import java.io.PrintStream;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.zip.Deflater;
 
 import static com.hazelcast.simulator.probes.impl.ProbeImpl.LATENCY_PRECISION;
 import static com.hazelcast.simulator.probes.impl.ProbeImpl.MAXIMUM_LATENCY;
+import static com.hazelcast.simulator.probes.store.IntervalStore.getDataFile;
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
+import static com.hazelcast.simulator.utils.HistogramUtils.encodeHistogram;
 import static com.hazelcast.simulator.worker.performance.PerformanceUtils.ONE_SECOND_IN_MILLIS;
+import static com.hazelcast.simulator.worker.performance.PerformanceUtils.writeTestThroughputStats;
 import static com.hazelcast.simulator.worker.performance.PerformanceUtils.writeThroughputHeader;
-import static com.hazelcast.simulator.worker.performance.PerformanceUtils.writeThroughputStats;
+import static com.hazelcast.simulator.worker.performance.SteadyStateDetector.MIN_INTERVALS;
+import static com.hazelcast.simulator.worker.performance.SteadyStateDetector.findSteadyStateStart;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 final class PerformanceTracker {
 
-    private final Map<String, HistogramLogWriter> histogramLogWriterMap = new HashMap<String, HistogramLogWriter>();
+    private final Map<String, Histogram> aggregatedHistogramMap = new HashMap<String, Histogram>();
+    private final Map<String, Histogram> steadyStateHistogramMap = new HashMap<String, Histogram>();
+
+    // the throughput and latency of each interval, which are used to detect the steady state of the test
+    private final List<ThroughputSample> intervalSamples = new ArrayList<ThroughputSample>();
+    private final List<Long> intervalPercentileLatencies = new ArrayList<Long>();
 
     private final File throughputFile;
+    private final File intervalStoreFile;
+    private final IntervalStoreWriter intervalStoreWriter;
     private final long testStartedTimestamp;
 
     private long lastTimestamp;
@@ -57,18 +71,23 @@ final class PerformanceTracker {
     private double intervalThroughput;
     private double totalThroughput;
 
+    private long lastCpuTimeNanos;
+    private double intervalCpuCores;
+
     private boolean isUpdated;
 
-    PerformanceTracker(String testId, Collection<String> probeNames, long testStartedTimestamp) {
+    private long warmupMillis = -1;
+    private long steadyStateOperationCount;
+    private long steadyStateDurationMillis;
+
+    PerformanceTracker(String testId, long testStartedTimestamp) {
         this.throughputFile = new File("throughput-" + testId + ".txt");
+        this.intervalStoreFile = getDataFile(new File("."), testId);
+        this.intervalStoreWriter = new IntervalStoreWriter(intervalStoreFile, testStartedTimestamp);
         this.testStartedTimestamp = testStartedTimestamp;
         this.lastTimestamp = testStartedTimestamp;
 
         writeThroughputHeader(throughputFile, false);
-
-        for (String probeName : probeNames) {
-            histogramLogWriterMap.put(probeName, createHistogramLogWriter(testId, probeName, testStartedTimestamp));
-        }
     }
 
     long getIntervalOperationCount() {
@@ -83,6 +102,10 @@ final class PerformanceTracker {
         return intervalThroughput;
     }
 
+    double getIntervalCpuCores() {
+        return intervalCpuCores;
+    }
+
     boolean isUpdated() {
         return isUpdated;
     }
@@ -94,8 +117,9 @@ final class PerformanceTracker {
     }
 
     void update(Map<String, Histogram> intervalHistograms, long intervalPercentileLatency, double intervalAvgLatency,
-                long intervalMaxLatency, long intervalOperationCount, long currentTimestamp) {
+                long intervalMaxLatency, long intervalOperationCount, long cpuTimeNanos, long currentTimestamp) {
         this.intervalHistogramMap = intervalHistograms;
+        aggregateIntervalHistograms(intervalHistograms);
 
         this.intervalPercentileLatency = intervalPercentileLatency;
         this.intervalAvgLatency = intervalAvgLatency;
@@ -110,82 +134,199 @@ final class PerformanceTracker {
         this.intervalThroughput = (intervalOperationCount * ONE_SECOND_IN_MILLIS) / (double) intervalTimeDelta;
         this.totalThroughput = (totalOperationCount * ONE_SECOND_IN_MILLIS / (double) totalTimeDelta);
 
+        // the number of cores the threads of the test have been busy with in average during the interval
+        this.intervalCpuCores = (cpuTimeNanos - lastCpuTimeNanos) / (double) MILLISECONDS.toNanos(intervalTimeDelta);
+        this.lastCpuTimeNanos = cpuTimeNanos;
+
         this.lastTimestamp = currentTimestamp;
         this.isUpdated = true;
+
+        intervalSamples.add(new ThroughputSample(currentTimestamp, totalOperationCount, intervalOperationCount,
+                intervalThroughput));
+        intervalPercentileLatencies.add(intervalPercentileLatency);
     }
 
     void writeStatsToFile(String timestamp) {
-        writeThroughputStats(throughputFile, timestamp, totalOperationCount, intervalOperationCount, intervalThroughput, 0, 0);
+        writeTestThroughputStats(throughputFile, timestamp, totalOperationCount, intervalOperationCount, intervalThroughput,
+                intervalCpuCores);
+        intervalStoreWriter.writeThroughput(lastTimestamp, totalOperationCount, intervalOperationCount, intervalThroughput);
 
         for (Map.Entry<String, Histogram> histogramEntry : intervalHistogramMap.entrySet()) {
-            String probeName = histogramEntry.getKey();
-            HistogramLogWriter histogramLogWriter = histogramLogWriterMap.get(probeName);
-
-            Histogram intervalHistogram = histogramEntry.getValue();
-            histogramLogWriter.outputIntervalHistogram(intervalHistogram);
+            intervalStoreWriter.writeHistogram(histogramEntry.getKey(), histogramEntry.getValue());
         }
     }
 
+    /**
+     * Closes the interval store of the test, which persists all written interval histograms and throughput samples.
+     */
+    void closeIntervalStore() {
+        intervalStoreWriter.close();
+    }
+
     PerformanceState createPerformanceState() {
         return new PerformanceState(totalOperationCount, intervalThroughput, totalThroughput,
                 intervalAvgLatency, intervalPercentileLatency, intervalMaxLatency);
     }
 
-    Map<String, String> aggregateIntervalHistograms(String testId) {
-        Map<String, String> probeResults = new HashMap<String, String>();
-
-        HistogramLogWriter histogramLogWriter = createHistogramLogWriter(testId, "aggregated", 0);
+    /**
+     * Returns the compressed and encoded interval histograms of the last update, which contain recorded values.
+     *
+     * @return a {@link Map} with the encoded interval histogram per probe name
+     */
+    Map<String, String> getEncodedIntervalHistograms() {
+        Map<String, String> probeHistograms = new HashMap<String, String>();
+        if (intervalHistogramMap == null) {
+            return probeHistograms;
+        }
         for (Map.Entry<String, Histogram> histogramEntry : intervalHistogramMap.entrySet()) {
-            String probeName = histogramEntry.getKey();
-            HistogramLogReader histogramLogReader = createHistogramLogReader(testId, probeName);
-            Histogram combined = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
-
-            Histogram histogram = (Histogram) histogramLogReader.nextIntervalHistogram();
-            while (histogram != null) {
-                combined.add(histogram);
-                histogram = (Histogram) histogramLogReader.nextIntervalHistogram();
+            Histogram intervalHistogram = histogramEntry.getValue();
+            if (intervalHistogram.getTotalCount() > 0) {
+                probeHistograms.put(histogramEntry.getKey(), encodeHistogram(intervalHistogram));
             }
+        }
+        return probeHistograms;
+    }
+
+    /**
+     * Writes the in-memory aggregated histograms of all probes to the aggregated latency file of the test.
+     *
+     * @param testId the testId of the tracked test
+     */
+    void writeAggregatedHistograms(String testId) {
+        writeHistograms(testId, "aggregated", aggregatedHistogramMap);
+    }
+
+    /**
+     * Detects the steady state of the test and aggregates its operations and interval histograms, which excludes the warmup.
+     *
+     * The steady state starts at the latest interval, which is detected by {@link SteadyStateDetector} on the interval
+     * throughput and the interval latency percentile. The last interval with operations is excluded as well, since it contains
+     * the stop of the test. The interval histograms of the steady state are read from the closed interval store.
+     *
+     * Must only be called after {@link #closeIntervalStore()}.
+     *
+     * @return {@code true} if the test had enough intervals to detect a steady state, {@code false} otherwise
+     */
+    boolean detectSteadyState() {
+        int intervalCount = intervalSamples.size();
+        while (intervalCount > 0 && intervalSamples.get(intervalCount - 1).getIntervalOperationCount() == 0) {
+            intervalCount--;
+        }
+        intervalCount--;
+        if (intervalCount < MIN_INTERVALS) {
+            return false;
+        }
 
-            histogramLogWriter.outputComment("probeName=" + probeName);
-            histogramLogWriter.outputIntervalHistogram(combined);
+        double[] throughputs = new double[intervalCount];
+        double[] percentileLatencies = new double[intervalCount];
+        for (int i = 0; i < intervalCount; i++) {
+            throughputs[i] = intervalSamples.get(i).getIntervalThroughput();
+            percentileLatencies[i] = Math.max(0, intervalPercentileLatencies.get(i));
+        }
+        int start = Math.max(findSteadyStateStart(throughputs), findSteadyStateStart(percentileLatencies));
 
-            String encodedHistogram = getEncodedHistogram(combined);
-            probeResults.put(probeName, encodedHistogram);
+        long startTimestamp = (start == 0) ? testStartedTimestamp : intervalSamples.get(start - 1).getTimestamp();
+        long endTimestamp = intervalSamples.get(intervalCount - 1).getTimestamp();
+        long operationCount = 0;
+        for (int i = start; i < intervalCount; i++) {
+            operationCount += intervalSamples.get(i).getIntervalOperationCount();
         }
+        warmupMillis = startTimestamp - testStartedTimestamp;
+        steadyStateOperationCount = operationCount;
+        steadyStateDurationMillis = endTimestamp - startTimestamp;
+
+        aggregateSteadyStateHistograms(intervalSamples.get(start).getTimestamp(),
+                intervalSamples.get(intervalCount).getTimestamp());
+        return true;
+    }
 
-        return probeResults;
+    /**
+     * Writes the aggregated histograms of the steady state to the steady-state latency file of the test.
+     *
+     * @param testId the testId of the tracked test
+     */
+    void writeSteadyStateHistograms(String testId) {
+        writeHistograms(testId, "steadystate", steadyStateHistogramMap);
     }
 
-    static HistogramLogWriter createHistogramLogWriter(String testId, String probeName, long baseTime) {
+    /**
+     * Creates a {@link SteadyStateOperation} with the steady state of the test.
+     *
+     * @param testId the testId of the tracked test
+     * @return the {@link SteadyStateOperation} or {@code null} if no steady state has been detected
+     */
+    SteadyStateOperation createSteadyStateOperation(String testId) {
+        if (warmupMillis < 0) {
+            return null;
+        }
+        Map<String, String> probeHistograms = new HashMap<String, String>();
+        for (Map.Entry<String, Histogram> histogramEntry : steadyStateHistogramMap.entrySet()) {
+            probeHistograms.put(histogramEntry.getKey(), encodeHistogram(histogramEntry.getValue()));
+        }
+        return new SteadyStateOperation(testId, warmupMillis, steadyStateOperationCount, steadyStateDurationMillis,
+                probeHistograms);
+    }
+
+    private void aggregateSteadyStateHistograms(long firstIntervalTimestamp, long excludedIntervalTimestamp) {
+        // the interval histograms are taken after the timestamp of their interval and before the timestamp of the next one
+        IntervalStoreReader reader = new IntervalStoreReader(intervalStoreFile);
         try {
-            File latencyFile = getLatencyFile(testId, probeName);
-            HistogramLogWriter histogramLogWriter = new HistogramLogWriter(latencyFile);
-            histogramLogWriter.setBaseTime(baseTime);
+            for (String probeName : reader.getProbeNames()) {
+                int fromIndex = reader.getHistogramIndex(probeName, firstIntervalTimestamp);
+                int toIndex = reader.getHistogramIndex(probeName, excludedIntervalTimestamp);
+                Histogram steadyStateHistogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+                for (int i = fromIndex; i < toIndex; i++) {
+                    steadyStateHistogram.add(reader.getHistogram(probeName, i));
+                }
+                if (steadyStateHistogram.getTotalCount() > 0) {
+                    steadyStateHistogramMap.put(probeName, steadyStateHistogram);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private void aggregateIntervalHistograms(Map<String, Histogram> intervalHistograms) {
+        for (Map.Entry<String, Histogram> histogramEntry : intervalHistograms.entrySet()) {
+            String probeName = histogramEntry.getKey();
+            Histogram aggregatedHistogram = aggregatedHistogramMap.get(probeName);
+            if (aggregatedHistogram == null) {
+                aggregatedHistogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+                aggregatedHistogramMap.put(probeName, aggregatedHistogram);
+            }
+            aggregatedHistogram.add(histogramEntry.getValue());
+        }
+    }
+
+    private static void writeHistograms(String testId, String probeName, Map<String, Histogram> histograms) {
+        if (histograms.isEmpty()) {
+            return;
+        }
+        PrintStream printStream = createLatencyPrintStream(testId, probeName);
+        try {
+            HistogramLogWriter histogramLogWriter = new HistogramLogWriter(printStream);
+            histogramLogWriter.setBaseTime(0);
             histogramLogWriter.outputComment("[Latency histograms for " + testId + '.' + probeName + ']');
             histogramLogWriter.outputLogFormatVersion();
             histogramLogWriter.outputLegend();
-            return histogramLogWriter;
-        } catch (IOException e) {
-            throw new TestException("Could not initialize HistogramLogWriter for test " + testId, e);
+            for (Map.Entry<String, Histogram> histogramEntry : histograms.entrySet()) {
+                histogramLogWriter.outputComment("probeName=" + histogramEntry.getKey());
+                histogramLogWriter.outputIntervalHistogram(histogramEntry.getValue());
+            }
+        } finally {
+            closeQuietly(printStream);
         }
     }
 
-    static HistogramLogReader createHistogramLogReader(String testName, String probeName) {
+    static PrintStream createLatencyPrintStream(String testId, String probeName) {
         try {
-            File latencyFile = getLatencyFile(testName, probeName);
-            return new HistogramLogReader(latencyFile);
+            return new PrintStream(getLatencyFile(testId, probeName), "UTF-8");
         } catch (IOException e) {
-            throw new TestException("Could not initialize HistogramLogReader for test " + testName, e);
+            throw new TestException("Could not initialize HistogramLogWriter for test " + testId, e);
         }
     }
 
-    private static String getEncodedHistogram(Histogram combined) {
-        ByteBuffer targetBuffer = ByteBuffer.allocate(combined.getNeededByteBufferCapacity());
-        int compressedLength = combined.encodeIntoCompressedByteBuffer(targetBuffer, Deflater.BEST_COMPRESSION);
-        byte[] compressedArray = Arrays.copyOf(targetBuffer.array(), compressedLength);
-        return DatatypeConverter.printBase64Binary(compressedArray);
-    }
-
     private static File getLatencyFile(String testId, String probeName) {
         return new File("latency-" + testId + '-' + probeName + ".txt");
     }
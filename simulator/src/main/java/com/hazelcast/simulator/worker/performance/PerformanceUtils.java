@@ -41,6 +41,8 @@ final class PerformanceUtils {
         String columns = "Timestamp                      Ops (sum)        Ops (delta)                Ops/s";
         if (isGlobal) {
             columns += " Number of tests";
+        } else {
+            columns += "          CPU (cores)";
         }
         appendText(format("%s%n%s%n", columns, fillString(columns.length(), '-')), file);
     }
@@ -58,6 +60,13 @@ final class PerformanceUtils {
                 formatLong(numberOfTests, NUMBER_FORMAT_LENGTH - fieldLength), formatLong(totalTests, fieldLength)), file);
     }
 
+    static void writeTestThroughputStats(File file, String timestamp, long opsSum, long opsDelta, double opsPerSecDelta,
+                                         double cpuCores) {
+        appendText(format("[%s] %s ops %s ops %s ops/s %s cores%n", timestamp, formatLong(opsSum, NUMBER_FORMAT_LENGTH),
+                formatLong(opsDelta, NUMBER_FORMAT_LENGTH), formatDouble(opsPerSecDelta, NUMBER_FORMAT_LENGTH),
+                formatDouble(cpuCores, NUMBER_FORMAT_LENGTH)), file);
+    }
+
     static int getNumberOfDigits(long number) {
         if (number >= HUNDRED) {
             return THREE;
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.performance;
+
+/**
+ * Detects the end of the warmup phase in a series of interval values of a test, e.g. the interval throughput.
+ *
+ * Uses the Marginal Standard Error Rule (MSER): the series is split into batches of {@value #BATCH_SIZE} intervals and as
+ * many leading batches are truncated as minimize the standard error of the mean of the remaining batches. JIT compilation,
+ * partition migrations or GC settling at the beginning of a test increase this error, so they are cut off, while a series
+ * which is already stable is not truncated at all.
+ *
+ * Series with less than {@value #MIN_BATCHED_INTERVALS} intervals are analyzed without batching. The truncation is limited
+ * to the first half of the series, so a series without a steady state doesn't end up with a window of a few intervals.
+ */
+final class SteadyStateDetector {
+
+    static final int MIN_INTERVALS = 4;
+    static final int MIN_BATCHED_INTERVALS = 50;
+    static final int BATCH_SIZE = 5;
+
+    private SteadyStateDetector() {
+    }
+
+    /**
+     * Finds the first interval of the steady state in a series of interval values.
+     *
+     * @param values the interval values in chronological order
+     * @return the index of the first steady-state interval, {@code 0} if no warmup was detected
+     */
+    static int findSteadyStateStart(double[] values) {
+        if (values.length < MIN_INTERVALS) {
+            return 0;
+        }
+        int batchSize = (values.length < MIN_BATCHED_INTERVALS) ? 1 : BATCH_SIZE;
+        double[] batchMeans = getBatchMeans(values, batchSize);
+        int batchCount = batchMeans.length;
+
+        // the sums of the remaining batches are accumulated backwards, so each truncation point is evaluated in constant time
+        double sum = 0;
+        double sumOfSquares = 0;
+        double minStatistic = Double.MAX_VALUE;
+        int truncatedBatches = 0;
+        for (int batch = batchCount - 1; batch >= 0; batch--) {
+            sum += batchMeans[batch];
+            sumOfSquares += batchMeans[batch] * batchMeans[batch];
+            if (batch > batchCount / 2) {
+                continue;
+            }
+            int remaining = batchCount - batch;
+            double sumOfSquaredDeviations = Math.max(0, sumOfSquares - sum * sum / remaining);
+            double statistic = sumOfSquaredDeviations / ((double) remaining * remaining);
+            if (statistic <= minStatistic) {
+                minStatistic = statistic;
+                truncatedBatches = batch;
+            }
+        }
+        return truncatedBatches * batchSize;
+    }
+
+    private static double[] getBatchMeans(double[] values, int batchSize) {
+        // a trailing incomplete batch is ignored
+        double[] batchMeans = new double[values.length / batchSize];
+        for (int batch = 0; batch < batchMeans.length; batch++) {
+            double sum = 0;
+            for (int i = batch * batchSize; i < (batch + 1) * batchSize; i++) {
+                sum += values[i];
+            }
+            batchMeans[batch] = sum / batchSize;
+        }
+        return batchMeans;
+    }
+}
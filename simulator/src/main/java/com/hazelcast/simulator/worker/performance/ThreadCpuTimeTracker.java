@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.performance;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accounts the CPU time, which is consumed by the threads of a single test.
+ *
+ * Only the tracked threads are accounted, e.g. the worker threads of a test. CPU time which is consumed on behalf of the test
+ * by shared threads, e.g. the internal threads of the HazelcastInstance, is not included.
+ */
+public class ThreadCpuTimeTracker {
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final boolean isSupported = threadMXBean.isThreadCpuTimeSupported() && threadMXBean.isThreadCpuTimeEnabled();
+
+    private final ConcurrentMap<Long, Long> runningThreads = new ConcurrentHashMap<Long, Long>();
+    private final AtomicLong finishedThreadsCpuTimeNanos = new AtomicLong();
+
+    /**
+     * Wraps a {@link Runnable}, so the CPU time of the thread which executes it is tracked.
+     *
+     * @param runnable the {@link Runnable} to track
+     * @return the tracking {@link Runnable}
+     */
+    public Runnable track(final Runnable runnable) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                threadStarted();
+                try {
+                    runnable.run();
+                } finally {
+                    threadFinished();
+                }
+            }
+        };
+    }
+
+    /**
+     * Starts tracking the CPU time of the calling thread.
+     */
+    public void threadStarted() {
+        if (isSupported) {
+            runningThreads.put(Thread.currentThread().getId(), threadMXBean.getCurrentThreadCpuTime());
+        }
+    }
+
+    /**
+     * Stops tracking the CPU time of the calling thread and adds its consumed CPU time to the total.
+     */
+    public void threadFinished() {
+        if (!isSupported) {
+            return;
+        }
+        Long startCpuTimeNanos = runningThreads.remove(Thread.currentThread().getId());
+        if (startCpuTimeNanos != null) {
+            finishedThreadsCpuTimeNanos.addAndGet(threadMXBean.getCurrentThreadCpuTime() - startCpuTimeNanos);
+        }
+    }
+
+    /**
+     * Returns the consumed CPU time of all tracked threads.
+     *
+     * @return the CPU time in nanoseconds or {@code 0} if the JVM doesn't support CPU time measurement of threads
+     */
+    public long getCpuTimeNanos() {
+        long cpuTimeNanos = finishedThreadsCpuTimeNanos.get();
+        for (Map.Entry<Long, Long> entry : runningThreads.entrySet()) {
+            long threadCpuTimeNanos = threadMXBean.getThreadCpuTime(entry.getKey());
+            if (threadCpuTimeNanos > 0) {
+                cpuTimeNanos += threadCpuTimeNanos - entry.getValue();
+            }
+        }
+        return cpuTimeNanos;
+    }
+}
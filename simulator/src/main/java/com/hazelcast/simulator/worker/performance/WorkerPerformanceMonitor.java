@@ -30,7 +30,6 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -66,11 +65,11 @@ public class WorkerPerformanceMonitor {
     }
 
     public void shutdown() {
-        thread.sendTestHistograms();
-
         thread.isRunning = false;
         thread.interrupt();
         joinThread(thread);
+
+        thread.flushTestHistograms();
     }
 
     private static final class MonitorThread extends Thread {
@@ -84,6 +83,7 @@ public class WorkerPerformanceMonitor {
         private final Map<String, PerformanceTracker> trackerMap = new HashMap<String, PerformanceTracker>();
 
         private final ServerConnector serverConnector;
+        private final SimulatorAddress agentAddress;
         private final Collection<TestContainer> testContainers;
         private final long intervalNanos;
 
@@ -95,6 +95,7 @@ public class WorkerPerformanceMonitor {
             setDaemon(true);
 
             this.serverConnector = serverConnector;
+            this.agentAddress = serverConnector.getAddress().getParent();
             this.testContainers = testContainers;
             this.intervalNanos = TimeUnit.SECONDS.toNanos(workerPerformanceMonitorIntervalSeconds);
 
@@ -107,8 +108,9 @@ public class WorkerPerformanceMonitor {
                 long startedNanos = System.nanoTime();
                 long currentTimestamp = System.currentTimeMillis();
 
-                boolean runningTestContainerFound = updatePerformanceStates(currentTimestamp);
+                boolean runningTestContainerFound = updatePerformanceStates(currentTimestamp, false);
                 sendPerformanceStates();
+                sendTestHistograms(false);
                 writeStatsToFiles(currentTimestamp);
 
                 long elapsedNanos = System.nanoTime() - startedNanos;
@@ -124,70 +126,117 @@ public class WorkerPerformanceMonitor {
             }
         }
 
-        private void sendTestHistograms() {
+        /**
+         * Collects and sends the remaining interval histograms of all tracked tests, writes their aggregated histograms and
+         * closes their interval stores. Afterwards the steady state of each test is detected and sent to the Coordinator.
+         *
+         * Must only be called after the {@link MonitorThread} has been stopped.
+         */
+        private void flushTestHistograms() {
+            long currentTimestamp = System.currentTimeMillis();
+            updatePerformanceStates(currentTimestamp, true);
+            sendTestHistograms(true);
+            writeStatsToFiles(currentTimestamp);
+
             for (Map.Entry<String, PerformanceTracker> trackerEntry : trackerMap.entrySet()) {
-                String testId = trackerEntry.getKey();
                 PerformanceTracker tracker = trackerEntry.getValue();
+                tracker.writeAggregatedHistograms(trackerEntry.getKey());
+                tracker.closeIntervalStore();
+
+                sendSteadyState(trackerEntry.getKey(), tracker);
+            }
+        }
+
+        private void sendSteadyState(String testId, PerformanceTracker tracker) {
+            try {
+                if (!tracker.detectSteadyState()) {
+                    LOGGER.info("Not enough performance intervals to detect the steady state of test " + testId);
+                    return;
+                }
+                tracker.writeSteadyStateHistograms(testId);
+                serverConnector.write(SimulatorAddress.COORDINATOR, tracker.createSteadyStateOperation(testId));
+            } catch (Exception e) {
+                LOGGER.warn("Could not detect the steady state of test " + testId, e);
+            }
+        }
+
+        private void sendTestHistograms(boolean waitForResponse) {
+            for (Map.Entry<String, PerformanceTracker> trackerEntry : trackerMap.entrySet()) {
+                PerformanceTracker tracker = trackerEntry.getValue();
+                if (!tracker.isUpdated()) {
+                    continue;
+                }
+
+                Map<String, String> histograms = tracker.getEncodedIntervalHistograms();
+                if (histograms.isEmpty()) {
+                    continue;
+                }
 
-                Map<String, String> histograms = tracker.aggregateIntervalHistograms(testId);
-                if (!histograms.isEmpty()) {
-                    TestHistogramOperation operation = new TestHistogramOperation(testId, histograms);
+                TestHistogramOperation operation = new TestHistogramOperation(trackerEntry.getKey(), histograms);
+                if (waitForResponse) {
+                    // the final histograms are sent directly, so they don't wait for the next aggregation of the Agent
                     serverConnector.write(SimulatorAddress.COORDINATOR, operation);
+                } else {
+                    // the interval histograms are aggregated by the Agent of all its Workers
+                    serverConnector.submit(agentAddress, operation);
                 }
             }
         }
 
-        private boolean updatePerformanceStates(long currentTimestamp) {
+        private boolean updatePerformanceStates(long currentTimestamp, boolean includeStoppedTests) {
             boolean runningTestContainerFound = false;
             for (TestContainer testContainer : testContainers) {
-                if (!testContainer.isRunning()) {
+                String testId = testContainer.getTestContext().getTestId();
+                if (testContainer.isRunning()) {
+                    runningTestContainerFound = true;
+                } else if (!includeStoppedTests || !trackerMap.containsKey(testId)) {
                     continue;
                 }
-                runningTestContainerFound = true;
+                updatePerformanceState(testContainer, testId, currentTimestamp);
+            }
+            return runningTestContainerFound;
+        }
 
-                Map<String, Probe> probeMap = testContainer.getProbeMap();
-                Map<String, Histogram> intervalHistograms = new HashMap<String, Histogram>(probeMap.size());
+        private void updatePerformanceState(TestContainer testContainer, String testId, long currentTimestamp) {
+            Map<String, Probe> probeMap = testContainer.getProbeMap();
+            Map<String, Histogram> intervalHistograms = new HashMap<String, Histogram>(probeMap.size());
 
-                long intervalPercentileLatency = Long.MIN_VALUE;
-                double intervalAvgLatency = Long.MIN_VALUE;
-                long intervalMaxLatency = Long.MIN_VALUE;
-                long intervalOperationalCount = 0;
+            long intervalPercentileLatency = Long.MIN_VALUE;
+            double intervalAvgLatency = Long.MIN_VALUE;
+            long intervalMaxLatency = Long.MIN_VALUE;
+            long intervalOperationalCount = 0;
 
-                for (Map.Entry<String, Probe> entry : probeMap.entrySet()) {
-                    Probe probe = entry.getValue();
-                    Histogram intervalHistogram = probe.getIntervalHistogram();
-                    intervalHistograms.put(entry.getKey(), intervalHistogram);
+            for (Map.Entry<String, Probe> entry : probeMap.entrySet()) {
+                Probe probe = entry.getValue();
+                Histogram intervalHistogram = probe.getIntervalHistogram();
+                intervalHistograms.put(entry.getKey(), intervalHistogram);
 
-                    long percentileValue = intervalHistogram.getValueAtPercentile(INTERVAL_LATENCY_PERCENTILE);
-                    if (percentileValue > intervalPercentileLatency) {
-                        intervalPercentileLatency = percentileValue;
-                    }
-                    double avgValue = intervalHistogram.getMean();
-                    if (avgValue > intervalAvgLatency) {
-                        intervalAvgLatency = avgValue;
-                    }
-                    long maxValue = intervalHistogram.getMaxValue();
-                    if (maxValue > intervalMaxLatency) {
-                        intervalMaxLatency = maxValue;
-                    }
-                    if (probe.isThroughputProbe()) {
-                        intervalOperationalCount += intervalHistogram.getTotalCount();
-                    }
+                long percentileValue = intervalHistogram.getValueAtPercentile(INTERVAL_LATENCY_PERCENTILE);
+                if (percentileValue > intervalPercentileLatency) {
+                    intervalPercentileLatency = percentileValue;
+                }
+                double avgValue = intervalHistogram.getMean();
+                if (avgValue > intervalAvgLatency) {
+                    intervalAvgLatency = avgValue;
+                }
+                long maxValue = intervalHistogram.getMaxValue();
+                if (maxValue > intervalMaxLatency) {
+                    intervalMaxLatency = maxValue;
+                }
+                if (probe.isThroughputProbe()) {
+                    intervalOperationalCount += intervalHistogram.getTotalCount();
                 }
-
-                String testId = testContainer.getTestContext().getTestId();
-                PerformanceTracker tracker = getOrCreatePerformanceTracker(testId, testContainer);
-                tracker.update(intervalHistograms, intervalPercentileLatency, intervalAvgLatency, intervalMaxLatency,
-                        intervalOperationalCount, currentTimestamp);
             }
-            return runningTestContainerFound;
+
+            PerformanceTracker tracker = getOrCreatePerformanceTracker(testId, testContainer);
+            tracker.update(intervalHistograms, intervalPercentileLatency, intervalAvgLatency, intervalMaxLatency,
+                    intervalOperationalCount, testContainer.getCpuTimeNanos(), currentTimestamp);
         }
 
         private PerformanceTracker getOrCreatePerformanceTracker(String testId, TestContainer testContainer) {
             PerformanceTracker tracker = trackerMap.get(testId);
             if (tracker == null) {
-                Set<String> probeNames = testContainer.getProbeMap().keySet();
-                tracker = new PerformanceTracker(testId, probeNames, testContainer.getTestStartedTimestamp());
+                tracker = new PerformanceTracker(testId, testContainer.getTestStartedTimestamp());
                 trackerMap.put(testId, tracker);
             }
             return tracker;
@@ -203,7 +252,7 @@ public class WorkerPerformanceMonitor {
                 }
             }
             if (operation.getPerformanceStates().size() > 0) {
-                serverConnector.submit(SimulatorAddress.COORDINATOR, operation);
+                serverConnector.submit(agentAddress, operation);
             }
         }
 
@@ -20,20 +20,32 @@ import java.util.Random;
 /**
  * Facility to select different operations based on probabilities. Each operations is represented as an enum item.
  *
- * Calling {@link #select()} method will select an operation according to the configured probabilities.
+ * Calling {@link #select()} method will select an operation according to the configured probabilities. The selection uses the
+ * alias method by Vose, so it runs in constant time and without any allocation, regardless of the number of operations or the
+ * precision of their probabilities.
  *
  * This class does not give any thread-safety guarantees. It is strongly recommended to construct a new instance for each thread,
- * at least to prevent contention on the random generator. Just use a single builder and call the
+ * since each instance has its own random generator. Just use a single builder and call the
  * {@link OperationSelectorBuilder#build()} method in each thread constructor.
  *
  * @param <T> enum of operations
  */
 public class OperationSelector<T extends Enum<T>> {
-    private final Random random = new Random();
+
+    private static final double DOUBLE_UNIT = 1.0 / (1L << 53);
+    private static final Random SEED_GENERATOR = new Random();
+
     private final Object[] operations;
+    private final double[] probabilities;
+    private final int[] aliases;
+
+    private long seed;
 
-    OperationSelector(Object[] operations) {
+    OperationSelector(Object[] operations, double[] probabilities, int[] aliases) {
         this.operations = operations;
+        this.probabilities = probabilities;
+        this.aliases = aliases;
+        this.seed = createSeed();
     }
 
     /**
@@ -43,7 +55,34 @@ public class OperationSelector<T extends Enum<T>> {
      */
     @SuppressWarnings("unchecked")
     public T select() {
-        int chance = random.nextInt(operations.length);
-        return (T) operations[chance];
+        // a single random value is used to select the column and to toss the biased coin
+        double value = nextDouble() * operations.length;
+        int column = (int) value;
+        if (value - column < probabilities[column]) {
+            return (T) operations[column];
+        }
+        return (T) operations[aliases[column]];
+    }
+
+    /**
+     * Returns a pseudo random double value between 0.0 (inclusive) and 1.0 (exclusive).
+     *
+     * Uses a xorshift generator, which is faster than {@link Random} since there is no need for thread-safety.
+     *
+     * @return the next pseudo random double value
+     */
+    private double nextDouble() {
+        seed ^= seed << 21;
+        seed ^= seed >>> 35;
+        seed ^= seed << 4;
+        return (seed >>> 11) * DOUBLE_UNIT;
+    }
+
+    private static long createSeed() {
+        long seed;
+        do {
+            seed = SEED_GENERATOR.nextLong();
+        } while (seed == 0);
+        return seed;
     }
 }
@@ -15,7 +15,7 @@
  */
 package com.hazelcast.simulator.worker.selector;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import static com.hazelcast.simulator.utils.FormatUtils.NEW_LINE;
@@ -25,8 +25,9 @@ import static java.lang.String.format;
  * Builder class to create an {@link OperationSelector} instance. Each operation is represented as an enum item and is registered
  * with its probability (0.0 to 1.0) via the {@link #addOperation(Enum, double)} method.
  *
- * The total sum of probabilities has to be exactly 1.0. You can use {@link #addDefaultOperation(Enum)} to add a default operation
- * which automatically consumes the remaining probability. The probability precision is {@value #PROBABILITY_PRECISION}.
+ * The total sum of probabilities has to be exactly 1.0 (with a tolerance of {@value #PROBABILITY_TOLERANCE} for rounding errors).
+ * You can use {@link #addDefaultOperation(Enum)} to add a default operation which automatically consumes the remaining
+ * probability. There is no limit on the precision of the probabilities.
  *
  * This builder class is not thread-safe. The created {@link OperationSelector} does not give any thread-safety guarantees. It is
  * strongly recommended to construct a new instance for each thread, at least to prevent contention on the random generator. Just
@@ -36,14 +37,14 @@ import static java.lang.String.format;
  */
 public class OperationSelectorBuilder<T extends Enum<T>> {
 
-    static final int PROBABILITY_PRECISION = 3;
-    static final double PROBABILITY_LENGTH = Math.pow(10, PROBABILITY_PRECISION);
-    static final double PROBABILITY_INTERVAL = 1.0 / PROBABILITY_LENGTH;
+    static final double PROBABILITY_TOLERANCE = 1.0E-9;
 
-    private final Map<T, Double> operations = new HashMap<T, Double>();
+    private final Map<T, Double> operations = new LinkedHashMap<T, Double>();
 
     private double probSum;
     private Object[] operationsArray;
+    private double[] probabilities;
+    private int[] aliases;
 
     /**
      * Register a new operation for selection.
@@ -64,7 +65,7 @@ public class OperationSelectorBuilder<T extends Enum<T>> {
             throw new IllegalStateException("Operation " + operation + " has been already added to this selector");
         }
         probSum += probability;
-        if (probSum - 1.0 > PROBABILITY_INTERVAL) {
+        if (probSum - 1.0 > PROBABILITY_TOLERANCE) {
             probabilityMismatch();
         }
         return this;
@@ -80,7 +81,8 @@ public class OperationSelectorBuilder<T extends Enum<T>> {
      * @return this instance to allow method-chaining
      */
     public OperationSelectorBuilder<T> addDefaultOperation(T operation) {
-        addOperation(operation, 1.0 - probSum);
+        // the sum of probabilities can slightly exceed 1.0 due to rounding errors
+        addOperation(operation, Math.max(0.0, 1.0 - probSum));
         return this;
     }
 
@@ -90,24 +92,19 @@ public class OperationSelectorBuilder<T extends Enum<T>> {
      * @return instance of OperationSelector
      */
     public OperationSelector<T> build() {
-        if (Math.abs(probSum - 1.0) > PROBABILITY_INTERVAL) {
+        if (Math.abs(probSum - 1.0) > PROBABILITY_TOLERANCE) {
             probabilityMismatch();
         }
         if (operationsArray == null) {
-            populateOperationsArray();
+            populateAliasTable();
         }
-        return new OperationSelector<T>(operationsArray);
+        return new OperationSelector<T>(operationsArray, probabilities, aliases);
     }
 
     private void checkProbabilityArgument(double probability) {
-        if (probability < 0.0) {
+        if (probability < 0.0 || probability > 1.0) {
             throw new IllegalArgumentException("Probability has to be between 0.0 and 1.0, but was " + probability);
         }
-        double probabilityDecimalPlaces = probability - Math.floor(probability);
-        if (probabilityDecimalPlaces > 0.0 && probabilityDecimalPlaces < PROBABILITY_INTERVAL) {
-            throw new IllegalArgumentException(format("Maximum probability precision is %f, but was %f",
-                    PROBABILITY_INTERVAL, probability));
-        }
     }
 
     private void probabilityMismatch() {
@@ -118,18 +115,64 @@ public class OperationSelectorBuilder<T extends Enum<T>> {
         throw new IllegalStateException(sb.toString());
     }
 
-    private void populateOperationsArray() {
-        int arraySize = (int) PROBABILITY_LENGTH;
-        operationsArray = new Object[arraySize];
+    /**
+     * Creates the probability and alias tables for Vose's alias method.
+     *
+     * Each column of the table contains the probability of its own operation and the index of an alias operation, which is
+     * selected with the remaining probability of the column.
+     */
+    private void populateAliasTable() {
+        int size = operations.size();
+        operationsArray = new Object[size];
+        probabilities = new double[size];
+        aliases = new int[size];
+
+        // scale the probabilities, so the average probability of a column is 1.0
+        double[] scaledProbabilities = new double[size];
+        int[] small = new int[size];
+        int[] large = new int[size];
+        int smallSize = 0;
+        int largeSize = 0;
+
         int index = 0;
         for (Map.Entry<T, Double> entry : operations.entrySet()) {
-            T operation = entry.getKey();
-            for (int i = 0; i < Math.round(entry.getValue() * arraySize); i++) {
-                if (index < arraySize) {
-                    operationsArray[index] = operation;
-                    index++;
-                }
+            operationsArray[index] = entry.getKey();
+            scaledProbabilities[index] = entry.getValue() * size / probSum;
+            if (scaledProbabilities[index] < 1.0) {
+                small[smallSize++] = index;
+            } else {
+                large[largeSize++] = index;
+            }
+            index++;
+        }
+
+        // fill each column with a small probability and use a large one as alias
+        while (smallSize > 0 && largeSize > 0) {
+            int less = small[--smallSize];
+            int more = large[--largeSize];
+
+            probabilities[less] = scaledProbabilities[less];
+            aliases[less] = more;
+
+            scaledProbabilities[more] = (scaledProbabilities[more] + scaledProbabilities[less]) - 1.0;
+            if (scaledProbabilities[more] < 1.0) {
+                small[smallSize++] = more;
+            } else {
+                large[largeSize++] = more;
             }
         }
+
+        // the remaining columns are completely filled (leftovers in small are caused by rounding errors)
+        while (largeSize > 0) {
+            fillColumn(large[--largeSize]);
+        }
+        while (smallSize > 0) {
+            fillColumn(small[--smallSize]);
+        }
+    }
+
+    private void fillColumn(int index) {
+        probabilities[index] = 1.0;
+        aliases[index] = index;
     }
 }
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.tasks;
+
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.core.ICompletableFuture;
+import com.hazelcast.simulator.utils.ExceptionReporter;
+import com.hazelcast.simulator.worker.selector.OperationSelectorBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous version of {@link AbstractWorker} with a bounded number of in-flight operations.
+ *
+ * The operation which is returned by {@link #timeStepAsync(Enum)} is tracked by the worker. If the maximum number of in-flight
+ * operations is reached, the worker waits until an operation has been completed. The maximum can be configured with the
+ * <tt>maxInFlight</tt> property of the test.
+ *
+ * The latency of each operation is measured from its invocation until its completion and recorded in the worker probe. The
+ * callbacks are pooled, so there are no allocations per operation by the worker itself.
+ *
+ * The operation counter is automatically increased after the completion of an operation.
+ * The throwable is automatically reported after the failure of an operation.
+ *
+ * @param <O> Type of Enum used by the {@link com.hazelcast.simulator.worker.selector.OperationSelector}
+ * @param <V> Type of the result of the asynchronous operations
+ */
+public abstract class AbstractBoundedAsyncWorker<O extends Enum<O>, V> extends AbstractWorker<O> {
+
+    static final int DEFAULT_MAX_IN_FLIGHT = 1000;
+
+    private static final long DEFAULT_TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(2);
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    // this field will be injected by test.properties of the test
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+
+    private final AtomicReference<AsyncCallback> freeCallbacks = new AtomicReference<AsyncCallback>();
+    // the operations are completed concurrently by the callback threads, so the plain iteration field cannot be used
+    private final AtomicLong completedIterations = new AtomicLong();
+
+    private volatile Thread waitingThread;
+
+    public AbstractBoundedAsyncWorker(OperationSelectorBuilder<O> operationSelectorBuilder) {
+        super(operationSelectorBuilder);
+    }
+
+    @Override
+    public final void doRun() throws Exception {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight has to be a positive number, but was " + maxInFlight);
+        }
+        for (int i = 0; i < maxInFlight; i++) {
+            pushCallback(new AsyncCallback());
+        }
+
+        beforeRun();
+
+        while (!testContext.isStopped() && !isWorkerStopped) {
+            AsyncCallback callback = acquireCallback();
+            callback.intendedStart = (workerMetronome == null) ? 0 : workerMetronome.waitForNext();
+            callback.started = System.nanoTime();
+
+            ICompletableFuture<V> future = timeStepAsync(selector.select());
+            if (future == null) {
+                pushCallback(callback);
+            } else {
+                future.andThen(callback);
+            }
+        }
+
+        waitForInFlightOperations();
+
+        afterRun();
+    }
+
+    /**
+     * Fake implementation of abstract method, should not be used.
+     *
+     * @param operation ignored
+     */
+    @Override
+    protected final void timeStep(O operation) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * This method is called for each iteration of {@link #run()}.
+     *
+     * Won't be called if an error occurs in {@link #beforeRun()}.
+     *
+     * @param operation The selected operation for this iteration
+     * @return the {@link ICompletableFuture} of the asynchronous operation or <tt>null</tt> if no operation was invoked
+     */
+    protected abstract ICompletableFuture<V> timeStepAsync(O operation) throws Exception;
+
+    /**
+     * Override this method if you need to execute code after the successful completion of an operation.
+     *
+     * This method is called by the thread which completes the operation.
+     *
+     * @param response the result of the successful execution
+     */
+    protected void handleResponse(V response) {
+    }
+
+    /**
+     * Override this method if you need to execute code after the throwable of an operation has been reported.
+     *
+     * This method is called by the thread which completes the operation.
+     *
+     * @param t the exception that is thrown
+     */
+    protected void handleFailure(Throwable t) {
+    }
+
+    /**
+     * Returns the number of completed operations of the worker.
+     *
+     * @return iteration count
+     */
+    @Override
+    protected long getIteration() {
+        return completedIterations.get();
+    }
+
+    private void increaseCompletedIterations() {
+        long completed = completedIterations.incrementAndGet();
+        if (logFrequency > 0 && completed % logFrequency == 0) {
+            LOGGER.info(Thread.currentThread().getName() + " At iteration: " + completed);
+        }
+    }
+
+    private void waitForInFlightOperations() {
+        for (int i = 0; i < maxInFlight; i++) {
+            acquireCallback();
+        }
+    }
+
+    private AsyncCallback acquireCallback() {
+        AsyncCallback callback = popCallback();
+        if (callback != null) {
+            return callback;
+        }
+
+        long deadline = System.nanoTime() + DEFAULT_TIMEOUT_NANOS;
+        waitingThread = Thread.currentThread();
+        try {
+            do {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Timeout while waiting for the completion of an in-flight operation!");
+                }
+                LockSupport.parkNanos(this, MAX_PARK_NANOS);
+                callback = popCallback();
+            } while (callback == null);
+        } finally {
+            waitingThread = null;
+        }
+        return callback;
+    }
+
+    private AsyncCallback popCallback() {
+        // this is just called by the worker thread, so there is no ABA problem
+        for (; ; ) {
+            AsyncCallback head = freeCallbacks.get();
+            if (head == null) {
+                return null;
+            }
+            if (freeCallbacks.compareAndSet(head, head.next)) {
+                head.next = null;
+                return head;
+            }
+        }
+    }
+
+    private void pushCallback(AsyncCallback callback) {
+        for (; ; ) {
+            AsyncCallback head = freeCallbacks.get();
+            callback.next = head;
+            if (freeCallbacks.compareAndSet(head, callback)) {
+                break;
+            }
+        }
+
+        Thread thread = waitingThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private final class AsyncCallback implements ExecutionCallback<V> {
+
+        private AsyncCallback next;
+
+        private long intendedStart;
+        private long started;
+
+        @Override
+        public void onResponse(V response) {
+            try {
+                recordLatency();
+                increaseCompletedIterations();
+            } finally {
+                handleResponse(response);
+            }
+        }
+
+        @Override
+        public void onFailure(Throwable t) {
+            try {
+                recordLatency();
+                ExceptionReporter.report(testContext.getTestId(), t);
+            } finally {
+                handleFailure(t);
+            }
+        }
+
+        private void recordLatency() {
+            long done = System.nanoTime();
+            workerProbe.recordValue(done - started);
+            if (workerResponseTimeProbe != null) {
+                workerResponseTimeProbe.recordValue(done - intendedStart);
+            }
+
+            // the callback can be reused after its timestamps have been recorded
+            pushCallback(this);
+        }
+    }
+}
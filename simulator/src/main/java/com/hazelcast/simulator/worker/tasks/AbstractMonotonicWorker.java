@@ -27,6 +27,16 @@ public abstract class AbstractMonotonicWorker extends AbstractWorker {
     public final void doRun() throws Exception {
         beforeRun();
 
+        if (workerMetronome == null) {
+            runWithoutMetronome();
+        } else {
+            runWithMetronome();
+        }
+
+        afterRun();
+    }
+
+    private void runWithoutMetronome() throws Exception {
         while (!testContext.isStopped() && !isWorkerStopped) {
             long started = System.nanoTime();
             timeStep();
@@ -34,8 +44,17 @@ public abstract class AbstractMonotonicWorker extends AbstractWorker {
 
             increaseIteration();
         }
+    }
 
-        afterRun();
+    private void runWithMetronome() throws Exception {
+        while (!testContext.isStopped() && !isWorkerStopped) {
+            long intendedStart = workerMetronome.waitForNext();
+            long started = System.nanoTime();
+            timeStep();
+            recordServiceAndResponseTime(intendedStart, started);
+
+            increaseIteration();
+        }
     }
 
     /**
@@ -19,8 +19,11 @@ import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
 import com.hazelcast.simulator.probes.Probe;
 import com.hazelcast.simulator.test.TestContext;
+import com.hazelcast.simulator.test.annotations.InjectMetronome;
 import com.hazelcast.simulator.test.annotations.InjectProbe;
+import com.hazelcast.simulator.test.annotations.InjectResponseTimeProbe;
 import com.hazelcast.simulator.test.annotations.InjectTestContainer;
+import com.hazelcast.simulator.worker.metronome.Metronome;
 import com.hazelcast.simulator.worker.selector.OperationSelector;
 import com.hazelcast.simulator.worker.selector.OperationSelectorBuilder;
 
@@ -35,6 +38,10 @@ import static com.hazelcast.simulator.utils.CommonUtils.rethrow;
  * Implicitly logs and measures performance. The related properties can be overwritten with the properties of the test.
  * The Operation counter is automatically increased after each {@link #timeStep(Enum)} call.
  *
+ * If the test defines a <tt>targetThroughput</tt> property, the worker runs with a fixed rate. In this mode the worker probe
+ * measures the service time of an operation and the response time probe measures the latency from the intended start time of
+ * the operation. This avoids the coordinated omission problem, since a stalled operation delays all following operations.
+ *
  * @param <O> Type of Enum used by the {@link com.hazelcast.simulator.worker.selector.OperationSelector}
  */
 @SuppressWarnings("unused")
@@ -54,6 +61,10 @@ public abstract class AbstractWorker<O extends Enum<O>> implements IWorker {
     TestContext testContext;
     @InjectProbe(useForThroughput = true)
     Probe workerProbe;
+    @InjectMetronome
+    Metronome workerMetronome;
+    @InjectResponseTimeProbe
+    Probe workerResponseTimeProbe;
 
     // local variables
     long iteration;
@@ -82,6 +93,16 @@ public abstract class AbstractWorker<O extends Enum<O>> implements IWorker {
     protected void doRun() throws Exception {
         beforeRun();
 
+        if (workerMetronome == null) {
+            runWithoutMetronome();
+        } else {
+            runWithMetronome();
+        }
+
+        afterRun();
+    }
+
+    private void runWithoutMetronome() throws Exception {
         while (!testContext.isStopped() && !isWorkerStopped) {
             long started = System.nanoTime();
             timeStep(selector.select());
@@ -89,8 +110,25 @@ public abstract class AbstractWorker<O extends Enum<O>> implements IWorker {
 
             increaseIteration();
         }
+    }
 
-        afterRun();
+    private void runWithMetronome() throws Exception {
+        while (!testContext.isStopped() && !isWorkerStopped) {
+            long intendedStart = workerMetronome.waitForNext();
+            long started = System.nanoTime();
+            timeStep(selector.select());
+            recordServiceAndResponseTime(intendedStart, started);
+
+            increaseIteration();
+        }
+    }
+
+    void recordServiceAndResponseTime(long intendedStart, long started) {
+        long done = System.nanoTime();
+        workerProbe.recordValue(done - started);
+        if (workerResponseTimeProbe != null) {
+            workerResponseTimeProbe.recordValue(done - intendedStart);
+        }
     }
 
     /**
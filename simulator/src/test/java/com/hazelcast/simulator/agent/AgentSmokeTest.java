@@ -93,7 +93,7 @@ public class AgentSmokeTest implements FailureListener {
                 testHistogramContainer, failureContainer);
         coordinatorConnector.addAgent(1, AGENT_IP_ADDRESS, AGENT_PORT);
 
-        remoteClient = new RemoteClient(coordinatorConnector, componentRegistry, 10, 0);
+        remoteClient = new RemoteClient(coordinatorConnector, componentRegistry, 0);
     }
 
     @AfterClass
@@ -217,7 +217,7 @@ public class AgentSmokeTest implements FailureListener {
                 false
         );
         ClusterLayout clusterLayout = createSingleInstanceClusterLayout(AGENT_IP_ADDRESS, workerParameters);
-        remoteClient.createWorkers(clusterLayout, false);
+        remoteClient.createWorkers(clusterLayout);
     }
 
     private static void runPhase(TestPhaseListenerImpl listener, TestCase testCase, TestPhase testPhase) throws Exception {
@@ -0,0 +1,203 @@
+package com.hazelcast.simulator.agent.workerjvm;
+
+import com.hazelcast.simulator.protocol.connector.ServerConnector;
+import com.hazelcast.simulator.protocol.core.Response;
+import com.hazelcast.simulator.protocol.core.SimulatorAddress;
+import com.hazelcast.simulator.protocol.operation.ArtifactChunkOperation;
+import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.List;
+
+import static com.hazelcast.simulator.probes.store.IntervalStore.getDataFile;
+import static com.hazelcast.simulator.probes.store.IntervalStore.getIndexFile;
+import static com.hazelcast.simulator.protocol.core.ResponseType.FAILURE_COORDINATOR_NOT_FOUND;
+import static com.hazelcast.simulator.protocol.core.ResponseType.SUCCESS;
+import static com.hazelcast.simulator.protocol.core.SimulatorAddress.COORDINATOR;
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
+import static com.hazelcast.simulator.utils.FileUtils.appendText;
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.FileUtils.ensureExistingDirectory;
+import static com.hazelcast.simulator.utils.FileUtils.writeText;
+import static com.hazelcast.simulator.utils.ZipUtils.inflate;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WorkerArtifactStreamerTest {
+
+    private static final String TEST_SUITE_ID = "WorkerArtifactStreamerTest";
+
+    private final File workersHome = new File("WorkerArtifactStreamerTest-workers");
+    private final File workerDir = new File(workersHome, TEST_SUITE_ID + "/worker1");
+
+    private Response response;
+    private ServerConnector serverConnector;
+    private WorkerArtifactStreamer streamer;
+
+    @Before
+    public void setUp() {
+        ensureExistingDirectory(workerDir);
+
+        response = mock(Response.class);
+        when(response.getFirstErrorResponseType()).thenReturn(SUCCESS);
+
+        serverConnector = mock(ServerConnector.class);
+        when(serverConnector.write(any(SimulatorAddress.class), any(SimulatorOperation.class))).thenReturn(response);
+
+        streamer = new WorkerArtifactStreamer(serverConnector, workersHome);
+        streamer.start(TEST_SUITE_ID, 0);
+    }
+
+    @After
+    public void tearDown() {
+        streamer.shutdown();
+        deleteQuiet(workersHome);
+    }
+
+    @Test
+    public void testSync_notStarted() {
+        WorkerArtifactStreamer streamer = new WorkerArtifactStreamer(serverConnector, workersHome);
+
+        assertTrue(streamer.sync());
+        verify(serverConnector, never()).write(any(SimulatorAddress.class), any(SimulatorOperation.class));
+    }
+
+    @Test
+    public void testSync() throws Exception {
+        writeText("worker log", new File(workerDir, "worker.log"));
+
+        assertTrue(streamer.sync());
+
+        ArtifactChunkOperation operation = getSentOperation();
+        assertEquals(TEST_SUITE_ID, operation.getTestSuiteId());
+        assertEquals("worker1/worker.log", operation.getPath());
+        assertEquals(0, operation.getOffset());
+        assertEquals(new File(workerDir, "worker.log").lastModified(), operation.getLastModified());
+        assertEquals("worker log", new String(inflate(operation.getCompressedData())));
+    }
+
+    @Test
+    public void testSync_noNewContent() {
+        writeText("worker log", new File(workerDir, "worker.log"));
+        assertTrue(streamer.sync());
+        reset(serverConnector);
+
+        assertTrue(streamer.sync());
+
+        verify(serverConnector, never()).write(any(SimulatorAddress.class), any(SimulatorOperation.class));
+    }
+
+    @Test
+    public void testSync_appendedContent() throws Exception {
+        File logFile = new File(workerDir, "worker.log");
+        writeText("worker log", logFile);
+        assertTrue(streamer.sync());
+        reset(serverConnector);
+        when(serverConnector.write(any(SimulatorAddress.class), any(SimulatorOperation.class))).thenReturn(response);
+
+        appendText(" appended", logFile);
+        assertTrue(streamer.sync());
+
+        ArtifactChunkOperation operation = getSentOperation();
+        assertEquals(10, operation.getOffset());
+        assertEquals(" appended", new String(inflate(operation.getCompressedData())));
+    }
+
+    @Test
+    public void testSync_largeFile() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < WorkerArtifactStreamer.MAX_CHUNK_BYTES + 1; i++) {
+            sb.append('a');
+        }
+        writeText(sb.toString(), new File(workerDir, "large.txt"));
+
+        assertTrue(streamer.sync());
+
+        verify(serverConnector, times(2)).write(eq(COORDINATOR), any(ArtifactChunkOperation.class));
+    }
+
+    @Test
+    public void testSync_skipsLibAndUploadDirectories() {
+        File testSuiteDir = new File(workersHome, TEST_SUITE_ID);
+        ensureExistingDirectory(new File(testSuiteDir, WorkerArtifactStreamer.LIB_DIRECTORY));
+        ensureExistingDirectory(new File(testSuiteDir, WorkerArtifactStreamer.UPLOAD_DIRECTORY));
+        writeText("jar", new File(testSuiteDir, WorkerArtifactStreamer.LIB_DIRECTORY + "/test.jar"));
+        writeText("upload", new File(testSuiteDir, WorkerArtifactStreamer.UPLOAD_DIRECTORY + "/file.txt"));
+
+        assertTrue(streamer.sync());
+
+        verify(serverConnector, never()).write(any(SimulatorAddress.class), any(SimulatorOperation.class));
+    }
+
+    @Test
+    public void testSync_periodicSyncSkipsIntervalStores() throws Exception {
+        writeText("worker log", new File(workerDir, "worker.log"));
+        File dataFile = getDataFile(workerDir, "testId");
+        preallocate(dataFile, WorkerArtifactStreamer.MAX_CHUNK_BYTES);
+        preallocate(getIndexFile(dataFile), WorkerArtifactStreamer.MAX_CHUNK_BYTES);
+
+        assertTrue(streamer.sync(false));
+
+        ArtifactChunkOperation operation = getSentOperation();
+        assertEquals("worker1/worker.log", operation.getPath());
+    }
+
+    @Test
+    public void testSync_sendsIntervalStores() throws Exception {
+        File dataFile = getDataFile(workerDir, "testId");
+        preallocate(dataFile, WorkerArtifactStreamer.MAX_CHUNK_BYTES);
+        assertTrue(streamer.sync(false));
+        verify(serverConnector, never()).write(any(SimulatorAddress.class), any(SimulatorOperation.class));
+
+        assertTrue(streamer.sync());
+
+        ArtifactChunkOperation operation = getSentOperation();
+        assertEquals("worker1/" + dataFile.getName(), operation.getPath());
+        assertEquals(WorkerArtifactStreamer.MAX_CHUNK_BYTES, inflate(operation.getCompressedData()).length);
+    }
+
+    @Test
+    public void testSync_failure() {
+        when(response.getFirstErrorResponseType()).thenReturn(FAILURE_COORDINATOR_NOT_FOUND);
+        writeText("worker log", new File(workerDir, "worker.log"));
+
+        assertFalse(streamer.sync());
+
+        // the content is sent again by the next sync
+        when(response.getFirstErrorResponseType()).thenReturn(SUCCESS);
+        assertTrue(streamer.sync());
+        verify(serverConnector, times(2)).write(eq(COORDINATOR), any(ArtifactChunkOperation.class));
+    }
+
+    private static void preallocate(File file, int length) throws Exception {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            randomAccessFile.setLength(length);
+        } finally {
+            closeQuietly(randomAccessFile);
+        }
+    }
+
+    private ArtifactChunkOperation getSentOperation() {
+        ArgumentCaptor<SimulatorOperation> captor = ArgumentCaptor.forClass(SimulatorOperation.class);
+        verify(serverConnector).write(eq(COORDINATOR), captor.capture());
+
+        List<SimulatorOperation> operations = captor.getAllValues();
+        assertEquals(1, operations.size());
+        return (ArtifactChunkOperation) operations.get(0);
+    }
+}
@@ -10,6 +10,7 @@ import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.InOrder;
 import org.mockito.verification.VerificationMode;
 
 import java.io.File;
@@ -35,6 +36,7 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -53,6 +55,7 @@ public class WorkerJvmFailureMonitorTest {
 
     private AgentConnector agentConnector;
     private Agent agent;
+    private WorkerPerformanceAggregator performanceAggregator;
     private WorkerJvmManager workerJvmManager;
 
     private WorkerJvm workerJvm;
@@ -69,6 +72,8 @@ public class WorkerJvmFailureMonitorTest {
 
         agent = mock(Agent.class);
         when(agent.getAgentConnector()).thenReturn(agentConnector);
+        performanceAggregator = mock(WorkerPerformanceAggregator.class);
+        when(agent.getWorkerPerformanceAggregator()).thenReturn(performanceAggregator);
 
         workerJvmManager = new WorkerJvmManager();
 
@@ -201,6 +206,25 @@ public class WorkerJvmFailureMonitorTest {
         verifyNoMoreInteractions(agentConnector);
     }
 
+    @Test
+    public void testRun_shouldNotScanForOomeFailure_whileHeartbeatIsReceived() {
+        SimulatorAddress address = getWorkerAddress();
+        File heartbeatWorkerHome = new File("worker" + address.getAddressIndex());
+        ensureExistingDirectory(heartbeatWorkerHome);
+        WorkerJvm heartbeatWorker = new WorkerJvm(address, "WorkerJvmFailureMonitorTest" + address.getAddressIndex(),
+                heartbeatWorkerHome, 60);
+        Process process = mock(Process.class);
+        when(process.exitValue()).thenThrow(new IllegalThreadStateException("process is still running"));
+        heartbeatWorker.setProcess(process);
+        workerJvmManager.add(address, heartbeatWorker);
+
+        createFile(heartbeatWorkerHome, "worker.oome");
+
+        sleepMillis(DEFAULT_SLEEP_TIME);
+
+        verifyNoMoreInteractions(agentConnector);
+    }
+
     @Test
     public void testRun_shouldDetectInactivity() {
         workerJvmFailureMonitor.startTimeoutDetection();
@@ -246,6 +270,10 @@ public class WorkerJvmFailureMonitorTest {
         assertThatWorkerHasBeenRemoved(agentConnector, 1);
         verifyNoMoreInteractions(agentConnector);
         assertTrue(exitWorker.isFinished());
+
+        InOrder inOrder = inOrder(performanceAggregator);
+        inOrder.verify(performanceAggregator).flush();
+        inOrder.verify(performanceAggregator).removeWorker(exitWorker.getAddress());
     }
 
     @Test
@@ -0,0 +1,343 @@
+package com.hazelcast.simulator.agent.workerjvm;
+
+import com.hazelcast.simulator.protocol.connector.ServerConnector;
+import com.hazelcast.simulator.protocol.core.AddressLevel;
+import com.hazelcast.simulator.protocol.core.Response;
+import com.hazelcast.simulator.protocol.core.SimulatorAddress;
+import com.hazelcast.simulator.protocol.operation.PerformanceStateOperation;
+import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
+import com.hazelcast.simulator.protocol.operation.TestHistogramOperation;
+import com.hazelcast.simulator.protocol.operation.WorkerPerformanceStatesOperation;
+import com.hazelcast.simulator.worker.performance.PerformanceState;
+import org.HdrHistogram.Histogram;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.LATENCY_PRECISION;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.MAXIMUM_LATENCY;
+import static com.hazelcast.simulator.protocol.core.ResponseType.FAILURE_COORDINATOR_NOT_FOUND;
+import static com.hazelcast.simulator.protocol.core.ResponseType.SUCCESS;
+import static com.hazelcast.simulator.protocol.core.SimulatorAddress.COORDINATOR;
+import static com.hazelcast.simulator.utils.HistogramUtils.decodeHistogram;
+import static com.hazelcast.simulator.utils.HistogramUtils.encodeHistogram;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WorkerPerformanceAggregatorTest {
+
+    private static final int MAX_FLUSH_DELAY_SECONDS = 10;
+    private static final String TEST_ID = "WorkerPerformanceAggregatorTest";
+
+    private final SimulatorAddress workerAddress1 = new SimulatorAddress(AddressLevel.WORKER, 1, 1, 0);
+    private final SimulatorAddress workerAddress2 = new SimulatorAddress(AddressLevel.WORKER, 1, 2, 0);
+
+    private ServerConnector serverConnector;
+    private WorkerPerformanceAggregator aggregator;
+
+    @Before
+    public void setUp() {
+        Response response = mock(Response.class);
+        when(response.getFirstErrorResponseType()).thenReturn(SUCCESS);
+
+        serverConnector = mock(ServerConnector.class);
+        when(serverConnector.write(any(SimulatorAddress.class), any(SimulatorOperation.class))).thenReturn(response);
+
+        aggregator = new WorkerPerformanceAggregator(serverConnector, MAX_FLUSH_DELAY_SECONDS, false);
+    }
+
+    @After
+    public void tearDown() {
+        aggregator.shutdown();
+    }
+
+    @Test
+    public void testDrainOperations_noData() {
+        assertTrue(aggregator.drainOperations().isEmpty());
+    }
+
+    @Test
+    public void testDrainOperations_sumsPerformanceStatesOfWorkers() {
+        aggregator.addPerformanceStates(workerAddress1, createPerformanceStates(1000, 100, 200));
+        aggregator.addPerformanceStates(workerAddress2, createPerformanceStates(3000, 300, 400));
+
+        PerformanceState performanceState = getAggregatedPerformanceState(aggregator.drainOperations());
+
+        assertEquals(4000, performanceState.getOperationCount());
+        assertEquals(400, performanceState.getIntervalThroughput(), 0.0001);
+        assertEquals(600, performanceState.getTotalThroughput(), 0.0001);
+    }
+
+    @Test
+    public void testDrainOperations_workerWithoutUpdateCarriesLastIntervalForward() {
+        aggregator.addPerformanceStates(workerAddress1, createPerformanceStates(1000, 100, 200));
+        aggregator.addPerformanceStates(workerAddress2, createPerformanceStates(3000, 300, 400));
+        aggregator.drainOperations();
+
+        aggregator.addPerformanceStates(workerAddress1, createPerformanceStates(2000, 150, 250));
+
+        PerformanceState performanceState = getAggregatedPerformanceState(aggregator.drainOperations());
+
+        assertEquals(5000, performanceState.getOperationCount());
+        assertEquals(450, performanceState.getIntervalThroughput(), 0.0001);
+        assertEquals(650, performanceState.getTotalThroughput(), 0.0001);
+    }
+
+    @Test
+    public void testDrainOperations_workerWithoutUpdateContributesTotals() {
+        aggregator.addPerformanceStates(workerAddress1, createPerformanceStates(1000, 100, 200));
+        aggregator.addPerformanceStates(workerAddress2, createPerformanceStates(3000, 300, 400));
+        aggregator.drainOperations();
+        aggregator.addPerformanceStates(workerAddress1, createPerformanceStates(2000, 150, 250));
+        aggregator.drainOperations();
+
+        aggregator.addPerformanceStates(workerAddress1, createPerformanceStates(3000, 200, 300));
+
+        PerformanceState performanceState = getAggregatedPerformanceState(aggregator.drainOperations());
+
+        assertEquals(6000, performanceState.getOperationCount());
+        assertEquals(200, performanceState.getIntervalThroughput(), 0.0001);
+        assertEquals(700, performanceState.getTotalThroughput(), 0.0001);
+    }
+
+    @Test
+    public void testRemoveWorker_keepsTotalsWithoutCarryingForward() {
+        aggregator.addPerformanceStates(workerAddress1, createPerformanceStates(1000, 100, 200));
+        aggregator.addPerformanceStates(workerAddress2, createPerformanceStates(3000, 300, 400));
+        aggregator.drainOperations();
+
+        aggregator.removeWorker(workerAddress2);
+        aggregator.addPerformanceStates(workerAddress1, createPerformanceStates(2000, 150, 250));
+
+        PerformanceState performanceState = getAggregatedPerformanceState(aggregator.drainOperations());
+
+        assertEquals(5000, performanceState.getOperationCount());
+        assertEquals(150, performanceState.getIntervalThroughput(), 0.0001);
+        assertEquals(650, performanceState.getTotalThroughput(), 0.0001);
+    }
+
+    @Test
+    public void testRemoveWorker_remainingWorkersHaveReported() {
+        aggregator.addPerformanceStates(workerAddress1, createPerformanceStates(1000, 100, 200));
+        aggregator.addPerformanceStates(workerAddress2, createPerformanceStates(3000, 300, 400));
+        aggregator.drainOperations();
+
+        aggregator.addPerformanceStates(workerAddress1, createPerformanceStates(2000, 150, 250));
+        aggregator.addTestHistograms(workerAddress1, TEST_ID, createEncodedHistograms(10));
+        assertFalse(aggregator.isFlushDue(System.nanoTime()));
+
+        aggregator.removeWorker(workerAddress2);
+
+        assertTrue(aggregator.isFlushDue(System.nanoTime()));
+    }
+
+    @Test
+    public void testRemoveWorker_ignoresLatePerformanceStates() {
+        aggregator.addPerformanceStates(workerAddress1, createPerformanceStates(1000, 100, 200));
+        aggregator.addPerformanceStates(workerAddress2, createPerformanceStates(3000, 300, 400));
+        aggregator.drainOperations();
+        aggregator.removeWorker(workerAddress2);
+
+        aggregator.addPerformanceStates(workerAddress2, createPerformanceStates(4000, 500, 600));
+        aggregator.addPerformanceStates(workerAddress1, createPerformanceStates(2000, 150, 250));
+
+        PerformanceState performanceState = getAggregatedPerformanceState(aggregator.drainOperations());
+
+        assertEquals(5000, performanceState.getOperationCount());
+        assertEquals(150, performanceState.getIntervalThroughput(), 0.0001);
+    }
+
+    @Test
+    public void testRemoveWorker_keepsWorkerPerformanceStates() {
+        aggregator.addPerformanceStates(workerAddress1, createPerformanceStates(1000, 100, 200));
+        aggregator.addPerformanceStates(workerAddress2, createPerformanceStates(3000, 300, 400));
+
+        aggregator.removeWorker(workerAddress2);
+
+        Map<SimulatorAddress, Map<String, PerformanceState>> workerPerformanceStates = aggregator.getWorkerPerformanceStates();
+        assertEquals(2, workerPerformanceStates.size());
+        assertEquals(3000, workerPerformanceStates.get(workerAddress2).get(TEST_ID).getOperationCount());
+    }
+
+    @Test
+    public void testDrainOperations_mergesHistogramsOfWorkers() {
+        aggregator.addTestHistograms(workerAddress1, TEST_ID, createEncodedHistograms(10));
+        aggregator.addTestHistograms(workerAddress2, TEST_ID, createEncodedHistograms(20));
+
+        List<SimulatorOperation> operations = aggregator.drainOperations();
+
+        assertEquals(1, operations.size());
+        TestHistogramOperation operation = (TestHistogramOperation) operations.get(0);
+        assertEquals(TEST_ID, operation.getTestId());
+        assertEquals(30, decodeHistogram(operation.getProbeHistograms().get("probe")).getTotalCount());
+
+        assertTrue(aggregator.drainOperations().isEmpty());
+    }
+
+    @Test
+    public void testAddTestHistograms_invalidHistogram() {
+        aggregator.addTestHistograms(workerAddress1, TEST_ID, Collections.singletonMap("probe", "invalid"));
+
+        assertTrue(aggregator.drainOperations().isEmpty());
+    }
+
+    @Test
+    public void testIsFlushDue_noData() {
+        assertFalse(aggregator.isFlushDue(System.nanoTime()));
+    }
+
+    @Test
+    public void testIsFlushDue_allWorkersReported() {
+        aggregator.addPerformanceStates(workerAddress1, createPerformanceStates(1000, 100, 200));
+        aggregator.addPerformanceStates(workerAddress2, createPerformanceStates(3000, 300, 400));
+        aggregator.addTestHistograms(workerAddress1, TEST_ID, createEncodedHistograms(10));
+        assertFalse(aggregator.isFlushDue(System.nanoTime()));
+
+        aggregator.addTestHistograms(workerAddress2, TEST_ID, createEncodedHistograms(20));
+
+        assertTrue(aggregator.isFlushDue(System.nanoTime()));
+    }
+
+    @Test
+    public void testIsFlushDue_waitsForKnownWorkers() {
+        aggregator.addPerformanceStates(workerAddress1, createPerformanceStates(1000, 100, 200));
+        aggregator.addPerformanceStates(workerAddress2, createPerformanceStates(3000, 300, 400));
+        aggregator.drainOperations();
+
+        aggregator.addPerformanceStates(workerAddress1, createPerformanceStates(2000, 150, 250));
+        aggregator.addTestHistograms(workerAddress1, TEST_ID, createEncodedHistograms(10));
+
+        assertFalse(aggregator.isFlushDue(System.nanoTime()));
+    }
+
+    @Test
+    public void testIsFlushDue_maxFlushDelayExceeded() {
+        aggregator.addPerformanceStates(workerAddress1, createPerformanceStates(1000, 100, 200));
+
+        long nowNanos = System.nanoTime();
+        assertFalse(aggregator.isFlushDue(nowNanos));
+        assertTrue(aggregator.isFlushDue(nowNanos + TimeUnit.SECONDS.toNanos(MAX_FLUSH_DELAY_SECONDS)));
+    }
+
+    @Test
+    public void testIsFlushDue_afterDrain() {
+        aggregator.addPerformanceStates(workerAddress1, createPerformanceStates(1000, 100, 200));
+        aggregator.drainOperations();
+
+        assertFalse(aggregator.isFlushDue(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testSetWorkerPerformanceMonitorIntervalSeconds() {
+        aggregator.setWorkerPerformanceMonitorIntervalSeconds(1);
+        aggregator.addPerformanceStates(workerAddress1, createPerformanceStates(1000, 100, 200));
+
+        assertTrue(aggregator.isFlushDue(System.nanoTime() + TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    @Test(timeout = 10000)
+    public void testFlushThread_flushesWhenAllWorkersReported() {
+        WorkerPerformanceAggregator aggregator = new WorkerPerformanceAggregator(serverConnector);
+        try {
+            aggregator.addPerformanceStates(workerAddress1, createPerformanceStates(1000, 100, 200));
+            aggregator.addTestHistograms(workerAddress1, TEST_ID, createEncodedHistograms(10));
+
+            verify(serverConnector, timeout(5000)).write(eq(COORDINATOR), any(PerformanceStateOperation.class));
+            verify(serverConnector, timeout(5000)).write(eq(COORDINATOR), any(TestHistogramOperation.class));
+        } finally {
+            aggregator.shutdown();
+        }
+    }
+
+    @Test
+    public void testFlush() {
+        aggregator.addPerformanceStates(workerAddress1, createPerformanceStates(1000, 100, 200));
+        aggregator.addTestHistograms(workerAddress1, TEST_ID, createEncodedHistograms(10));
+
+        aggregator.flush();
+
+        verify(serverConnector).write(eq(COORDINATOR), any(PerformanceStateOperation.class));
+        verify(serverConnector).write(eq(COORDINATOR), any(TestHistogramOperation.class));
+    }
+
+    @Test
+    public void testShutdown_flushesData() {
+        aggregator.addPerformanceStates(workerAddress1, createPerformanceStates(1000, 100, 200));
+
+        aggregator.shutdown();
+
+        verify(serverConnector, times(1)).write(eq(COORDINATOR), any(PerformanceStateOperation.class));
+    }
+
+    @Test
+    public void testGetWorkerPerformanceStates() {
+        aggregator.addPerformanceStates(workerAddress1, createPerformanceStates(1000, 100, 200));
+        aggregator.addPerformanceStates(workerAddress2, createPerformanceStates(3000, 300, 400));
+
+        Map<String, PerformanceState> performanceStates = aggregator.getWorkerPerformanceStates(workerAddress2);
+
+        assertEquals(1, performanceStates.size());
+        assertEquals(3000, performanceStates.get(TEST_ID).getOperationCount());
+    }
+
+    @Test
+    public void testSendWorkerPerformanceStates() {
+        aggregator.addPerformanceStates(workerAddress1, createPerformanceStates(1000, 100, 200));
+        aggregator.addPerformanceStates(workerAddress2, createPerformanceStates(3000, 300, 400));
+
+        assertTrue(aggregator.sendWorkerPerformanceStates());
+
+        ArgumentCaptor<WorkerPerformanceStatesOperation> captor = ArgumentCaptor.forClass(WorkerPerformanceStatesOperation.class);
+        verify(serverConnector).write(eq(COORDINATOR), captor.capture());
+
+        Map<SimulatorAddress, Map<String, PerformanceState>> workerPerformanceStates
+                = captor.getValue().getWorkerPerformanceStates();
+        assertEquals(2, workerPerformanceStates.size());
+        assertEquals(1000, workerPerformanceStates.get(workerAddress1).get(TEST_ID).getOperationCount());
+        assertEquals(3000, workerPerformanceStates.get(workerAddress2).get(TEST_ID).getOperationCount());
+    }
+
+    @Test
+    public void testSendWorkerPerformanceStates_withFailure() {
+        Response response = mock(Response.class);
+        when(response.getFirstErrorResponseType()).thenReturn(FAILURE_COORDINATOR_NOT_FOUND);
+        when(serverConnector.write(any(SimulatorAddress.class), any(SimulatorOperation.class))).thenReturn(response);
+
+        assertFalse(aggregator.sendWorkerPerformanceStates());
+    }
+
+    private static Map<String, PerformanceState> createPerformanceStates(long operationCount, double intervalThroughput,
+                                                                         double totalThroughput) {
+        Map<String, PerformanceState> performanceStates = new HashMap<String, PerformanceState>();
+        performanceStates.put(TEST_ID, new PerformanceState(operationCount, intervalThroughput, totalThroughput, 1200.0d,
+                1500, 2000));
+        return performanceStates;
+    }
+
+    private static Map<String, String> createEncodedHistograms(int count) {
+        Histogram histogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+        histogram.recordValueWithCount(1000, count);
+        return Collections.singletonMap("probe", encodeHistogram(histogram));
+    }
+
+    private static PerformanceState getAggregatedPerformanceState(List<SimulatorOperation> operations) {
+        assertEquals(1, operations.size());
+        PerformanceStateOperation operation = (PerformanceStateOperation) operations.get(0);
+        return operation.getPerformanceStates().get(TEST_ID);
+    }
+}
@@ -15,6 +15,7 @@ import static com.hazelcast.simulator.utils.FileUtils.appendText;
 import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
 import static com.hazelcast.simulator.utils.jars.HazelcastJARs.OUT_OF_THE_BOX;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -183,11 +184,6 @@ public class SimulatorPropertiesTest {
         assertEquals("defaultValue", simulatorProperties.get("notFound", "defaultValue"));
     }
 
-    @Test
-    public void testGetWorkerPingIntervalSeconds() {
-        assertEquals(60, simulatorProperties.getWorkerPingIntervalSeconds());
-    }
-
     @Test
     public void testGetMemberWorkerShutdownDelaySeconds() {
         assertEquals(5, simulatorProperties.getMemberWorkerShutdownDelaySeconds());
@@ -195,7 +191,7 @@ public class SimulatorPropertiesTest {
 
     @Test
     public void testGetWorkerLastSeenTimeoutSeconds() {
-        assertEquals(180, simulatorProperties.getWorkerLastSeenTimeoutSeconds());
+        assertEquals(60, simulatorProperties.getWorkerLastSeenTimeoutSeconds());
     }
 
     @Test
@@ -203,6 +199,64 @@ public class SimulatorPropertiesTest {
         assertEquals(0, simulatorProperties.getAgentThreadPoolSize());
     }
 
+    @Test
+    public void testGetWorkerHeartbeatIntervalSeconds() {
+        assertEquals(5, simulatorProperties.getWorkerHeartbeatIntervalSeconds());
+    }
+
+    @Test(expected = CommandLineExitException.class)
+    public void testGetWorkerHeartbeatIntervalSeconds_disabled() {
+        initProperty("WORKER_HEARTBEAT_INTERVAL_SECONDS", "0");
+
+        simulatorProperties.getWorkerHeartbeatIntervalSeconds();
+    }
+
+    @Test
+    public void testGetAgentEventLoopThreads() {
+        assertEquals(0, simulatorProperties.getAgentEventLoopThreads());
+    }
+
+    @Test
+    public void testGetCoordinatorEventLoopThreads() {
+        assertEquals(0, simulatorProperties.getCoordinatorEventLoopThreads());
+    }
+
+    @Test
+    public void testIsProtocolNativeTransport() {
+        assertFalse(simulatorProperties.isProtocolNativeTransport());
+    }
+
+    @Test
+    public void testIsProtocolNativeTransport_enabled() {
+        initProperty("PROTOCOL_NATIVE_TRANSPORT", "true");
+
+        assertTrue(simulatorProperties.isProtocolNativeTransport());
+    }
+
+    @Test
+    public void testIsUploadFanOut() {
+        assertFalse(simulatorProperties.isUploadFanOut());
+    }
+
+    @Test
+    public void testIsUploadFanOut_enabled() {
+        initProperty("UPLOAD_FAN_OUT", "true");
+
+        assertTrue(simulatorProperties.isUploadFanOut());
+    }
+
+    @Test
+    public void testGetArtifactStreamIntervalSeconds() {
+        assertEquals(10, simulatorProperties.getArtifactStreamIntervalSeconds());
+    }
+
+    @Test
+    public void testGetArtifactStreamIntervalSeconds_disabled() {
+        initProperty("ARTIFACT_STREAM_INTERVAL_SECONDS", "0");
+
+        assertEquals(0, simulatorProperties.getArtifactStreamIntervalSeconds());
+    }
+
     @Test
     public void testGet_CLOUD_IDENTITY() {
         appendText("testCloudIdentityString", customFile);
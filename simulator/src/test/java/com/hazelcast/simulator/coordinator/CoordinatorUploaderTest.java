@@ -14,15 +14,14 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
-import java.util.HashSet;
 
 import static com.hazelcast.simulator.common.JavaProfiler.NONE;
 import static com.hazelcast.simulator.common.JavaProfiler.YOURKIT;
+import static com.hazelcast.simulator.utils.FileUtils.appendText;
 import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
 import static com.hazelcast.simulator.utils.FileUtils.ensureExistingDirectory;
 import static com.hazelcast.simulator.utils.FormatUtils.NEW_LINE;
 import static com.hazelcast.simulator.utils.jars.HazelcastJARs.OUT_OF_THE_BOX;
-import static java.util.Collections.singleton;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.contains;
 import static org.mockito.Matchers.eq;
@@ -67,7 +66,7 @@ public class CoordinatorUploaderTest {
         ensureExistingDirectory(workerClassPathFile);
 
         coordinatorUploader = new CoordinatorUploader(bash, componentRegistry, clusterLayout, hazelcastJARs, true, false,
-                workerClassPath, YOURKIT, testSuiteId);
+                workerClassPath, YOURKIT, testSuiteId, false);
     }
 
     @After
@@ -86,9 +85,10 @@ public class CoordinatorUploaderTest {
         coordinatorUploader.uploadHazelcastJARs();
 
         verify(hazelcastJARs, times(1)).prepare(false);
-        verify(hazelcastJARs, times(2)).upload(contains("192.168.0."), anyString(), eq(singleton(OUT_OF_THE_BOX)));
+        verify(hazelcastJARs, times(1)).getJARs(eq(OUT_OF_THE_BOX), anyString());
         verifyNoMoreInteractions(hazelcastJARs);
 
+        verify(bash, times(2)).ssh(contains("192.168.0."), contains("hz-lib/outofthebox/"));
         verifyNoMoreInteractions(bash);
     }
 
@@ -114,26 +114,25 @@ public class CoordinatorUploaderTest {
 
         clusterLayout = new ClusterLayout(componentRegistry, workerParameters, clusterLayoutParameters);
         coordinatorUploader = new CoordinatorUploader(bash, componentRegistry, clusterLayout, hazelcastJARs, true, false,
-                workerClassPath, YOURKIT, testSuiteId);
+                workerClassPath, YOURKIT, testSuiteId, false);
 
         coordinatorUploader.uploadHazelcastJARs();
 
-        HashSet<String> versionSpecs = new HashSet<String>(2);
-        versionSpecs.add("maven=3.5.1");
-        versionSpecs.add("maven=3.5.2");
-
         verify(hazelcastJARs, times(1)).prepare(false);
-        verify(hazelcastJARs, times(1)).upload(contains("192.168.0.1"), anyString(), eq(versionSpecs));
-        verify(hazelcastJARs, times(1)).upload(contains("192.168.0.2"), anyString(), eq(singleton("maven=3.5.2")));
+        verify(hazelcastJARs, times(1)).getJARs(eq("maven=3.5.1"), anyString());
+        verify(hazelcastJARs, times(1)).getJARs(eq("maven=3.5.2"), anyString());
         verifyNoMoreInteractions(hazelcastJARs);
 
+        verify(bash, times(1)).ssh(eq("192.168.0.1"), contains("hz-lib/maven-3.5.1/"));
+        verify(bash, times(1)).ssh(eq("192.168.0.1"), contains("hz-lib/maven-3.5.2/"));
+        verify(bash, times(1)).ssh(eq("192.168.0.2"), contains("hz-lib/maven-3.5.2/"));
         verifyNoMoreInteractions(bash);
     }
 
     @Test
     public void testUploadHazelcastJARs_isNull() {
         coordinatorUploader = new CoordinatorUploader(bash, componentRegistry, clusterLayout, null, true, false, workerClassPath,
-                YOURKIT, testSuiteId);
+                YOURKIT, testSuiteId, false);
 
         coordinatorUploader.uploadHazelcastJARs();
 
@@ -142,10 +141,21 @@ public class CoordinatorUploaderTest {
 
     @Test
     public void testUploadUploadDirectory() {
+        appendText("content", new File(uploadDirectory, "file.txt"));
+
         coordinatorUploader.uploadUploadDirectory();
 
-        verify(bash, times(2)).ssh(contains("192.168.0."), anyString());
-        verify(bash, times(2)).uploadToRemoteSimulatorDir(contains("192.168.0."), anyString(), anyString());
+        verify(bash, times(1)).execute(contains("ln -s"));
+        verify(bash, times(2)).uploadNewFilesToRemoteSimulatorDir(contains("192.168.0."), anyString(), anyString());
+        verify(bash, times(2)).ssh(contains("192.168.0."), contains("workers/testSuiteId/upload/file.txt"));
+        verifyNoMoreInteractions(bash);
+    }
+
+    @Test
+    public void testUploadUploadDirectory_emptyUploadDirectory() {
+        coordinatorUploader.uploadUploadDirectory();
+
+        verify(bash, times(2)).ssh(contains("192.168.0."), contains("workers/testSuiteId/"));
         verifyNoMoreInteractions(bash);
     }
 
@@ -159,24 +169,29 @@ public class CoordinatorUploaderTest {
 
     @Test(expected = CommandLineExitException.class)
     public void testUploadUploadDirectory_withException() {
+        appendText("content", new File(uploadDirectory, "file.txt"));
+
         TestException exception = new TestException("expected");
-        doThrow(exception).when(bash).uploadToRemoteSimulatorDir(contains("192.168.0."), anyString(), anyString());
+        doThrow(exception).when(bash).uploadNewFilesToRemoteSimulatorDir(contains("192.168.0."), anyString(), anyString());
         coordinatorUploader.uploadUploadDirectory();
     }
 
     @Test
     public void testUploadWorkerClassPath() {
+        appendText("content", new File(workerClassPathFile, "file.jar"));
+
         coordinatorUploader.uploadWorkerClassPath();
 
-        verify(bash, times(2)).ssh(contains("192.168.0."), anyString());
-        verify(bash, times(2)).uploadToRemoteSimulatorDir(contains("192.168.0."), anyString(), anyString());
+        verify(bash, times(1)).execute(contains("ln -s"));
+        verify(bash, times(2)).uploadNewFilesToRemoteSimulatorDir(contains("192.168.0."), anyString(), anyString());
+        verify(bash, times(2)).ssh(contains("192.168.0."), contains("workers/testSuiteId/lib/workerClassPath/file.jar"));
         verifyNoMoreInteractions(bash);
     }
 
     @Test
     public void testUploadWorkerClassPath_workerClassPathIsNull() {
         coordinatorUploader = new CoordinatorUploader(bash, componentRegistry, clusterLayout, hazelcastJARs, true, false, null,
-                YOURKIT, testSuiteId);
+                YOURKIT, testSuiteId, false);
 
         coordinatorUploader.uploadWorkerClassPath();
 
@@ -186,7 +201,7 @@ public class CoordinatorUploaderTest {
     @Test(expected = CommandLineExitException.class)
     public void testUploadWorkerClassPath_workerClassPathNotExists() {
         coordinatorUploader = new CoordinatorUploader(bash, componentRegistry, clusterLayout, hazelcastJARs, true, false,
-                notExists.getAbsolutePath(), YOURKIT, testSuiteId);
+                notExists.getAbsolutePath(), YOURKIT, testSuiteId, false);
 
         coordinatorUploader.uploadWorkerClassPath();
     }
@@ -203,7 +218,7 @@ public class CoordinatorUploaderTest {
     @Test
     public void testUploadYourKit_noYourKitProfiler() {
         coordinatorUploader = new CoordinatorUploader(bash, componentRegistry, clusterLayout, hazelcastJARs, true, false,
-                workerClassPath, NONE, testSuiteId);
+                workerClassPath, NONE, testSuiteId, false);
 
         coordinatorUploader.uploadYourKit();
 
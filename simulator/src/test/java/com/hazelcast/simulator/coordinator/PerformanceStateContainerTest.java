@@ -4,6 +4,7 @@ import com.hazelcast.simulator.protocol.core.AddressLevel;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.utils.FormatUtils;
 import com.hazelcast.simulator.worker.performance.PerformanceState;
+import org.HdrHistogram.Histogram;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -13,6 +14,8 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.LATENCY_PRECISION;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.MAXIMUM_LATENCY;
 import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
 import static com.hazelcast.simulator.utils.FileUtils.fileAsText;
 import static org.junit.Assert.assertEquals;
@@ -105,6 +108,58 @@ public class PerformanceStateContainerTest {
         assertFalse(performance.contains("µs"));
     }
 
+    @Test
+    public void testGetPerformanceNumbers_withIntervalHistograms() {
+        performanceStateContainer.addIntervalHistogram(TEST_CASE_ID_1, "probe", createHistogram(1000, 100));
+        performanceStateContainer.addIntervalHistogram(TEST_CASE_ID_1, "probe", createHistogram(1000, 1000));
+
+        String performance = performanceStateContainer.getPerformanceNumbers(TEST_CASE_ID_1);
+        assertTrue(performance.contains("(50th)"));
+        assertTrue(performance.contains("(99.99th)"));
+        assertTrue(performance.contains("(max)"));
+
+        Map<String, Histogram> intervalHistograms = performanceStateContainer.getAndResetIntervalHistograms(TEST_CASE_ID_1);
+        assertTrue(intervalHistograms.isEmpty());
+    }
+
+    @Test
+    public void testAddIntervalHistogram_testCaseNotFound() {
+        performanceStateContainer.addIntervalHistogram("notFound", "probe", createHistogram(10, 100));
+
+        Map<String, Histogram> intervalHistograms = performanceStateContainer.getAndResetIntervalHistograms("notFound");
+        assertTrue(intervalHistograms.isEmpty());
+    }
+
+    @Test
+    public void testAddIntervalHistogram_doesNotModifyHistogram() {
+        Histogram histogram = createHistogram(10, 100);
+        performanceStateContainer.addIntervalHistogram(TEST_CASE_ID_1, "probe", histogram);
+        performanceStateContainer.addIntervalHistogram(TEST_CASE_ID_1, "probe", createHistogram(10, 200));
+
+        assertEquals(10, histogram.getTotalCount());
+        Map<String, Histogram> intervalHistograms = performanceStateContainer.getAndResetIntervalHistograms(TEST_CASE_ID_1);
+        assertEquals(20, intervalHistograms.get("probe").getTotalCount());
+    }
+
+    @Test
+    public void testClusterLatency() {
+        Histogram mergedHistogram = createHistogram(1000, 100);
+        mergedHistogram.add(createHistogram(1000, 1000));
+
+        Map<String, Histogram> probeHistograms = new HashMap<String, Histogram>();
+        probeHistograms.put("probe1", mergedHistogram);
+        probeHistograms.put("probe2", createHistogram(100, 50));
+        probeHistograms.put("emptyProbe", createHistogram(0, 0));
+
+        PerformanceStateContainer.ClusterLatency latency = new PerformanceStateContainer.ClusterLatency(probeHistograms);
+
+        // the 50th percentile of the merged histogram is the lower value, the maximum of both Workers would be 1000
+        assertEquals(100, latency.getPercentileValue(0));
+        assertEquals(1000, latency.getPercentileValue(1), 1);
+        assertEquals(550, latency.getAvgValue(), 1);
+        assertEquals(1000, latency.getMaxValue(), 1);
+    }
+
     @Test
     public void testGetPerformanceStateForTestCase() {
         PerformanceState performanceState = performanceStateContainer.getPerformanceStateForTestCase(TEST_CASE_ID_1);
@@ -114,7 +169,7 @@ public class PerformanceStateContainerTest {
         assertEquals(300.0, performanceState.getIntervalThroughput(), ASSERT_EQUALS_DELTA);
         assertEquals(850.0, performanceState.getTotalThroughput(), ASSERT_EQUALS_DELTA);
         assertEquals(2400, performanceState.getIntervalPercentileLatency());
-        assertEquals(2200.0d, performanceState.getIntervalAvgLatency(), 0.001);
+        assertEquals(2000.0d, performanceState.getIntervalAvgLatency(), 0.001);
         assertEquals(2800, performanceState.getIntervalMaxLatency());
     }
 
@@ -127,7 +182,7 @@ public class PerformanceStateContainerTest {
         assertEquals(2300, performanceState.getOperationCount());
         assertEquals(300.0, performanceState.getIntervalThroughput(), ASSERT_EQUALS_DELTA);
         assertEquals(850.0, performanceState.getTotalThroughput(), ASSERT_EQUALS_DELTA);
-        assertEquals(2200.0d, performanceState.getIntervalAvgLatency(), 0.001);
+        assertEquals(2000.0d, performanceState.getIntervalAvgLatency(), 0.001);
         assertEquals(2400, performanceState.getIntervalPercentileLatency());
         assertEquals(2800, performanceState.getIntervalMaxLatency());
 
@@ -149,7 +204,7 @@ public class PerformanceStateContainerTest {
         assertEquals(2700, performanceState.getOperationCount());
         assertEquals(1600.0, performanceState.getIntervalThroughput(), ASSERT_EQUALS_DELTA);
         assertEquals(1400.0, performanceState.getTotalThroughput(), ASSERT_EQUALS_DELTA);
-        assertEquals(2700.0d, performanceState.getIntervalAvgLatency(), 0.001);
+        assertEquals(2475.0d, performanceState.getIntervalAvgLatency(), 0.001);
         assertEquals(2600, performanceState.getIntervalPercentileLatency());
         assertEquals(2900, performanceState.getIntervalMaxLatency());
     }
@@ -183,6 +238,35 @@ public class PerformanceStateContainerTest {
         assertFalse(PERFORMANCE_FILE.exists());
     }
 
+    @Test
+    public void testLogDetailedPerformanceInfo_withWorkerPerformanceStates() {
+        performanceStateContainer.updateWorkerPerformanceStates(createWorkerPerformanceStates());
+
+        performanceStateContainer.logDetailedPerformanceInfo();
+
+        String performance = fileAsText(PERFORMANCE_FILE);
+        assertEquals("5500" + FormatUtils.NEW_LINE, performance);
+    }
+
+    @Test
+    public void testCalculateWorkerPerformanceStates() {
+        performanceStateContainer.updateWorkerPerformanceStates(createWorkerPerformanceStates());
+
+        Map<SimulatorAddress, PerformanceState> workerPerformanceStateMap
+                = performanceStateContainer.calculateWorkerPerformanceStates();
+
+        assertEquals(2, workerPerformanceStateMap.size());
+        assertEquals(3500, workerPerformanceStateMap.get(worker1).getOperationCount());
+        assertEquals(1400, workerPerformanceStateMap.get(worker1).getTotalThroughput(), ASSERT_EQUALS_DELTA);
+        assertEquals(2000, workerPerformanceStateMap.get(worker2).getOperationCount());
+        assertEquals(900, workerPerformanceStateMap.get(worker2).getTotalThroughput(), ASSERT_EQUALS_DELTA);
+    }
+
+    @Test
+    public void testCalculateWorkerPerformanceStates_onEmptyContainer() {
+        assertTrue(emptyPerformanceStateContainer.calculateWorkerPerformanceStates().isEmpty());
+    }
+
     @Test
     public void testCalculatePerformanceStates() {
         PerformanceState totalPerformanceState = new PerformanceState();
@@ -214,6 +298,24 @@ public class PerformanceStateContainerTest {
         assertEquals(2900, totalPerformanceState.getIntervalMaxLatency());
     }
 
+    @Test
+    public void testCalculatePerformanceStates_fromAgent() {
+        SimulatorAddress agentAddress = new SimulatorAddress(AddressLevel.AGENT, 3, 0, 0);
+
+        Map<String, PerformanceState> performanceStates = new HashMap<String, PerformanceState>();
+        performanceStates.put(TEST_CASE_ID_1, new PerformanceState(4000, 400, 600, 1500.0d, 1700, 2000));
+        emptyPerformanceStateContainer.updatePerformanceState(agentAddress, performanceStates);
+
+        PerformanceState totalPerformanceState = new PerformanceState();
+        Map<SimulatorAddress, PerformanceState> agentPerformanceStateMap = new HashMap<SimulatorAddress, PerformanceState>();
+
+        emptyPerformanceStateContainer.calculatePerformanceStates(totalPerformanceState, agentPerformanceStateMap);
+
+        assertEquals(1, agentPerformanceStateMap.size());
+        assertEquals(4000, agentPerformanceStateMap.get(agentAddress).getOperationCount());
+        assertEquals(4000, totalPerformanceState.getOperationCount());
+    }
+
     @Test
     public void testCalculatePerformanceStates_onEmptyContainer() {
         PerformanceState totalPerformanceState = new PerformanceState();
@@ -224,4 +326,28 @@ public class PerformanceStateContainerTest {
         assertEquals(0, agentPerformanceStateMap.size());
         assertTrue(totalPerformanceState.isEmpty());
     }
+
+    private static Histogram createHistogram(int count, long value) {
+        Histogram histogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+        for (int i = 0; i < count; i++) {
+            histogram.recordValue(value);
+        }
+        return histogram;
+    }
+
+    private Map<SimulatorAddress, Map<String, PerformanceState>> createWorkerPerformanceStates() {
+        Map<String, PerformanceState> performanceStates1 = new HashMap<String, PerformanceState>();
+        performanceStates1.put(TEST_CASE_ID_1, new PerformanceState(1500, 150, 550, 1600.0d, 1700, 2400));
+        performanceStates1.put(TEST_CASE_ID_2, new PerformanceState(2000, 950, 850, 2400.0d, 2100, 2800));
+
+        Map<String, PerformanceState> performanceStates2 = new HashMap<String, PerformanceState>();
+        performanceStates2.put(TEST_CASE_ID_1, new PerformanceState(800, 100, 300, 2200.0d, 2400, 2800));
+        performanceStates2.put(TEST_CASE_ID_2, new PerformanceState(1200, 700, 600, 2700.0d, 2600, 2900));
+
+        Map<SimulatorAddress, Map<String, PerformanceState>> workerPerformanceStates
+                = new HashMap<SimulatorAddress, Map<String, PerformanceState>>();
+        workerPerformanceStates.put(worker1, performanceStates1);
+        workerPerformanceStates.put(worker2, performanceStates2);
+        return workerPerformanceStates;
+    }
 }
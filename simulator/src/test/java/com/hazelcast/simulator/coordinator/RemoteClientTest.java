@@ -4,7 +4,6 @@ import com.hazelcast.simulator.agent.workerjvm.WorkerJvmSettings;
 import com.hazelcast.simulator.cluster.ClusterLayout;
 import com.hazelcast.simulator.common.JavaProfiler;
 import com.hazelcast.simulator.protocol.connector.CoordinatorConnector;
-import com.hazelcast.simulator.protocol.core.AddressLevel;
 import com.hazelcast.simulator.protocol.core.Response;
 import com.hazelcast.simulator.protocol.core.ResponseType;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
@@ -12,7 +11,7 @@ import com.hazelcast.simulator.protocol.core.SimulatorProtocolException;
 import com.hazelcast.simulator.protocol.operation.CreateWorkerOperation;
 import com.hazelcast.simulator.protocol.operation.IntegrationTestOperation;
 import com.hazelcast.simulator.protocol.operation.LogOperation;
-import com.hazelcast.simulator.protocol.operation.PingOperation;
+import com.hazelcast.simulator.protocol.operation.RequestWorkerPerformanceStatesOperation;
 import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
 import com.hazelcast.simulator.protocol.registry.ComponentRegistry;
 import com.hazelcast.simulator.utils.CommandLineExitException;
@@ -22,16 +21,12 @@ import org.junit.Test;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.TimeoutException;
 
 import static com.hazelcast.simulator.protocol.core.SimulatorAddress.ALL_AGENTS;
 import static com.hazelcast.simulator.protocol.core.SimulatorAddress.ALL_WORKERS;
 import static com.hazelcast.simulator.protocol.core.SimulatorAddress.COORDINATOR;
-import static com.hazelcast.simulator.utils.CommonUtils.sleepMillis;
-import static com.hazelcast.simulator.utils.CommonUtils.sleepSeconds;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
-import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -39,7 +34,6 @@ import static org.mockito.Mockito.when;
 
 public class RemoteClientTest {
 
-    private static final int WORKER_PING_INTERVAL_SECONDS = 10;
     private static final int MEMBER_WORKER_SHUTDOWN_DELAY_SECONDS = 0;
     private static final IntegrationTestOperation DEFAULT_INTEGRATION_TEST_OPERATION = new IntegrationTestOperation("test");
 
@@ -66,7 +60,7 @@ public class RemoteClientTest {
 
     @Test
     public void testLogOnAllAgents() {
-        RemoteClient remoteClient = new RemoteClient(coordinatorConnector, componentRegistry, WORKER_PING_INTERVAL_SECONDS,
+        RemoteClient remoteClient = new RemoteClient(coordinatorConnector, componentRegistry,
                 MEMBER_WORKER_SHUTDOWN_DELAY_SECONDS);
         remoteClient.logOnAllAgents("test");
 
@@ -76,7 +70,7 @@ public class RemoteClientTest {
 
     @Test
     public void testLogOnAllWorkers() {
-        RemoteClient remoteClient = new RemoteClient(coordinatorConnector, componentRegistry, WORKER_PING_INTERVAL_SECONDS,
+        RemoteClient remoteClient = new RemoteClient(coordinatorConnector, componentRegistry,
                 MEMBER_WORKER_SHUTDOWN_DELAY_SECONDS);
         remoteClient.logOnAllWorkers("test");
 
@@ -84,14 +78,25 @@ public class RemoteClientTest {
         verifyNoMoreInteractions(coordinatorConnector);
     }
 
+    @Test
+    public void testRequestWorkerPerformanceStates() {
+        initMock(ResponseType.SUCCESS);
+        RemoteClient remoteClient = new RemoteClient(coordinatorConnector, componentRegistry,
+                MEMBER_WORKER_SHUTDOWN_DELAY_SECONDS);
+        remoteClient.requestWorkerPerformanceStates();
+
+        verify(coordinatorConnector).write(eq(ALL_AGENTS), any(RequestWorkerPerformanceStatesOperation.class));
+        verifyNoMoreInteractions(coordinatorConnector);
+    }
+
     @Test
     public void testCreateWorkers_withClients() {
         initMockForCreateWorkerOperation(ResponseType.SUCCESS);
         ClusterLayout clusterLayout = getClusterLayout(0, 6, 3);
 
-        RemoteClient remoteClient = new RemoteClient(coordinatorConnector, componentRegistry, WORKER_PING_INTERVAL_SECONDS,
+        RemoteClient remoteClient = new RemoteClient(coordinatorConnector, componentRegistry,
                 MEMBER_WORKER_SHUTDOWN_DELAY_SECONDS);
-        remoteClient.createWorkers(clusterLayout, false);
+        remoteClient.createWorkers(clusterLayout);
     }
 
     @Test
@@ -99,9 +104,9 @@ public class RemoteClientTest {
         initMockForCreateWorkerOperation(ResponseType.SUCCESS);
         ClusterLayout clusterLayout = getClusterLayout(0, 6, 0);
 
-        RemoteClient remoteClient = new RemoteClient(coordinatorConnector, componentRegistry, WORKER_PING_INTERVAL_SECONDS,
+        RemoteClient remoteClient = new RemoteClient(coordinatorConnector, componentRegistry,
                 MEMBER_WORKER_SHUTDOWN_DELAY_SECONDS);
-        remoteClient.createWorkers(clusterLayout, false);
+        remoteClient.createWorkers(clusterLayout);
     }
 
     @Test(expected = CommandLineExitException.class)
@@ -109,9 +114,9 @@ public class RemoteClientTest {
         initMockForCreateWorkerOperation(ResponseType.EXCEPTION_DURING_OPERATION_EXECUTION);
         ClusterLayout clusterLayout = getClusterLayout(0, 6, 0);
 
-        RemoteClient remoteClient = new RemoteClient(coordinatorConnector, componentRegistry, WORKER_PING_INTERVAL_SECONDS,
+        RemoteClient remoteClient = new RemoteClient(coordinatorConnector, componentRegistry,
                 MEMBER_WORKER_SHUTDOWN_DELAY_SECONDS);
-        remoteClient.createWorkers(clusterLayout, false);
+        remoteClient.createWorkers(clusterLayout);
     }
 
     @Test(expected = SimulatorProtocolException.class)
@@ -119,29 +124,26 @@ public class RemoteClientTest {
         initMockForCreateWorkerOperation(null);
         ClusterLayout clusterLayout = getClusterLayout(0, 6, 0);
 
-        RemoteClient remoteClient = new RemoteClient(coordinatorConnector, componentRegistry, WORKER_PING_INTERVAL_SECONDS,
+        RemoteClient remoteClient = new RemoteClient(coordinatorConnector, componentRegistry,
                 MEMBER_WORKER_SHUTDOWN_DELAY_SECONDS);
-        remoteClient.createWorkers(clusterLayout, false);
+        remoteClient.createWorkers(clusterLayout);
     }
 
     @Test
-    public void testCreateWorkersAndTerminateWorkers_withPokeThread() {
+    public void testCreateWorkersAndTerminateWorkers_withTimeoutDetection() {
         initMockForCreateWorkerOperation(ResponseType.SUCCESS);
         ClusterLayout clusterLayout = getClusterLayout(0, 6, 0);
 
-        RemoteClient remoteClient = new RemoteClient(coordinatorConnector, componentRegistry, WORKER_PING_INTERVAL_SECONDS,
+        RemoteClient remoteClient = new RemoteClient(coordinatorConnector, componentRegistry,
                 MEMBER_WORKER_SHUTDOWN_DELAY_SECONDS);
-        remoteClient.createWorkers(clusterLayout, true);
-
-        sleepSeconds(1);
-
+        remoteClient.createWorkers(clusterLayout);
         remoteClient.terminateWorkers(true);
     }
 
     @Test
     public void testSendToAllAgents() {
         initMock(ResponseType.SUCCESS);
-        RemoteClient remoteClient = new RemoteClient(coordinatorConnector, componentRegistry, WORKER_PING_INTERVAL_SECONDS,
+        RemoteClient remoteClient = new RemoteClient(coordinatorConnector, componentRegistry,
                 MEMBER_WORKER_SHUTDOWN_DELAY_SECONDS);
 
         SimulatorOperation operation = DEFAULT_INTEGRATION_TEST_OPERATION;
@@ -154,7 +156,7 @@ public class RemoteClientTest {
     @Test(expected = CommandLineExitException.class)
     public void testSendToAllAgents_withErrorResponse() {
         initMock(ResponseType.EXCEPTION_DURING_OPERATION_EXECUTION);
-        RemoteClient remoteClient = new RemoteClient(coordinatorConnector, componentRegistry, WORKER_PING_INTERVAL_SECONDS,
+        RemoteClient remoteClient = new RemoteClient(coordinatorConnector, componentRegistry,
                 MEMBER_WORKER_SHUTDOWN_DELAY_SECONDS);
 
         SimulatorOperation operation = DEFAULT_INTEGRATION_TEST_OPERATION;
@@ -169,7 +171,7 @@ public class RemoteClientTest {
     @Test
     public void testSendToAllWorkers() {
         initMock(ResponseType.SUCCESS);
-        RemoteClient remoteClient = new RemoteClient(coordinatorConnector, componentRegistry, WORKER_PING_INTERVAL_SECONDS,
+        RemoteClient remoteClient = new RemoteClient(coordinatorConnector, componentRegistry,
                 MEMBER_WORKER_SHUTDOWN_DELAY_SECONDS);
 
         SimulatorOperation operation = DEFAULT_INTEGRATION_TEST_OPERATION;
@@ -182,7 +184,7 @@ public class RemoteClientTest {
     @Test(expected = CommandLineExitException.class)
     public void testSendToAllWorkers_withErrorResponse() {
         initMock(ResponseType.EXCEPTION_DURING_OPERATION_EXECUTION);
-        RemoteClient remoteClient = new RemoteClient(coordinatorConnector, componentRegistry, WORKER_PING_INTERVAL_SECONDS,
+        RemoteClient remoteClient = new RemoteClient(coordinatorConnector, componentRegistry,
                 MEMBER_WORKER_SHUTDOWN_DELAY_SECONDS);
 
         SimulatorOperation operation = DEFAULT_INTEGRATION_TEST_OPERATION;
@@ -198,7 +200,7 @@ public class RemoteClientTest {
     public void testSendToFirstWorker() {
         initMock(ResponseType.SUCCESS);
 
-        RemoteClient remoteClient = new RemoteClient(coordinatorConnector, componentRegistry, WORKER_PING_INTERVAL_SECONDS,
+        RemoteClient remoteClient = new RemoteClient(coordinatorConnector, componentRegistry,
                 MEMBER_WORKER_SHUTDOWN_DELAY_SECONDS);
         SimulatorAddress firstWorkerAddress = componentRegistry.getFirstWorker().getAddress();
 
@@ -213,7 +215,7 @@ public class RemoteClientTest {
     public void testSendToFirstWorker_withErrorResponse() {
         initMock(ResponseType.EXCEPTION_DURING_OPERATION_EXECUTION);
 
-        RemoteClient remoteClient = new RemoteClient(coordinatorConnector, componentRegistry, WORKER_PING_INTERVAL_SECONDS,
+        RemoteClient remoteClient = new RemoteClient(coordinatorConnector, componentRegistry,
                 MEMBER_WORKER_SHUTDOWN_DELAY_SECONDS);
         SimulatorAddress firstWorkerAddress = componentRegistry.getFirstWorker().getAddress();
 
@@ -226,46 +228,6 @@ public class RemoteClientTest {
         }
     }
 
-    @Test
-    public void testPingWorkerThread_shouldStopAfterInterruptedException() {
-        Response response = new Response(1L, ALL_WORKERS);
-        response.addResponse(new SimulatorAddress(AddressLevel.WORKER, 1, 1, 0), ResponseType.SUCCESS);
-
-        when(coordinatorConnector.write(eq(ALL_WORKERS), any(PingOperation.class)))
-                .thenThrow(new SimulatorProtocolException("expected exception", new InterruptedException()))
-                .thenReturn(response);
-
-        RemoteClient remoteClient = new RemoteClient(coordinatorConnector, componentRegistry, 0,
-                MEMBER_WORKER_SHUTDOWN_DELAY_SECONDS);
-        remoteClient.startWorkerPingThread();
-
-        sleepMillis(500);
-
-        verify(coordinatorConnector).write(eq(ALL_WORKERS), any(PingOperation.class));
-        verifyNoMoreInteractions(coordinatorConnector);
-    }
-
-    @Test
-    public void testPingWorkerThread_shouldContinueAfterOtherException() {
-        Response response = new Response(1L, ALL_WORKERS);
-        response.addResponse(new SimulatorAddress(AddressLevel.WORKER, 1, 1, 0), ResponseType.SUCCESS);
-
-        when(coordinatorConnector.write(eq(ALL_WORKERS), any(PingOperation.class)))
-                .thenThrow(new SimulatorProtocolException("expected exception", new TimeoutException()))
-                .thenReturn(response);
-
-        RemoteClient remoteClient = new RemoteClient(coordinatorConnector, componentRegistry, 0,
-                MEMBER_WORKER_SHUTDOWN_DELAY_SECONDS);
-        remoteClient.startWorkerPingThread();
-
-        sleepMillis(500);
-
-        remoteClient.stopWorkerPingThread();
-
-        verify(coordinatorConnector, atLeast(2)).write(eq(ALL_WORKERS), any(PingOperation.class));
-        verifyNoMoreInteractions(coordinatorConnector);
-    }
-
     private void initMockForCreateWorkerOperation(ResponseType responseType) {
         if (responseType != null) {
             Response response = mock(Response.class);
@@ -21,19 +21,24 @@ import org.mockito.verification.VerificationMode;
 
 import java.io.File;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import static com.hazelcast.simulator.TestEnvironmentUtils.resetUserDir;
 import static com.hazelcast.simulator.TestEnvironmentUtils.setDistributionUserDir;
 import static com.hazelcast.simulator.protocol.core.AddressLevel.WORKER;
+import static com.hazelcast.simulator.test.TestPhase.SETUP;
 import static com.hazelcast.simulator.test.FailureType.WORKER_EXCEPTION;
 import static com.hazelcast.simulator.test.FailureType.WORKER_FINISHED;
 import static com.hazelcast.simulator.utils.CommonUtils.sleepMillis;
 import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
 import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.contains;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.atMost;
@@ -45,6 +50,11 @@ import static org.mockito.Mockito.when;
 
 public class TestCaseRunnerTest {
 
+    // way longer than the test timeouts, so a returning waiter proves it was woken up by an event
+    private static final long PHASE_COMPLETION_RECHECK_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final long MAX_WAKE_UP_MILLIS = 500;
+    private static final long WAITER_JOIN_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
     private TestSuite testSuite;
     private FailureOperation criticalFailureOperation;
 
@@ -245,11 +255,75 @@ public class TestCaseRunnerTest {
         verifyRemoteClient(coordinator);
     }
 
+    @Test(timeout = 30000)
+    public void waitForPhaseCompletion_wakesUpOnCompletedEvent() throws Exception {
+        TestCaseRunner testCaseRunner = createTestCaseRunner(createCoordinatorWithoutTestPhaseCompleter());
+        PhaseCompletionWaiter waiter = new PhaseCompletionWaiter(testCaseRunner, SETUP);
+        sleepMillis(100);
+
+        long completedNanos = System.nanoTime();
+        testCaseRunner.completed(SETUP);
+
+        assertWaiterReturnedAfter(waiter, completedNanos);
+        assertFalse(waiter.interrupted);
+    }
+
+    @Test(timeout = 30000)
+    public void waitForPhaseCompletion_abortsOnCriticalFailure() throws Exception {
+        Coordinator coordinator = createCoordinatorWithoutTestPhaseCompleter();
+        TestCaseRunner testCaseRunner = createTestCaseRunner(coordinator);
+        coordinator.getFailureContainer().addListener(testCaseRunner);
+        PhaseCompletionWaiter waiter = new PhaseCompletionWaiter(testCaseRunner, SETUP);
+        sleepMillis(100);
+
+        long failureNanos = System.nanoTime();
+        coordinator.getFailureContainer().addFailureOperation(criticalFailureOperation);
+
+        assertWaiterReturnedAfter(waiter, failureNanos);
+        assertFalse(waiter.interrupted);
+        verify(remoteClient).logOnAllAgents(contains("aborted (critical failure)"));
+    }
+
+    @Test(timeout = 30000)
+    public void waitForPhaseCompletion_keepsInterruptFlag() throws Exception {
+        TestCaseRunner testCaseRunner = createTestCaseRunner(createCoordinatorWithoutTestPhaseCompleter());
+        PhaseCompletionWaiter waiter = new PhaseCompletionWaiter(testCaseRunner, SETUP);
+        sleepMillis(100);
+
+        long interruptNanos = System.nanoTime();
+        waiter.interrupt();
+
+        assertWaiterReturnedAfter(waiter, interruptNanos);
+        assertTrue(waiter.interrupted);
+        verify(remoteClient).logOnAllAgents(contains("aborted (interrupted)"));
+    }
+
+    private TestCaseRunner createTestCaseRunner(Coordinator coordinator) {
+        TestCase testCase = testSuite.getTestCaseList().get(0);
+        return new TestCaseRunner(1, testCase, coordinator, testCase.getId().length(), null, PHASE_COMPLETION_RECHECK_MILLIS);
+    }
+
+    private static void assertWaiterReturnedAfter(PhaseCompletionWaiter waiter, long eventNanos) throws InterruptedException {
+        waiter.join(WAITER_JOIN_TIMEOUT_MILLIS);
+        assertFalse("waiter should have returned", waiter.isAlive());
+
+        long wakeUpMillis = TimeUnit.NANOSECONDS.toMillis(waiter.returnedNanos - eventNanos);
+        assertTrue("waiter took " + wakeUpMillis + " ms to wake up", wakeUpMillis < MAX_WAKE_UP_MILLIS);
+    }
+
     private Coordinator createCoordinator() {
         return createCoordinator(true);
     }
 
     private Coordinator createCoordinator(boolean finishWorker) {
+        Coordinator coordinator = createCoordinatorWithoutTestPhaseCompleter();
+
+        new TestPhaseCompleter(coordinator, finishWorker);
+
+        return coordinator;
+    }
+
+    private Coordinator createCoordinatorWithoutTestPhaseCompleter() {
         WorkerJvmSettings workerJvmSettings = mock(WorkerJvmSettings.class);
         when(workerJvmSettings.getWorkerIndex()).thenReturn(1);
 
@@ -279,8 +353,6 @@ public class TestCaseRunnerTest {
                 clusterLayoutParameters);
         coordinator.setRemoteClient(remoteClient);
 
-        new TestPhaseCompleter(coordinator, finishWorker);
-
         return coordinator;
     }
 
@@ -387,4 +459,31 @@ public class TestCaseRunnerTest {
             }
         }
     }
+
+    private static class PhaseCompletionWaiter extends Thread {
+
+        private final TestCaseRunner testCaseRunner;
+        private final TestPhase testPhase;
+
+        private volatile long returnedNanos;
+        private volatile boolean interrupted;
+
+        private PhaseCompletionWaiter(TestCaseRunner testCaseRunner, TestPhase testPhase) {
+            super("PhaseCompletionWaiter");
+
+            this.testCaseRunner = testCaseRunner;
+            this.testPhase = testPhase;
+
+            setDaemon(true);
+            start();
+        }
+
+        @Override
+        public void run() {
+            testCaseRunner.waitForPhaseCompletion(testPhase);
+
+            returnedNanos = System.nanoTime();
+            interrupted = Thread.currentThread().isInterrupted();
+        }
+    }
 }
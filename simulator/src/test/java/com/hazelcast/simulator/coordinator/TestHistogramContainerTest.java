@@ -1,7 +1,9 @@
 package com.hazelcast.simulator.coordinator;
 
 import com.hazelcast.simulator.protocol.core.AddressLevel;
+import com.hazelcast.simulator.probes.Result;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
+import com.hazelcast.simulator.protocol.operation.SteadyStateOperation;
 import com.hazelcast.simulator.worker.performance.PerformanceState;
 import org.HdrHistogram.Histogram;
 import org.junit.After;
@@ -12,14 +14,18 @@ import javax.xml.bind.DatatypeConverter;
 import java.io.File;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.Map;
 import java.util.Random;
 import java.util.zip.Deflater;
 
 import static com.hazelcast.simulator.probes.impl.ProbeImpl.LATENCY_PRECISION;
 import static com.hazelcast.simulator.probes.impl.ProbeImpl.MAXIMUM_LATENCY;
+import static com.hazelcast.simulator.probes.xml.ResultXmlUtils.fromXml;
 import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
 import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -59,6 +65,26 @@ public class TestHistogramContainerTest {
         assertTrue(probeFile.exists());
     }
 
+    @Test
+    public void testGetAggregatedTestHistograms() {
+        testHistogramContainer.addTestHistograms(workerAddress1, "testId", singletonMap("workerProbe", createEncodedHistogram()));
+        testHistogramContainer.addTestHistograms(workerAddress1, "testId", singletonMap("workerProbe", createEncodedHistogram()));
+        testHistogramContainer.addTestHistograms(workerAddress2, "testId", singletonMap("workerProbe", createEncodedHistogram()));
+
+        Map<String, Histogram> histograms = testHistogramContainer.getAggregatedTestHistograms("testId");
+        assertEquals(1, histograms.size());
+        assertEquals(30, histograms.get("workerProbe").getTotalCount());
+
+        Map<String, Histogram> workerHistograms = testHistogramContainer.getTestHistograms(workerAddress1).get("testId");
+        assertEquals(20, workerHistograms.get("workerProbe").getTotalCount());
+    }
+
+    @Test
+    public void testGetAggregatedTestHistograms_unknownTestId() {
+        Map<String, Histogram> histograms = testHistogramContainer.getAggregatedTestHistograms("unknownTestId");
+        assertTrue(histograms.isEmpty());
+    }
+
     @Test
     public void testCreateProbeResults_noHistogramForTestId() {
         String histogram = createEncodedHistogram();
@@ -76,6 +102,39 @@ public class TestHistogramContainerTest {
         assertFalse(probeFile.exists());
     }
 
+    @Test
+    public void testCreateProbeResults_withSteadyState() {
+        testHistogramContainer.addTestHistograms(workerAddress1, "testId", singletonMap("workerProbe", createEncodedHistogram()));
+        testHistogramContainer.addTestHistograms(workerAddress2, "testId", singletonMap("workerProbe", createEncodedHistogram()));
+
+        testHistogramContainer.addSteadyState(workerAddress1, new SteadyStateOperation("testId", 2000, 5000, 10000,
+                singletonMap("workerProbe", createEncodedHistogram())));
+        testHistogramContainer.addSteadyState(workerAddress2, new SteadyStateOperation("testId", 3000, 3000, 10000,
+                singletonMap("workerProbe", createEncodedHistogram())));
+
+        testHistogramContainer.createProbeResults("testSuiteId", "testId");
+        assertTrue(probeFile.exists());
+
+        Result result = fromXml(probeFile);
+        assertTrue(result.hasSteadyState());
+        assertEquals(3000, result.getWarmupMillis());
+        assertEquals(8000, result.getSteadyStateInvocations());
+        assertEquals(800.0, result.getSteadyStateThroughput(), 0.0001);
+        assertEquals(20, result.getHistogram("workerProbe").getTotalCount());
+        assertEquals(20, result.getSteadyStateHistogram("workerProbe").getTotalCount());
+    }
+
+    @Test
+    public void testCreateProbeResults_withoutSteadyState() {
+        testHistogramContainer.addTestHistograms(workerAddress1, "testId", singletonMap("workerProbe", createEncodedHistogram()));
+
+        testHistogramContainer.createProbeResults("testSuiteId", "testId");
+
+        Result result = fromXml(probeFile);
+        assertFalse(result.hasSteadyState());
+        assertNull(result.getSteadyStateHistogram("workerProbe"));
+    }
+
     @Test
     public void testCreateProbeResults_unknownTestId() {
         testHistogramContainer.createProbeResults("testSuiteId", "unknownTestId");
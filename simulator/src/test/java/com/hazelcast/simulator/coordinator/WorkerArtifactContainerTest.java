@@ -0,0 +1,101 @@
+package com.hazelcast.simulator.coordinator;
+
+import com.hazelcast.simulator.protocol.core.AddressLevel;
+import com.hazelcast.simulator.protocol.core.SimulatorAddress;
+import com.hazelcast.simulator.protocol.operation.ArtifactChunkOperation;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+import static com.hazelcast.simulator.coordinator.WorkerArtifactContainer.INDEX_FILE_NAME;
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.FileUtils.fileAsText;
+import static com.hazelcast.simulator.utils.ZipUtils.deflate;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WorkerArtifactContainerTest {
+
+    private static final String TEST_SUITE_ID = "testSuite";
+    private static final long LAST_MODIFIED = 1234567000L;
+
+    private final SimulatorAddress agentAddress = new SimulatorAddress(AddressLevel.AGENT, 1, 0, 0);
+    private final File artifactDirectory = new File("WorkerArtifactContainerTest-workers");
+    private final File logFile = new File(artifactDirectory, TEST_SUITE_ID + "/worker1/worker.log");
+
+    private WorkerArtifactContainer container;
+
+    @Before
+    public void setUp() {
+        container = new WorkerArtifactContainer(artifactDirectory);
+    }
+
+    @After
+    public void tearDown() {
+        deleteQuiet(artifactDirectory);
+    }
+
+    @Test
+    public void testAddChunk() throws Exception {
+        container.addChunk(agentAddress, createChunk("worker1/worker.log", 0, "worker log"));
+
+        assertEquals("worker log", fileAsText(logFile));
+        assertEquals(LAST_MODIFIED, logFile.lastModified());
+        assertEquals(10, container.getLength(TEST_SUITE_ID, "worker1/worker.log"));
+    }
+
+    @Test
+    public void testAddChunk_appended() throws Exception {
+        container.addChunk(agentAddress, createChunk("worker1/worker.log", 0, "worker log"));
+        container.addChunk(agentAddress, createChunk("worker1/worker.log", 10, " appended"));
+
+        assertEquals("worker log appended", fileAsText(logFile));
+        assertEquals(19, container.getLength(TEST_SUITE_ID, "worker1/worker.log"));
+    }
+
+    @Test
+    public void testAddChunk_resentFromBeginning() throws Exception {
+        container.addChunk(agentAddress, createChunk("worker1/worker.log", 0, "worker log"));
+        container.addChunk(agentAddress, createChunk("worker1/worker.log", 0, "new"));
+
+        assertEquals("new", fileAsText(logFile));
+        assertEquals(3, container.getLength(TEST_SUITE_ID, "worker1/worker.log"));
+    }
+
+    @Test
+    public void testAddChunk_index() throws Exception {
+        container.addChunk(agentAddress, createChunk("worker2/worker.log", 0, "second"));
+        container.addChunk(agentAddress, createChunk("worker1/worker.log", 0, "first"));
+
+        File indexFile = new File(artifactDirectory, TEST_SUITE_ID + "/" + INDEX_FILE_NAME);
+        assertTrue(indexFile.exists());
+
+        String[] lines = fileAsText(indexFile).trim().split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("#"));
+        assertEquals("worker1/worker.log 5 " + LAST_MODIFIED + " " + agentAddress, lines[1].trim());
+        assertEquals("worker2/worker.log 6 " + LAST_MODIFIED + " " + agentAddress, lines[2].trim());
+    }
+
+    @Test
+    public void testGetLength_notFound() {
+        assertEquals(-1, container.getLength(TEST_SUITE_ID, "worker1/worker.log"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddChunk_absolutePath() throws Exception {
+        container.addChunk(agentAddress, createChunk("/etc/passwd", 0, "invalid"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddChunk_parentPath() throws Exception {
+        container.addChunk(agentAddress, createChunk("worker1/../../passwd", 0, "invalid"));
+    }
+
+    private static ArtifactChunkOperation createChunk(String path, long offset, String content) {
+        byte[] data = content.getBytes();
+        return new ArtifactChunkOperation(TEST_SUITE_ID, path, offset, LAST_MODIFIED, deflate(data, data.length));
+    }
+}
@@ -0,0 +1,84 @@
+package com.hazelcast.simulator.coordinator;
+
+import com.hazelcast.simulator.protocol.core.SimulatorAddress;
+import com.hazelcast.simulator.protocol.operation.HeartbeatOperation;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.simulator.coordinator.WorkerHeartbeatContainer.formatHeartbeat;
+import static com.hazelcast.simulator.coordinator.WorkerHeartbeatContainer.isHeapUsageCritical;
+import static com.hazelcast.simulator.protocol.core.AddressLevel.WORKER;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class WorkerHeartbeatContainerTest {
+
+    private final SimulatorAddress workerAddress = new SimulatorAddress(WORKER, 1, 1, 0);
+
+    private final WorkerHeartbeatContainer container = new WorkerHeartbeatContainer();
+
+    @Test
+    public void testUpdateHeartbeat() {
+        HeartbeatOperation first = createHeartbeat(1000, 950, 10, -1);
+        HeartbeatOperation second = createHeartbeat(6000, 990, 20, -1);
+
+        container.updateHeartbeat(workerAddress, first);
+        container.updateHeartbeat(workerAddress, second);
+
+        assertEquals(second, container.getHeartbeat(workerAddress));
+        assertEquals(1, container.getHeartbeats().size());
+        assertNull(container.getHeartbeat(new SimulatorAddress(WORKER, 1, 2, 0)));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testGetHeartbeats_isUnmodifiable() {
+        container.getHeartbeats().clear();
+    }
+
+    @Test
+    public void testIsHeapUsageCritical() {
+        assertTrue(isHeapUsageCritical(createHeartbeat(1000, 900, 0, -1)));
+        assertFalse(isHeapUsageCritical(createHeartbeat(1000, 899, 0, -1)));
+    }
+
+    @Test
+    public void testIsHeapUsageCritical_undefinedHeapMax() {
+        assertFalse(isHeapUsageCritical(new HeartbeatOperation(1000, 500, -1, 0, -1, 10, 0)));
+    }
+
+    @Test
+    public void testFormatHeartbeat_withoutPrevious() {
+        String formatted = formatHeartbeat(null, createHeartbeat(1000, 500, 10, -1));
+
+        assertTrue(formatted.startsWith("heap 50"));
+        assertFalse(formatted.contains("GC"));
+        assertTrue(formatted.contains("threads 23"));
+        assertTrue(formatted.contains("queued operations 42"));
+    }
+
+    @Test
+    public void testFormatHeartbeat_withPrevious() {
+        HeartbeatOperation previous = createHeartbeat(1000, 500, 10, TimeUnit.MILLISECONDS.toNanos(100));
+        HeartbeatOperation current = createHeartbeat(6000, 500, 30, TimeUnit.MILLISECONDS.toNanos(400));
+
+        String formatted = formatHeartbeat(previous, current);
+
+        assertTrue(formatted.contains("GC 20 ms in 5000 ms"));
+        assertTrue(formatted.contains("thread CPU 300 ms"));
+    }
+
+    @Test
+    public void testFormatHeartbeat_withoutCpuTime() {
+        HeartbeatOperation previous = createHeartbeat(1000, 500, 10, -1);
+        HeartbeatOperation current = createHeartbeat(6000, 500, 30, -1);
+
+        assertFalse(formatHeartbeat(previous, current).contains("CPU"));
+    }
+
+    private static HeartbeatOperation createHeartbeat(long timestamp, long heapUsedBytes, long gcTimeMillis, long cpuTimeNanos) {
+        return new HeartbeatOperation(timestamp, heapUsedBytes, 1000, gcTimeMillis, cpuTimeNanos, 23, 42);
+    }
+}
@@ -43,6 +43,16 @@ public class HeatMapCliTest {
         init(getArgs());
     }
 
+    @Test
+    public void testInit_withLogScaleAndCsvOutput() {
+        args.add("--logScale");
+        args.add("--outputFormat");
+        args.add("csv");
+        args.add("--threadCount");
+        args.add("2");
+        init(getArgs());
+    }
+
     @Test(expected = ExitStatusZeroException.class)
     public void testInit_withHelp() {
         args.add("--help");
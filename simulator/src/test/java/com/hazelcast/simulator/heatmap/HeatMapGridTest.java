@@ -0,0 +1,86 @@
+package com.hazelcast.simulator.heatmap;
+
+import org.HdrHistogram.Histogram;
+import org.junit.Test;
+
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.LATENCY_PRECISION;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.MAXIMUM_LATENCY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HeatMapGridTest {
+
+    @Test
+    public void testGetRow_linearScale() {
+        HeatMapGrid grid = new HeatMapGrid(1, 10, 1, 1000, false);
+
+        assertEquals(0, grid.getRow(0));
+        assertEquals(0, grid.getRow(99));
+        assertEquals(1, grid.getRow(100));
+        assertEquals(5, grid.getRow(550));
+        assertEquals(9, grid.getRow(1000));
+        assertEquals(9, grid.getRow(5000));
+
+        assertEquals(0, grid.getLowValue(0));
+        assertEquals(500, grid.getLowValue(5));
+        assertEquals(600, grid.getHighValue(5));
+        assertEquals(1000, grid.getHighValue(9));
+    }
+
+    @Test
+    public void testGetRow_logScale() {
+        HeatMapGrid grid = new HeatMapGrid(1, 6, 1, 999999, true);
+
+        assertTrue(grid.isLogScale());
+        assertEquals(0, grid.getRow(0));
+        assertEquals(0, grid.getRow(8));
+        assertEquals(1, grid.getRow(10));
+        assertEquals(2, grid.getRow(150));
+        assertEquals(5, grid.getRow(999999));
+
+        assertEquals(99, grid.getLowValue(2));
+        assertEquals(999, grid.getHighValue(2));
+    }
+
+    @Test
+    public void testAddHistogram() {
+        HeatMapGrid grid = new HeatMapGrid(2, 10, 2, 1000, false);
+
+        grid.add(0, createHistogram(150, 5));
+        grid.add(1, createHistogram(150, 3));
+        grid.add(2, createHistogram(950, 7));
+        grid.add(4, createHistogram(950, 11));
+
+        assertEquals(8, grid.getCount(0, 1));
+        assertEquals(7, grid.getCount(1, 9));
+        assertEquals(0, grid.getCount(1, 1));
+        assertEquals(8, grid.getMaxCount());
+    }
+
+    @Test
+    public void testAddGrid() {
+        HeatMapGrid grid = new HeatMapGrid(2, 10, 1, 1000, false);
+        grid.add(0, createHistogram(150, 5));
+
+        HeatMapGrid other = grid.createEmptyCopy();
+        other.add(0, createHistogram(150, 3));
+        other.add(1, createHistogram(550, 2));
+
+        grid.add(other);
+
+        assertEquals(8, grid.getCount(0, 1));
+        assertEquals(2, grid.getCount(1, 5));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddGrid_differentDimensions() {
+        HeatMapGrid grid = new HeatMapGrid(2, 10, 1, 1000, false);
+        grid.add(new HeatMapGrid(3, 10, 1, 1000, false));
+    }
+
+    private static Histogram createHistogram(long value, int count) {
+        Histogram histogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+        histogram.recordValueWithCount(value, count);
+        return histogram;
+    }
+}
@@ -1,7 +1,9 @@
 package com.hazelcast.simulator.heatmap;
 
+import com.hazelcast.simulator.probes.store.IntervalStoreWriter;
 import com.hazelcast.simulator.provisioner.AbstractComputeServiceTest;
 import com.hazelcast.simulator.utils.CommandLineExitException;
+import org.HdrHistogram.Histogram;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -10,13 +12,18 @@ import java.io.File;
 import java.net.URL;
 
 import static com.hazelcast.simulator.heatmap.HeatMap.createHistogramLogReader;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.LATENCY_PRECISION;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.MAXIMUM_LATENCY;
+import static com.hazelcast.simulator.probes.store.IntervalStore.getDataFile;
 import static com.hazelcast.simulator.utils.FileUtils.appendText;
 import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
 import static com.hazelcast.simulator.utils.FileUtils.ensureExistingDirectory;
 import static com.hazelcast.simulator.utils.FileUtils.ensureExistingFile;
 import static com.hazelcast.simulator.utils.FileUtils.fileAsText;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 public class HeatMapTest extends AbstractComputeServiceTest {
 
@@ -49,6 +56,7 @@ public class HeatMapTest extends AbstractComputeServiceTest {
         heatMap.shutdown();
 
         deleteQuiet(directory);
+        deleteQuiet(heatMap.getOutputFile());
     }
 
     @Test
@@ -56,14 +64,55 @@ public class HeatMapTest extends AbstractComputeServiceTest {
         heatMap.createHeatMap();
 
         assertEquals(6, heatMap.getHistogramCount());
+        assertTrue(heatMap.getOutputFile().exists());
+    }
+
+    @Test
+    public void testCreateHeatMap_withLogScaleAndCsvOutput() {
+        heatMap.shutdown();
+        heatMap = new HeatMap(directory.getAbsolutePath(), "HeatMapTest", "", true, HeatMap.FORMAT_CSV, 2);
+        heatMap.createHeatMap();
+
+        assertEquals(6, heatMap.getHistogramCount());
+        assertEquals("heatmap-HeatMapTest.csv", heatMap.getOutputFile().getName());
+
+        String[] lines = fileAsText(heatMap.getOutputFile()).split("\n");
+        assertEquals(801, lines.length);
+        assertEquals("lowLatency,highLatency,0,1,2,3,4,5", lines[0]);
+    }
+
+    @Test(expected = CommandLineExitException.class)
+    public void testCreateHeatMap_invalidOutputFormat() {
+        new HeatMap(directory.getAbsolutePath(), "HeatMapTest", "", false, "gif", 1);
+    }
+
+    @Test
+    public void testCreateHeatMap_withIntervalStore() {
+        File directory3 = createDirectory(directory, "workers3");
+        IntervalStoreWriter writer = new IntervalStoreWriter(getDataFile(directory3, "HeatMapTest"), 0);
+        try {
+            for (int i = 0; i < 8; i++) {
+                writer.writeHistogram("HeatMapTestWorkerProbe", createHistogram(i * 1000, (i + 1) * 1000));
+                writer.writeHistogram("otherProbe", createHistogram(i * 1000, (i + 1) * 1000));
+            }
+            writer.writeHistogram("otherProbe", createHistogram(8000, 9000));
+        } finally {
+            writer.close();
+        }
+
+        heatMap.createHeatMap();
+
+        assertEquals(8, heatMap.getHistogramCount());
     }
 
     @Test
     public void testCreateHeatMap_invalidDirectory() {
+        heatMap.shutdown();
         heatMap = new HeatMap(new File("/dev/null").getAbsolutePath(), "", "");
         heatMap.createHeatMap();
 
         assertEquals(0, heatMap.getHistogramCount());
+        assertFalse(heatMap.getOutputFile().exists());
     }
 
     @Test(expected = CommandLineExitException.class)
@@ -88,6 +137,14 @@ public class HeatMapTest extends AbstractComputeServiceTest {
         ensureExistingFile(aggregatedFile);
     }
 
+    private static Histogram createHistogram(long startTimestamp, long endTimestamp) {
+        Histogram histogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+        histogram.recordValueWithCount(500, 10);
+        histogram.setStartTimeStamp(startTimestamp);
+        histogram.setEndTimeStamp(endTimestamp);
+        return histogram;
+    }
+
     private void createLatencyFile(ClassLoader classLoader, String resourceFile, File directory) {
         URL resource1 = classLoader.getResource(resourceFile);
         assertNotNull(resource1);
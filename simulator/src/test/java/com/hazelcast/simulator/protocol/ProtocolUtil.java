@@ -12,7 +12,7 @@ import com.hazelcast.simulator.protocol.connector.ServerConnector;
 import com.hazelcast.simulator.protocol.connector.WorkerConnector;
 import com.hazelcast.simulator.protocol.core.AddressLevel;
 import com.hazelcast.simulator.protocol.core.Response;
-import com.hazelcast.simulator.protocol.core.ResponseFuture;
+import com.hazelcast.simulator.protocol.core.ResponseFutureRegistry;
 import com.hazelcast.simulator.protocol.core.ResponseType;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.exception.ExceptionLogger;
@@ -25,14 +25,15 @@ import com.hazelcast.simulator.worker.WorkerType;
 import com.hazelcast.util.ExceptionUtil;
 import org.apache.log4j.Logger;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
-import java.util.concurrent.ConcurrentMap;
 
 import static com.hazelcast.simulator.TestEnvironmentUtils.deleteLogs;
 import static com.hazelcast.simulator.protocol.core.SimulatorAddress.COORDINATOR;
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
 import static java.lang.String.format;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
@@ -95,6 +96,7 @@ class ProtocolUtil {
         spawner.awaitCompletion();
 
         deleteLogs();
+        deleteQuiet(new File("failures-ProtocolUtil.txt"));
         LOGGER.info("Shutdown complete!");
     }
 
@@ -240,11 +242,10 @@ class ProtocolUtil {
 
     private static <C extends ServerConnector> void assertEmptyFutureMaps(List<C> connectorList, String connectorName) {
         for (C connector : connectorList) {
-            ConcurrentMap<String, ResponseFuture> futureMap = connector.getFutureMap();
-            int futureMapSize = futureMap.size();
-            if (futureMapSize > 0) {
-                LOGGER.error("Future entries: " + futureMap.toString());
-                fail(format("FutureMap of %s %s is not empty", connectorName, connector.getAddress()));
+            ResponseFutureRegistry futureRegistry = connector.getFutureRegistry();
+            if (!futureRegistry.isEmpty()) {
+                LOGGER.error("Future entries: " + futureRegistry.toString());
+                fail(format("ResponseFutureRegistry of %s %s is not empty", connectorName, connector.getAddress()));
             }
         }
     }
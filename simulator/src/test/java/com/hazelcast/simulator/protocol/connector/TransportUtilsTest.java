@@ -0,0 +1,60 @@
+package com.hazelcast.simulator.protocol.connector;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.junit.After;
+import org.junit.Test;
+
+import static com.hazelcast.simulator.protocol.connector.TransportUtils.createEventLoopGroup;
+import static com.hazelcast.simulator.protocol.connector.TransportUtils.getServerChannelClass;
+import static com.hazelcast.simulator.protocol.connector.TransportUtils.getSocketChannelClass;
+import static com.hazelcast.simulator.utils.ReflectionUtils.invokePrivateConstructor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TransportUtilsTest {
+
+    private EventLoopGroup group;
+
+    @After
+    public void tearDown() {
+        if (group != null) {
+            group.shutdownGracefully().syncUninterruptibly();
+        }
+    }
+
+    @Test
+    public void testConstructor() throws Exception {
+        invokePrivateConstructor(TransportUtils.class);
+    }
+
+    @Test
+    public void testCreateEventLoopGroup_nio() {
+        group = createEventLoopGroup(false, 1);
+
+        assertTrue(group instanceof NioEventLoopGroup);
+        assertEquals(NioServerSocketChannel.class, getServerChannelClass(group));
+        assertEquals(NioSocketChannel.class, getSocketChannelClass(group));
+    }
+
+    @Test
+    public void testCreateEventLoopGroup_native() {
+        group = createEventLoopGroup(true, 1);
+
+        if (Epoll.isAvailable()) {
+            assertTrue(group instanceof EpollEventLoopGroup);
+            assertEquals(EpollServerSocketChannel.class, getServerChannelClass(group));
+            assertEquals(EpollSocketChannel.class, getSocketChannelClass(group));
+        } else {
+            assertTrue(group instanceof NioEventLoopGroup);
+            assertEquals(NioServerSocketChannel.class, getServerChannelClass(group));
+            assertEquals(NioSocketChannel.class, getSocketChannelClass(group));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.hazelcast.simulator.protocol.core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.simulator.protocol.core.SimulatorAddress.COORDINATOR;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ResponseFutureRegistryTest {
+
+    private final SimulatorAddress agentAddress = new SimulatorAddress(AddressLevel.AGENT, 1, 0, 0);
+
+    private final ResponseFutureRegistry registry = new ResponseFutureRegistry();
+
+    @Test
+    public void testCreateFuture() {
+        ResponseFuture future = registry.createFuture(COORDINATOR, 42, 1);
+
+        assertFalse(registry.isEmpty());
+        assertEquals(1, registry.size());
+        assertSame(future, registry.get(COORDINATOR, 42, 1));
+    }
+
+    @Test
+    public void testCreateFuture_sameKey_replacesFuture() {
+        ResponseFuture future1 = registry.createFuture(COORDINATOR, 42, 1);
+        ResponseFuture future2 = registry.createFuture(COORDINATOR, 42, 1);
+
+        assertNotSame(future1, future2);
+        assertEquals(1, registry.size());
+        assertSame(future2, registry.get(COORDINATOR, 42, 1));
+    }
+
+    @Test
+    public void testGet_differentKeys() {
+        ResponseFuture future = registry.createFuture(COORDINATOR, 42, 1);
+
+        assertNull(registry.get(COORDINATOR, 42, 2));
+        assertNull(registry.get(COORDINATOR, 43, 1));
+        assertNull(registry.get(agentAddress, 42, 1));
+        assertSame(future, registry.get(new SimulatorAddress(AddressLevel.COORDINATOR, 0, 0, 0), 42, 1));
+    }
+
+    @Test
+    public void testRemove() {
+        ResponseFuture future = registry.createFuture(agentAddress, 42, 1);
+
+        assertSame(future, registry.remove(agentAddress, 42, 1));
+        assertNull(registry.remove(agentAddress, 42, 1));
+        assertTrue(registry.isEmpty());
+    }
+
+    @Test
+    public void testManyFutures() {
+        int count = 10000;
+        List<ResponseFuture> futures = new ArrayList<ResponseFuture>(count);
+        for (int i = 0; i < count; i++) {
+            futures.add(registry.createFuture(agentAddress, i, i % 7));
+        }
+        assertEquals(count, registry.size());
+
+        // remove every other future, so the remaining entries must survive the shifts of the deletions
+        for (int i = 0; i < count; i += 2) {
+            assertSame(futures.get(i), registry.remove(agentAddress, i, i % 7));
+        }
+        assertEquals(count / 2, registry.size());
+
+        for (int i = 0; i < count; i++) {
+            if (i % 2 == 0) {
+                assertNull(registry.get(agentAddress, i, i % 7));
+            } else {
+                assertSame(futures.get(i), registry.get(agentAddress, i, i % 7));
+            }
+        }
+    }
+
+    @Test
+    public void testToString() {
+        registry.createFuture(agentAddress, 42, 1);
+
+        String registryString = registry.toString();
+        assertTrue(registryString.contains(agentAddress.toString()));
+        assertTrue(registryString.contains("42"));
+        assertTrue(registryString.contains("pending"));
+    }
+}
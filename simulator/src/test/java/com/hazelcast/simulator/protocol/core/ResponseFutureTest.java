@@ -2,15 +2,11 @@ package com.hazelcast.simulator.protocol.core;
 
 import com.hazelcast.util.EmptyStatement;
 import org.junit.Test;
+import org.mockito.InOrder;
 
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
-import static com.hazelcast.simulator.protocol.core.ResponseFuture.createFutureKey;
-import static com.hazelcast.simulator.protocol.core.ResponseFuture.createInstance;
-import static com.hazelcast.simulator.protocol.core.ResponseFuture.getMessageIdFromFutureKey;
-import static com.hazelcast.simulator.protocol.core.ResponseFuture.getSourceFromFutureKey;
 import static com.hazelcast.simulator.protocol.core.ResponseType.SUCCESS;
 import static com.hazelcast.simulator.protocol.core.SimulatorAddress.COORDINATOR;
 import static com.hazelcast.simulator.utils.CommonUtils.sleepMillis;
@@ -18,39 +14,20 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 public class ResponseFutureTest {
 
     private static final Response DEFAULT_RESULT = new Response(1L, COORDINATOR, COORDINATOR, SUCCESS);
     private static final int DEFAULT_TIMEOUT_MS = 500;
 
-    private final ResponseFuture future = createInstance(new ConcurrentHashMap<String, ResponseFuture>(), "key");
+    private final ResponseFuture future = new ResponseFuture();
     private final FutureSetter futureSetter = new FutureSetter(DEFAULT_RESULT, DEFAULT_TIMEOUT_MS);
 
-    @Test
-    public void testCreateFutureKey() {
-        String futureKey = createFutureKey(COORDINATOR, 42, 23);
-        assertTrue(futureKey.contains(COORDINATOR.toString()));
-        assertTrue(futureKey.contains("42"));
-        assertTrue(futureKey.contains("23"));
-    }
-
-    @Test
-    public void testGetSourceFromFutureKey() {
-        SimulatorAddress expectedAddress = new SimulatorAddress(AddressLevel.WORKER, 4, 8, 0);
-        String futureKey = createFutureKey(expectedAddress, 42, 23);
-        SimulatorAddress actualAddress = getSourceFromFutureKey(futureKey);
-        assertEquals(expectedAddress, actualAddress);
-    }
-
-    @Test
-    public void testGetMessageIdFromFutureKey() {
-        SimulatorAddress expectedAddress = new SimulatorAddress(AddressLevel.TEST, 4, 8, 23);
-        String futureKey = createFutureKey(expectedAddress, 42, 23);
-        long messageId = getMessageIdFromFutureKey(futureKey);
-        assertEquals(42, messageId);
-    }
-
     @Test(expected = UnsupportedOperationException.class)
     public void testCancel() {
         future.cancel(true);
@@ -119,6 +96,81 @@ public class ResponseFutureTest {
         future.get(0, null);
     }
 
+    @Test
+    public void testSet_twice() throws Exception {
+        future.set(DEFAULT_RESULT);
+        future.set(new Response(2L, COORDINATOR, COORDINATOR, SUCCESS));
+
+        assertEquals(DEFAULT_RESULT, future.get());
+    }
+
+    @Test
+    public void testAddListener() {
+        ResponseListener listener = mock(ResponseListener.class);
+
+        future.addListener(listener);
+        verify(listener, never()).onResponse(any(Response.class));
+
+        future.set(DEFAULT_RESULT);
+
+        verify(listener).onResponse(DEFAULT_RESULT);
+    }
+
+    @Test
+    public void testAddListener_multipleListeners_notifiedInOrder() {
+        ResponseListener listener1 = mock(ResponseListener.class);
+        ResponseListener listener2 = mock(ResponseListener.class);
+        InOrder inOrder = inOrder(listener1, listener2);
+
+        future.addListener(listener1);
+        future.addListener(listener2);
+        future.set(DEFAULT_RESULT);
+
+        inOrder.verify(listener1).onResponse(DEFAULT_RESULT);
+        inOrder.verify(listener2).onResponse(DEFAULT_RESULT);
+    }
+
+    @Test
+    public void testAddListener_afterCompletion() {
+        ResponseListener listener = mock(ResponseListener.class);
+
+        future.set(DEFAULT_RESULT);
+        future.addListener(listener);
+
+        verify(listener).onResponse(DEFAULT_RESULT);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddListener_null() {
+        future.addListener(null);
+    }
+
+    @Test(timeout = 10000)
+    public void testGet_multipleWaitingThreadsAndListener() throws Exception {
+        ResponseListener listener = mock(ResponseListener.class);
+        future.addListener(listener);
+        FutureGetter getter1 = new FutureGetter();
+        FutureGetter getter2 = new FutureGetter();
+        getter1.start();
+        getter2.start();
+
+        futureSetter.start();
+        getter1.join();
+        getter2.join();
+
+        assertEquals(DEFAULT_RESULT, getter1.result);
+        assertEquals(DEFAULT_RESULT, getter2.result);
+        verify(listener).onResponse(DEFAULT_RESULT);
+    }
+
+    @Test
+    public void testGet_alreadyDone() throws Exception {
+        future.set(DEFAULT_RESULT);
+
+        assertEquals(DEFAULT_RESULT, future.get());
+        assertEquals(DEFAULT_RESULT, future.get(0, TimeUnit.MILLISECONDS));
+    }
+
     @Test
     public void testGet_interrupted() throws Exception {
         Thread thread = new Thread() {
@@ -155,4 +207,18 @@ public class ResponseFutureTest {
             future.set(result);
         }
     }
+
+    private class FutureGetter extends Thread {
+
+        private volatile Response result;
+
+        @Override
+        public void run() {
+            try {
+                result = future.get();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
 }
@@ -14,7 +14,7 @@ public class ResponseTest {
 
     @Test
     public void testConstructor_withSimulatorMessage() {
-        SimulatorMessage simulatorMessage = new SimulatorMessage(destination, COORDINATOR, 12345, null, null);
+        SimulatorMessage simulatorMessage = new SimulatorMessage(destination, COORDINATOR, 12345, null, (String) null);
         response = new Response(simulatorMessage);
 
         assertEquals(12345, response.getMessageId());
@@ -1,12 +1,26 @@
 package com.hazelcast.simulator.protocol.core;
 
+import com.hazelcast.simulator.protocol.operation.IntegrationTestOperation;
+import com.hazelcast.simulator.protocol.operation.OperationType;
+import com.hazelcast.simulator.protocol.operation.PerformanceStateOperation;
+import com.hazelcast.simulator.worker.performance.PerformanceState;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import org.junit.After;
 import org.junit.Test;
 
+import static com.hazelcast.simulator.protocol.core.SimulatorAddress.COORDINATOR;
 import static com.hazelcast.simulator.protocol.core.SimulatorMessageCodec.decodeSimulatorMessage;
+import static com.hazelcast.simulator.protocol.core.SimulatorMessageCodec.encodeByteBuf;
+import static com.hazelcast.simulator.protocol.core.SimulatorMessageCodec.getMessageId;
+import static com.hazelcast.simulator.protocol.core.SimulatorMessageCodec.isSimulatorMessage;
+import static com.hazelcast.simulator.protocol.operation.OperationCodec.fromSimulatorMessage;
+import static com.hazelcast.simulator.protocol.operation.OperationCodec.toJson;
 import static com.hazelcast.simulator.utils.ReflectionUtils.invokePrivateConstructor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class SimulatorMessageCodecTest {
 
@@ -33,4 +47,64 @@ public class SimulatorMessageCodecTest {
 
         decodeSimulatorMessage(buffer);
     }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decodeSimulatorMessage_invalidFormat() {
+        SimulatorAddress workerAddress = new SimulatorAddress(AddressLevel.WORKER, 1, 2, 0);
+        buffer = Unpooled.buffer();
+        encodeByteBuf(new SimulatorMessage(workerAddress, COORDINATOR, 1, OperationType.PING, "{}"), buffer);
+        buffer.setByte(buffer.writerIndex() - 3, 42);
+
+        decodeSimulatorMessage(buffer);
+    }
+
+    @Test
+    public void testEncodeDecode_jsonFormat() {
+        SimulatorAddress workerAddress = new SimulatorAddress(AddressLevel.WORKER, 1, 2, 0);
+        IntegrationTestOperation operation = new IntegrationTestOperation("test");
+        SimulatorMessage message = new SimulatorMessage(workerAddress, COORDINATOR, 23, OperationType.INTEGRATION_TEST,
+                operation);
+
+        buffer = Unpooled.buffer();
+        encodeByteBuf(message, buffer);
+
+        assertTrue(isSimulatorMessage(buffer));
+        assertEquals(23, getMessageId(buffer));
+        assertEquals(buffer.readableBytes() - BaseCodec.INT_SIZE, buffer.getInt(0));
+
+        SimulatorMessage decoded = decodeSimulatorMessage(buffer);
+        assertEquals(workerAddress, decoded.getDestination());
+        assertEquals(COORDINATOR, decoded.getSource());
+        assertEquals(23, decoded.getMessageId());
+        assertEquals(OperationType.INTEGRATION_TEST, decoded.getOperationType());
+        assertNull(decoded.getOperation());
+        assertEquals(toJson(operation), decoded.getOperationData());
+        assertEquals(0, buffer.readableBytes());
+    }
+
+    @Test
+    public void testEncodeDecode_binaryFormat() {
+        SimulatorAddress workerAddress = new SimulatorAddress(AddressLevel.WORKER, 1, 2, 0);
+        PerformanceStateOperation operation = new PerformanceStateOperation();
+        operation.addPerformanceState("testId", new PerformanceState(500, 10.0, 12.0, 5.5, 100, 200));
+        SimulatorMessage message = new SimulatorMessage(COORDINATOR, workerAddress, 42, OperationType.PERFORMANCE_STATE,
+                operation);
+
+        buffer = Unpooled.buffer();
+        encodeByteBuf(message, buffer);
+
+        assertEquals(buffer.readableBytes() - BaseCodec.INT_SIZE, buffer.getInt(0));
+
+        SimulatorMessage decoded = decodeSimulatorMessage(buffer);
+        assertEquals(COORDINATOR, decoded.getDestination());
+        assertEquals(workerAddress, decoded.getSource());
+        assertEquals(42, decoded.getMessageId());
+        assertEquals(OperationType.PERFORMANCE_STATE, decoded.getOperationType());
+        assertNotNull(decoded.getOperation());
+        assertNotNull(decoded.getOperationData());
+
+        PerformanceStateOperation decodedOperation = (PerformanceStateOperation) fromSimulatorMessage(decoded);
+        assertEquals(500, decodedOperation.getPerformanceStates().get("testId").getOperationCount());
+        assertEquals(0, buffer.readableBytes());
+    }
 }
@@ -1,34 +1,65 @@
 package com.hazelcast.simulator.protocol.exception;
 
 import com.hazelcast.simulator.protocol.connector.ServerConnector;
+import com.hazelcast.simulator.protocol.core.Response;
+import com.hazelcast.simulator.protocol.core.ResponseFuture;
+import com.hazelcast.simulator.protocol.core.ResponseFutureRegistry;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
+import com.hazelcast.simulator.protocol.operation.ExceptionOperation;
 import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
-import com.hazelcast.simulator.utils.AssertTask;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.simulator.protocol.core.ResponseType.FAILURE_COORDINATOR_NOT_FOUND;
 import static com.hazelcast.simulator.protocol.core.SimulatorAddress.COORDINATOR;
 import static com.hazelcast.simulator.protocol.exception.ExceptionLogger.MAX_EXCEPTION_COUNT;
 import static com.hazelcast.simulator.protocol.exception.ExceptionType.WORKER_EXCEPTION;
-import static com.hazelcast.simulator.utils.TestUtils.assertTrueEventually;
+import static com.hazelcast.simulator.protocol.exception.RemoteExceptionLogger.MAX_OPERATIONS_PER_FLUSH;
+import static com.hazelcast.simulator.protocol.exception.RemoteExceptionLogger.getSignature;
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
 
 public class RemoteExceptionLoggerTest {
 
-    private static final long ASSERT_EVENTUALLY_TIMEOUT_SECONDS = 3;
+    private static final int FLUSH_INTERVAL_MILLIS = (int) TimeUnit.HOURS.toMillis(1);
+
+    private static final File EXCEPTION_FILE = new File("1.exception");
 
+    private ResponseFuture responseFuture;
     private ServerConnector serverConnector;
     private RemoteExceptionLogger exceptionLogger;
 
     @Before
     public void setUp() {
+        deleteQuiet(EXCEPTION_FILE);
+
+        responseFuture = new ResponseFutureRegistry().createFuture(COORDINATOR, 1, 0);
+
         serverConnector = mock(ServerConnector.class);
-        exceptionLogger = new RemoteExceptionLogger(COORDINATOR, WORKER_EXCEPTION, serverConnector);
+        when(serverConnector.submit(any(SimulatorAddress.class), any(SimulatorOperation.class))).thenReturn(responseFuture);
+
+        exceptionLogger = new RemoteExceptionLogger(COORDINATOR, WORKER_EXCEPTION, serverConnector, FLUSH_INTERVAL_MILLIS);
+    }
+
+    @After
+    public void tearDown() {
+        exceptionLogger.shutdown();
+
+        deleteQuiet(EXCEPTION_FILE);
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -37,22 +68,131 @@ public class RemoteExceptionLoggerTest {
     }
 
     @Test
-    public void testLog_exceptionCountExceeded() {
-        final int expectedLogInvocationCount = MAX_EXCEPTION_COUNT * 2;
-        Exception exception = new IllegalArgumentException("test");
-
+    public void testLog_sameExceptionIsGrouped() {
+        int expectedLogInvocationCount = MAX_EXCEPTION_COUNT * 2;
         for (int i = 0; i < expectedLogInvocationCount; i++) {
-            exceptionLogger.log(exception);
+            exceptionLogger.log(new IllegalArgumentException("test" + i), "testId");
+        }
+
+        assertEquals(expectedLogInvocationCount, exceptionLogger.getLogInvocationCount());
+        assertEquals(1, exceptionLogger.getPendingCount());
+
+        exceptionLogger.flush();
+
+        ExceptionOperation operation = getSubmittedOperation();
+        assertEquals(expectedLogInvocationCount, operation.getCount());
+        assertEquals("testId", operation.getTestId());
+        assertEquals(0, exceptionLogger.getPendingCount());
+    }
+
+    @Test
+    public void testLog_differentExceptionsAreNotGrouped() {
+        exceptionLogger.log(new IllegalArgumentException("test"));
+        exceptionLogger.log(new IllegalStateException("test"));
+        exceptionLogger.log(new IllegalArgumentException("test"), "testId");
+
+        assertEquals(3, exceptionLogger.getPendingCount());
+
+        exceptionLogger.flush();
+
+        verify(serverConnector, times(3)).submit(eq(COORDINATOR), any(SimulatorOperation.class));
+        verifyNoMoreInteractions(serverConnector);
+    }
+
+    @Test
+    public void testLog_afterFlush() {
+        exceptionLogger.log(new IllegalArgumentException("test"));
+        exceptionLogger.flush();
+
+        exceptionLogger.log(new IllegalArgumentException("test"));
+        exceptionLogger.flush();
+
+        verify(serverConnector, times(2)).submit(eq(COORDINATOR), any(SimulatorOperation.class));
+        verifyNoMoreInteractions(serverConnector);
+    }
+
+    @Test
+    public void testLog_pendingExceptionsExceeded() {
+        for (int i = 0; i < MAX_EXCEPTION_COUNT * 2; i++) {
+            exceptionLogger.log(new IllegalArgumentException("test"), "testId" + i);
         }
 
-        assertTrueEventually(new AssertTask() {
-            @Override
-            public void run() throws Exception {
-                assertEquals(expectedLogInvocationCount, exceptionLogger.getLogInvocationCount());
-            }
-        }, ASSERT_EVENTUALLY_TIMEOUT_SECONDS);
+        assertEquals(MAX_EXCEPTION_COUNT, exceptionLogger.getPendingCount());
+
+        // sends all pending exceptions, so no exception files are written on shutdown
+        while (exceptionLogger.getPendingCount() > 0) {
+            exceptionLogger.flush();
+        }
+    }
+
+    @Test
+    public void testFlush_isRateLimited() {
+        int exceptionCount = MAX_OPERATIONS_PER_FLUSH + 1;
+        for (int i = 0; i < exceptionCount; i++) {
+            exceptionLogger.log(new IllegalArgumentException("test"), "testId" + i);
+        }
+
+        exceptionLogger.flush();
+
+        verify(serverConnector, times(MAX_OPERATIONS_PER_FLUSH)).submit(eq(COORDINATOR), any(SimulatorOperation.class));
+        assertEquals(1, exceptionLogger.getPendingCount());
+    }
+
+    @Test
+    public void testFlush_undeliveredExceptionIsWrittenToFile() {
+        responseFuture.set(new Response(1, COORDINATOR, COORDINATOR, FAILURE_COORDINATOR_NOT_FOUND));
+
+        exceptionLogger.log(new IllegalArgumentException("test"));
+        exceptionLogger.flush();
+        assertFalse(EXCEPTION_FILE.exists());
+
+        exceptionLogger.flush();
+        assertTrue(EXCEPTION_FILE.exists());
+    }
+
+    @Test
+    public void testShutdown_pendingExceptionIsWrittenToFile() {
+        exceptionLogger.log(new IllegalArgumentException("test"));
+
+        exceptionLogger.shutdown();
+
+        assertTrue(EXCEPTION_FILE.exists());
+        verifyNoMoreInteractions(serverConnector);
+    }
+
+    @Test
+    public void testLog_afterShutdown() {
+        exceptionLogger.shutdown();
+
+        exceptionLogger.log(new IllegalArgumentException("test"));
+
+        assertTrue(EXCEPTION_FILE.exists());
+        assertEquals(0, exceptionLogger.getPendingCount());
+    }
+
+    @Test
+    public void testGetSignature() {
+        Exception first = new IllegalArgumentException("first");
+        Exception second = new IllegalArgumentException("second");
+
+        assertFalse(getSignature("testId", first).equals(getSignature("testId", second)));
+        assertFalse(getSignature("testId", first).equals(getSignature("otherTestId", first)));
+    }
+
+    @Test
+    public void testGetSignature_ignoresMessage() {
+        String[] signatures = new String[2];
+        for (int i = 0; i < signatures.length; i++) {
+            signatures[i] = getSignature("testId", new IllegalArgumentException("message" + i));
+        }
+
+        assertEquals(signatures[0], signatures[1]);
+    }
 
-        verify(serverConnector, times(MAX_EXCEPTION_COUNT)).submit(any(SimulatorAddress.class), any(SimulatorOperation.class));
+    private ExceptionOperation getSubmittedOperation() {
+        ArgumentCaptor<SimulatorOperation> captor = ArgumentCaptor.forClass(SimulatorOperation.class);
+        verify(serverConnector).submit(eq(COORDINATOR), captor.capture());
         verifyNoMoreInteractions(serverConnector);
+        return (ExceptionOperation) captor.getValue();
     }
 }
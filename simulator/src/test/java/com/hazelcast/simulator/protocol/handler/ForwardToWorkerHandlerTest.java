@@ -1,11 +1,14 @@
 package com.hazelcast.simulator.protocol.handler;
 
+import com.hazelcast.simulator.protocol.connector.ClientConnector;
 import com.hazelcast.simulator.protocol.core.AddressLevel;
 import com.hazelcast.simulator.protocol.core.ClientConnectorManager;
 import com.hazelcast.simulator.protocol.core.Response;
 import com.hazelcast.simulator.protocol.core.ResponseCodec;
+import com.hazelcast.simulator.protocol.core.ResponseFuture;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
-import com.hazelcast.simulator.utils.ExecutorFactory;
+import com.hazelcast.simulator.protocol.core.SimulatorMessage;
+import com.hazelcast.simulator.protocol.core.SimulatorMessageCodec;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
@@ -15,13 +18,18 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.TimeUnit;
-
+import static com.hazelcast.simulator.protocol.core.ResponseType.FAILURE_WORKER_NOT_FOUND;
+import static com.hazelcast.simulator.protocol.core.ResponseType.SUCCESS;
+import static com.hazelcast.simulator.protocol.core.SimulatorAddress.COORDINATOR;
+import static com.hazelcast.simulator.protocol.operation.OperationType.INTEGRATION_TEST;
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -30,7 +38,7 @@ import static org.mockito.Mockito.when;
 public class ForwardToWorkerHandlerTest {
 
     private final AttributeKey<Integer> forwardAddressIndex = AttributeKey.valueOf("forwardAddressIndex");
-    private final ExecutorService executorService = ExecutorFactory.createFixedThreadPool(2, "ForwardToWorkerHandlerTest");
+    private final ClientConnectorManager clientConnectorManager = new ClientConnectorManager();
 
     @Mock
     private Attribute<Integer> forwardAddressIndexAttribute;
@@ -48,20 +56,15 @@ public class ForwardToWorkerHandlerTest {
 
         when(ctx.attr(forwardAddressIndex)).thenReturn(forwardAddressIndexAttribute);
 
-        ClientConnectorManager clientConnectorManager = new ClientConnectorManager();
-
-        forwardToWorkerHandler = new ForwardToWorkerHandler(SimulatorAddress.COORDINATOR, clientConnectorManager,
-                executorService);
+        SimulatorAddress agentAddress = new SimulatorAddress(AddressLevel.AGENT, 1, 0, 0);
+        forwardToWorkerHandler = new ForwardToWorkerHandler(agentAddress, clientConnectorManager);
     }
 
     @After
-    public void tearDown() throws Exception {
+    public void tearDown() {
         if (buffer != null) {
             buffer.release();
         }
-
-        executorService.shutdown();
-        executorService.awaitTermination(1, TimeUnit.SECONDS);
     }
 
     @Test
@@ -78,4 +81,87 @@ public class ForwardToWorkerHandlerTest {
         verify(ctx).writeAndFlush(any(Response.class));
         verifyNoMoreInteractions(ctx);
     }
+
+    @Test
+    public void testChannelRead0_forwardMessage_WorkerNotFound() throws Exception {
+        buffer = createMessageBuffer(new SimulatorAddress(AddressLevel.WORKER, 1, 1, 0));
+
+        forwardToWorkerHandler.channelRead0(ctx, buffer);
+
+        Response response = getWrittenResponse();
+        assertEquals(FAILURE_WORKER_NOT_FOUND, response.getFirstErrorResponseType());
+    }
+
+    @Test
+    public void testChannelRead0_forwardMessage_toSingleWorker() throws Exception {
+        ResponseFuture future = addWorker(1);
+        buffer = createMessageBuffer(new SimulatorAddress(AddressLevel.WORKER, 1, 1, 0));
+
+        forwardToWorkerHandler.channelRead0(ctx, buffer);
+        verify(ctx, never()).writeAndFlush(any());
+
+        future.set(createWorkerResponse(1));
+
+        Response response = getWrittenResponse();
+        assertEquals(1, response.size());
+        assertEquals(SUCCESS, response.getFirstErrorResponseType());
+    }
+
+    @Test
+    public void testChannelRead0_forwardMessage_toAllWorkers() throws Exception {
+        when(forwardAddressIndexAttribute.get()).thenReturn(0);
+        ResponseFuture future1 = addWorker(1);
+        ResponseFuture future2 = addWorker(2);
+        ResponseFuture future3 = addWorker(3);
+        buffer = createMessageBuffer(new SimulatorAddress(AddressLevel.WORKER, 1, 0, 0));
+
+        forwardToWorkerHandler.channelRead0(ctx, buffer);
+
+        future2.set(createWorkerResponse(2));
+        future1.set(createWorkerResponse(1));
+        verify(ctx, never()).writeAndFlush(any());
+
+        future3.set(createWorkerResponse(3));
+
+        Response response = getWrittenResponse();
+        assertEquals(3, response.size());
+        assertEquals(SUCCESS, response.getFirstErrorResponseType());
+    }
+
+    @Test
+    public void testChannelRead0_forwardMessage_toAllWorkers_noWorkers() throws Exception {
+        when(forwardAddressIndexAttribute.get()).thenReturn(0);
+        buffer = createMessageBuffer(new SimulatorAddress(AddressLevel.WORKER, 1, 0, 0));
+
+        forwardToWorkerHandler.channelRead0(ctx, buffer);
+
+        Response response = getWrittenResponse();
+        assertEquals(0, response.size());
+    }
+
+    private ResponseFuture addWorker(int workerIndex) {
+        ResponseFuture future = new ResponseFuture();
+        ClientConnector clientConnector = mock(ClientConnector.class);
+        when(clientConnector.writeAsync(any(ByteBuf.class))).thenReturn(future);
+
+        clientConnectorManager.addClient(workerIndex, clientConnector);
+        return future;
+    }
+
+    private Response getWrittenResponse() {
+        ArgumentCaptor<Response> captor = ArgumentCaptor.forClass(Response.class);
+        verify(ctx).writeAndFlush(captor.capture());
+        return captor.getValue();
+    }
+
+    private static ByteBuf createMessageBuffer(SimulatorAddress destination) {
+        SimulatorMessage message = new SimulatorMessage(destination, COORDINATOR, 42, INTEGRATION_TEST, "{}");
+        ByteBuf buffer = Unpooled.buffer();
+        SimulatorMessageCodec.encodeByteBuf(message, buffer);
+        return buffer;
+    }
+
+    private static Response createWorkerResponse(int workerIndex) {
+        return new Response(42, COORDINATOR, new SimulatorAddress(AddressLevel.WORKER, 1, workerIndex, 0), SUCCESS);
+    }
 }
@@ -0,0 +1,229 @@
+package com.hazelcast.simulator.protocol.operation;
+
+import com.hazelcast.simulator.test.TestPhase;
+import com.hazelcast.simulator.worker.performance.PerformanceState;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.HdrHistogram.Histogram;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.LATENCY_PRECISION;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.MAXIMUM_LATENCY;
+import static com.hazelcast.simulator.protocol.operation.BinaryOperationCodec.decodeSimulatorOperation;
+import static com.hazelcast.simulator.protocol.operation.BinaryOperationCodec.encodeByteBuf;
+import static com.hazelcast.simulator.protocol.operation.BinaryOperationCodec.hasBinaryCodec;
+import static com.hazelcast.simulator.protocol.operation.BinaryOperationCodec.isBinaryFormat;
+import static com.hazelcast.simulator.utils.HistogramUtils.decodeHistogram;
+import static com.hazelcast.simulator.utils.HistogramUtils.encodeHistogram;
+import static com.hazelcast.simulator.utils.HistogramUtils.encodeHistogramToBytes;
+import static com.hazelcast.simulator.utils.ReflectionUtils.invokePrivateConstructor;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BinaryOperationCodecTest {
+
+    private ByteBuf buffer;
+
+    @Before
+    public void setUp() {
+        buffer = Unpooled.buffer();
+    }
+
+    @After
+    public void tearDown() {
+        buffer.release();
+    }
+
+    @Test
+    public void testConstructor() throws Exception {
+        invokePrivateConstructor(BinaryOperationCodec.class);
+    }
+
+    @Test
+    public void testHasBinaryCodec() {
+        assertTrue(hasBinaryCodec(OperationType.PERFORMANCE_STATE));
+        assertTrue(hasBinaryCodec(OperationType.TEST_HISTOGRAMS));
+        assertTrue(hasBinaryCodec(OperationType.BATCH));
+        assertTrue(hasBinaryCodec(OperationType.HEARTBEAT));
+        assertTrue(hasBinaryCodec(OperationType.ARTIFACT_CHUNK));
+        assertFalse(hasBinaryCodec(OperationType.CREATE_WORKER));
+    }
+
+    @Test
+    public void testIsBinaryFormat() {
+        assertTrue(isBinaryFormat(OperationType.PERFORMANCE_STATE));
+        assertFalse(isBinaryFormat(OperationType.INTEGRATION_TEST));
+    }
+
+    @Test
+    public void testPerformanceStateOperation() {
+        PerformanceStateOperation operation = new PerformanceStateOperation();
+        operation.addPerformanceState("testId1", new PerformanceState(1000, 50.0, 42.5, 23.1, 150, 2500));
+        operation.addPerformanceState("testId2", new PerformanceState());
+
+        PerformanceStateOperation decoded = (PerformanceStateOperation) encodeAndDecode(OperationType.PERFORMANCE_STATE,
+                operation);
+
+        Map<String, PerformanceState> performanceStates = decoded.getPerformanceStates();
+        assertEquals(2, performanceStates.size());
+
+        PerformanceState performanceState = performanceStates.get("testId1");
+        assertEquals(1000, performanceState.getOperationCount());
+        assertEquals(50.0, performanceState.getIntervalThroughput(), 0.00001);
+        assertEquals(42.5, performanceState.getTotalThroughput(), 0.00001);
+        assertEquals(23.1, performanceState.getIntervalAvgLatency(), 0.00001);
+        assertEquals(150, performanceState.getIntervalPercentileLatency());
+        assertEquals(2500, performanceState.getIntervalMaxLatency());
+
+        assertTrue(performanceStates.get("testId2").isEmpty());
+        assertEquals(0, buffer.readableBytes());
+    }
+
+    @Test
+    public void testTestHistogramOperation() {
+        Histogram histogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+        histogram.recordValueWithCount(1000, 10);
+        Map<String, String> probeHistograms = new HashMap<String, String>();
+        probeHistograms.put("probe1", encodeHistogram(histogram));
+        probeHistograms.put("probe\u00e42", encodeHistogram(new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION)));
+        TestHistogramOperation operation = new TestHistogramOperation("testId", probeHistograms);
+
+        TestHistogramOperation decoded = (TestHistogramOperation) encodeAndDecode(OperationType.TEST_HISTOGRAMS, operation);
+
+        assertEquals("testId", decoded.getTestId());
+        assertEquals(probeHistograms, decoded.getProbeHistograms());
+        assertEquals(histogram, decodeHistogram(decoded.getProbeHistograms().get("probe1")));
+        assertEquals(0, buffer.readableBytes());
+    }
+
+    @Test
+    public void testTestHistogramOperation_writesCompressedBytes() {
+        Histogram histogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+        histogram.recordValueWithCount(1000, 10);
+        byte[] compressedHistogram = encodeHistogramToBytes(histogram);
+        TestHistogramOperation operation = new TestHistogramOperation("testId",
+                Collections.singletonMap("probe", encodeHistogram(histogram)));
+
+        encodeByteBuf(OperationType.TEST_HISTOGRAMS, operation, buffer);
+
+        // testId, map size, probe name and the length prefixed histogram without Base64 encoding
+        assertEquals((4 + 6) + 4 + (4 + 5) + (4 + compressedHistogram.length), buffer.readableBytes());
+    }
+
+    @Test
+    public void testTestHistogramOperation_nullHistogram() {
+        Map<String, String> probeHistograms = new HashMap<String, String>();
+        probeHistograms.put("probe", null);
+        TestHistogramOperation operation = new TestHistogramOperation("testId", probeHistograms);
+
+        TestHistogramOperation decoded = (TestHistogramOperation) encodeAndDecode(OperationType.TEST_HISTOGRAMS, operation);
+
+        assertTrue(decoded.getProbeHistograms().containsKey("probe"));
+        assertNull(decoded.getProbeHistograms().get("probe"));
+    }
+
+    @Test
+    public void testTestHistogramOperation_nullTestId() {
+        TestHistogramOperation operation = new TestHistogramOperation(null, new HashMap<String, String>());
+
+        TestHistogramOperation decoded = (TestHistogramOperation) encodeAndDecode(OperationType.TEST_HISTOGRAMS, operation);
+
+        assertNull(decoded.getTestId());
+        assertTrue(decoded.getProbeHistograms().isEmpty());
+    }
+
+    @Test
+    public void testPhaseCompletedOperation() {
+        PhaseCompletedOperation operation = new PhaseCompletedOperation(TestPhase.LOCAL_VERIFY);
+
+        PhaseCompletedOperation decoded = (PhaseCompletedOperation) encodeAndDecode(OperationType.PHASE_COMPLETED, operation);
+
+        assertEquals(TestPhase.LOCAL_VERIFY, decoded.getTestPhase());
+    }
+
+    @Test
+    public void testPingAndPongOperation() {
+        assertTrue(encodeAndDecode(OperationType.PING, new PingOperation()) instanceof PingOperation);
+        assertTrue(encodeAndDecode(OperationType.PONG, new PongOperation()) instanceof PongOperation);
+    }
+
+    @Test
+    public void testBatchOperation() {
+        BatchOperation operation = new BatchOperation();
+        operation.addOperation(new PhaseCompletedOperation(TestPhase.SETUP));
+        operation.addOperation(new LogOperation("log message"));
+        operation.addOperation(new PongOperation());
+
+        BatchOperation decoded = (BatchOperation) encodeAndDecode(OperationType.BATCH, operation);
+
+        List<SimulatorOperation> operations = decoded.getOperations();
+        assertEquals(3, operations.size());
+        assertEquals(TestPhase.SETUP, ((PhaseCompletedOperation) operations.get(0)).getTestPhase());
+        assertEquals("log message", ((LogOperation) operations.get(1)).getMessage());
+        assertTrue(operations.get(2) instanceof PongOperation);
+        assertEquals(0, buffer.readableBytes());
+    }
+
+    @Test
+    public void testBatchOperation_empty() {
+        BatchOperation decoded = (BatchOperation) encodeAndDecode(OperationType.BATCH, new BatchOperation());
+
+        assertTrue(decoded.getOperations().isEmpty());
+    }
+
+    @Test
+    public void testHeartbeatOperation() {
+        HeartbeatOperation operation = new HeartbeatOperation(1000L, 2000L, 3000L, 40L, 5000L, 23, 42);
+
+        HeartbeatOperation decoded = (HeartbeatOperation) encodeAndDecode(OperationType.HEARTBEAT, operation);
+
+        assertEquals(1000L, decoded.getTimestamp());
+        assertEquals(2000L, decoded.getHeapUsedBytes());
+        assertEquals(3000L, decoded.getHeapMaxBytes());
+        assertEquals(40L, decoded.getGcTimeMillis());
+        assertEquals(5000L, decoded.getCpuTimeNanos());
+        assertEquals(23, decoded.getThreadCount());
+        assertEquals(42, decoded.getQueuedOperations());
+        assertEquals(0, buffer.readableBytes());
+    }
+
+    @Test
+    public void testArtifactChunkOperation() {
+        byte[] data = new byte[]{1, 2, 3, 4, 5};
+        ArtifactChunkOperation operation = new ArtifactChunkOperation("testSuiteId", "worker1/worker.log", 2048, 1000L, data);
+
+        ArtifactChunkOperation decoded = (ArtifactChunkOperation) encodeAndDecode(OperationType.ARTIFACT_CHUNK, operation);
+
+        assertEquals("testSuiteId", decoded.getTestSuiteId());
+        assertEquals("worker1/worker.log", decoded.getPath());
+        assertEquals(2048, decoded.getOffset());
+        assertEquals(1000L, decoded.getLastModified());
+        assertArrayEquals(data, decoded.getCompressedData());
+        assertEquals(0, buffer.readableBytes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEncode_unsupportedOperationType() {
+        encodeByteBuf(OperationType.INTEGRATION_TEST, new IntegrationTestOperation("test"), buffer);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecode_unsupportedOperationType() {
+        decodeSimulatorOperation(OperationType.INTEGRATION_TEST, buffer);
+    }
+
+    private SimulatorOperation encodeAndDecode(OperationType operationType, SimulatorOperation operation) {
+        encodeByteBuf(operationType, operation, buffer);
+        return decodeSimulatorOperation(operationType, buffer);
+    }
+}
@@ -3,8 +3,11 @@ package com.hazelcast.simulator.protocol.operation;
 import com.hazelcast.simulator.agent.workerjvm.WorkerJvmSettings;
 import com.hazelcast.simulator.common.SimulatorProperties;
 import com.hazelcast.simulator.coordinator.WorkerParameters;
+import com.hazelcast.simulator.protocol.core.AddressLevel;
+import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.core.SimulatorMessage;
 import com.hazelcast.simulator.worker.WorkerType;
+import com.hazelcast.simulator.worker.performance.PerformanceState;
 import org.apache.log4j.Logger;
 import org.junit.Test;
 
@@ -85,4 +88,21 @@ public class OperationCodecTest {
         assertEquals(workerJvmSettings.getProfilerSettings(), decodedSettings.getProfilerSettings());
         assertEquals(workerJvmSettings.getNumaCtl(), decodedSettings.getNumaCtl());
     }
+
+    @Test
+    public void testCodec_withWorkerPerformanceStatesOperation() {
+        SimulatorAddress workerAddress = new SimulatorAddress(AddressLevel.WORKER, 2, 3, 0);
+        WorkerPerformanceStatesOperation operation = new WorkerPerformanceStatesOperation();
+        operation.addWorkerPerformanceStates(workerAddress, Collections.singletonMap("testId",
+                new PerformanceState(1000, 50, 100, 12.0d, 23, 42)));
+
+        String json = OperationCodec.toJson(operation);
+        assertNotNull(json);
+
+        WorkerPerformanceStatesOperation decoded = (WorkerPerformanceStatesOperation) OperationCodec.fromJson(json,
+                WorkerPerformanceStatesOperation.class);
+        PerformanceState performanceState = decoded.getWorkerPerformanceStates().get(workerAddress).get("testId");
+        assertEquals(1000, performanceState.getOperationCount());
+        assertEquals(100, performanceState.getTotalThroughput(), 0.0001);
+    }
 }
@@ -1,10 +1,12 @@
 package com.hazelcast.simulator.protocol.processors;
 
 import com.hazelcast.simulator.agent.Agent;
+import com.hazelcast.simulator.agent.workerjvm.WorkerArtifactStreamer;
 import com.hazelcast.simulator.agent.workerjvm.WorkerJvm;
 import com.hazelcast.simulator.agent.workerjvm.WorkerJvmFailureMonitor;
 import com.hazelcast.simulator.agent.workerjvm.WorkerJvmManager;
 import com.hazelcast.simulator.agent.workerjvm.WorkerJvmSettings;
+import com.hazelcast.simulator.agent.workerjvm.WorkerPerformanceAggregator;
 import com.hazelcast.simulator.common.CoordinatorLogger;
 import com.hazelcast.simulator.common.JavaProfiler;
 import com.hazelcast.simulator.protocol.connector.AgentConnector;
@@ -15,24 +17,35 @@ import com.hazelcast.simulator.protocol.operation.CreateWorkerOperation;
 import com.hazelcast.simulator.protocol.operation.InitTestSuiteOperation;
 import com.hazelcast.simulator.protocol.operation.IntegrationTestOperation;
 import com.hazelcast.simulator.protocol.operation.OperationType;
+import com.hazelcast.simulator.protocol.operation.PerformanceStateOperation;
+import com.hazelcast.simulator.protocol.operation.PrepareWorkerOperation;
+import com.hazelcast.simulator.protocol.operation.RequestWorkerPerformanceStatesOperation;
 import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
 import com.hazelcast.simulator.protocol.operation.StartTimeoutDetectionOperation;
 import com.hazelcast.simulator.protocol.operation.StopTimeoutDetectionOperation;
+import com.hazelcast.simulator.protocol.operation.SyncArtifactsOperation;
+import com.hazelcast.simulator.protocol.operation.TestHistogramOperation;
+import com.hazelcast.simulator.protocol.operation.WorkerReadyOperation;
 import com.hazelcast.simulator.test.TestSuite;
 import com.hazelcast.simulator.utils.jars.HazelcastJARs;
 import com.hazelcast.simulator.worker.WorkerType;
+import com.hazelcast.simulator.worker.performance.PerformanceState;
 import com.hazelcast.util.EmptyStatement;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import java.io.File;
+import java.util.Collections;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import static com.hazelcast.simulator.TestEnvironmentUtils.deleteLogs;
 import static com.hazelcast.simulator.TestEnvironmentUtils.resetUserDir;
 import static com.hazelcast.simulator.TestEnvironmentUtils.setDistributionUserDir;
+import static com.hazelcast.simulator.protocol.core.AddressLevel.WORKER;
 import static com.hazelcast.simulator.protocol.core.ResponseType.EXCEPTION_DURING_OPERATION_EXECUTION;
 import static com.hazelcast.simulator.protocol.core.ResponseType.SUCCESS;
 import static com.hazelcast.simulator.protocol.core.ResponseType.UNSUPPORTED_OPERATION_ON_THIS_PROCESSOR;
@@ -46,10 +59,14 @@ import static com.hazelcast.simulator.utils.FileUtils.getSimulatorHome;
 import static com.hazelcast.simulator.utils.NativeUtils.execute;
 import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -58,9 +75,14 @@ import static org.mockito.Mockito.when;
 public class AgentOperationProcessorTest {
 
     private static final int DEFAULT_STARTUP_TIMEOUT = 10;
+    private static final int PERFORMANCE_MONITOR_INTERVAL_SECONDS = 5;
+    private static final String HZ_ADDRESS = "127.0.0.1:5701";
+    private static final SimulatorAddress WORKER_ADDRESS = new SimulatorAddress(WORKER, 1, 1, 0);
 
     private final ExceptionLogger exceptionLogger = mock(ExceptionLogger.class);
     private final WorkerJvmFailureMonitor failureMonitor = mock(WorkerJvmFailureMonitor.class);
+    private final WorkerPerformanceAggregator performanceAggregator = mock(WorkerPerformanceAggregator.class);
+    private final WorkerArtifactStreamer artifactStreamer = mock(WorkerArtifactStreamer.class);
     private final WorkerJvmManager workerJvmManager = new WorkerJvmManager();
 
     private TestSuite testSuite;
@@ -77,6 +99,7 @@ public class AgentOperationProcessorTest {
         testSuiteDir = new File(workersDir, testSuite.getId()).getAbsoluteFile();
 
         AgentConnector agentConnector = mock(AgentConnector.class);
+        when(agentConnector.addWorker(anyInt(), anyString(), anyInt())).thenAnswer(new ConnectWorkerAnswer());
         CoordinatorLogger coordinatorLogger = mock(CoordinatorLogger.class);
 
         Agent agent = mock(Agent.class);
@@ -87,6 +110,8 @@ public class AgentOperationProcessorTest {
         when(agent.getAgentConnector()).thenReturn(agentConnector);
         when(agent.getCoordinatorLogger()).thenReturn(coordinatorLogger);
         when(agent.getWorkerJvmFailureMonitor()).thenReturn(failureMonitor);
+        when(agent.getWorkerPerformanceAggregator()).thenReturn(performanceAggregator);
+        when(agent.getWorkerArtifactStreamer()).thenReturn(artifactStreamer);
 
         processor = new AgentOperationProcessor(exceptionLogger, agent, workerJvmManager);
     }
@@ -166,6 +191,37 @@ public class AgentOperationProcessorTest {
         assertWorkerLifecycle();
     }
 
+    @Test(timeout = 10000)
+    public void testPrepareWorkerOperation() throws Exception {
+        SimulatorOperation operation = new PrepareWorkerOperation(singletonList(createWorkerJvmSettings(false, 0)));
+        ResponseType responseType = processor.processOperation(getOperationType(operation), operation, COORDINATOR);
+        assertEquals(SUCCESS, responseType);
+
+        assertEquals(1, workerJvmManager.getWorkerJVMs().size());
+        WorkerJvm standbyWorkerJvm = workerJvmManager.getWorkerJVMs().iterator().next();
+        assertTrue(standbyWorkerJvm.isStandby());
+        verify(performanceAggregator).setWorkerPerformanceMonitorIntervalSeconds(PERFORMANCE_MONITOR_INTERVAL_SECONDS);
+
+        responseType = testCreateWorkerOperation(false, DEFAULT_STARTUP_TIMEOUT);
+        assertEquals(SUCCESS, responseType);
+
+        assertEquals(1, workerJvmManager.getWorkerJVMs().size());
+        WorkerJvm workerJvm = workerJvmManager.getWorkerJVMs().iterator().next();
+        assertSame(standbyWorkerJvm, workerJvm);
+        assertFalse(workerJvm.isStandby());
+        assertEquals(HZ_ADDRESS, workerJvm.getHazelcastAddress());
+
+        assertWorkerLifecycle();
+    }
+
+    @Test
+    public void testWorkerReadyOperation_unknownWorker() throws Exception {
+        SimulatorOperation operation = new WorkerReadyOperation(HZ_ADDRESS);
+        ResponseType responseType = processor.processOperation(getOperationType(operation), operation, WORKER_ADDRESS);
+
+        assertEquals(SUCCESS, responseType);
+    }
+
     @Test
     public void testInitTestSuiteOperation() throws Exception {
         SimulatorOperation operation = new InitTestSuiteOperation(testSuite);
@@ -176,6 +232,59 @@ public class AgentOperationProcessorTest {
 
         assertEquals(SUCCESS, responseType);
         assertTrue(testSuiteDir.exists());
+
+        verify(artifactStreamer).start(testSuite.getId(), 0);
+    }
+
+    @Test
+    public void testInitTestSuiteOperation_withArtifactStreaming() throws Exception {
+        SimulatorOperation operation = new InitTestSuiteOperation(testSuite, 5);
+        ResponseType responseType = processor.processOperation(getOperationType(operation), operation, COORDINATOR);
+
+        assertEquals(SUCCESS, responseType);
+
+        verify(artifactStreamer).start(testSuite.getId(), 5);
+    }
+
+    @Test
+    public void testSyncArtifactsOperation() throws Exception {
+        when(artifactStreamer.sync()).thenReturn(true);
+
+        SimulatorOperation operation = new SyncArtifactsOperation();
+        ResponseType responseType = processor.processOperation(getOperationType(operation), operation, COORDINATOR);
+
+        assertEquals(SUCCESS, responseType);
+    }
+
+    @Test
+    public void testSyncArtifactsOperation_withFailure() throws Exception {
+        when(artifactStreamer.sync()).thenReturn(false);
+
+        SimulatorOperation operation = new SyncArtifactsOperation();
+        ResponseType responseType = processor.processOperation(getOperationType(operation), operation, COORDINATOR);
+
+        assertEquals(EXCEPTION_DURING_OPERATION_EXECUTION, responseType);
+    }
+
+    @Test
+    public void testRequestWorkerPerformanceStatesOperation() throws Exception {
+        when(performanceAggregator.sendWorkerPerformanceStates()).thenReturn(true);
+
+        SimulatorOperation operation = new RequestWorkerPerformanceStatesOperation();
+        ResponseType responseType = processor.processOperation(getOperationType(operation), operation, COORDINATOR);
+
+        assertEquals(SUCCESS, responseType);
+        verify(performanceAggregator).sendWorkerPerformanceStates();
+    }
+
+    @Test
+    public void testRequestWorkerPerformanceStatesOperation_withFailure() throws Exception {
+        when(performanceAggregator.sendWorkerPerformanceStates()).thenReturn(false);
+
+        SimulatorOperation operation = new RequestWorkerPerformanceStatesOperation();
+        ResponseType responseType = processor.processOperation(getOperationType(operation), operation, COORDINATOR);
+
+        assertEquals(EXCEPTION_DURING_OPERATION_EXECUTION, responseType);
     }
 
     @Test
@@ -198,7 +307,34 @@ public class AgentOperationProcessorTest {
         verify(failureMonitor).stopTimeoutDetection();
     }
 
+    @Test
+    public void testPerformanceStateOperation() throws Exception {
+        PerformanceStateOperation operation = new PerformanceStateOperation();
+        operation.addPerformanceState("testId", new PerformanceState(1000, 50, 100, 1200.0d, 1500, 2000));
+        ResponseType responseType = processor.processOperation(getOperationType(operation), operation, WORKER_ADDRESS);
+
+        assertEquals(SUCCESS, responseType);
+
+        verify(performanceAggregator).addPerformanceStates(WORKER_ADDRESS, operation.getPerformanceStates());
+    }
+
+    @Test
+    public void testTestHistogramOperation() throws Exception {
+        TestHistogramOperation operation = new TestHistogramOperation("testId", Collections.singletonMap("probe", "histogram"));
+        ResponseType responseType = processor.processOperation(getOperationType(operation), operation, WORKER_ADDRESS);
+
+        assertEquals(SUCCESS, responseType);
+
+        verify(performanceAggregator).addTestHistograms(WORKER_ADDRESS, "testId", operation.getProbeHistograms());
+    }
+
     private ResponseType testCreateWorkerOperation(boolean withStartupException, int startupTimeout) throws Exception {
+        WorkerJvmSettings workerJvmSettings = createWorkerJvmSettings(withStartupException, startupTimeout);
+        SimulatorOperation operation = new CreateWorkerOperation(singletonList(workerJvmSettings));
+        return processor.processOperation(getOperationType(operation), operation, COORDINATOR);
+    }
+
+    private static WorkerJvmSettings createWorkerJvmSettings(boolean withStartupException, int startupTimeout) {
         WorkerJvmSettings workerJvmSettings = mock(WorkerJvmSettings.class);
         when(workerJvmSettings.getWorkerType()).thenReturn(WorkerType.INTEGRATION_TEST);
         when(workerJvmSettings.getWorkerIndex()).thenReturn(1);
@@ -209,9 +345,8 @@ public class AgentOperationProcessorTest {
         when(workerJvmSettings.getHazelcastVersionSpec()).thenReturn(HazelcastJARs.BRING_MY_OWN);
         when(workerJvmSettings.getWorkerStartupTimeout()).thenReturn(startupTimeout);
         when(workerJvmSettings.getJvmOptions()).thenReturn("-verbose:gc");
-
-        SimulatorOperation operation = new CreateWorkerOperation(singletonList(workerJvmSettings));
-        return processor.processOperation(getOperationType(operation), operation, COORDINATOR);
+        when(workerJvmSettings.getWorkerPerformanceMonitorIntervalSeconds()).thenReturn(PERFORMANCE_MONITOR_INTERVAL_SECONDS);
+        return workerJvmSettings;
     }
 
     private void assertWorkerLifecycle() throws InterruptedException {
@@ -236,4 +371,23 @@ public class AgentOperationProcessorTest {
             deleteQuiet(pidFile);
         }
     }
+
+    /**
+     * Simulates the connection to a Worker, which is refused until the Worker has started and then signals its readiness.
+     */
+    private final class ConnectWorkerAnswer implements Answer<SimulatorAddress> {
+
+        @Override
+        public SimulatorAddress answer(InvocationOnMock invocation) throws Throwable {
+            SimulatorAddress workerAddress = new SimulatorAddress(WORKER, 1, (Integer) invocation.getArguments()[0], 0);
+            WorkerJvm workerJvm = workerJvmManager.get(workerAddress);
+            if (workerJvm == null || !new File(workerJvm.getWorkerHome(), "worker.pid").exists()) {
+                throw new IllegalStateException("Connection refused");
+            }
+
+            SimulatorOperation operation = new WorkerReadyOperation(HZ_ADDRESS);
+            processor.processOperation(getOperationType(operation), operation, workerAddress);
+            return workerAddress;
+        }
+    }
 }
@@ -3,6 +3,7 @@ package com.hazelcast.simulator.protocol.processors;
 import com.hazelcast.simulator.protocol.core.ResponseType;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.exception.LocalExceptionLogger;
+import com.hazelcast.simulator.protocol.operation.BatchOperation;
 import com.hazelcast.simulator.protocol.operation.ChaosMonkeyOperation;
 import com.hazelcast.simulator.protocol.operation.IntegrationTestOperation;
 import com.hazelcast.simulator.protocol.operation.LogOperation;
@@ -88,6 +89,30 @@ public class BasicOperationProcessorTest {
         assertEquals(0, exceptionLogger.getExceptionCount());
     }
 
+    @Test
+    public void testProcessBatchOperation() {
+        BatchOperation operation = new BatchOperation();
+        operation.addOperation(new IntegrationTestOperation(IntegrationTestOperation.TEST_DATA));
+        operation.addOperation(new LogOperation("BasicOperationProcessorTest"));
+
+        ResponseType responseType = processor.process(operation, SimulatorAddress.COORDINATOR);
+
+        assertEquals(ResponseType.SUCCESS, responseType);
+        assertEquals(0, exceptionLogger.getExceptionCount());
+    }
+
+    @Test
+    public void testProcessBatchOperation_withFailure() {
+        BatchOperation operation = new BatchOperation();
+        operation.addOperation(new IntegrationTestOperation("invalid"));
+        operation.addOperation(new LogOperation("BasicOperationProcessorTest"));
+
+        ResponseType responseType = processor.process(operation, SimulatorAddress.COORDINATOR);
+
+        assertEquals(ResponseType.EXCEPTION_DURING_OPERATION_EXECUTION, responseType);
+        assertEquals(1, exceptionLogger.getExceptionCount());
+    }
+
     @Test
     public void testOtherOperation() {
         TerminateWorkerOperation operation = new TerminateWorkerOperation(0);
@@ -6,22 +6,29 @@ import com.hazelcast.simulator.coordinator.PerformanceStateContainer;
 import com.hazelcast.simulator.coordinator.TestHistogramContainer;
 import com.hazelcast.simulator.coordinator.TestPhaseListener;
 import com.hazelcast.simulator.coordinator.TestPhaseListenerContainer;
+import com.hazelcast.simulator.coordinator.WorkerArtifactContainer;
+import com.hazelcast.simulator.coordinator.WorkerHeartbeatContainer;
 import com.hazelcast.simulator.protocol.core.ResponseType;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.exception.LocalExceptionLogger;
+import com.hazelcast.simulator.protocol.operation.ArtifactChunkOperation;
 import com.hazelcast.simulator.protocol.operation.ExceptionOperation;
 import com.hazelcast.simulator.protocol.operation.FailureOperation;
+import com.hazelcast.simulator.protocol.operation.HeartbeatOperation;
 import com.hazelcast.simulator.protocol.operation.IntegrationTestOperation;
 import com.hazelcast.simulator.protocol.operation.PerformanceStateOperation;
 import com.hazelcast.simulator.protocol.operation.PhaseCompletedOperation;
 import com.hazelcast.simulator.protocol.operation.PongOperation;
 import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
+import com.hazelcast.simulator.protocol.operation.SteadyStateOperation;
 import com.hazelcast.simulator.protocol.operation.TestHistogramOperation;
+import com.hazelcast.simulator.protocol.operation.WorkerPerformanceStatesOperation;
 import com.hazelcast.simulator.protocol.registry.ComponentRegistry;
 import com.hazelcast.simulator.test.FailureType;
 import com.hazelcast.simulator.test.TestException;
 import com.hazelcast.simulator.test.TestPhase;
 import com.hazelcast.simulator.worker.performance.PerformanceState;
+import org.HdrHistogram.Histogram;
 import org.apache.log4j.Level;
 import org.junit.After;
 import org.junit.AfterClass;
@@ -29,29 +36,39 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import javax.xml.bind.DatatypeConverter;
 import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
 
 import static com.hazelcast.simulator.TestEnvironmentUtils.resetLogLevel;
 import static com.hazelcast.simulator.TestEnvironmentUtils.setLogLevel;
 import static com.hazelcast.simulator.coordinator.PerformanceStateContainer.LATENCY_FORMAT_LENGTH;
 import static com.hazelcast.simulator.coordinator.PerformanceStateContainer.THROUGHPUT_FORMAT_LENGTH;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.LATENCY_PRECISION;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.MAXIMUM_LATENCY;
+import static com.hazelcast.simulator.protocol.core.AddressLevel.AGENT;
 import static com.hazelcast.simulator.protocol.core.AddressLevel.TEST;
 import static com.hazelcast.simulator.protocol.core.AddressLevel.WORKER;
 import static com.hazelcast.simulator.protocol.core.ResponseType.EXCEPTION_DURING_OPERATION_EXECUTION;
 import static com.hazelcast.simulator.protocol.core.ResponseType.SUCCESS;
 import static com.hazelcast.simulator.protocol.core.ResponseType.UNSUPPORTED_OPERATION_ON_THIS_PROCESSOR;
 import static com.hazelcast.simulator.protocol.core.SimulatorAddress.COORDINATOR;
+import static com.hazelcast.simulator.protocol.exception.ExceptionType.AGENT_EXCEPTION;
 import static com.hazelcast.simulator.protocol.operation.OperationType.getOperationType;
 import static com.hazelcast.simulator.test.FailureType.WORKER_EXCEPTION;
 import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.FileUtils.fileAsText;
 import static com.hazelcast.simulator.utils.FormatUtils.formatDouble;
 import static com.hazelcast.simulator.utils.FormatUtils.formatLong;
+import static com.hazelcast.simulator.utils.ZipUtils.deflate;
 import static java.lang.String.format;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -69,6 +86,8 @@ public class CoordinatorOperationProcessorTest implements FailureListener {
     private PerformanceStateContainer performanceStateContainer;
     private TestHistogramContainer testHistogramContainer;
     private FailureContainer failureContainer;
+    private WorkerHeartbeatContainer workerHeartbeatContainer;
+    private File artifactDirectory;
 
     private CoordinatorOperationProcessor processor;
 
@@ -93,14 +112,18 @@ public class CoordinatorOperationProcessorTest implements FailureListener {
         performanceStateContainer = new PerformanceStateContainer();
         testHistogramContainer = new TestHistogramContainer(performanceStateContainer);
         failureContainer = new FailureContainer("CoordinatorOperationProcessorTest", componentRegistry);
+        workerHeartbeatContainer = new WorkerHeartbeatContainer();
+        artifactDirectory = new File("CoordinatorOperationProcessorTest-workers");
 
         processor = new CoordinatorOperationProcessor(exceptionLogger, testPhaseListenerContainer, performanceStateContainer,
-                testHistogramContainer, failureContainer);
+                testHistogramContainer, failureContainer, workerHeartbeatContainer,
+                new WorkerArtifactContainer(artifactDirectory));
     }
 
     @After
     public void tearDown() {
         deleteQuiet(new File("failures-CoordinatorOperationProcessorTest.txt"));
+        deleteQuiet(artifactDirectory);
     }
 
     @Override
@@ -118,6 +141,8 @@ public class CoordinatorOperationProcessorTest implements FailureListener {
 
     @Test
     public void processException() {
+        failureContainer.addListener(this);
+
         TestException exception = new TestException("expeced exception");
         ExceptionOperation operation = new ExceptionOperation(WORKER_EXCEPTION.name(), "C_A1_W1", "FailingTest", exception);
 
@@ -125,6 +150,40 @@ public class CoordinatorOperationProcessorTest implements FailureListener {
 
         assertEquals(SUCCESS, responseType);
         assertEquals(1, exceptionLogger.getExceptionCount());
+        assertEquals(1, failureOperations.size());
+
+        FailureOperation failure = failureOperations.poll();
+        assertEquals(WORKER_EXCEPTION, failure.getType());
+        assertEquals(workerAddress, failure.getWorkerAddress());
+        assertEquals("FailingTest", failure.getTestId());
+        assertExceptionClassInFailure(failure, TestException.class);
+    }
+
+    @Test
+    public void processException_withCount() {
+        failureContainer.addListener(this);
+
+        TestException exception = new TestException("expeced exception");
+        ExceptionOperation operation = new ExceptionOperation(WORKER_EXCEPTION.name(), "C_A1_W1", "FailingTest", exception, 3);
+
+        processor.process(operation, workerAddress);
+
+        assertEquals(1, failureOperations.size());
+        assertTrue(failureOperations.poll().getFileMessage().contains("(3 times)"));
+    }
+
+    @Test
+    public void processException_fromAgent() {
+        failureContainer.addListener(this);
+
+        TestException exception = new TestException("expeced exception");
+        ExceptionOperation operation = new ExceptionOperation(AGENT_EXCEPTION.name(), "C_A1", null, exception);
+
+        ResponseType responseType = processor.process(operation, workerAddress.getParent());
+
+        assertEquals(SUCCESS, responseType);
+        assertEquals(1, exceptionLogger.getExceptionCount());
+        assertEquals(0, failureOperations.size());
     }
 
     @Test
@@ -179,21 +238,24 @@ public class CoordinatorOperationProcessorTest implements FailureListener {
     @Test
     public void processTestHistogram() {
         Map<String, String> probeHistograms = new HashMap<String, String>();
-        probeHistograms.put("probe1", "histogram1");
-        probeHistograms.put("probe2", "histogram2");
+        probeHistograms.put("probe1", createEncodedHistogram(1));
+        probeHistograms.put("probe2", createEncodedHistogram(2));
         TestHistogramOperation operation = new TestHistogramOperation("testId", probeHistograms);
 
         ResponseType responseType = processor.process(operation, workerAddress);
         assertEquals(SUCCESS, responseType);
 
-        ConcurrentMap<String, Map<String, String>> testHistograms = testHistogramContainer.getTestHistograms(workerAddress);
+        responseType = processor.process(operation, workerAddress);
+        assertEquals(SUCCESS, responseType);
+
+        ConcurrentMap<String, Map<String, Histogram>> testHistograms = testHistogramContainer.getTestHistograms(workerAddress);
         assertNotNull(testHistograms);
         assertEquals(1, testHistograms.size());
 
-        Map<String, String> actualProbeHistograms = testHistograms.get("testId");
+        Map<String, Histogram> actualProbeHistograms = testHistograms.get("testId");
         assertNotNull(actualProbeHistograms);
-        assertEquals("histogram1", actualProbeHistograms.get("probe1"));
-        assertEquals("histogram2", actualProbeHistograms.get("probe2"));
+        assertEquals(2, actualProbeHistograms.get("probe1").getTotalCount());
+        assertEquals(4, actualProbeHistograms.get("probe2").getTotalCount());
     }
 
     @Test
@@ -222,8 +284,65 @@ public class CoordinatorOperationProcessorTest implements FailureListener {
         assertEquals(SUCCESS, responseType);
     }
 
+    @Test
+    public void processHeartbeat() {
+        HeartbeatOperation operation = new HeartbeatOperation(1000, 200, 1000, 30, 4000, 25, 3);
+
+        ResponseType responseType = processor.process(operation, workerAddress);
+
+        assertEquals(SUCCESS, responseType);
+        assertEquals(operation, workerHeartbeatContainer.getHeartbeat(workerAddress));
+    }
+
+    @Test
+    public void processSteadyState() {
+        Map<String, String> probeHistograms = new HashMap<String, String>();
+        probeHistograms.put("probe", createEncodedHistogram(10));
+        SteadyStateOperation operation = new SteadyStateOperation("testId", 1000, 500, 1000, probeHistograms);
+
+        ResponseType responseType = processor.process(operation, workerAddress);
+
+        assertEquals(SUCCESS, responseType);
+    }
+
+    @Test
+    public void processArtifactChunk() {
+        byte[] data = "worker log".getBytes();
+        ArtifactChunkOperation operation = new ArtifactChunkOperation("testSuite", "worker1/worker.log", 0, 1000,
+                deflate(data, data.length));
+
+        ResponseType responseType = processor.process(operation, new SimulatorAddress(AGENT, 1, 0, 0));
+
+        assertEquals(SUCCESS, responseType);
+        assertEquals("worker log", fileAsText(new File(artifactDirectory, "testSuite/worker1/worker.log")));
+    }
+
+    @Test
+    public void processWorkerPerformanceStates() {
+        Map<String, PerformanceState> performanceStates = new HashMap<String, PerformanceState>();
+        performanceStates.put("testId", new PerformanceState(1000, 50, 100, 12.0d, 23, 42));
+        WorkerPerformanceStatesOperation operation = new WorkerPerformanceStatesOperation();
+        operation.addWorkerPerformanceStates(workerAddress, performanceStates);
+
+        ResponseType responseType = processor.process(operation, workerAddress.getParent());
+
+        assertEquals(SUCCESS, responseType);
+    }
+
     private static void assertExceptionClassInFailure(FailureOperation failure, Class<? extends Throwable> failureClass) {
         assertTrue(format("Expected cause to start with %s, but was %s", failureClass.getCanonicalName(), failure.getCause()),
                 failure.getCause().startsWith(failureClass.getCanonicalName()));
     }
+
+    private static String createEncodedHistogram(int valueCount) {
+        Histogram histogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+        for (int i = 1; i <= valueCount; i++) {
+            histogram.recordValue(i * 100);
+        }
+
+        ByteBuffer targetBuffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int compressedLength = histogram.encodeIntoCompressedByteBuffer(targetBuffer, Deflater.BEST_COMPRESSION);
+        byte[] compressedArray = Arrays.copyOf(targetBuffer.array(), compressedLength);
+        return DatatypeConverter.printBase64Binary(compressedArray);
+    }
 }
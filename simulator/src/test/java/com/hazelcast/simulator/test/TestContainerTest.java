@@ -185,6 +185,38 @@ public class TestContainerTest {
         assertTrue(test.runWithWorkerCalled);
     }
 
+    @Test
+    public void testRunWithWorker_withCpuShare() throws Exception {
+        testCase.setProperty("cpuShare", "0.5");
+
+        final RunWithWorkerTest test = new RunWithWorkerTest();
+        testContainer = createTestContainer(test);
+        Thread testStopper = new Thread() {
+            @Override
+            public void run() {
+                while (!test.runWithWorkerCalled) {
+                    sleepMillis(50);
+                }
+                testContext.stop();
+            }
+        };
+
+        testStopper.start();
+        testContainer.invoke(TestPhase.RUN);
+        testStopper.join();
+
+        assertTrue(test.runWithWorkerCalled);
+        assertTrue(testContainer.getCpuTimeNanos() >= 0);
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void testRunWithWorker_withInvalidCpuShare() throws Exception {
+        testCase.setProperty("cpuShare", "2");
+
+        testContainer = createTestContainer(new RunWithWorkerTest());
+        testContainer.invoke(TestPhase.RUN);
+    }
+
     private static class RunWithWorkerTest {
 
         private enum Operation {
@@ -0,0 +1,161 @@
+package com.hazelcast.simulator.utils;
+
+import com.hazelcast.simulator.protocol.registry.AgentData;
+import com.hazelcast.simulator.utils.DeltaUploader.Transfer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.hazelcast.simulator.utils.DeltaUploader.LOCAL_SOURCE_INDEX;
+import static com.hazelcast.simulator.utils.DeltaUploader.UPLOAD_CACHE_DIR;
+import static com.hazelcast.simulator.utils.DeltaUploader.createRounds;
+import static com.hazelcast.simulator.utils.FileUtils.appendText;
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.FileUtils.ensureExistingDirectory;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.contains;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+public class DeltaUploaderTest {
+
+    private final File directory = new File("DeltaUploaderTest");
+    private final File file = new File(directory, "file.jar");
+
+    private final Bash bash = mock(Bash.class);
+    private final List<AgentData> agents = new ArrayList<AgentData>();
+
+    private String hash;
+
+    @Before
+    public void setUp() {
+        ensureExistingDirectory(directory);
+        appendText("content", file);
+        hash = UploadManifest.hash(file);
+
+        for (int i = 1; i <= 3; i++) {
+            agents.add(new AgentData(i, "172.16.16." + i, "10.0.0." + i));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        deleteQuiet(directory);
+    }
+
+    @Test
+    public void testUpload() {
+        DeltaUploader uploader = new DeltaUploader(bash, false);
+
+        uploader.upload(agents, Collections.singletonList(file), "workers/testSuiteId/lib/");
+
+        verify(bash).execute(contains("ln -s '" + file.getAbsolutePath() + "'"));
+        verify(bash, times(3)).uploadNewFilesToRemoteSimulatorDir(contains("172.16.16."), anyString(),
+                eq(UPLOAD_CACHE_DIR + '/'));
+        verify(bash, times(3)).ssh(contains("172.16.16."),
+                contains("cp -f " + UPLOAD_CACHE_DIR + '/' + hash + " 'workers/testSuiteId/lib/file.jar'"));
+        verifyNoMoreInteractions(bash);
+    }
+
+    @Test
+    public void testUpload_withFanOut() {
+        DeltaUploader uploader = new DeltaUploader(bash, true);
+
+        uploader.upload(agents, Collections.singletonList(file), "workers/testSuiteId/lib/");
+
+        verify(bash).execute(contains("ln -s"));
+        verify(bash).uploadNewFilesToRemoteSimulatorDir(eq("172.16.16.1"), anyString(), anyString());
+        verify(bash).uploadNewFilesToRemoteSimulatorDir(eq("172.16.16.2"), anyString(), anyString());
+        verify(bash).forwardNewFilesToRemoteSimulatorDir("172.16.16.1", "10.0.0.3", UPLOAD_CACHE_DIR + '/' + hash,
+                UPLOAD_CACHE_DIR + '/');
+        verify(bash, times(3)).ssh(contains("172.16.16."), contains(hash));
+        verifyNoMoreInteractions(bash);
+    }
+
+    @Test
+    public void testUpload_noFiles() {
+        DeltaUploader uploader = new DeltaUploader(bash, true);
+
+        uploader.upload(agents, Collections.<File>emptyList(), "workers/testSuiteId");
+
+        verify(bash, times(3)).ssh(contains("172.16.16."), contains("mkdir -p 'workers/testSuiteId/'"));
+        verifyNoMoreInteractions(bash);
+    }
+
+    @Test
+    public void testGetMaterializeCommand() {
+        UploadManifest manifest = UploadManifest.create(Collections.singletonList(directory));
+
+        String command = DeltaUploader.getMaterializeCommand(manifest, "workers/testSuiteId");
+
+        assertTrue(command.contains("mkdir -p 'workers/testSuiteId/' 'workers/testSuiteId/DeltaUploaderTest/'"));
+        String expectedCopy = "cp -f " + UPLOAD_CACHE_DIR + '/' + hash + " 'workers/testSuiteId/DeltaUploaderTest/file.jar'";
+        assertTrue(command.contains(expectedCopy));
+    }
+
+    @Test
+    public void testCreateRounds_withoutFanOut() {
+        List<List<Transfer>> rounds = createRounds(5, false);
+
+        assertEquals(1, rounds.size());
+        assertEquals(5, rounds.get(0).size());
+        for (Transfer transfer : rounds.get(0)) {
+            assertEquals(LOCAL_SOURCE_INDEX, transfer.getSourceIndex());
+        }
+    }
+
+    @Test
+    public void testCreateRounds_withFanOut() {
+        List<List<Transfer>> rounds = createRounds(7, true);
+
+        assertEquals(3, rounds.size());
+        assertEquals(1, rounds.get(0).size());
+        assertEquals(2, rounds.get(1).size());
+        assertEquals(4, rounds.get(2).size());
+        assertRounds(rounds, 7);
+    }
+
+    @Test
+    public void testCreateRounds_withFanOut_incompleteLastRound() {
+        List<List<Transfer>> rounds = createRounds(10, true);
+
+        assertEquals(4, rounds.size());
+        assertEquals(3, rounds.get(3).size());
+        assertRounds(rounds, 10);
+    }
+
+    @Test
+    public void testCreateRounds_noAgents() {
+        assertTrue(createRounds(0, true).isEmpty());
+    }
+
+    private static void assertRounds(List<List<Transfer>> rounds, int agentCount) {
+        Set<Integer> holders = new HashSet<Integer>();
+        holders.add(LOCAL_SOURCE_INDEX);
+        for (List<Transfer> round : rounds) {
+            Set<Integer> roundSources = new HashSet<Integer>();
+            Set<Integer> roundTargets = new HashSet<Integer>();
+            for (Transfer transfer : round) {
+                assertTrue("source must already have the files", holders.contains(transfer.getSourceIndex()));
+                assertTrue("source must only send once per round", roundSources.add(transfer.getSourceIndex()));
+                roundTargets.add(transfer.getTargetIndex());
+            }
+            for (Integer target : roundTargets) {
+                assertTrue("target must receive the files only once", holders.add(target));
+            }
+        }
+        assertEquals(agentCount + 1, holders.size());
+    }
+}
@@ -0,0 +1,57 @@
+package com.hazelcast.simulator.utils;
+
+import org.HdrHistogram.Histogram;
+import org.junit.Test;
+
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.LATENCY_PRECISION;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.MAXIMUM_LATENCY;
+import static com.hazelcast.simulator.utils.HistogramUtils.decodeHistogram;
+import static com.hazelcast.simulator.utils.HistogramUtils.encodeHistogram;
+import static com.hazelcast.simulator.utils.HistogramUtils.encodeHistogramToBytes;
+import static com.hazelcast.simulator.utils.HistogramUtils.toCompressedBytes;
+import static com.hazelcast.simulator.utils.HistogramUtils.toEncodedHistogram;
+import static com.hazelcast.simulator.utils.ReflectionUtils.invokePrivateConstructor;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class HistogramUtilsTest {
+
+    @Test
+    public void testConstructor() throws Exception {
+        invokePrivateConstructor(HistogramUtils.class);
+    }
+
+    @Test
+    public void testEncodeAndDecode() {
+        Histogram histogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+        histogram.recordValueWithCount(1000, 10);
+        histogram.recordValueWithCount(50000, 5);
+
+        Histogram decoded = decodeHistogram(encodeHistogram(histogram));
+
+        assertEquals(histogram, decoded);
+        assertEquals(15, decoded.getTotalCount());
+    }
+
+    @Test
+    public void testEncodeAndDecode_bytes() {
+        Histogram histogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+        histogram.recordValueWithCount(1000, 10);
+
+        byte[] compressedHistogram = encodeHistogramToBytes(histogram);
+
+        assertEquals(histogram, decodeHistogram(compressedHistogram));
+        assertArrayEquals(compressedHistogram, toCompressedBytes(encodeHistogram(histogram)));
+        assertEquals(encodeHistogram(histogram), toEncodedHistogram(compressedHistogram));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecode_invalidHistogram() {
+        decodeHistogram("invalid");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecode_invalidBytes() {
+        decodeHistogram(new byte[]{1, 2, 3});
+    }
+}
@@ -0,0 +1,97 @@
+package com.hazelcast.simulator.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static com.hazelcast.simulator.utils.FileUtils.appendText;
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.FileUtils.ensureExistingDirectory;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class UploadManifestTest {
+
+    private final File directory = new File("UploadManifestTest");
+    private final File subDirectory = new File(directory, "sub");
+
+    @Before
+    public void setUp() {
+        ensureExistingDirectory(subDirectory);
+    }
+
+    @After
+    public void tearDown() {
+        deleteQuiet(directory);
+    }
+
+    @Test
+    public void testCreate_noFiles() {
+        UploadManifest manifest = UploadManifest.create(Collections.<File>emptyList());
+
+        assertTrue(manifest.isEmpty());
+        assertTrue(manifest.getHashFiles().isEmpty());
+    }
+
+    @Test
+    public void testCreate_emptyDirectory() {
+        UploadManifest manifest = UploadManifest.create(Collections.singletonList(subDirectory));
+
+        assertTrue(manifest.isEmpty());
+    }
+
+    @Test
+    public void testCreate_withDirectory() {
+        File file1 = new File(directory, "file1.txt");
+        File file2 = new File(subDirectory, "file2.txt");
+        appendText("content1", file1);
+        appendText("content2", file2);
+
+        UploadManifest manifest = UploadManifest.create(Collections.singletonList(directory));
+
+        Map<String, String> targetPathHashes = manifest.getTargetPathHashes();
+        assertEquals(2, targetPathHashes.size());
+        assertEquals(UploadManifest.hash(file1), targetPathHashes.get("UploadManifestTest/file1.txt"));
+        assertEquals(UploadManifest.hash(file2), targetPathHashes.get("UploadManifestTest/sub/file2.txt"));
+        assertEquals(2, manifest.getHashFiles().size());
+    }
+
+    @Test
+    public void testCreate_sameContentIsTransferredOnce() {
+        File file1 = new File(directory, "file1.txt");
+        File file2 = new File(subDirectory, "file2.txt");
+        appendText("content", file1);
+        appendText("content", file2);
+
+        UploadManifest manifest = UploadManifest.create(Arrays.asList(file1, file2));
+
+        assertEquals(2, manifest.getTargetPathHashes().size());
+        assertEquals(manifest.getTargetPathHashes().get("file1.txt"), manifest.getTargetPathHashes().get("file2.txt"));
+        assertEquals(1, manifest.getHashFiles().size());
+    }
+
+    @Test
+    public void testHash() {
+        File file1 = new File(directory, "file1.txt");
+        File file2 = new File(directory, "file2.txt");
+        appendText("content1", file1);
+        appendText("content2", file2);
+
+        String hash = UploadManifest.hash(file1);
+
+        assertEquals(40, hash.length());
+        assertEquals(hash, UploadManifest.hash(file1));
+        assertNotEquals(hash, UploadManifest.hash(file2));
+    }
+
+    @Test(expected = FileUtilsException.class)
+    public void testHash_fileNotFound() {
+        UploadManifest.hash(new File(directory, "notFound"));
+    }
+}
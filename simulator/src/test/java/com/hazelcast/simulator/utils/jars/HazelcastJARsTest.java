@@ -9,6 +9,7 @@ import org.junit.Test;
 import java.io.File;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import static com.hazelcast.simulator.TestEnvironmentUtils.deleteLogs;
@@ -213,6 +214,48 @@ public class HazelcastJARsTest {
         verifyNoMoreInteractions(bash);
     }
 
+    @Test
+    public void testGetJARs() {
+        HazelcastJARs hazelcastJARs = getHazelcastJARs("maven=3.6");
+        File versionSpecDir = new File(hazelcastJARs.getAbsolutePath("maven=3.6"));
+        File jarFile = new File(versionSpecDir, "hazelcast-3.6.jar");
+        ensureExistingDirectory(versionSpecDir);
+        ensureExistingFile(jarFile);
+        try {
+            List<File> jars = hazelcastJARs.getJARs("maven=3.6", "simulatorHome");
+
+            assertEquals(1, jars.size());
+            assertEquals(jarFile.getName(), jars.get(0).getName());
+        } finally {
+            deleteQuiet(versionSpecDir);
+        }
+    }
+
+    @Test
+    public void testGetJARs_outOfTheBox() {
+        File simulatorHome = new File("getJARsSimulatorHome");
+        File libDir = new File(simulatorHome, "lib");
+        ensureExistingDirectory(libDir);
+        ensureExistingFile(new File(libDir, "hazelcast-3.6.jar"));
+        ensureExistingFile(new File(libDir, "log4j-1.2.17.jar"));
+        try {
+            HazelcastJARs hazelcastJARs = getHazelcastJARs(OUT_OF_THE_BOX);
+            List<File> jars = hazelcastJARs.getJARs(OUT_OF_THE_BOX, simulatorHome.getAbsolutePath());
+
+            assertEquals(1, jars.size());
+            assertEquals("hazelcast-3.6.jar", jars.get(0).getName());
+        } finally {
+            deleteQuiet(simulatorHome);
+        }
+    }
+
+    @Test
+    public void testGetJARs_bringMyOwn() {
+        HazelcastJARs hazelcastJARs = getHazelcastJARs(BRING_MY_OWN);
+
+        assertTrue(hazelcastJARs.getJARs(BRING_MY_OWN, getSimulatorHome().getAbsolutePath()).isEmpty());
+    }
+
     @Test
     public void testGetSnapshotUrl() {
         HazelcastJARs hazelcastJARs = getHazelcastJARs();
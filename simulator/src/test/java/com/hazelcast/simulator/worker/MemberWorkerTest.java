@@ -65,7 +65,6 @@ public class MemberWorkerTest {
             deleteLogs();
 
             deleteQuiet(new File("throughput.txt"));
-            deleteQuiet(new File("worker.address"));
 
             deleteQuiet(new File(MEMBER_CONFIG_FILE));
             deleteQuiet(new File(CLIENT_CONFIG_FILE));
@@ -74,7 +73,8 @@ public class MemberWorkerTest {
 
     @Test
     public void testConstructor_MemberWorker() throws Exception {
-        worker = new MemberWorker(MEMBER, PUBLIC_ADDRESS, AGENT_INDEX, WORKER_INDEX, WORKER_PORT, true, 10, MEMBER_CONFIG_FILE);
+        worker = new MemberWorker(MEMBER, PUBLIC_ADDRESS, AGENT_INDEX, WORKER_INDEX, WORKER_PORT, true, 10, 0,
+                MEMBER_CONFIG_FILE);
         assertMemberWorker();
     }
 
@@ -82,19 +82,20 @@ public class MemberWorkerTest {
     public void testConstructor_ClientWorker() throws Exception {
         Hazelcast.newHazelcastInstance();
 
-        worker = new MemberWorker(CLIENT, PUBLIC_ADDRESS, AGENT_INDEX, WORKER_INDEX, WORKER_PORT, true, 10, CLIENT_CONFIG_FILE);
+        worker = new MemberWorker(CLIENT, PUBLIC_ADDRESS, AGENT_INDEX, WORKER_INDEX, WORKER_PORT, true, 10, 0,
+                CLIENT_CONFIG_FILE);
         assertMemberWorker();
     }
 
     @Test
     public void testConstructor_noAutoCreateHzInstance() throws Exception {
-        worker = new MemberWorker(MEMBER, PUBLIC_ADDRESS, AGENT_INDEX, WORKER_INDEX, WORKER_PORT, false, 10, "");
+        worker = new MemberWorker(MEMBER, PUBLIC_ADDRESS, AGENT_INDEX, WORKER_INDEX, WORKER_PORT, false, 10, 0, "");
         assertMemberWorker();
     }
 
     @Test
     public void testConstructor_noAutoCreateHzInstance_withPerformanceMonitor() throws Exception {
-        worker = new MemberWorker(MEMBER, PUBLIC_ADDRESS, AGENT_INDEX, WORKER_INDEX, WORKER_PORT, false, 10, "");
+        worker = new MemberWorker(MEMBER, PUBLIC_ADDRESS, AGENT_INDEX, WORKER_INDEX, WORKER_PORT, false, 10, 0, "");
         assertMemberWorker();
 
         worker.startPerformanceMonitor();
@@ -103,7 +104,7 @@ public class MemberWorkerTest {
 
     @Test
     public void testConstructor_noAutoCreateHzInstance_withPerformanceMonitor_invalidInterval() throws Exception {
-        worker = new MemberWorker(MEMBER, PUBLIC_ADDRESS, AGENT_INDEX, WORKER_INDEX, WORKER_PORT, false, 0, "");
+        worker = new MemberWorker(MEMBER, PUBLIC_ADDRESS, AGENT_INDEX, WORKER_INDEX, WORKER_PORT, false, 0, 0, "");
         assertMemberWorker();
 
         worker.startPerformanceMonitor();
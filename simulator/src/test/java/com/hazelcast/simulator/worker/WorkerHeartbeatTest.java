@@ -0,0 +1,23 @@
+package com.hazelcast.simulator.worker;
+
+import com.hazelcast.simulator.protocol.operation.HeartbeatOperation;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WorkerHeartbeatTest {
+
+    @Test
+    public void testCreateHeartbeatOperation() {
+        long started = System.currentTimeMillis();
+
+        HeartbeatOperation heartbeat = WorkerHeartbeat.createHeartbeatOperation(5);
+
+        assertTrue(heartbeat.getTimestamp() >= started);
+        assertTrue(heartbeat.getHeapUsedBytes() > 0);
+        assertTrue(heartbeat.getGcTimeMillis() >= 0);
+        assertTrue(heartbeat.getThreadCount() > 0);
+        assertEquals(5, heartbeat.getQueuedOperations());
+    }
+}
@@ -0,0 +1,62 @@
+package com.hazelcast.simulator.worker.loadsupport;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.Member;
+import com.hazelcast.core.Partition;
+import com.hazelcast.core.PartitionService;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.cache.Cache;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+public class BatchingCacheStreamerTest {
+
+    @SuppressWarnings("unchecked")
+    private final Cache<Integer, String> cache = mock(Cache.class);
+
+    private Streamer<Integer, String> streamer;
+
+    @Before
+    public void setUp() {
+        Partition partition = mock(Partition.class);
+        when(partition.getOwner()).thenReturn(mock(Member.class));
+
+        PartitionService partitionService = mock(PartitionService.class);
+        when(partitionService.getPartition(any())).thenReturn(partition);
+
+        HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+        when(hazelcastInstance.getPartitionService()).thenReturn(partitionService);
+
+        streamer = StreamerFactory.getBatchingInstance(hazelcastInstance, cache, 100, 4);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPushEntry() {
+        for (int i = 0; i < 250; i++) {
+            streamer.pushEntry(i, "value");
+        }
+        streamer.await();
+
+        verify(cache, times(3)).putAll(anyMap());
+        verifyNoMoreInteractions(cache);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @SuppressWarnings("unchecked")
+    public void testAwait_withExceptionInPutAll() {
+        doThrow(new IllegalArgumentException("expected exception")).when(cache).putAll(anyMap());
+
+        streamer.pushEntry(1, "value");
+        streamer.await();
+    }
+}
@@ -0,0 +1,126 @@
+package com.hazelcast.simulator.worker.loadsupport;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.Member;
+import com.hazelcast.core.Partition;
+import com.hazelcast.core.PartitionService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+public class BatchingMapStreamerTest {
+
+    private static final int BATCH_SIZE = 10;
+
+    @SuppressWarnings("unchecked")
+    private final IMap<Integer, String> map = mock(IMap.class);
+
+    private final Member member1 = mock(Member.class);
+    private final Member member2 = mock(Member.class);
+
+    private HazelcastInstance hazelcastInstance;
+
+    @Before
+    public void setUp() {
+        final Partition partition1 = mock(Partition.class);
+        when(partition1.getOwner()).thenReturn(member1);
+        final Partition partition2 = mock(Partition.class);
+        when(partition2.getOwner()).thenReturn(member2);
+
+        // even keys are owned by member1, odd keys by member2
+        PartitionService partitionService = mock(PartitionService.class);
+        when(partitionService.getPartition(any())).thenAnswer(new Answer<Partition>() {
+            @Override
+            public Partition answer(InvocationOnMock invocation) throws Throwable {
+                Integer key = (Integer) invocation.getArguments()[0];
+                return (key % 2 == 0) ? partition1 : partition2;
+            }
+        });
+
+        hazelcastInstance = mock(HazelcastInstance.class);
+        when(hazelcastInstance.getPartitionService()).thenReturn(partitionService);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_invalidBatchSize() {
+        StreamerFactory.getBatchingInstance(hazelcastInstance, map, 0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_invalidMaxInFlightBatches() {
+        StreamerFactory.getBatchingInstance(hazelcastInstance, map, 1, 0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPushEntry_groupsByPartitionOwner() {
+        Streamer<Integer, String> streamer = StreamerFactory.getBatchingInstance(hazelcastInstance, map, BATCH_SIZE, 2);
+        for (int i = 0; i < 25; i++) {
+            streamer.pushEntry(i, "value" + i);
+        }
+        streamer.await();
+
+        ArgumentCaptor<Map> captor = ArgumentCaptor.forClass(Map.class);
+        verify(map, times(4)).putAll(captor.capture());
+        verifyNoMoreInteractions(map);
+
+        Map<Integer, String> allEntries = new HashMap<Integer, String>();
+        List<Map> batches = captor.getAllValues();
+        for (Map<Integer, String> batch : batches) {
+            assertTrue(batch.size() <= BATCH_SIZE);
+            assertOwnedBySameMember(batch);
+            allEntries.putAll(batch);
+        }
+        assertEquals(25, allEntries.size());
+        assertEquals("value17", allEntries.get(17));
+    }
+
+    @Test
+    public void testAwait_canBeCalledRepeatedly() {
+        Streamer<Integer, String> streamer = StreamerFactory.getBatchingInstance(hazelcastInstance, map, BATCH_SIZE, 2);
+        streamer.pushEntry(1, "value");
+        streamer.await();
+        streamer.pushEntry(2, "value");
+        streamer.await();
+
+        verify(map, times(2)).putAll(anyMap());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    @SuppressWarnings("unchecked")
+    public void testAwait_withExceptionInPutAll() {
+        doThrow(new IllegalStateException("expected exception")).when(map).putAll(anyMap());
+
+        Streamer<Integer, String> streamer = StreamerFactory.getBatchingInstance(hazelcastInstance, map, BATCH_SIZE, 2);
+        streamer.pushEntry(1, "value");
+        streamer.await();
+    }
+
+    private static void assertOwnedBySameMember(Map<Integer, String> batch) {
+        int expectedParity = -1;
+        for (Integer key : batch.keySet()) {
+            if (expectedParity == -1) {
+                expectedParity = key % 2;
+            }
+            assertEquals(expectedParity, key % 2);
+        }
+    }
+}
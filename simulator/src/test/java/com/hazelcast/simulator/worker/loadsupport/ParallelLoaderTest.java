@@ -0,0 +1,183 @@
+package com.hazelcast.simulator.worker.loadsupport;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.Member;
+import com.hazelcast.core.Partition;
+import com.hazelcast.core.PartitionService;
+import com.hazelcast.simulator.test.TestContextImpl;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ParallelLoaderTest {
+
+    @SuppressWarnings("unchecked")
+    private final IMap<Integer, Integer> map = mock(IMap.class);
+
+    private final LoadProgressListener progressListener = mock(LoadProgressListener.class);
+
+    private TestContextImpl testContext;
+
+    @Before
+    public void setUp() {
+        Partition partition = mock(Partition.class);
+        when(partition.getOwner()).thenReturn(mock(Member.class));
+
+        PartitionService partitionService = mock(PartitionService.class);
+        when(partitionService.getPartition(any())).thenReturn(partition);
+
+        HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+        when(hazelcastInstance.getPartitionService()).thenReturn(partitionService);
+
+        testContext = new TestContextImpl("ParallelLoaderTest", hazelcastInstance, progressListener);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_invalidThreadCount() {
+        new ParallelLoader(testContext, 0);
+    }
+
+    @Test
+    public void testConstructor_progressListenerFromTestContext() {
+        ParallelLoader loader = new ParallelLoader(testContext, 2);
+        loader.execute(0, mock(ParallelLoader.RangeTask.class));
+
+        verify(progressListener).onProgress(eq(0L), eq(0L), anyLong());
+    }
+
+    @Test
+    public void testSplitRange() {
+        ParallelLoader loader = new ParallelLoader(testContext, 3);
+        List<int[]> ranges = loader.splitRange(10);
+
+        assertEquals(3, ranges.size());
+        assertArrayEquals(new int[]{0, 4}, ranges.get(0));
+        assertArrayEquals(new int[]{4, 7}, ranges.get(1));
+        assertArrayEquals(new int[]{7, 10}, ranges.get(2));
+    }
+
+    @Test
+    public void testSplitRange_lessIndexesThanThreads() {
+        ParallelLoader loader = new ParallelLoader(testContext, 8);
+
+        assertEquals(2, loader.splitRange(2).size());
+        assertEquals(1, loader.splitRange(0).size());
+    }
+
+    @Test
+    public void testExecute() {
+        final int[] values = new int[1000];
+        ParallelLoader loader = new ParallelLoader(testContext, 4);
+        loader.execute(values.length, new ParallelLoader.RangeTask() {
+            @Override
+            public void run(int fromIndex, int toIndex, Random random, AtomicLong progress) {
+                for (int i = fromIndex; i < toIndex; i++) {
+                    values[i] = i;
+                }
+                progress.addAndGet(toIndex - fromIndex);
+            }
+        });
+
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(i, values[i]);
+        }
+        verify(progressListener).onProgress(eq(1000L), eq(1000L), anyLong());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testLoad() {
+        final Map<Integer, Integer> storedEntries = new ConcurrentHashMap<Integer, Integer>();
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                storedEntries.putAll((Map<Integer, Integer>) invocation.getArguments()[0]);
+                return null;
+            }
+        }).when(map).putAll(anyMap());
+
+        ParallelLoader loader = new ParallelLoader(testContext, 4);
+        loader.load(map, 5000, new ParallelLoader.EntryGenerator<Integer, Integer>() {
+            @Override
+            public Integer generateKey(int index, Random random) {
+                return index;
+            }
+
+            @Override
+            public Integer generateValue(int index, Integer key, Random random) {
+                return key * 2;
+            }
+        });
+
+        assertEquals(5000, storedEntries.size());
+        assertEquals(Integer.valueOf(8642), storedEntries.get(4321));
+        verify(progressListener).onProgress(eq(5000L), eq(5000L), anyLong());
+    }
+
+    @Test
+    public void testLoad_stopped() {
+        testContext.stop();
+
+        ParallelLoader loader = new ParallelLoader(testContext, 1);
+        loader.load(map, 2500, new ParallelLoader.EntryGenerator<Integer, Integer>() {
+            @Override
+            public Integer generateKey(int index, Random random) {
+                return index;
+            }
+
+            @Override
+            public Integer generateValue(int index, Integer key, Random random) {
+                return index;
+            }
+        });
+
+        // the progress just contains the entries which have been processed before the stop
+        verify(progressListener).onProgress(eq(1000L), eq(2500L), anyLong());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    @SuppressWarnings("unchecked")
+    public void testLoad_withException() {
+        doThrow(new IllegalStateException("expected exception")).when(map).putAll(anyMap());
+
+        ParallelLoader loader = new ParallelLoader(testContext, 2);
+        loader.load(map, 10, new ParallelLoader.EntryGenerator<Integer, Integer>() {
+            @Override
+            public Integer generateKey(int index, Random random) {
+                return index;
+            }
+
+            @Override
+            public Integer generateValue(int index, Integer key, Random random) {
+                return index;
+            }
+        });
+    }
+
+    @Test
+    public void testFormatProgress() {
+        String progress = ParallelLoader.formatProgress(500, 1000, 2000);
+
+        assertEquals("Loaded 500 of 1000 entries (50.0%) in 2000 ms (250.00 entries/s)", progress);
+    }
+}
@@ -0,0 +1,75 @@
+package com.hazelcast.simulator.worker.loadsupport;
+
+import com.hazelcast.core.Cluster;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.Member;
+import com.hazelcast.core.Partition;
+import com.hazelcast.core.PartitionService;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PartitionTableTest {
+
+    private final Member localMember = mock(Member.class);
+    private final Member remoteMember = mock(Member.class);
+    private final Cluster cluster = mock(Cluster.class);
+    private final PartitionService partitionService = mock(PartitionService.class);
+    private final HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+
+    @Before
+    public void setUp() {
+        Set<Partition> partitions = new HashSet<Partition>();
+        for (int partitionId = 0; partitionId < 4; partitionId++) {
+            // even partitions are owned by the local member
+            Partition partition = createPartition(partitionId, (partitionId % 2 == 0) ? localMember : remoteMember);
+            partitions.add(partition);
+            when(partitionService.getPartition(partitionId)).thenReturn(partition);
+        }
+        when(partitionService.getPartitions()).thenReturn(partitions);
+
+        when(hazelcastInstance.getPartitionService()).thenReturn(partitionService);
+        when(hazelcastInstance.getCluster()).thenReturn(cluster);
+    }
+
+    @Test
+    public void testCreate_member() {
+        when(cluster.getLocalMember()).thenReturn(localMember);
+        PartitionTable partitionTable = PartitionTable.create(hazelcastInstance);
+
+        assertTrue(partitionTable.hasLocalMember());
+        assertEquals(4, partitionTable.getPartitionCount());
+        assertTrue(partitionTable.isLocalPartition(0));
+        assertFalse(partitionTable.isLocalPartition(1));
+
+        assertTrue(partitionTable.isLocalKey(2));
+        assertFalse(partitionTable.isRemoteKey(2));
+        assertFalse(partitionTable.isLocalKey(3));
+        assertTrue(partitionTable.isRemoteKey(3));
+    }
+
+    @Test
+    public void testCreate_client() {
+        when(cluster.getLocalMember()).thenThrow(new UnsupportedOperationException("expected"));
+        PartitionTable partitionTable = PartitionTable.create(hazelcastInstance);
+
+        assertFalse(partitionTable.hasLocalMember());
+        assertTrue(partitionTable.isLocalKey(3));
+        assertTrue(partitionTable.isRemoteKey(2));
+    }
+
+    private static Partition createPartition(int partitionId, Member owner) {
+        Partition partition = mock(Partition.class);
+        when(partition.getPartitionId()).thenReturn(partitionId);
+        when(partition.getOwner()).thenReturn(owner);
+        return partition;
+    }
+}
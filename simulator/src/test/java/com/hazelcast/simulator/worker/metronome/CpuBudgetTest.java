@@ -0,0 +1,72 @@
+package com.hazelcast.simulator.worker.metronome;
+
+import org.junit.Test;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CpuBudgetTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_cpuShareZero() {
+        new CpuBudget(0, 4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_cpuShareTooLarge() {
+        new CpuBudget(1.5, 4);
+    }
+
+    @Test
+    public void testGetAllowedCores() {
+        CpuBudget cpuBudget = new CpuBudget(0.25, 8);
+
+        assertEquals(2.0, cpuBudget.getAllowedCores(), 0.0001);
+    }
+
+    @Test
+    public void testConsume_withinBudget() {
+        CpuBudget cpuBudget = new CpuBudget(0.5, 4);
+
+        long pauseNanos = cpuBudget.consume(MILLISECONDS.toNanos(1), System.nanoTime() + MILLISECONDS.toNanos(1000));
+
+        assertEquals(0, pauseNanos);
+        assertEquals(MILLISECONDS.toNanos(1), cpuBudget.getConsumedCpuTimeNanos());
+    }
+
+    @Test
+    public void testConsume_exceedsBudget() {
+        CpuBudget cpuBudget = new CpuBudget(0.5, 4);
+
+        // two allowed cores, so 10 seconds of CPU time need at least 5 seconds of wall clock time
+        long pauseNanos = cpuBudget.consume(MILLISECONDS.toNanos(10000), System.nanoTime());
+
+        assertTrue(pauseNanos > MILLISECONDS.toNanos(4000));
+        assertTrue(pauseNanos <= MILLISECONDS.toNanos(5000));
+    }
+
+    @Test
+    public void testConsume_unusedBudgetIsCappedToMaxBurst() {
+        CpuBudget cpuBudget = new CpuBudget(0.5, 4);
+        long now = System.nanoTime() + SECONDS.toNanos(10);
+
+        // the test was idle for 10 seconds, but just saved up the max burst of 100 ms wall clock time with two cores
+        assertEquals(0, cpuBudget.consume(0, now));
+        long pauseNanos = cpuBudget.consume(MILLISECONDS.toNanos(1200), now);
+
+        assertEquals(MILLISECONDS.toNanos(500), pauseNanos);
+    }
+
+    @Test
+    public void testConsume_olderTimestamp() {
+        CpuBudget cpuBudget = new CpuBudget(0.5, 4);
+        long now = System.nanoTime() + SECONDS.toNanos(1);
+        cpuBudget.consume(0, now);
+
+        long pauseNanos = cpuBudget.consume(MILLISECONDS.toNanos(400), now - SECONDS.toNanos(1));
+
+        assertEquals(MILLISECONDS.toNanos(100), pauseNanos);
+    }
+}
@@ -0,0 +1,51 @@
+package com.hazelcast.simulator.worker.metronome;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.simulator.utils.CommonUtils.sleepMillis;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FixedRateMetronomeTest {
+
+    private static final long INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    public void testWaitForNext_sleeping() {
+        assertFixedRate(new FixedRateMetronome(INTERVAL_NANOS, MetronomeType.SLEEPING));
+    }
+
+    @Test
+    public void testWaitForNext_busySpinning() {
+        assertFixedRate(new FixedRateMetronome(INTERVAL_NANOS, MetronomeType.BUSY_SPINNING));
+    }
+
+    @Test
+    public void testWaitForNext_scheduleIsNotDelayedByCaller() {
+        Metronome metronome = new FixedRateMetronome(INTERVAL_NANOS, MetronomeType.SLEEPING);
+
+        long firstStart = metronome.waitForNext();
+        sleepMillis(50);
+
+        // the metronome should not wait, since the caller is behind the schedule
+        long now = System.nanoTime();
+        for (int i = 1; i <= 3; i++) {
+            long intendedStart = metronome.waitForNext();
+            assertEquals(firstStart + i * INTERVAL_NANOS, intendedStart);
+            assertTrue(intendedStart < now);
+        }
+    }
+
+    private static void assertFixedRate(Metronome metronome) {
+        long lastIntendedStart = metronome.waitForNext();
+        for (int i = 0; i < 10; i++) {
+            long intendedStart = metronome.waitForNext();
+
+            assertEquals(lastIntendedStart + INTERVAL_NANOS, intendedStart);
+            assertTrue(System.nanoTime() >= intendedStart);
+            lastIntendedStart = intendedStart;
+        }
+    }
+}
@@ -81,4 +81,26 @@ public class MetronomeFactoryTest {
 
         assertTrue(metronome instanceof BusySpinningMetronome);
     }
+
+    @Test
+    public void testWithFixedRate_returnsEmptyMetronome() {
+        Metronome metronome = MetronomeFactory.withFixedRate(0, MetronomeType.SLEEPING);
+
+        assertTrue(metronome instanceof EmptyMetronome);
+    }
+
+    @Test
+    public void testWithFixedRate_returnsFixedRateMetronome() {
+        Metronome metronome = MetronomeFactory.withFixedRate(23, MetronomeType.BUSY_SPINNING);
+
+        assertTrue(metronome instanceof FixedRateMetronome);
+    }
+
+    @Test
+    public void testWithCpuBudget_returnsCpuBudgetMetronome() {
+        Metronome metronome = MetronomeFactory.withCpuBudget(MetronomeFactory.withFixedRate(0, MetronomeType.SLEEPING),
+                new CpuBudget(0.5, 4));
+
+        assertTrue(metronome instanceof CpuBudgetMetronome);
+    }
 }
@@ -23,7 +23,7 @@ public class PerformanceStateTest {
         assertEquals(11.0, addState.getIntervalThroughput(), 0.00001);
         assertEquals(22.0, addState.getTotalThroughput(), 0.00001);
         assertEquals(150, addState.getIntervalPercentileLatency());
-        assertEquals(175.0d, addState.getIntervalAvgLatency(), 0.00001);
+        assertEquals((175.0d * 5.0 + 90.0d * 6.0) / 11.0, addState.getIntervalAvgLatency(), 0.00001);
         assertEquals(200, addState.getIntervalMaxLatency());
     }
 
@@ -1,17 +1,122 @@
 package com.hazelcast.simulator.worker.performance;
 
+import com.hazelcast.simulator.protocol.operation.SteadyStateOperation;
 import com.hazelcast.simulator.test.TestException;
+import org.HdrHistogram.Histogram;
+import org.junit.After;
 import org.junit.Test;
 
+import java.io.File;
+import java.util.Collections;
+import java.util.Map;
+
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.LATENCY_PRECISION;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.MAXIMUM_LATENCY;
+import static com.hazelcast.simulator.probes.store.IntervalStore.getDataFile;
+import static com.hazelcast.simulator.probes.store.IntervalStore.getIndexFile;
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.HistogramUtils.decodeHistogram;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
 public class PerformanceTrackerTest {
 
-    @Test(expected = TestException.class)
-    public void testCreateHistogramLogWriter_withInvalidFilename() {
-        PerformanceTracker.createHistogramLogWriter("invalidFileName", ":\\//", System.currentTimeMillis());
+    private static final String TEST_ID = "PerformanceTrackerTest";
+    private static final long BASE_TIME = 1000000;
+    private static final long INTERVAL_MILLIS = 1000;
+
+    private PerformanceTracker tracker;
+
+    @After
+    public void tearDown() {
+        if (tracker != null) {
+            tracker.closeIntervalStore();
+        }
+
+        File dataFile = getDataFile(new File("."), TEST_ID);
+        deleteQuiet(dataFile);
+        deleteQuiet(getIndexFile(dataFile));
+        deleteQuiet(new File("throughput-" + TEST_ID + ".txt"));
+        deleteQuiet(new File("latency-" + TEST_ID + "-steadystate.txt"));
     }
 
     @Test(expected = TestException.class)
-    public void testCreateHistogramLogReader_withInvalidFilename() {
-        PerformanceTracker.createHistogramLogReader("invalidFileName", ":\\//");
+    public void testCreateLatencyPrintStream_withInvalidFilename() {
+        PerformanceTracker.createLatencyPrintStream("invalidFileName", ":\\//");
+    }
+
+    @Test
+    public void testDetectSteadyState() {
+        tracker = new PerformanceTracker(TEST_ID, BASE_TIME);
+        // 4 warmup intervals, 16 steady-state intervals and the interval with the stop of the test
+        for (int i = 0; i < 4; i++) {
+            update(i, 100, 5000);
+        }
+        for (int i = 4; i < 20; i++) {
+            update(i, 1000, 1000);
+        }
+        update(20, 500, 1000);
+        tracker.closeIntervalStore();
+
+        assertTrue(tracker.detectSteadyState());
+        tracker.writeSteadyStateHistograms(TEST_ID);
+
+        SteadyStateOperation operation = tracker.createSteadyStateOperation(TEST_ID);
+        assertEquals(TEST_ID, operation.getTestId());
+        assertEquals(4 * INTERVAL_MILLIS, operation.getWarmupMillis());
+        assertEquals(16 * 1000, operation.getOperationCount());
+        assertEquals(16 * INTERVAL_MILLIS, operation.getDurationMillis());
+
+        Histogram histogram = decodeHistogram(operation.getProbeHistograms().get("probe"));
+        assertEquals(16 * 1000, histogram.getTotalCount());
+        assertTrue(histogram.valuesAreEquivalent(1000, histogram.getMaxValue()));
+        assertTrue(new File("latency-" + TEST_ID + "-steadystate.txt").exists());
+    }
+
+    @Test
+    public void testDetectSteadyState_ignoresIntervalsWithoutOperations() {
+        tracker = new PerformanceTracker(TEST_ID, BASE_TIME);
+        for (int i = 0; i < 10; i++) {
+            update(i, 1000, 1000);
+        }
+        update(10, 0, 0);
+        update(11, 0, 0);
+        tracker.closeIntervalStore();
+
+        assertTrue(tracker.detectSteadyState());
+
+        SteadyStateOperation operation = tracker.createSteadyStateOperation(TEST_ID);
+        assertEquals(0, operation.getWarmupMillis());
+        assertEquals(9 * 1000, operation.getOperationCount());
+        assertEquals(9 * INTERVAL_MILLIS, operation.getDurationMillis());
+    }
+
+    @Test
+    public void testDetectSteadyState_notEnoughIntervals() {
+        tracker = new PerformanceTracker(TEST_ID, BASE_TIME);
+        update(0, 1000, 1000);
+        update(1, 1000, 1000);
+        tracker.closeIntervalStore();
+
+        assertFalse(tracker.detectSteadyState());
+        assertNull(tracker.createSteadyStateOperation(TEST_ID));
+    }
+
+    private void update(int interval, int operationCount, long latency) {
+        long startTimestamp = BASE_TIME + interval * INTERVAL_MILLIS;
+        long endTimestamp = startTimestamp + INTERVAL_MILLIS;
+
+        Histogram histogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+        if (operationCount > 0) {
+            histogram.recordValueWithCount(latency, operationCount);
+        }
+        histogram.setStartTimeStamp(startTimestamp);
+        histogram.setEndTimeStamp(endTimestamp);
+        Map<String, Histogram> intervalHistograms = Collections.singletonMap("probe", histogram);
+
+        tracker.update(intervalHistograms, latency, latency, latency, operationCount, 0, endTimestamp);
+        tracker.writeStatsToFile("interval " + interval);
     }
 }
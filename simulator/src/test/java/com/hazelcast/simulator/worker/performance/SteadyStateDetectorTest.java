@@ -0,0 +1,81 @@
+package com.hazelcast.simulator.worker.performance;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static com.hazelcast.simulator.utils.ReflectionUtils.invokePrivateConstructor;
+import static com.hazelcast.simulator.worker.performance.SteadyStateDetector.BATCH_SIZE;
+import static com.hazelcast.simulator.worker.performance.SteadyStateDetector.MIN_BATCHED_INTERVALS;
+import static com.hazelcast.simulator.worker.performance.SteadyStateDetector.MIN_INTERVALS;
+import static com.hazelcast.simulator.worker.performance.SteadyStateDetector.findSteadyStateStart;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SteadyStateDetectorTest {
+
+    @Test
+    public void testConstructor() throws Exception {
+        invokePrivateConstructor(SteadyStateDetector.class);
+    }
+
+    @Test
+    public void testFindSteadyStateStart_tooFewIntervals() {
+        double[] values = new double[MIN_INTERVALS - 1];
+        values[0] = 1;
+
+        assertEquals(0, findSteadyStateStart(values));
+    }
+
+    @Test
+    public void testFindSteadyStateStart_noWarmup() {
+        double[] values = new double[20];
+        Arrays.fill(values, 1000);
+
+        assertEquals(0, findSteadyStateStart(values));
+    }
+
+    @Test
+    public void testFindSteadyStateStart_withWarmup() {
+        double[] values = new double[20];
+        Arrays.fill(values, 1000);
+        values[0] = 100;
+        values[1] = 300;
+        values[2] = 600;
+
+        assertEquals(3, findSteadyStateStart(values));
+    }
+
+    @Test
+    public void testFindSteadyStateStart_withNoise() {
+        double[] values = new double[20];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (i % 2 == 0) ? 990 : 1010;
+        }
+        values[0] = 200;
+        values[1] = 500;
+
+        assertEquals(2, findSteadyStateStart(values));
+    }
+
+    @Test
+    public void testFindSteadyStateStart_withBatches() {
+        double[] values = new double[MIN_BATCHED_INTERVALS * 2];
+        Arrays.fill(values, 1000);
+        for (int i = 0; i < 12; i++) {
+            values[i] = 100;
+        }
+
+        // the warmup is truncated in complete batches
+        assertEquals(3 * BATCH_SIZE, findSteadyStateStart(values));
+    }
+
+    @Test
+    public void testFindSteadyStateStart_limitedToFirstHalf() {
+        double[] values = new double[20];
+        Arrays.fill(values, 100);
+        values[values.length - 1] = 1000;
+
+        assertTrue(findSteadyStateStart(values) <= values.length / 2);
+    }
+}
@@ -0,0 +1,48 @@
+package com.hazelcast.simulator.worker.performance;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class ThreadCpuTimeTrackerTest {
+
+    private final ThreadCpuTimeTracker tracker = new ThreadCpuTimeTracker();
+
+    @Test
+    public void testGetCpuTimeNanos_noTrackedThreads() {
+        assertEquals(0, tracker.getCpuTimeNanos());
+    }
+
+    @Test
+    public void testTrack() throws Exception {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadCpuTimeSupported() && threadMXBean.isThreadCpuTimeEnabled());
+
+        Thread thread = new Thread(tracker.track(new Runnable() {
+            @Override
+            public void run() {
+                long started = System.nanoTime();
+                while (System.nanoTime() - started < 50000000) {
+                    Thread.yield();
+                }
+            }
+        }));
+        thread.start();
+        thread.join();
+
+        long cpuTimeNanos = tracker.getCpuTimeNanos();
+        assertTrue("Expected consumed CPU time, but was " + cpuTimeNanos, cpuTimeNanos > 0);
+    }
+
+    @Test
+    public void testThreadFinished_withoutThreadStarted() {
+        tracker.threadFinished();
+
+        assertEquals(0, tracker.getCpuTimeNanos());
+    }
+}
@@ -4,6 +4,7 @@ import com.hazelcast.simulator.protocol.connector.ServerConnector;
 import com.hazelcast.simulator.protocol.core.AddressLevel;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.operation.PerformanceStateOperation;
+import com.hazelcast.simulator.protocol.operation.TestHistogramOperation;
 import com.hazelcast.simulator.test.DummyTestContext;
 import com.hazelcast.simulator.test.TestContainer;
 import com.hazelcast.simulator.test.TestPhase;
@@ -28,6 +29,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
@@ -64,8 +66,10 @@ public class WorkerPerformanceMonitorTest {
     public static void cleanUp() {
         deleteQuiet(new File("throughput.txt"));
         deleteQuiet(new File("throughput-DummyTestContext.txt"));
-        deleteQuiet(new File("latency-DummyTestContext-DummyTestContextWorkerProbe.txt"));
+        deleteQuiet(new File("latency-DummyTestContext.hdrs"));
+        deleteQuiet(new File("latency-DummyTestContext.hdri"));
         deleteQuiet(new File("latency-DummyTestContext-aggregated.txt"));
+        deleteQuiet(new File("latency-DummyTestContext-steadystate.txt"));
     }
 
     @Test
@@ -145,8 +149,11 @@ public class WorkerPerformanceMonitorTest {
     }
 
     private void verifyServerConnector() {
-        verify(serverConnector, VERIFY_TIMEOUT.atLeastOnce()).submit(eq(SimulatorAddress.COORDINATOR),
-                any(PerformanceStateOperation.class));
+        // the interval performance data is sent to the Agent, which aggregates it for all of its Workers
+        SimulatorAddress agentAddress = serverConnector.getAddress().getParent();
+        verify(serverConnector, VERIFY_TIMEOUT.atLeastOnce()).submit(eq(agentAddress), any(PerformanceStateOperation.class));
+        verify(serverConnector, VERIFY_TIMEOUT.atLeastOnce()).submit(eq(agentAddress), any(TestHistogramOperation.class));
+        verify(serverConnector, atLeastOnce()).getAddress();
         verifyNoMoreInteractions(serverConnector);
     }
 }
@@ -7,6 +7,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static java.lang.String.format;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class OperationSelectorTest {
@@ -70,7 +71,7 @@ public class OperationSelectorTest {
     @Test(expected = IllegalStateException.class)
     public void testAddOperations_sumOfProbabilitiesExceedsLimit_MaximumPrecision() {
         builder.addOperation(Operation.OP1, 0.8)
-               .addOperation(Operation.OP2, 0.2 + OperationSelectorBuilder.PROBABILITY_INTERVAL)
+               .addOperation(Operation.OP2, 0.2 + 2 * OperationSelectorBuilder.PROBABILITY_TOLERANCE)
                .build();
     }
 
@@ -87,16 +88,16 @@ public class OperationSelectorTest {
     }
 
     @Test
-    public void testAddOperations_maxPrecisionHitsLimit() {
-        builder.addOperation(Operation.OP1, OperationSelectorBuilder.PROBABILITY_INTERVAL)
+    public void testAddOperations_highPrecision() {
+        builder.addOperation(Operation.OP1, 0.00001)
+               .addOperation(Operation.OP2, 0.12345678)
                .addDefaultOperation(Operation.DEFAULT)
                .build();
     }
 
     @Test(expected = IllegalArgumentException.class)
-    public void testAddOperations_maxPrecisionExceeded() {
-        builder.addOperation(Operation.OP1, OperationSelectorBuilder.PROBABILITY_INTERVAL / 2)
-               .addDefaultOperation(Operation.DEFAULT)
+    public void testAddOperation_probabilityAboveOne() {
+        builder.addOperation(Operation.OP1, 1.1)
                .build();
     }
 
@@ -167,6 +168,33 @@ public class OperationSelectorTest {
         assertCountIsWithinTolerance(Operation.OP3, op3Count, op3Probability);
     }
 
+    @Test
+    public void testSelect_highPrecisionDistribution() {
+        double op1Probability = 0.0005;
+        double op2Probability = 0.3333;
+        double op3Probability = 0.6662;
+
+        selector = builder.addOperation(Operation.OP1, op1Probability)
+                          .addOperation(Operation.OP2, op2Probability)
+                          .addOperation(Operation.OP3, op3Probability)
+                          .build();
+
+        Map<Operation, Integer> opsStats = exerciseSelector(selector);
+        Integer op1Count = opsStats.get(Operation.OP1);
+        assertTrue(format("Operation %s was not selected", Operation.OP1), op1Count != null && op1Count > 0);
+        assertCountIsWithinTolerance(Operation.OP2, opsStats.get(Operation.OP2), op2Probability);
+        assertCountIsWithinTolerance(Operation.OP3, opsStats.get(Operation.OP3), op3Probability);
+    }
+
+    @Test
+    public void testSelect_singleOperation() {
+        selector = builder.addDefaultOperation(Operation.DEFAULT).build();
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertEquals(Operation.DEFAULT, selector.select());
+        }
+    }
+
     private void assertCountIsWithinTolerance(Operation op, int count, double probability) {
         double lowerBound = (ITERATIONS * probability - ITERATIONS * TOLERANCE);
         double upperBound = (ITERATIONS * probability + ITERATIONS * TOLERANCE);
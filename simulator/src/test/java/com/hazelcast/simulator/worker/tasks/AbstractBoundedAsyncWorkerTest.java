@@ -0,0 +1,283 @@
+package com.hazelcast.simulator.worker.tasks;
+
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.core.ICompletableFuture;
+import com.hazelcast.simulator.probes.Probe;
+import com.hazelcast.simulator.test.TestCase;
+import com.hazelcast.simulator.test.TestContainer;
+import com.hazelcast.simulator.test.TestContext;
+import com.hazelcast.simulator.test.TestContextImpl;
+import com.hazelcast.simulator.test.TestException;
+import com.hazelcast.simulator.test.TestPhase;
+import com.hazelcast.simulator.test.annotations.RunWithWorker;
+import com.hazelcast.simulator.test.annotations.Setup;
+import com.hazelcast.simulator.utils.ExceptionReporter;
+import com.hazelcast.simulator.worker.selector.OperationSelectorBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.simulator.utils.CommonUtils.sleepMillis;
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AbstractBoundedAsyncWorkerTest {
+
+    private static final int THREAD_COUNT = 3;
+    private static final int MAX_IN_FLIGHT = 5;
+    private static final int ITERATIONS = 100;
+    private static final int DEFAULT_TEST_TIMEOUT = 30000;
+
+    private enum Operation {
+        ON_RESPONSE,
+        ON_FAILURE,
+        NO_OPERATION
+    }
+
+    private WorkerTest test;
+    private TestContextImpl testContext;
+    private TestContainer testContainer;
+
+    @Before
+    public void setUp() {
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put("threadCount", String.valueOf(THREAD_COUNT));
+        properties.put("maxInFlight", String.valueOf(MAX_IN_FLIGHT));
+
+        test = new WorkerTest();
+        testContext = new TestContextImpl("AbstractBoundedAsyncWorkerTest", null);
+        TestCase testCase = new TestCase("AbstractBoundedAsyncWorkerTest", properties);
+        testContainer = new TestContainer(test, testContext, testCase);
+
+        ExceptionReporter.reset();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        try {
+            for (int i = 1; i <= THREAD_COUNT * ITERATIONS; i++) {
+                deleteQuiet(new File(i + ".exception"));
+            }
+
+            ExceptionReporter.reset();
+        } finally {
+            test.completer.isRunning = false;
+        }
+    }
+
+    @Test(timeout = DEFAULT_TEST_TIMEOUT)
+    public void testRun_onResponse() throws Exception {
+        test.operationSelectorBuilder.addDefaultOperation(Operation.ON_RESPONSE);
+
+        testContainer.invoke(TestPhase.SETUP);
+        testContainer.invoke(TestPhase.RUN);
+
+        assertEquals(THREAD_COUNT * ITERATIONS, test.responseCount.get());
+        int maxInFlight = THREAD_COUNT * MAX_IN_FLIGHT;
+        assertTrue("Expected at most " + maxInFlight + " in-flight operations, but was " + test.maxInFlightObserved.get(),
+                test.maxInFlightObserved.get() <= maxInFlight);
+
+        Probe workerProbe = testContainer.getProbeMap().get("AbstractBoundedAsyncWorkerTestWorkerProbe");
+        assertEquals(THREAD_COUNT * ITERATIONS, workerProbe.getIntervalHistogram().getTotalCount());
+
+        long iterations = 0;
+        for (WorkerTest.Worker worker : test.workers) {
+            iterations += worker.getIteration();
+        }
+        assertEquals(THREAD_COUNT * ITERATIONS, iterations);
+    }
+
+    @Test(timeout = DEFAULT_TEST_TIMEOUT)
+    public void testRun_onFailure() throws Exception {
+        test.operationSelectorBuilder.addDefaultOperation(Operation.ON_FAILURE);
+
+        testContainer.invoke(TestPhase.SETUP);
+        testContainer.invoke(TestPhase.RUN);
+
+        assertEquals(THREAD_COUNT * ITERATIONS, test.failureCount.get());
+        assertTrue(new File("1.exception").exists());
+    }
+
+    @Test(timeout = DEFAULT_TEST_TIMEOUT)
+    public void testRun_noOperation() throws Exception {
+        test.operationSelectorBuilder.addDefaultOperation(Operation.NO_OPERATION);
+
+        testContainer.invoke(TestPhase.SETUP);
+        testContainer.invoke(TestPhase.RUN);
+
+        Probe workerProbe = testContainer.getProbeMap().get("AbstractBoundedAsyncWorkerTestWorkerProbe");
+        assertEquals(0, workerProbe.getIntervalHistogram().getTotalCount());
+    }
+
+    private static class WorkerTest {
+
+        private final OperationSelectorBuilder<Operation> operationSelectorBuilder = new OperationSelectorBuilder<Operation>();
+        private final CompleterThread completer = new CompleterThread();
+        private final ConcurrentLinkedQueue<Worker> workers = new ConcurrentLinkedQueue<Worker>();
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlightObserved = new AtomicInteger();
+        private final AtomicInteger responseCount = new AtomicInteger();
+        private final AtomicInteger failureCount = new AtomicInteger();
+
+        private TestContext testContext;
+
+        @Setup
+        public void setup(TestContext testContext) {
+            this.testContext = testContext;
+            completer.start();
+        }
+
+        @RunWithWorker
+        public Worker createWorker() {
+            Worker worker = new Worker();
+            workers.add(worker);
+            return worker;
+        }
+
+        private class Worker extends AbstractBoundedAsyncWorker<Operation, String> {
+
+            private int invocations;
+
+            Worker() {
+                super(operationSelectorBuilder);
+            }
+
+            @Override
+            protected ICompletableFuture<String> timeStepAsync(Operation operation) throws Exception {
+                if (++invocations == ITERATIONS) {
+                    stopWorker();
+                }
+                switch (operation) {
+                    case ON_RESPONSE:
+                    case ON_FAILURE:
+                        int current = inFlight.incrementAndGet();
+                        if (current > maxInFlightObserved.get()) {
+                            maxInFlightObserved.set(current);
+                        }
+                        return completer.createFuture(operation == Operation.ON_FAILURE);
+                    case NO_OPERATION:
+                        return null;
+                    default:
+                        throw new UnsupportedOperationException("Unsupported operation: " + operation);
+                }
+            }
+
+            @Override
+            protected void handleResponse(String response) {
+                responseCount.incrementAndGet();
+            }
+
+            @Override
+            protected void handleFailure(Throwable t) {
+                failureCount.incrementAndGet();
+            }
+        }
+
+        /**
+         * Completes the created futures with a small delay, so the in-flight window of the workers is filled.
+         */
+        private final class CompleterThread extends Thread {
+
+            private final ConcurrentLinkedQueue<ManualFuture> futures = new ConcurrentLinkedQueue<ManualFuture>();
+
+            private volatile boolean isRunning = true;
+
+            private CompleterThread() {
+                setDaemon(true);
+            }
+
+            private ManualFuture createFuture(boolean fail) {
+                ManualFuture future = new ManualFuture(fail);
+                futures.add(future);
+                return future;
+            }
+
+            @Override
+            public void run() {
+                while (isRunning) {
+                    ManualFuture future = futures.poll();
+                    if (future == null) {
+                        sleepMillis(1);
+                        continue;
+                    }
+                    inFlight.decrementAndGet();
+                    future.complete();
+                }
+            }
+        }
+    }
+
+    private static final class ManualFuture implements ICompletableFuture<String> {
+
+        private final boolean fail;
+
+        private volatile ExecutionCallback<String> callback;
+        private volatile boolean isCompleted;
+
+        private ManualFuture(boolean fail) {
+            this.fail = fail;
+        }
+
+        private synchronized void complete() {
+            isCompleted = true;
+            notifyCallback();
+        }
+
+        @Override
+        public synchronized void andThen(ExecutionCallback<String> callback) {
+            this.callback = callback;
+            notifyCallback();
+        }
+
+        @Override
+        public void andThen(ExecutionCallback<String> callback, Executor executor) {
+            andThen(callback);
+        }
+
+        private void notifyCallback() {
+            if (!isCompleted || callback == null) {
+                return;
+            }
+            if (fail) {
+                callback.onFailure(new TestException("expected exception"));
+            } else {
+                callback.onResponse("response");
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public boolean isDone() {
+            return isCompleted;
+        }
+
+        @Override
+        public String get() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String get(long timeout, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
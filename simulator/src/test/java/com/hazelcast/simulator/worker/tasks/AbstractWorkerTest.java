@@ -1,5 +1,6 @@
 package com.hazelcast.simulator.worker.tasks;
 
+import com.hazelcast.simulator.probes.Probe;
 import com.hazelcast.simulator.test.TestCase;
 import com.hazelcast.simulator.test.TestContainer;
 import com.hazelcast.simulator.test.TestContext;
@@ -17,6 +18,7 @@ import org.junit.Test;
 import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
 import static org.junit.Assert.assertEquals;
@@ -128,6 +130,31 @@ public class AbstractWorkerTest {
         assertEquals(10, test.testIteration);
     }
 
+    @Test(timeout = DEFAULT_TEST_TIMEOUT)
+    public void testRun_withTargetThroughput() throws Exception {
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put("threadCount", String.valueOf(THREAD_COUNT));
+        properties.put("targetThroughput", String.valueOf(THREAD_COUNT * 100));
+        TestCase testCase = new TestCase("AbstractWorkerTest", properties);
+        testContainer = new TestContainer(test, testContext, testCase);
+
+        test.operationSelectorBuilder.addDefaultOperation(Operation.ITERATION);
+
+        testContainer.invoke(TestPhase.SETUP);
+        long started = System.nanoTime();
+        testContainer.invoke(TestPhase.RUN);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertEquals(10, test.testIteration);
+        // 10 iterations with 100 ops/s per worker thread
+        assertTrue("Expected at least 90 ms, but was " + elapsedMillis, elapsedMillis >= 90);
+
+        Probe responseTimeProbe = testContainer.getProbeMap().get("AbstractWorkerTestWorkerResponseTimeProbe");
+        assertNotNull(responseTimeProbe);
+        assertFalse(responseTimeProbe.isThroughputProbe());
+        assertTrue(responseTimeProbe.getIntervalHistogram().getTotalCount() >= 10);
+    }
+
     private static class WorkerTest {
 
         private final OperationSelectorBuilder<Operation> operationSelectorBuilder = new OperationSelectorBuilder<Operation>();
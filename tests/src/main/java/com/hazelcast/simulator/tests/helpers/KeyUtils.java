@@ -19,12 +19,15 @@ import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.Member;
 import com.hazelcast.core.Partition;
 import com.hazelcast.core.PartitionService;
+import com.hazelcast.simulator.worker.loadsupport.ParallelLoader;
+import com.hazelcast.simulator.worker.loadsupport.PartitionTable;
 
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.hazelcast.simulator.tests.helpers.HazelcastTestUtils.isClient;
 import static com.hazelcast.simulator.utils.CommonUtils.sleepSeconds;
@@ -80,13 +83,44 @@ public final class KeyUtils {
      * @return the created array of keys
      */
     public static int[] generateIntKeys(int keyCount, int keyMaxValue, KeyLocality keyLocality, HazelcastInstance instance) {
+        PartitionTable partitionTable = createPartitionTable(keyLocality, instance);
+        Random random = new Random();
         int[] keys = new int[keyCount];
         for (int i = 0; i < keys.length; i++) {
-            keys[i] = generateIntKey(keyMaxValue, keyLocality, instance);
+            keys[i] = generateIntKey(keyMaxValue, keyLocality, partitionTable, random);
         }
         return keys;
     }
 
+    /**
+     * Generates an array of int keys with a configurable keyLocality in parallel.
+     *
+     * The key locality is checked with a {@link PartitionTable}, so the partition owners are just resolved once.
+     * If the instance is a client, keyLocality is ignored.
+     *
+     * @param loader      the {@link ParallelLoader} which is used to generate the keys
+     * @param keyCount    the number of keys in the array
+     * @param keyMaxValue max value of the key
+     * @param keyLocality if the key is local/remote/random
+     * @param instance    the HazelcastInstance that is used for keyLocality
+     * @return the created array of keys
+     */
+    public static int[] generateIntKeys(ParallelLoader loader, int keyCount, final int keyMaxValue,
+                                        final KeyLocality keyLocality, HazelcastInstance instance) {
+        final PartitionTable partitionTable = createPartitionTable(keyLocality, instance);
+        final int[] keys = new int[keyCount];
+        loader.execute(keyCount, new ParallelLoader.RangeTask() {
+            @Override
+            public void run(int fromIndex, int toIndex, Random random, AtomicLong progress) {
+                for (int i = fromIndex; i < toIndex; i++) {
+                    keys[i] = generateIntKey(keyMaxValue, keyLocality, partitionTable, random);
+                }
+                progress.addAndGet(toIndex - fromIndex);
+            }
+        });
+        return keys;
+    }
+
     /**
      * Generates a string key with a configurable keyLocality.
      *
@@ -188,6 +222,37 @@ public final class KeyUtils {
         return toArray(keyCount, keysPerPartitionMap);
     }
 
+    private static PartitionTable createPartitionTable(KeyLocality keyLocality, HazelcastInstance instance) {
+        if (keyLocality != KeyLocality.LOCAL && keyLocality != KeyLocality.REMOTE) {
+            return null;
+        }
+        return PartitionTable.create(instance);
+    }
+
+    private static int generateIntKey(int keyMaxValue, KeyLocality keyLocality, PartitionTable partitionTable, Random random) {
+        switch (keyLocality) {
+            case LOCAL:
+                return generateIntKey(keyMaxValue, partitionTable, true, random);
+            case REMOTE:
+                return generateIntKey(keyMaxValue, partitionTable, false, random);
+            case RANDOM:
+                return random.nextInt(keyMaxValue);
+            case SINGLE_PARTITION:
+                return 0;
+            default:
+                throw new IllegalArgumentException("Unrecognized keyLocality: " + keyLocality);
+        }
+    }
+
+    private static int generateIntKey(int keyMaxValue, PartitionTable partitionTable, boolean local, Random random) {
+        for (; ; ) {
+            int key = random.nextInt(keyMaxValue);
+            if (local ? partitionTable.isLocalKey(key) : partitionTable.isRemoteKey(key)) {
+                return key;
+            }
+        }
+    }
+
     private static <T> T generateKey(KeyLocality keyLocality, HazelcastInstance instance, Generator<T> generator) {
         switch (keyLocality) {
             case LOCAL:
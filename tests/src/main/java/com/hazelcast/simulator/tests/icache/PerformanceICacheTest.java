@@ -50,11 +50,12 @@ public class PerformanceICacheTest {
 
     private final OperationSelectorBuilder<Operation> operationSelectorBuilder = new OperationSelectorBuilder<Operation>();
 
+    private HazelcastInstance hazelcastInstance;
     private Cache<Object, Object> cache;
 
     @Setup
     public void setup(TestContext testContext) {
-        HazelcastInstance hazelcastInstance = testContext.getTargetInstance();
+        hazelcastInstance = testContext.getTargetInstance();
 
         CacheManager cacheManager = createCacheManager(hazelcastInstance);
         cache = cacheManager.getCache(basename);
@@ -70,7 +71,7 @@ public class PerformanceICacheTest {
 
     @Warmup(global = true)
     public void warmup() {
-        Streamer<Object, Object> streamer = StreamerFactory.getInstance(cache);
+        Streamer<Object, Object> streamer = StreamerFactory.getBatchingInstance(hazelcastInstance, cache);
         for (int i = 0; i < keyCount; i++) {
             streamer.pushEntry(i, 0);
         }
@@ -27,8 +27,7 @@ import com.hazelcast.simulator.test.annotations.Setup;
 import com.hazelcast.simulator.test.annotations.Teardown;
 import com.hazelcast.simulator.test.annotations.Warmup;
 import com.hazelcast.simulator.tests.helpers.KeyLocality;
-import com.hazelcast.simulator.worker.loadsupport.Streamer;
-import com.hazelcast.simulator.worker.loadsupport.StreamerFactory;
+import com.hazelcast.simulator.worker.loadsupport.ParallelLoader;
 import com.hazelcast.simulator.worker.selector.OperationSelectorBuilder;
 import com.hazelcast.simulator.worker.tasks.AbstractWorker;
 
@@ -65,6 +64,7 @@ public class IntIntMapTest {
 
     private final OperationSelectorBuilder<Operation> operationSelectorBuilder = new OperationSelectorBuilder<Operation>();
 
+    private TestContext testContext;
     private HazelcastInstance targetInstance;
     private IMap<Integer, Integer> map;
 
@@ -72,6 +72,7 @@ public class IntIntMapTest {
 
     @Setup
     public void setUp(TestContext testContext) {
+        this.testContext = testContext;
         targetInstance = testContext.getTargetInstance();
         map = targetInstance.getMap(basename);
 
@@ -87,14 +88,19 @@ public class IntIntMapTest {
     @Warmup(global = false)
     public void warmup() {
         waitClusterSize(LOGGER, targetInstance, minNumberOfMembers);
-        keys = generateIntKeys(keyCount, Integer.MAX_VALUE, keyLocality, targetInstance);
-        Streamer<Integer, Integer> streamer = StreamerFactory.getInstance(map);
-        Random random = new Random();
-        for (int key : keys) {
-            int value = random.nextInt(Integer.MAX_VALUE);
-            streamer.pushEntry(key, value);
-        }
-        streamer.await();
+        ParallelLoader loader = new ParallelLoader(testContext);
+        keys = generateIntKeys(loader, keyCount, Integer.MAX_VALUE, keyLocality, targetInstance);
+        loader.load(map, keys.length, new ParallelLoader.EntryGenerator<Integer, Integer>() {
+            @Override
+            public Integer generateKey(int index, Random random) {
+                return keys[index];
+            }
+
+            @Override
+            public Integer generateValue(int index, Integer key, Random random) {
+                return random.nextInt(Integer.MAX_VALUE);
+            }
+        });
     }
 
     @RunWithWorker
@@ -47,11 +47,12 @@ public class MapLongPerformanceTest {
 
     private final OperationSelectorBuilder<Operation> operationSelectorBuilder = new OperationSelectorBuilder<Operation>();
 
+    private HazelcastInstance hazelcastInstance;
     private IMap<Integer, Long> map;
 
     @Setup
     public void setUp(TestContext testContext) {
-        HazelcastInstance hazelcastInstance = testContext.getTargetInstance();
+        hazelcastInstance = testContext.getTargetInstance();
         map = hazelcastInstance.getMap(basename);
 
         operationSelectorBuilder
@@ -66,7 +67,7 @@ public class MapLongPerformanceTest {
 
     @Warmup(global = true)
     public void warmup() {
-        Streamer<Integer, Long> streamer = StreamerFactory.getInstance(map);
+        Streamer<Integer, Long> streamer = StreamerFactory.getBatchingInstance(hazelcastInstance, map);
         for (int i = 0; i < keyCount; i++) {
             streamer.pushEntry(i, 0L);
         }
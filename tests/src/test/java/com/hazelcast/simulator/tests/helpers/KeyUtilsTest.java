@@ -22,6 +22,8 @@ import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.Partition;
 import com.hazelcast.core.PartitionService;
+import com.hazelcast.simulator.test.TestContextImpl;
+import com.hazelcast.simulator.worker.loadsupport.ParallelLoader;
 import org.apache.log4j.Logger;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -195,6 +197,28 @@ public class KeyUtilsTest {
         }
     }
 
+    @Test
+    public void generateIntKeys_parallel_local() {
+        ParallelLoader loader = new ParallelLoader(new TestContextImpl("KeyUtilsTest", instance), 4);
+        int[] keys = generateIntKeys(loader, 1000, Integer.MAX_VALUE, KeyLocality.LOCAL, instance);
+
+        assertEquals(1000, keys.length);
+        for (int key : keys) {
+            assertTrue(isLocalKey(instance, key));
+        }
+    }
+
+    @Test
+    public void generateIntKeys_parallel_remote() {
+        ParallelLoader loader = new ParallelLoader(new TestContextImpl("KeyUtilsTest", instance), 4);
+        int[] keys = generateIntKeys(loader, 1000, Integer.MAX_VALUE, KeyLocality.REMOTE, instance);
+
+        assertEquals(1000, keys.length);
+        for (int key : keys) {
+            assertFalse(isLocalKey(instance, key));
+        }
+    }
+
     @Test
     public void generateStringKeys_singlePartition() {
         String[] keys = generateStringKeys(50, 100, KeyLocality.SINGLE_PARTITION, null);
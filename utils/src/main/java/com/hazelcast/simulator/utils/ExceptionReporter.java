@@ -27,7 +27,10 @@ import static com.hazelcast.simulator.utils.FileUtils.writeText;
 import static com.hazelcast.simulator.utils.FormatUtils.NEW_LINE;
 
 /**
- * Responsible for writing an exception to a file. Every exception file will have a unique name.
+ * Responsible for reporting an exception to the Simulator Agent.
+ *
+ * If a {@link Delegate} is set, e.g. by a Simulator Worker which is connected to its Agent, the exception is passed to it.
+ * Otherwise the exception is written to a file as fallback. Every exception file will have a unique name.
  */
 public final class ExceptionReporter {
 
@@ -37,11 +40,22 @@ public final class ExceptionReporter {
 
     private static final Logger LOGGER = Logger.getLogger(ExceptionReporter.class);
 
+    private static volatile Delegate delegate;
+
     private ExceptionReporter() {
     }
 
     /**
-     * Writes the cause to file.
+     * Sets the {@link Delegate} which receives all reported exceptions.
+     *
+     * @param delegate the {@link Delegate} to use or <tt>null</tt> to write the exceptions to files
+     */
+    public static void setDelegate(Delegate delegate) {
+        ExceptionReporter.delegate = delegate;
+    }
+
+    /**
+     * Passes the cause to the {@link Delegate} or writes it to file.
      *
      * @param testId the id of the test that caused the exception. Is allowed to be <tt>null</tt> if it is not known which test
      *               caused the problem.
@@ -53,6 +67,12 @@ public final class ExceptionReporter {
             return;
         }
 
+        Delegate currentDelegate = delegate;
+        if (currentDelegate != null) {
+            currentDelegate.report(testId, cause);
+            return;
+        }
+
         long exceptionCount = FAILURE_ID.incrementAndGet();
 
         if (exceptionCount > MAX_EXCEPTION_COUNT) {
@@ -84,5 +104,20 @@ public final class ExceptionReporter {
     // just for testing
     public static void reset() {
         FAILURE_ID.set(0);
+        delegate = null;
+    }
+
+    /**
+     * Receives the reported exceptions instead of the exception files.
+     */
+    public interface Delegate {
+
+        /**
+         * Reports an exception.
+         *
+         * @param testId the id of the test that caused the exception or <tt>null</tt> if it is not known
+         * @param cause  the Throwable that should be reported
+         */
+        void report(String testId, Throwable cause);
     }
 }
@@ -26,6 +26,9 @@ import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -103,6 +106,60 @@ public final class ZipUtils {
         }
     }
 
+    /**
+     * Compresses a part of a byte array with the fastest compression level, which is suitable for data sent during a test run.
+     *
+     * @param data   the data to compress
+     * @param length the number of bytes to compress, starting from the beginning of the array
+     * @return the compressed data
+     */
+    public static byte[] deflate(byte[] data, int length) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data, 0, length);
+            deflater.finish();
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(length / 2 + BUFFER_SIZE);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                outputStream.write(buffer, 0, count);
+            }
+            return outputStream.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Decompresses data which was compressed with {@link #deflate(byte[], int)}.
+     *
+     * @param compressedData the compressed data
+     * @return the decompressed data
+     * @throws IOException if the data is not in a valid compressed format
+     */
+    public static byte[] inflate(byte[] compressedData) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressedData);
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(compressedData.length * 2);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Compressed data is truncated");
+                }
+                outputStream.write(buffer, 0, count);
+            }
+            return outputStream.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IOException("Invalid compressed data", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
     private static void addDirectory(ZipOutputStream zipOutputStream, Deque<File> queue, Set<String> names, URI base, File file)
             throws IOException {
         String name = base.relativize(file.toURI()).getPath();
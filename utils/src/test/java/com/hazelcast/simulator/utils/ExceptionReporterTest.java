@@ -5,12 +5,15 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 import static com.hazelcast.simulator.utils.ExceptionReporter.report;
 import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
 import static com.hazelcast.simulator.utils.FileUtils.ensureExistingFile;
 import static com.hazelcast.simulator.utils.FileUtils.fileAsText;
 import static com.hazelcast.simulator.utils.ReflectionUtils.invokePrivateConstructor;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -52,6 +55,23 @@ public class ExceptionReporterTest {
         assertNotNull(fileAsText(EXCEPTION_FILE));
     }
 
+    @Test
+    public void testReportWithDelegate() {
+        final List<String> reportedTestIds = new ArrayList<String>();
+        ExceptionReporter.setDelegate(new ExceptionReporter.Delegate() {
+            @Override
+            public void report(String testId, Throwable cause) {
+                reportedTestIds.add(testId);
+            }
+        });
+
+        report("testID", new RuntimeException("Expected exception"));
+
+        assertEquals(1, reportedTestIds.size());
+        assertEquals("testID", reportedTestIds.get(0));
+        assertFalse(EXCEPTION_FILE.exists());
+    }
+
     @Test
     public void testReportTooManyExceptions() {
         ExceptionReporter.FAILURE_ID.set(ExceptionReporter.MAX_EXCEPTION_COUNT + 1);
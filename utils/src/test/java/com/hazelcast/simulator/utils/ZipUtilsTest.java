@@ -5,6 +5,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.Collections;
 
 import static com.hazelcast.simulator.utils.FileUtils.appendText;
@@ -13,8 +14,11 @@ import static com.hazelcast.simulator.utils.FileUtils.ensureExistingDirectory;
 import static com.hazelcast.simulator.utils.FileUtils.ensureExistingFile;
 import static com.hazelcast.simulator.utils.FileUtils.fileAsText;
 import static com.hazelcast.simulator.utils.ReflectionUtils.invokePrivateConstructor;
+import static com.hazelcast.simulator.utils.ZipUtils.deflate;
+import static com.hazelcast.simulator.utils.ZipUtils.inflate;
 import static com.hazelcast.simulator.utils.ZipUtils.unzip;
 import static com.hazelcast.simulator.utils.ZipUtils.zip;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -65,4 +69,29 @@ public class ZipUtilsTest {
         assertFalse(dsStore.exists());
         assertEquals("Lore ipsum", fileAsText(file));
     }
+
+    @Test
+    public void testDeflateAndInflate() throws Exception {
+        byte[] data = "Lore ipsum Lore ipsum Lore ipsum".getBytes("UTF-8");
+
+        byte[] compressedData = deflate(data, data.length);
+        byte[] decompressedData = inflate(compressedData);
+
+        assertTrue(compressedData.length < data.length);
+        assertArrayEquals(data, decompressedData);
+    }
+
+    @Test
+    public void testDeflate_withLength() throws Exception {
+        byte[] data = "Lore ipsum".getBytes("UTF-8");
+
+        byte[] decompressedData = inflate(deflate(data, 4));
+
+        assertEquals("Lore", new String(decompressedData, "UTF-8"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testInflate_invalidData() throws Exception {
+        inflate(new byte[]{1, 2, 3, 4});
+    }
 }